@@ -17,10 +17,12 @@
 package org.libj.util;
 
 import java.util.AbstractMap;
+import java.util.AbstractSet;
 import java.util.ArrayList;
 import java.util.BitSet;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.Iterator;
 import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
@@ -40,7 +42,7 @@ import org.libj.util.primitive.ArrayIntList;
  * found with {@link AbstractDigraph#getTopologicalOrder()}.
  * <p>
  * This implementation uses {@link Integer}-based vertex indices as references
- * to the arbitrary-typed object vertices via {@link HashBiMap}.
+ * to the arbitrary-typed object vertices via {@link ObjectIntBiMap}.
  * <p>
  * The digraph is internally represented as a dynamically scalable
  * {@link ArrayList} list of index-&gt;{@link LinkedHashSet} set of adjacent
@@ -60,12 +62,11 @@ abstract class AbstractDigraph<K,V> implements Map<K,Set<V>>, Cloneable {
   private final int initialCapacity;
   protected AbstractDigraph<K,V> transverse;
 
-  protected HashBiMap<Object,Integer> objectToIndex;
-  protected Map<Integer,Object> indexToObject;
+  protected ObjectIntBiMap<Object> objectToIndex;
   protected ArrayIntList adjRemoved;
   protected ArrayList<LinkedHashSet<Integer>> adj;
   protected TransList<LinkedHashSet<Integer>,TransSet<Integer,V>> adjEdges;
-  protected ObservableMap<K,Integer> observableObjectToIndex;
+  protected Set<K> keySet;
   protected ArrayIntList inDegree;
 
   protected Object[][] flatAdj;
@@ -99,8 +100,7 @@ abstract class AbstractDigraph<K,V> implements Map<K,Set<V>>, Cloneable {
   protected static <K,V>void init(final AbstractDigraph<K,V> digraph) {
     digraph.adj = new ArrayList<>(digraph.initialCapacity);
     digraph.inDegree = new ArrayIntList(digraph.initialCapacity);
-    digraph.objectToIndex = new HashBiMap<>(digraph.initialCapacity);
-    digraph.indexToObject = digraph.objectToIndex.reverse();
+    digraph.objectToIndex = new ObjectIntBiMap<>(digraph.initialCapacity);
     digraph.adjRemoved = new ArrayIntList();
   }
 
@@ -148,8 +148,8 @@ abstract class AbstractDigraph<K,V> implements Map<K,Set<V>>, Cloneable {
    * @return The index of the vertex.
    */
   private int getIndexCreate(final Object vertex) {
-    Integer v = objectToIndex.get(vertex);
-    if (v != null)
+    int v = objectToIndex.indexOf(vertex);
+    if (v != ObjectIntBiMap.NO_INDEX)
       return v;
 
     if (adjRemoved.isEmpty()) {
@@ -294,7 +294,10 @@ abstract class AbstractDigraph<K,V> implements Map<K,Set<V>>, Cloneable {
       }
 
       if (edges == null)
-        transEdges.set(v, edges = new TransSet<>(ws, this::indexToValue, o -> objectToIndex.get(o)));
+        transEdges.set(v, edges = new TransSet<>(ws, this::indexToValue, o -> {
+          final int w = objectToIndex.indexOf(o);
+          return w == ObjectIntBiMap.NO_INDEX ? null : w;
+        }));
 
       return edges;
     }, null);
@@ -352,8 +355,8 @@ abstract class AbstractDigraph<K,V> implements Map<K,Set<V>>, Cloneable {
    * @return The set of edges mapped to the specified {@code vertex}.
    */
   private Set<V> get(final Object vertex, final Boolean withObserver) {
-    final Integer v = objectToIndex.get(vertex);
-    if (v == null)
+    final int v = objectToIndex.indexOf(vertex);
+    if (v == ObjectIntBiMap.NO_INDEX)
       return null;
 
     if (withObserver == null) {
@@ -382,11 +385,11 @@ abstract class AbstractDigraph<K,V> implements Map<K,Set<V>>, Cloneable {
 
       @Override
       protected boolean beforeRemove(final Object element) {
-        final Integer w = objectToIndex.get(element);
-        if (w == null)
+        final int w = objectToIndex.indexOf(element);
+        if (w == ObjectIntBiMap.NO_INDEX)
           return false;
 
-        AbstractDigraph.this.removeEdge((int)v, (int)w);
+        AbstractDigraph.this.removeEdge(v, w);
         return super.beforeRemove(element);
       }
     };
@@ -406,22 +409,68 @@ abstract class AbstractDigraph<K,V> implements Map<K,Set<V>>, Cloneable {
   }
 
   /**
-   * Returns an {@link ObservableMap} of {@link #objectToIndex}, whereby
-   * modifications made to this digraph are reflected in the set, and
-   * modifications made to the set are reflected in this digraph.
+   * An {@link Iterator} of the indices of the vertices in this digraph, in
+   * ascending order, whereby {@link #remove()} removes the last returned vertex
+   * from this digraph.
+   */
+  private class IndexIterator implements Iterator<Integer> {
+    private int next = advance(0);
+    private int last = ObjectIntBiMap.NO_INDEX;
+
+    private int advance(int v) {
+      for (final int len = adj.size(); v < len && !objectToIndex.containsIndex(v); ++v);
+      return v;
+    }
+
+    @Override
+    public boolean hasNext() {
+      return next < adj.size();
+    }
+
+    @Override
+    public Integer next() {
+      if (!hasNext())
+        throw new NoSuchElementException();
+
+      last = next;
+      next = advance(next + 1);
+      return last;
+    }
+
+    @Override
+    public void remove() {
+      if (last == ObjectIntBiMap.NO_INDEX)
+        throw new IllegalStateException();
+
+      AbstractDigraph.this.remove(objectToIndex.get(last));
+      last = ObjectIntBiMap.NO_INDEX;
+    }
+  }
+
+  /**
+   * Returns a {@link Set} of the indices of the vertices in this digraph, in
+   * ascending order.
    *
-   * @return An {@link ObservableMap} of {@link #objectToIndex}, whereby
-   *         modifications made to this digraph are reflected in the set, and
-   *         modifications made to the set are reflected in this digraph.
+   * @return A {@link Set} of the indices of the vertices in this digraph, in
+   *         ascending order.
    */
-  @SuppressWarnings({"rawtypes", "unchecked", "unlikely-arg-type"})
-  private ObservableMap<K,Integer> getObservableObjectToIndex() {
-    return observableObjectToIndex == null ? observableObjectToIndex = new ObservableMap(objectToIndex) {
+  private Set<Integer> indexSet() {
+    return new AbstractSet<Integer>() {
       @Override
-      protected boolean beforeRemove(final Object key, final Object value) {
-        return AbstractDigraph.this.remove(key) != null;
+      public Iterator<Integer> iterator() {
+        return new IndexIterator();
       }
-    } : observableObjectToIndex;
+
+      @Override
+      public int size() {
+        return objectToIndex.size();
+      }
+
+      @Override
+      public boolean contains(final Object o) {
+        return o instanceof Integer && objectToIndex.containsIndex((Integer)o);
+      }
+    };
   }
 
   /**
@@ -456,10 +505,12 @@ abstract class AbstractDigraph<K,V> implements Map<K,Set<V>>, Cloneable {
     if (edges == null)
       return false;
 
-    for (final int i : indexToObject.keySet()) {
-      final Set<V> set = getEdgesAtIndex(i, false);
-      if (edges.equals(set))
-        return true;
+    for (int i = 0, len = adj.size(); i < len; ++i) {
+      if (objectToIndex.containsIndex(i)) {
+        final Set<V> set = getEdgesAtIndex(i, false);
+        if (edges.equals(set))
+          return true;
+      }
     }
 
     return false;
@@ -476,7 +527,45 @@ abstract class AbstractDigraph<K,V> implements Map<K,Set<V>>, Cloneable {
    */
   @Override
   public Set<K> keySet() {
-    return getObservableObjectToIndex().keySet();
+    return keySet == null ? keySet = new AbstractSet<K>() {
+      @Override
+      public Iterator<K> iterator() {
+        final IndexIterator iterator = new IndexIterator();
+        return new Iterator<K>() {
+          @Override
+          public boolean hasNext() {
+            return iterator.hasNext();
+          }
+
+          @Override
+          @SuppressWarnings("unchecked")
+          public K next() {
+            return (K)objectToIndex.get(iterator.next());
+          }
+
+          @Override
+          public void remove() {
+            iterator.remove();
+          }
+        };
+      }
+
+      @Override
+      public int size() {
+        return objectToIndex.size();
+      }
+
+      @Override
+      public boolean contains(final Object o) {
+        return objectToIndex.containsKey(o);
+      }
+
+      @Override
+      @SuppressWarnings("unlikely-arg-type")
+      public boolean remove(final Object o) {
+        return AbstractDigraph.this.remove(o) != null;
+      }
+    } : keySet;
   }
 
   /**
@@ -492,9 +581,9 @@ abstract class AbstractDigraph<K,V> implements Map<K,Set<V>>, Cloneable {
   @SuppressWarnings("unlikely-arg-type")
   public Collection<Set<V>> values() {
     final ThreadLocal<Integer> localVertex = new ThreadLocal<>();
-    return new ObservableCollection<Set<V>>(new TransSet<>(indexToObject.keySet(), v -> {
+    return new ObservableCollection<Set<V>>(new TransSet<>(indexSet(), v -> {
       localVertex.set(v);
-      return get(indexToObject.get(v));
+      return get(objectToIndex.get(v));
     }, null)) {
       @Override
       protected Object beforeAdd(final Set<V> element, final Object preventDefault) {
@@ -525,7 +614,7 @@ abstract class AbstractDigraph<K,V> implements Map<K,Set<V>>, Cloneable {
   @Override
   @SuppressWarnings({"rawtypes", "unchecked"})
   public Set<Map.Entry<K,Set<V>>> entrySet() {
-    return new ObservableSet<Map.Entry<K,Set<V>>>(new TransSet<Integer,Map.Entry<K,Set<V>>>(indexToObject.keySet(), i -> new AbstractMap.SimpleEntry(indexToObject.get(i), getEdgesAtIndex(i, true)), null)) {
+    return new ObservableSet<Map.Entry<K,Set<V>>>(new TransSet<Integer,Map.Entry<K,Set<V>>>(indexSet(), i -> new AbstractMap.SimpleEntry(objectToIndex.get(i), getEdgesAtIndex(i, true)), null)) {
       @Override
       protected Object beforeAdd(final Map.Entry<K,Set<V>> element, final Object preventDefault) {
         throw new UnsupportedOperationException();
@@ -549,8 +638,8 @@ abstract class AbstractDigraph<K,V> implements Map<K,Set<V>>, Cloneable {
    * @return {@code true} if this digraph changed due to the method call.
    */
   private boolean removeKey(final Object vertex) {
-    final Integer v = objectToIndex.remove(vertex);
-    if (v == null)
+    final int v = objectToIndex.remove(vertex);
+    if (v == ObjectIntBiMap.NO_INDEX)
       return false;
 
     final LinkedHashSet<Integer> ws = adj.set(v, null);
@@ -571,9 +660,9 @@ abstract class AbstractDigraph<K,V> implements Map<K,Set<V>>, Cloneable {
    * @return {@code true} if this digraph changed due to the method call.
    */
   private boolean removeEdge(final Object from, final Object to) {
-    final Integer v = objectToIndex.get(from);
-    final Integer w = objectToIndex.get(to);
-    return v != null && w != null && removeEdge((int)v, (int)w);
+    final int v = objectToIndex.indexOf(from);
+    final int w = objectToIndex.indexOf(to);
+    return v != ObjectIntBiMap.NO_INDEX && w != ObjectIntBiMap.NO_INDEX && removeEdge(v, w);
   }
 
   /**
@@ -675,8 +764,8 @@ abstract class AbstractDigraph<K,V> implements Map<K,Set<V>>, Cloneable {
    *           digraph.
    */
   private int getIndexFail(final K vertex) {
-    final Integer v = objectToIndex.get(vertex);
-    if (v == null)
+    final int v = objectToIndex.indexOf(vertex);
+    if (v == ObjectIntBiMap.NO_INDEX)
       throw new NoSuchElementException("Vertex does not exist in this digraph");
 
     return v;
@@ -719,7 +808,7 @@ abstract class AbstractDigraph<K,V> implements Map<K,Set<V>>, Cloneable {
     final BitSet onStack = new BitSet(size);
     final int[] edgeTo = new int[size];
     for (int v = 0; v < size; ++v) {
-      if (indexToObject.containsKey(v) && !marked.get(v)) {
+      if (objectToIndex.containsIndex(v) && !marked.get(v)) {
         final ArrayList<K> cycle = dfs(marked, onStack, edgeTo, reversePostOrder, v);
         if (cycle != null)
           return cycle;
@@ -823,7 +912,6 @@ abstract class AbstractDigraph<K,V> implements Map<K,Set<V>>, Cloneable {
     try {
       final AbstractDigraph<K,V> clone = (AbstractDigraph<K,V>)super.clone();
       clone.objectToIndex = objectToIndex.clone();
-      clone.indexToObject = clone.objectToIndex.reverse();
       clone.adj = (ArrayList<LinkedHashSet<Integer>>)adj.clone();
       for (int i = 0, len = clone.adj.size(); i < len; ++i) {
         final LinkedHashSet<Integer> set = clone.adj.get(i);
@@ -832,7 +920,7 @@ abstract class AbstractDigraph<K,V> implements Map<K,Set<V>>, Cloneable {
 
       clone.adjEdges = null;
       clone.adjRemoved = adjRemoved.clone();
-      clone.observableObjectToIndex = observableObjectToIndex == null ? null : clone.getObservableObjectToIndex();
+      clone.keySet = null;
       clone.flatAdj = flatAdj == null ? null : flatAdj.clone();
       clone.inDegree = inDegree.clone();
       clone.cycle = cycle == null ? null : (ArrayList<K>)cycle.clone();
@@ -920,12 +1008,12 @@ abstract class AbstractDigraph<K,V> implements Map<K,Set<V>>, Cloneable {
   public String toString() {
     final StringBuilder builder = new StringBuilder();
     for (int v = 0, len = adj.size(); v < len; ++v) {
-      final Object obj = indexToObject.get(v);
+      final Object obj = objectToIndex.get(v);
       final LinkedHashSet<Integer> ws = adj.get(v);
       builder.append(obj).append(':');
       if (ws != null)
         for (final int w : ws)
-          builder.append(' ').append(indexToObject.get(w));
+          builder.append(' ').append(objectToIndex.get(w));
 
       if (v < adj.size() - 1)
         builder.append('\n');
@@ -16,8 +16,12 @@
 
 package org.libj.util;
 
+import java.util.AbstractCollection;
+import java.util.AbstractSet;
 import java.util.Collection;
+import java.util.Iterator;
 import java.util.Map;
+import java.util.Objects;
 import java.util.Set;
 
 /**
@@ -102,10 +106,39 @@ public abstract class BiMap<K,V> extends DelegateMap<K,V> {
     return reverse.containsKey(value);
   }
 
+  /**
+   * Returns whether the {@link #keySet()}, {@link #values()} and
+   * {@link #entrySet()} views of this map operate directly on the underlying
+   * {@code key->value} and {@code value->key} maps (see {@link KeySetView},
+   * {@link ValuesView} and {@link EntrySetView}), rather than through the
+   * callbacks of {@link ObservableSet} and {@link ObservableCollection}.
+   * Subclasses whose underlying maps compare keys with
+   * {@link Object#equals(Object)} may override this method to return
+   * {@code true}.
+   *
+   * @return Whether the views of this map operate directly on the underlying
+   *         maps.
+   */
+  protected boolean directViews() {
+    return false;
+  }
+
   protected volatile ObservableSet<K> keySet;
+  private transient Set<K> keySetView;
 
+  /**
+   * Returns a {@link Set} view of the keys contained in this map. Removal of
+   * keys from the set (including removal via its iterator) is reflected in the
+   * {@link #reverse()} map.
+   *
+   * @return A {@link Set} view of the keys contained in this map.
+   * @see #directViews()
+   */
   @Override
   public Set<K> keySet() {
+    if (directViews())
+      return keySetView == null ? keySetView = new KeySetView() : keySetView;
+
     return keySet == null ? keySet = new ObservableSet<K>(target.keySet()) {
       private final ThreadLocal<V> localValue = new ThreadLocal<>();
 
@@ -133,9 +166,21 @@ public abstract class BiMap<K,V> extends DelegateMap<K,V> {
   }
 
   protected volatile ObservableCollection<V> values;
+  private transient Collection<V> valuesView;
 
+  /**
+   * Returns a {@link Collection} view of the values contained in this map.
+   * Removal of values from the collection (including removal via its iterator)
+   * is reflected in the {@link #reverse()} map.
+   *
+   * @return A {@link Collection} view of the values contained in this map.
+   * @see #directViews()
+   */
   @Override
   public Collection<V> values() {
+    if (directViews())
+      return valuesView == null ? valuesView = new ValuesView() : valuesView;
+
     return values == null ? values = new ObservableCollection<V>(target.values()) {
       @Override
       protected V beforeAdd(final V element, final Object preventDefault) {
@@ -150,9 +195,22 @@ public abstract class BiMap<K,V> extends DelegateMap<K,V> {
   }
 
   protected volatile ObservableSet<Map.Entry<K,V>> entrySet;
+  private transient Set<Map.Entry<K,V>> entrySetView;
 
+  /**
+   * Returns a {@link Set} view of the mappings contained in this map. Removal
+   * of mappings from the set (including removal via its iterator) is reflected
+   * in the {@link #reverse()} map. If {@link #directViews()} is {@code true},
+   * so is {@link Map.Entry#setValue(Object) setValue(Object)} of its entries.
+   *
+   * @return A {@link Set} view of the mappings contained in this map.
+   * @see #directViews()
+   */
   @Override
   public Set<Map.Entry<K,V>> entrySet() {
+    if (directViews())
+      return entrySetView == null ? entrySetView = new EntrySetView() : entrySetView;
+
     return entrySet == null ? entrySet = new ObservableSet<Map.Entry<K,V>>(target.entrySet()) {
       @Override
       protected Object beforeAdd(final Entry<K,V> element, final Object preventDefault) {
@@ -166,4 +224,258 @@ public abstract class BiMap<K,V> extends DelegateMap<K,V> {
       }
     } : entrySet;
   }
-}
\ No newline at end of file
+
+  /**
+   * Returns a shallow copy of this map whose {@link #keySet()},
+   * {@link #values()} and {@link #entrySet()} views are reset, so that they are
+   * recreated over the target of the copy. Subclasses that implement
+   * {@link Cloneable} are responsible for setting the {@link #reverse} and
+   * target maps of the copy.
+   *
+   * @return A shallow copy of this map.
+   * @throws CloneNotSupportedException If the subclass does not implement
+   *           {@link Cloneable}.
+   */
+  @Override
+  @SuppressWarnings("unchecked")
+  protected BiMap<K,V> clone() throws CloneNotSupportedException {
+    final BiMap<K,V> clone = (BiMap<K,V>)super.clone();
+    clone.keySet = null;
+    clone.keySetView = null;
+    clone.values = null;
+    clone.valuesView = null;
+    clone.entrySet = null;
+    clone.entrySetView = null;
+    return clone;
+  }
+
+  /**
+   * Returns the underlying {@code key->value} map, which is not observed.
+   *
+   * @return The underlying {@code key->value} map.
+   */
+  @SuppressWarnings("unchecked")
+  protected final Map<K,V> forward() {
+    return ((ObservableMap<K,V>)target).target;
+  }
+
+  /**
+   * Returns the underlying {@code value->key} map, which is not observed.
+   *
+   * @return The underlying {@code value->key} map.
+   */
+  @SuppressWarnings("unchecked")
+  protected final Map<V,K> backward() {
+    return ((ObservableMap<V,K>)reverse.target).target;
+  }
+
+  /**
+   * An {@link Iterator} over the entries of the underlying {@code key->value}
+   * map, whereby {@link #remove()} removes the last returned mapping from both
+   * underlying maps directly.
+   *
+   * @param <E> The type of elements returned by this iterator.
+   */
+  private abstract class ViewIterator<E> implements Iterator<E> {
+    private final Iterator<Map.Entry<K,V>> iterator = forward().entrySet().iterator();
+    private final Map<V,K> backward = backward();
+    Map.Entry<K,V> last;
+
+    @Override
+    public boolean hasNext() {
+      return iterator.hasNext();
+    }
+
+    final Map.Entry<K,V> nextEntry() {
+      return last = iterator.next();
+    }
+
+    @Override
+    public void remove() {
+      if (last == null)
+        throw new IllegalStateException();
+
+      final V value = last.getValue();
+      iterator.remove();
+      backward.remove(value);
+      last = null;
+    }
+  }
+
+  /**
+   * A {@link Set} view of the keys of a {@link BiMap} that operates directly on
+   * the underlying {@code key->value} and {@code value->key} maps, without the
+   * callbacks of {@link ObservableSet}. Removal of keys (including removal via
+   * the iterator) is reflected in both maps. The {@code add} and
+   * {@code addAll} operations are not supported.
+   */
+  protected class KeySetView extends AbstractSet<K> {
+    @Override
+    public Iterator<K> iterator() {
+      return new ViewIterator<K>() {
+        @Override
+        public K next() {
+          return nextEntry().getKey();
+        }
+      };
+    }
+
+    @Override
+    public int size() {
+      return forward().size();
+    }
+
+    @Override
+    public boolean contains(final Object o) {
+      return forward().containsKey(o);
+    }
+
+    @Override
+    public boolean remove(final Object o) {
+      final Map<K,V> forward = forward();
+      if (!forward.containsKey(o))
+        return false;
+
+      backward().remove(forward.remove(o));
+      return true;
+    }
+
+    @Override
+    public void clear() {
+      BiMap.this.clear();
+    }
+  }
+
+  /**
+   * A {@link Collection} view of the values of a {@link BiMap} that operates
+   * directly on the underlying {@code key->value} and {@code value->key} maps,
+   * without the callbacks of {@link ObservableCollection}. Removal of values
+   * (including removal via the iterator) is reflected in both maps, and
+   * {@link #contains(Object)} is a lookup in the {@code value->key} map. The
+   * {@code add} and {@code addAll} operations are not supported.
+   */
+  protected class ValuesView extends AbstractCollection<V> {
+    @Override
+    public Iterator<V> iterator() {
+      return new ViewIterator<V>() {
+        @Override
+        public V next() {
+          return nextEntry().getValue();
+        }
+      };
+    }
+
+    @Override
+    public int size() {
+      return forward().size();
+    }
+
+    @Override
+    public boolean contains(final Object o) {
+      return backward().containsKey(o);
+    }
+
+    @Override
+    public boolean remove(final Object o) {
+      final Map<V,K> backward = backward();
+      if (!backward.containsKey(o))
+        return false;
+
+      forward().remove(backward.remove(o));
+      return true;
+    }
+
+    @Override
+    public void clear() {
+      BiMap.this.clear();
+    }
+  }
+
+  /**
+   * A {@link Set} view of the entries of a {@link BiMap} that operates
+   * directly on the underlying {@code key->value} and {@code value->key} maps,
+   * without the callbacks of {@link ObservableSet}. Removal of entries
+   * (including removal via the iterator), and {@link Map.Entry#setValue(Object)
+   * setValue(Object)} of the entries, are reflected in both maps. The
+   * {@code add} and {@code addAll} operations are not supported.
+   */
+  protected class EntrySetView extends AbstractSet<Map.Entry<K,V>> {
+    @Override
+    public Iterator<Map.Entry<K,V>> iterator() {
+      return new ViewIterator<Map.Entry<K,V>>() {
+        @Override
+        public Map.Entry<K,V> next() {
+          final Map.Entry<K,V> entry = nextEntry();
+          return new Map.Entry<K,V>() {
+            @Override
+            public K getKey() {
+              return entry.getKey();
+            }
+
+            @Override
+            public V getValue() {
+              return entry.getValue();
+            }
+
+            @Override
+            public V setValue(final V value) {
+              final V oldValue = entry.setValue(value);
+              if (!Objects.equals(oldValue, value)) {
+                final Map<V,K> backward = backward();
+                backward.remove(oldValue);
+                backward.put(value, entry.getKey());
+              }
+
+              return oldValue;
+            }
+
+            @Override
+            public boolean equals(final Object obj) {
+              return entry.equals(obj);
+            }
+
+            @Override
+            public int hashCode() {
+              return entry.hashCode();
+            }
+
+            @Override
+            public String toString() {
+              return entry.toString();
+            }
+          };
+        }
+      };
+    }
+
+    @Override
+    public int size() {
+      return forward().size();
+    }
+
+    @Override
+    public boolean contains(final Object o) {
+      if (!(o instanceof Map.Entry))
+        return false;
+
+      final Map.Entry<?,?> entry = (Map.Entry<?,?>)o;
+      final Map<K,V> forward = forward();
+      final Object key = entry.getKey();
+      return forward.containsKey(key) && Objects.equals(forward.get(key), entry.getValue());
+    }
+
+    @Override
+    public boolean remove(final Object o) {
+      if (!contains(o))
+        return false;
+
+      backward().remove(forward().remove(((Map.Entry<?,?>)o).getKey()));
+      return true;
+    }
+
+    @Override
+    public void clear() {
+      BiMap.this.clear();
+    }
+  }
+}
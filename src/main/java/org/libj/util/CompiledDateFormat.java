@@ -0,0 +1,388 @@
+/* Copyright (c) 2012 LibJ
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * You should have received a copy of The MIT License (MIT) along with this
+ * program. If not, see <http://opensource.org/licenses/MIT/>.
+ */
+
+package org.libj.util;
+
+import java.io.IOException;
+import java.text.ParseException;
+import java.text.SimpleDateFormat;
+import java.time.DateTimeException;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeFormatterBuilder;
+import java.time.format.DateTimeParseException;
+import java.time.format.SignStyle;
+import java.time.format.TextStyle;
+import java.time.temporal.ChronoField;
+import java.time.temporal.TemporalAccessor;
+import java.time.temporal.TemporalField;
+import java.time.temporal.TemporalQueries;
+import java.time.temporal.WeekFields;
+import java.util.Locale;
+
+/**
+ * An immutable and thread-safe alternative to a {@link ThreadLocal} of
+ * {@link SimpleDateFormat}, for the patterns accepted by
+ * {@link SimpleDateFormats#newSimpleDateFormat(Locale,String...)}.
+ * <p>
+ * The patterns are compiled once into {@link DateTimeFormatter}s, which carry
+ * no mutable state, and can therefore be shared by any number of threads
+ * (including virtual threads) without per-thread instances. Dates are
+ * formatted with the first pattern, and parsed with the first pattern that
+ * accepts the text.
+ * <p>
+ * The patterns are {@link SimpleDateFormat} patterns, and are not passed to
+ * {@link DateTimeFormatter#ofPattern(String,Locale)}, because many pattern
+ * letters have a different meaning there (such as {@code 'u'}, {@code 'S'} and
+ * {@code 'Y'}). Instead, each letter is translated to the
+ * {@link DateTimeFormatterBuilder} field of the same meaning as in
+ * {@link SimpleDateFormat}, with the following differences:
+ * <ul>
+ * <li>Parsing is not lenient: a field value that is out of range is rejected,
+ * as is a two-digit year ({@code "yy"}) with more than two digits.</li>
+ * <li>A two-digit year ({@code "yy"}) is parsed into the 100 years that start
+ * with the <i>year</i> of 80 years before the creation of this instance, as the
+ * base value of
+ * {@link DateTimeFormatterBuilder#appendValueReduced(TemporalField,int,int,java.time.chrono.ChronoLocalDate)}
+ * only considers the year. {@link SimpleDateFormat} instead compares the full
+ * date against the date of 80 years before its creation. A date in the year of
+ * 80 years ago that is earlier in the year than the creation date therefore
+ * resolves to that year here, but to 100 years later in
+ * {@link SimpleDateFormat}.</li>
+ * <li>A zone {@code 'Z'} only parses RFC 822 offsets, and a zone {@code 'z'}
+ * only parses zone names.</li>
+ * <li>The zone name ({@code 'z'}) of a {@link java.time.ZoneOffset} is the ID of
+ * the offset.</li>
+ * </ul>
+ */
+public final class CompiledDateFormat {
+  private final DateTimeFormatter[] formatters;
+
+  /**
+   * Creates a new {@link CompiledDateFormat} with the provided patterns and
+   * locale.
+   *
+   * @param locale The {@link Locale}, or {@code null} to use the default
+   *          {@link java.util.Locale.Category#FORMAT FORMAT} locale.
+   * @param patterns The patterns, of which the first is used for formatting,
+   *          and all are used for parsing.
+   * @throws IllegalArgumentException If {@code patterns} is empty, or if a
+   *           pattern is invalid or unsupported.
+   * @throws NullPointerException If {@code patterns}, or a member of
+   *           {@code patterns} is null.
+   */
+  public CompiledDateFormat(final Locale locale, final String ... patterns) {
+    if (patterns.length == 0)
+      throw new IllegalArgumentException("patterns is empty");
+
+    final Locale formatLocale = locale != null ? locale : Locale.getDefault(Locale.Category.FORMAT);
+    this.formatters = new DateTimeFormatter[patterns.length];
+    for (int i = 0; i < patterns.length; ++i)
+      this.formatters[i] = compile(patterns[i], formatLocale);
+  }
+
+  /**
+   * Returns a {@link DateTimeFormatter} for the provided
+   * {@link SimpleDateFormat} pattern, with the fields of the pattern letters as
+   * defined by {@link SimpleDateFormat}.
+   */
+  private static DateTimeFormatter compile(final String pattern, final Locale locale) {
+    final DateTimeFormatterBuilder builder = new DateTimeFormatterBuilder().parseCaseInsensitive();
+    // Two-digit years are parsed within the 100 years starting with the year of 80 years before creation (see the class Javadoc)
+    final LocalDate centuryStart = LocalDate.now().minusYears(80);
+    final WeekFields weekFields = WeekFields.of(locale);
+    for (int i = 0, len = pattern.length(); i < len;) {
+      final char ch = pattern.charAt(i);
+      if (ch == '\'') {
+        if (i + 1 < len && pattern.charAt(i + 1) == '\'') {
+          builder.appendLiteral('\'');
+          i += 2;
+          continue;
+        }
+
+        final StringBuilder literal = new StringBuilder();
+        for (++i;; ++i) {
+          if (i == len)
+            throw new IllegalArgumentException("Unterminated quote in pattern: \"" + pattern + "\"");
+
+          if (pattern.charAt(i) == '\'') {
+            if (i + 1 < len && pattern.charAt(i + 1) == '\'') {
+              literal.append('\'');
+              ++i;
+            }
+            else {
+              ++i;
+              break;
+            }
+          }
+          else {
+            literal.append(pattern.charAt(i));
+          }
+        }
+
+        builder.appendLiteral(literal.toString());
+        continue;
+      }
+
+      if ((ch < 'a' || 'z' < ch) && (ch < 'A' || 'Z' < ch)) {
+        builder.appendLiteral(ch);
+        ++i;
+        continue;
+      }
+
+      int count = 1;
+      while (i + count < len && pattern.charAt(i + count) == ch)
+        ++count;
+
+      i += count;
+      // As with SimpleDateFormat, a numeric field that abuts another numeric field is parsed with the count as its width
+      final boolean abutting = i < len && isNumeric(pattern.charAt(i), count(pattern, i));
+      switch (ch) {
+        case 'G':
+          builder.appendText(ChronoField.ERA, count >= 4 ? TextStyle.FULL : TextStyle.SHORT);
+          break;
+        case 'y':
+        case 'Y':
+          final TemporalField year = ch == 'y' ? ChronoField.YEAR_OF_ERA : weekFields.weekBasedYear();
+          if (count == 2)
+            builder.appendValueReduced(year, 2, 2, centuryStart);
+          else
+            appendValue(builder, year, count, abutting);
+
+          break;
+        case 'M':
+        case 'L':
+          if (count >= 3)
+            builder.appendText(ChronoField.MONTH_OF_YEAR, count >= 4 ? (ch == 'M' ? TextStyle.FULL : TextStyle.FULL_STANDALONE) : (ch == 'M' ? TextStyle.SHORT : TextStyle.SHORT_STANDALONE));
+          else
+            appendValue(builder, ChronoField.MONTH_OF_YEAR, count, abutting);
+
+          break;
+        case 'w':
+          appendValue(builder, weekFields.weekOfWeekBasedYear(), count, abutting);
+          break;
+        case 'W':
+          appendValue(builder, weekFields.weekOfMonth(), count, abutting);
+          break;
+        case 'D':
+          appendValue(builder, ChronoField.DAY_OF_YEAR, count, abutting);
+          break;
+        case 'd':
+          appendValue(builder, ChronoField.DAY_OF_MONTH, count, abutting);
+          break;
+        case 'F':
+          appendValue(builder, ChronoField.ALIGNED_WEEK_OF_MONTH, count, abutting);
+          break;
+        case 'E':
+          builder.appendText(ChronoField.DAY_OF_WEEK, count >= 4 ? TextStyle.FULL : TextStyle.SHORT);
+          break;
+        case 'u':
+          appendValue(builder, ChronoField.DAY_OF_WEEK, count, abutting);
+          break;
+        case 'a':
+          builder.appendText(ChronoField.AMPM_OF_DAY, TextStyle.SHORT);
+          break;
+        case 'H':
+          appendValue(builder, ChronoField.HOUR_OF_DAY, count, abutting);
+          break;
+        case 'k':
+          appendValue(builder, ChronoField.CLOCK_HOUR_OF_DAY, count, abutting);
+          break;
+        case 'K':
+          appendValue(builder, ChronoField.HOUR_OF_AMPM, count, abutting);
+          break;
+        case 'h':
+          appendValue(builder, ChronoField.CLOCK_HOUR_OF_AMPM, count, abutting);
+          break;
+        case 'm':
+          appendValue(builder, ChronoField.MINUTE_OF_HOUR, count, abutting);
+          break;
+        case 's':
+          appendValue(builder, ChronoField.SECOND_OF_MINUTE, count, abutting);
+          break;
+        case 'S':
+          appendValue(builder, ChronoField.MILLI_OF_SECOND, count, abutting);
+          break;
+        case 'z':
+          builder.appendZoneText(count >= 4 ? TextStyle.FULL : TextStyle.SHORT);
+          break;
+        case 'Z':
+          builder.appendOffset("+HHMM", "+0000");
+          break;
+        case 'X':
+          if (count > 3)
+            throw new IllegalArgumentException("Invalid ISO 8601 format: length=" + count);
+
+          builder.appendOffset(count == 1 ? "+HH" : count == 2 ? "+HHMM" : "+HH:MM", "Z");
+          break;
+        default:
+          throw new IllegalArgumentException("Illegal pattern character '" + ch + "' in pattern: \"" + pattern + "\"");
+      }
+    }
+
+    return builder.toFormatter(locale);
+  }
+
+  private static int count(final String pattern, final int index) {
+    final char ch = pattern.charAt(index);
+    int count = 1;
+    while (index + count < pattern.length() && pattern.charAt(index + count) == ch)
+      ++count;
+
+    return count;
+  }
+
+  private static boolean isNumeric(final char ch, final int count) {
+    switch (ch) {
+      case 'y':
+      case 'Y':
+      case 'w':
+      case 'W':
+      case 'D':
+      case 'd':
+      case 'F':
+      case 'u':
+      case 'H':
+      case 'k':
+      case 'K':
+      case 'h':
+      case 'm':
+      case 's':
+      case 'S':
+        return true;
+      case 'M':
+      case 'L':
+        return count <= 2;
+      default:
+        return false;
+    }
+  }
+
+  private static void appendValue(final DateTimeFormatterBuilder builder, final TemporalField field, final int count, final boolean abutting) {
+    if (abutting)
+      builder.appendValue(field, count);
+    else
+      builder.appendValue(field, count, 19, SignStyle.NORMAL);
+  }
+
+  /**
+   * Returns the {@link DateTimeFormatter} used for formatting.
+   *
+   * @return The {@link DateTimeFormatter} used for formatting.
+   */
+  public DateTimeFormatter getFormatter() {
+    return formatters[0];
+  }
+
+  /**
+   * Formats the provided epoch millis in the default time zone.
+   *
+   * @param epochMilli The epoch millis.
+   * @return The formatted string.
+   */
+  public String format(final long epochMilli) {
+    return format(epochMilli, ZoneId.systemDefault());
+  }
+
+  /**
+   * Formats the provided epoch millis in the provided time zone.
+   *
+   * @param epochMilli The epoch millis.
+   * @param zone The {@link ZoneId}.
+   * @return The formatted string.
+   * @throws NullPointerException If {@code zone} is null.
+   */
+  public String format(final long epochMilli, final ZoneId zone) {
+    return formatters[0].format(Instant.ofEpochMilli(epochMilli).atZone(zone));
+  }
+
+  /**
+   * Formats the provided epoch millis in the provided time zone, appending the
+   * result to the specified {@link Appendable}.
+   *
+   * @param <T> The type parameter of the {@link Appendable}.
+   * @param epochMilli The epoch millis.
+   * @param zone The {@link ZoneId}.
+   * @param out The {@link Appendable} to which the result is to be appended.
+   * @return The provided {@link Appendable}.
+   * @throws IOException If an I/O error has occurred.
+   * @throws NullPointerException If {@code zone} or {@code out} is null.
+   */
+  public <T extends Appendable>T format(final long epochMilli, final ZoneId zone, final T out) throws IOException {
+    try {
+      formatters[0].formatTo(Instant.ofEpochMilli(epochMilli).atZone(zone), out);
+    }
+    catch (final DateTimeException e) {
+      if (e.getCause() instanceof IOException)
+        throw (IOException)e.getCause();
+
+      throw e;
+    }
+
+    return out;
+  }
+
+  /**
+   * Parses the provided text to epoch millis, with the first pattern that
+   * accepts the text. If the text does not specify a time zone or offset, the
+   * default time zone is assumed.
+   *
+   * @param text The text to parse.
+   * @return The epoch millis represented by the text.
+   * @throws ParseException If none of the patterns accepts the text.
+   * @throws NullPointerException If {@code text} is null.
+   */
+  public long parse(final CharSequence text) throws ParseException {
+    DateTimeException exception = null;
+    for (final DateTimeFormatter formatter : formatters) {
+      try {
+        return toEpochMilli(formatter.parse(text));
+      }
+      catch (final DateTimeException e) {
+        // Either the text is not accepted, or its fields do not resolve to an instant
+        if (exception == null)
+          exception = e;
+      }
+    }
+
+    final ParseException e = new ParseException("Unparseable date: \"" + text + "\"", exception instanceof DateTimeParseException ? ((DateTimeParseException)exception).getErrorIndex() : 0);
+    e.initCause(exception);
+    throw e;
+  }
+
+  private static long toEpochMilli(final TemporalAccessor temporal) {
+    if (temporal.isSupported(ChronoField.INSTANT_SECONDS))
+      return Instant.from(temporal).toEpochMilli();
+
+    final LocalDate date = temporal.query(TemporalQueries.localDate());
+    if (date == null)
+      throw new DateTimeException("Unable to obtain LocalDate from TemporalAccessor: " + temporal);
+
+    // As with SimpleDateFormat, a date without a time is at the start of the day
+    final LocalTime time = temporal.query(TemporalQueries.localTime());
+    final ZoneId zone = temporal.query(TemporalQueries.zone());
+    return LocalDateTime.of(date, time != null ? time : LocalTime.MIDNIGHT).atZone(zone != null ? zone : ZoneId.systemDefault()).toInstant().toEpochMilli();
+  }
+
+  @Override
+  public String toString() {
+    return formatters[0].toString();
+  }
+}
@@ -0,0 +1,332 @@
+/* Copyright (c) 2012 LibJ
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * You should have received a copy of The MIT License (MIT) along with this
+ * program. If not, see <http://opensource.org/licenses/MIT/>.
+ */
+
+package org.libj.util;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.text.DecimalFormat;
+import java.text.DecimalFormatSymbols;
+import java.util.Locale;
+
+/**
+ * An immutable and thread-safe alternative to a {@link ThreadLocal} of
+ * {@link DecimalFormat}, for numeric {@link DecimalFormat} patterns.
+ * <p>
+ * The pattern is compiled once, and formatting carries no mutable state, so a
+ * single instance can be shared by any number of threads (including virtual
+ * threads) without per-thread instances. Values are rounded with
+ * {@link RoundingMode#HALF_EVEN}, as is the default for {@link DecimalFormat}.
+ * <p>
+ * The supported pattern syntax is a single positive subpattern comprised of an
+ * optional prefix, the digits {@code '#'} and {@code '0'} with optional
+ * grouping separators {@code ','} and decimal separator {@code '.'}, and an
+ * optional suffix. Literal chars in the prefix and suffix may be quoted with
+ * {@code '}, and a {@code '%'} or {@code '‰'} in the prefix or suffix
+ * multiplies the value by 100 or 1000, respectively. As with
+ * {@link DecimalFormat}, a {@code double} value is multiplied in
+ * {@code double} precision before it is rounded. Negative subpatterns
+ * ({@code ';'}), scientific notation ({@code 'E'}) and currency signs
+ * ({@code '¤'}) are not supported.
+ */
+public final class CompiledDecimalFormat {
+  private final String pattern;
+  private final String prefix;
+  private final String suffix;
+  private final int multiplier;
+  private final int minIntegerDigits;
+  private final int minFractionDigits;
+  private final int maxFractionDigits;
+  private final int groupingSize;
+  private final boolean decimalSeparatorAlwaysShown;
+  private final char zeroDigit;
+  private final char decimalSeparator;
+  private final char groupingSeparator;
+  private final char minusSign;
+  private final String infinity;
+  private final String nan;
+
+  /**
+   * Creates a new {@link CompiledDecimalFormat} with the provided pattern and
+   * the symbols for the default {@link java.util.Locale.Category#FORMAT
+   * FORMAT} locale.
+   *
+   * @param pattern A non-localized pattern string.
+   * @throws IllegalArgumentException If the given pattern is invalid or
+   *           unsupported.
+   * @throws NullPointerException If {@code pattern} is null.
+   */
+  public CompiledDecimalFormat(final String pattern) {
+    this(pattern, Locale.getDefault(Locale.Category.FORMAT));
+  }
+
+  /**
+   * Creates a new {@link CompiledDecimalFormat} with the provided pattern and
+   * the symbols for the provided locale.
+   *
+   * @param pattern A non-localized pattern string.
+   * @param locale The {@link Locale} of the symbols.
+   * @throws IllegalArgumentException If the given pattern is invalid or
+   *           unsupported.
+   * @throws NullPointerException If {@code pattern} or {@code locale} is null.
+   */
+  public CompiledDecimalFormat(final String pattern, final Locale locale) {
+    this.pattern = pattern;
+    final DecimalFormatSymbols symbols = DecimalFormatSymbols.getInstance(locale);
+    this.zeroDigit = symbols.getZeroDigit();
+    this.decimalSeparator = symbols.getDecimalSeparator();
+    this.groupingSeparator = symbols.getGroupingSeparator();
+    this.minusSign = symbols.getMinusSign();
+    this.infinity = symbols.getInfinity();
+    this.nan = symbols.getNaN();
+
+    final int len = pattern.length();
+    final StringBuilder prefix = new StringBuilder();
+    final StringBuilder suffix = new StringBuilder();
+    int multiplier = 1;
+    int minIntegerDigits = 0;
+    int minFractionDigits = 0;
+    int maxFractionDigits = 0;
+    int lastGrouping = -1;
+    int integerDigits = 0;
+    boolean decimalSeen = false;
+
+    // 0: prefix, 1: number, 2: suffix
+    int phase = 0;
+    boolean quoted = false;
+    for (int i = 0; i < len; ++i) {
+      final char ch = pattern.charAt(i);
+      if (ch == '\'') {
+        if (i + 1 < len && pattern.charAt(i + 1) == '\'') {
+          (phase == 0 ? prefix : suffix).append('\'');
+          ++i;
+        }
+        else {
+          quoted = !quoted;
+          if (phase == 1)
+            phase = 2;
+        }
+
+        continue;
+      }
+
+      if (quoted) {
+        (phase == 0 ? prefix : suffix).append(ch);
+        continue;
+      }
+
+      if (ch == ';' || ch == 'E' || ch == '¤')
+        throw new IllegalArgumentException("Unsupported pattern: \"" + pattern + "\"");
+
+      final boolean numeric = ch == '#' || ch == '0' || ch == ',' || ch == '.';
+      if (numeric) {
+        if (phase == 2)
+          throw new IllegalArgumentException("Malformed pattern: \"" + pattern + "\"");
+
+        phase = 1;
+        if (ch == '.') {
+          if (decimalSeen)
+            throw new IllegalArgumentException("Multiple decimal separators in pattern: \"" + pattern + "\"");
+
+          decimalSeen = true;
+        }
+        else if (ch == ',') {
+          if (decimalSeen)
+            throw new IllegalArgumentException("Malformed pattern: \"" + pattern + "\"");
+
+          lastGrouping = integerDigits;
+        }
+        else if (decimalSeen) {
+          if (ch == '0') {
+            if (maxFractionDigits > minFractionDigits)
+              throw new IllegalArgumentException("Malformed pattern: \"" + pattern + "\"");
+
+            ++minFractionDigits;
+          }
+
+          ++maxFractionDigits;
+        }
+        else {
+          if (ch == '0')
+            ++minIntegerDigits;
+          else if (minIntegerDigits > 0)
+            throw new IllegalArgumentException("Unexpected '0' in pattern: \"" + pattern + "\"");
+
+          ++integerDigits;
+        }
+
+        continue;
+      }
+
+      if (phase == 1)
+        phase = 2;
+
+      if (ch == '%') {
+        multiplier = 100;
+        (phase == 0 ? prefix : suffix).append(symbols.getPercent());
+      }
+      else if (ch == '‰') {
+        multiplier = 1000;
+        (phase == 0 ? prefix : suffix).append(symbols.getPerMill());
+      }
+      else if (ch == '-') {
+        (phase == 0 ? prefix : suffix).append(minusSign);
+      }
+      else {
+        (phase == 0 ? prefix : suffix).append(ch);
+      }
+    }
+
+    if (quoted)
+      throw new IllegalArgumentException("Unterminated quote in pattern: \"" + pattern + "\"");
+
+    this.prefix = prefix.toString();
+    this.suffix = suffix.toString();
+    this.multiplier = multiplier;
+    // As with DecimalFormat, a pattern without '0' digits, such as "#.##" or ".##", shows the first digit adjacent to the decimal separator
+    final boolean implicitZero = decimalSeen && minIntegerDigits == 0 && minFractionDigits == 0;
+    this.minIntegerDigits = implicitZero && integerDigits > 0 ? 1 : minIntegerDigits;
+    this.minFractionDigits = implicitZero && integerDigits == 0 && maxFractionDigits > 0 ? 1 : minFractionDigits;
+    this.maxFractionDigits = maxFractionDigits;
+    this.groupingSize = lastGrouping < 0 ? 0 : integerDigits - lastGrouping;
+    this.decimalSeparatorAlwaysShown = decimalSeen && maxFractionDigits == 0;
+  }
+
+  /**
+   * Returns the pattern of this format.
+   *
+   * @return The pattern of this format.
+   */
+  public String getPattern() {
+    return pattern;
+  }
+
+  /**
+   * Formats the provided {@code double}.
+   *
+   * @param number The {@code double} to format.
+   * @return The formatted string.
+   */
+  public String format(final double number) {
+    return format(number, new StringBuilder()).toString();
+  }
+
+  /**
+   * Formats the provided {@code long}.
+   *
+   * @param number The {@code long} to format.
+   * @return The formatted string.
+   */
+  public String format(final long number) {
+    return format(number, new StringBuilder()).toString();
+  }
+
+  /**
+   * Formats the provided {@code double}, appending the result to the specified
+   * {@link StringBuilder}.
+   *
+   * @param number The {@code double} to format.
+   * @param builder The {@link StringBuilder} to which the result is to be
+   *          appended.
+   * @return The provided {@link StringBuilder}.
+   * @throws NullPointerException If {@code builder} is null.
+   */
+  public StringBuilder format(final double number, final StringBuilder builder) {
+    if (Double.isNaN(number))
+      return builder.append(nan);
+
+    final boolean negative = number < 0 || number == 0 && 1 / number < 0;
+    if (negative)
+      builder.append(minusSign);
+
+    builder.append(prefix);
+    // As with DecimalFormat, the value is multiplied in double precision (which may overflow), and the product is rounded
+    final double value = multiplier == 1 ? Math.abs(number) : Math.abs(number) * multiplier;
+    if (Double.isInfinite(value))
+      return builder.append(infinity).append(suffix);
+
+    BigDecimal decimal = BigDecimal.valueOf(value);
+
+    // Round the exact binary value if the shortest decimal representation has more digits than are shown
+    if (decimal.scale() > maxFractionDigits)
+      decimal = new BigDecimal(value).setScale(maxFractionDigits, RoundingMode.HALF_EVEN);
+
+    return appendDigits(decimal, builder).append(suffix);
+  }
+
+  /**
+   * Formats the provided {@code long}, appending the result to the specified
+   * {@link StringBuilder}.
+   *
+   * @param number The {@code long} to format.
+   * @param builder The {@link StringBuilder} to which the result is to be
+   *          appended.
+   * @return The provided {@link StringBuilder}.
+   * @throws NullPointerException If {@code builder} is null.
+   */
+  public StringBuilder format(final long number, final StringBuilder builder) {
+    if (number < 0)
+      builder.append(minusSign);
+
+    builder.append(prefix);
+    BigDecimal decimal = BigDecimal.valueOf(number).abs();
+    if (multiplier != 1)
+      decimal = decimal.multiply(BigDecimal.valueOf(multiplier));
+
+    return appendDigits(decimal, builder).append(suffix);
+  }
+
+  private StringBuilder appendDigits(BigDecimal decimal, final StringBuilder builder) {
+    decimal = decimal.stripTrailingZeros();
+    if (decimal.scale() < 0)
+      decimal = decimal.setScale(0);
+
+    final String digits = decimal.unscaledValue().toString();
+    final int scale = decimal.scale();
+    final int integerLength = Math.max(0, digits.length() - scale);
+    final String integerPart = integerLength == 0 || digits.equals("0") ? "" : digits.substring(0, integerLength);
+    final int leadingZeros = Math.max(0, minIntegerDigits - integerPart.length());
+    final int totalIntegerDigits = leadingZeros + integerPart.length();
+    for (int i = 0; i < totalIntegerDigits; ++i) {
+      final char digit = i < leadingZeros ? '0' : integerPart.charAt(i - leadingZeros);
+      builder.append((char)(zeroDigit + digit - '0'));
+      final int remaining = totalIntegerDigits - i - 1;
+      if (groupingSize > 0 && remaining > 0 && remaining % groupingSize == 0)
+        builder.append(groupingSeparator);
+    }
+
+    final int fractionLength = Math.max(minFractionDigits, scale);
+    if (fractionLength > 0 || decimalSeparatorAlwaysShown) {
+      builder.append(decimalSeparator);
+      for (int i = 0; i < fractionLength; ++i) {
+        // Index of the fraction digit in the unscaled digits, which may be preceded by implicit zeros
+        final int index = digits.length() - scale + i;
+        final char digit = i >= scale || index < 0 ? '0' : digits.charAt(index);
+        builder.append((char)(zeroDigit + digit - '0'));
+      }
+    }
+    else if (totalIntegerDigits == 0) {
+      builder.append(zeroDigit);
+    }
+
+    return builder;
+  }
+
+  @Override
+  public String toString() {
+    return pattern;
+  }
+}
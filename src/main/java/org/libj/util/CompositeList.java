@@ -149,10 +149,9 @@ public abstract class CompositeList<E,T> extends ObservableList<E> implements Cl
           if (nextComponentList == componentList)
             compositeList.indexes.set(i, compositeList.indexes.get(i) + 1);
 
-          if (visited.contains(nextComponentList) || nextComponentList == componentList)
+          if (nextComponentList == componentList || !visited.add(nextComponentList))
             continue;
 
-          visited.add(nextComponentList);
           incSectionIndexes(nextComponentList, compositeIndex);
         }
 
@@ -175,10 +174,9 @@ public abstract class CompositeList<E,T> extends ObservableList<E> implements Cl
         if (nextComponentList == componentList)
           compositeList.indexes.set(i, compositeList.indexes.get(i) - 1);
 
-        if (visited.contains(nextComponentList) || nextComponentList == componentList)
+        if (nextComponentList == componentList || !visited.add(nextComponentList))
           continue;
 
-        visited.add(nextComponentList);
         decSectionIndexes(nextComponentList, compositeIndex);
       }
 
@@ -442,10 +440,9 @@ public abstract class CompositeList<E,T> extends ObservableList<E> implements Cl
           if (nextComponentList == componentList)
             indexes.set(i, indexes.get(i) + 1);
 
-          if (visited.contains(nextComponentList) || nextComponentList == componentList)
+          if (nextComponentList == componentList || !visited.add(nextComponentList))
             continue;
 
-          visited.add(nextComponentList);
           incSectionIndexes(nextComponentList, index);
         }
       }
@@ -493,10 +490,9 @@ public abstract class CompositeList<E,T> extends ObservableList<E> implements Cl
       if (nextComponentList == componentList)
         indexes.set(i, indexes.get(i) - 1);
 
-      if (visited.contains(nextComponentList) || nextComponentList == componentList)
+      if (nextComponentList == componentList || !visited.add(nextComponentList))
         continue;
 
-      visited.add(nextComponentList);
       decSectionIndexes(nextComponentList, index);
     }
 
@@ -0,0 +1,521 @@
+/* Copyright (c) 2012 LibJ
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * You should have received a copy of The MIT License (MIT) along with this
+ * program. If not, see <http://opensource.org/licenses/MIT/>.
+ */
+
+package org.libj.util;
+
+import java.util.AbstractCollection;
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.BiConsumer;
+
+/**
+ * A thread-safe bidirectional map that maintains both {@code key->value} and
+ * {@code value->key} mappings in a pair of {@link ConcurrentHashMap}s. As with
+ * {@link ConcurrentHashMap}, this class does not permit null keys or values.
+ * <p>
+ * Retrieval operations in both directions ({@link #get(Object)},
+ * {@link #containsKey(Object)}, {@link #containsValue(Object)}, and the
+ * equivalent operations of the {@link #reverse()} map) do not entail locking,
+ * and are as concurrent as the retrieval operations of
+ * {@link ConcurrentHashMap}.
+ * <p>
+ * Update operations are serialized by striped locks: each update locks the
+ * stripes of the key and value being mapped, as well as of the value
+ * previously mapped to the key, and the key previously mapped to the value.
+ * The stripes are locked in ascending order, and the previous mappings are
+ * revalidated once the locks are held, so that updates of disjoint mappings
+ * proceed concurrently, and both directions of the map are kept consistent
+ * with each other. As the two directions are updated one after the other,
+ * a retrieval that overlaps an update may observe the update in one
+ * direction before the other.
+ * <p>
+ * {@link #put(Object,Object)}, and the conditional update operations of
+ * {@link ConcurrentMap}, force the mapping: if the value was previously mapped
+ * to a different key, that key is removed from this map.
+ * <p>
+ * The iterators of the views of this map are weakly consistent, as are the
+ * iterators of {@link ConcurrentHashMap}. Removal via the iterators, and
+ * {@link Map.Entry#setValue(Object)} of the entries, are reflected in both
+ * directions of this map.
+ *
+ * @param <K> The type of keys maintained by this map.
+ * @param <V> The type of mapped values.
+ */
+public class ConcurrentHashBiMap<K,V> extends AbstractMap<K,V> implements ConcurrentMap<K,V> {
+  /** The default number of lock stripes. */
+  private static final int DEFAULT_CONCURRENCY_LEVEL = 16;
+
+  /** The maximum number of lock stripes, which is the number of bits in a {@code long}. */
+  private static final int MAXIMUM_CONCURRENCY_LEVEL = Long.SIZE;
+
+  private static ReentrantLock[] newLocks(final int concurrencyLevel) {
+    if (concurrencyLevel <= 0)
+      throw new IllegalArgumentException("Illegal concurrency level: " + concurrencyLevel);
+
+    final int length = concurrencyLevel >= MAXIMUM_CONCURRENCY_LEVEL ? MAXIMUM_CONCURRENCY_LEVEL : concurrencyLevel == 1 ? 1 : Integer.highestOneBit(concurrencyLevel - 1) << 1;
+    final ReentrantLock[] locks = new ReentrantLock[length];
+    for (int i = 0; i < length; ++i)
+      locks[i] = new ReentrantLock();
+
+    return locks;
+  }
+
+  private final ConcurrentHashMap<K,V> forward;
+  private final ConcurrentHashMap<V,K> backward;
+  private final ReentrantLock[] locks;
+  private final ConcurrentHashBiMap<V,K> reverse;
+
+  private ConcurrentHashBiMap(final ConcurrentHashMap<K,V> forward, final ConcurrentHashMap<V,K> backward, final ReentrantLock[] locks, final ConcurrentHashBiMap<V,K> reverse) {
+    this.forward = forward;
+    this.backward = backward;
+    this.locks = locks;
+    this.reverse = reverse != null ? reverse : new ConcurrentHashBiMap<>(backward, forward, locks, this);
+  }
+
+  /**
+   * Creates a new, empty map with the specified initial capacity and
+   * concurrency level.
+   *
+   * @param initialCapacity The initial capacity of each direction of the map.
+   * @param concurrencyLevel The estimated number of concurrently updating
+   *          threads, which determines the number of lock stripes (at most
+   *          64).
+   * @throws IllegalArgumentException If the initial capacity is negative, or
+   *           the concurrency level is not positive.
+   */
+  public ConcurrentHashBiMap(final int initialCapacity, final int concurrencyLevel) {
+    this(new ConcurrentHashMap<>(initialCapacity), new ConcurrentHashMap<>(initialCapacity), newLocks(concurrencyLevel), null);
+  }
+
+  /**
+   * Creates a new, empty map with the specified initial capacity, and the
+   * default concurrency level (16).
+   *
+   * @param initialCapacity The initial capacity of each direction of the map.
+   * @throws IllegalArgumentException If the initial capacity is negative.
+   */
+  public ConcurrentHashBiMap(final int initialCapacity) {
+    this(initialCapacity, DEFAULT_CONCURRENCY_LEVEL);
+  }
+
+  /**
+   * Creates a new, empty map with the default initial capacity (16), and the
+   * default concurrency level (16).
+   */
+  public ConcurrentHashBiMap() {
+    this(16, DEFAULT_CONCURRENCY_LEVEL);
+  }
+
+  /**
+   * Creates a new map with the same mappings as the specified map. If the
+   * specified map maps more than one key to the same value, the last of these
+   * keys in the iteration order of the specified map is retained.
+   *
+   * @param m The map whose mappings are to be placed in this map.
+   * @throws NullPointerException If the specified map is null, or has a null
+   *           key or value.
+   */
+  public ConcurrentHashBiMap(final Map<? extends K,? extends V> m) {
+    this(Math.max(m.size(), 16), DEFAULT_CONCURRENCY_LEVEL);
+    putAll(m);
+  }
+
+  /**
+   * Returns the reverse of this map, maintaining {@code value->key} mappings.
+   * The reverse map is backed by this map, so changes to either map are
+   * reflected in the other.
+   *
+   * @return The reverse of this map.
+   */
+  public ConcurrentHashBiMap<V,K> reverse() {
+    return reverse;
+  }
+
+  private long stripe(final Object o) {
+    if (o == null)
+      return 0;
+
+    final int h = o.hashCode();
+    return 1L << ((h ^ h >>> 16) & (locks.length - 1));
+  }
+
+  /**
+   * Locks the stripes in the specified bit mask, in ascending order.
+   *
+   * @param stripes The bit mask of stripes to lock.
+   * @return The bit mask of the locked stripes, to be provided to
+   *         {@link #unlock(long)}.
+   */
+  private long lock(final long stripes) {
+    for (long s = stripes; s != 0; s &= s - 1)
+      locks[Long.numberOfTrailingZeros(s)].lock();
+
+    return stripes;
+  }
+
+  private void unlock(final long stripes) {
+    for (long s = stripes; s != 0; s &= s - 1)
+      locks[Long.numberOfTrailingZeros(s)].unlock();
+  }
+
+  @Override
+  public int size() {
+    return forward.size();
+  }
+
+  @Override
+  public boolean isEmpty() {
+    return forward.isEmpty();
+  }
+
+  @Override
+  public V get(final Object key) {
+    return forward.get(key);
+  }
+
+  @Override
+  public boolean containsKey(final Object key) {
+    return forward.containsKey(key);
+  }
+
+  /**
+   * Returns {@code true} if this map maps a key to the specified value. This
+   * method is a lookup in the {@code value->key} map, and does not entail
+   * traversal of this map.
+   *
+   * @param value The value whose presence in this map is to be tested.
+   * @return {@code true} if this map maps a key to the specified value.
+   * @throws NullPointerException If the specified value is null.
+   */
+  @Override
+  public boolean containsValue(final Object value) {
+    return backward.containsKey(value);
+  }
+
+  /**
+   * Associates the specified value with the specified key in this map, if the
+   * current mapping of the key satisfies the provided conditions.
+   *
+   * @param key The key.
+   * @param value The value.
+   * @param onlyIfAbsent If {@code true}, the mapping is only performed if the
+   *          key is not mapped.
+   * @param onlyIfPresent If {@code true}, the mapping is only performed if the
+   *          key is mapped.
+   * @param expected If not null, the mapping is only performed if the key is
+   *          mapped to a value equal to {@code expected}.
+   * @return The value to which the key was mapped at the time the mapping was
+   *         performed or the conditions were evaluated, or {@code null} if the
+   *         key was not mapped.
+   */
+  private V doPut(final K key, final V value, final boolean onlyIfAbsent, final boolean onlyIfPresent, final Object expected) {
+    Objects.requireNonNull(key);
+    Objects.requireNonNull(value);
+    while (true) {
+      final V oldValue = forward.get(key);
+      if (oldValue == null ? onlyIfPresent || expected != null : onlyIfAbsent || expected != null && !expected.equals(oldValue))
+        return oldValue;
+
+      final K oldKey = backward.get(value);
+      final long stripes = lock(stripe(key) | stripe(value) | stripe(oldValue) | stripe(oldKey));
+      try {
+        if (forward.get(key) != oldValue || backward.get(value) != oldKey)
+          continue;
+
+        if (value.equals(oldValue))
+          return oldValue;
+
+        if (oldKey != null)
+          forward.remove(oldKey);
+
+        if (oldValue != null)
+          backward.remove(oldValue);
+
+        forward.put(key, value);
+        backward.put(value, key);
+        return oldValue;
+      }
+      finally {
+        unlock(stripes);
+      }
+    }
+  }
+
+  /**
+   * Associates the specified value with the specified key in this map. If the
+   * map previously contained a mapping for the key, the old value is replaced,
+   * and removed from the {@link #reverse()} map. If the value was previously
+   * mapped to a different key, that key is removed from this map.
+   *
+   * @param key The key.
+   * @param value The value.
+   * @return The previous value associated with {@code key}, or {@code null} if
+   *         there was no mapping for {@code key}.
+   * @throws NullPointerException If the specified key or value is null.
+   */
+  @Override
+  public V put(final K key, final V value) {
+    return doPut(key, value, false, false, null);
+  }
+
+  @Override
+  public V putIfAbsent(final K key, final V value) {
+    return doPut(key, value, true, false, null);
+  }
+
+  @Override
+  public V replace(final K key, final V value) {
+    return doPut(key, value, false, true, null);
+  }
+
+  @Override
+  public boolean replace(final K key, final V oldValue, final V newValue) {
+    Objects.requireNonNull(oldValue);
+    return oldValue.equals(doPut(key, newValue, false, true, oldValue));
+  }
+
+  /**
+   * Removes the mapping of the specified key, if it is mapped to a value equal
+   * to {@code expected}, or to any value if {@code expected} is null.
+   *
+   * @param key The key.
+   * @param expected The expected value, or {@code null} for any value.
+   * @return The value to which the key was mapped, if the mapping was removed;
+   *         otherwise {@code null}.
+   */
+  private V doRemove(final Object key, final Object expected) {
+    while (true) {
+      final V value = forward.get(key);
+      if (value == null || expected != null && !expected.equals(value))
+        return null;
+
+      final long stripes = lock(stripe(key) | stripe(value));
+      try {
+        if (forward.get(key) != value)
+          continue;
+
+        forward.remove(key);
+        backward.remove(value);
+        return value;
+      }
+      finally {
+        unlock(stripes);
+      }
+    }
+  }
+
+  /**
+   * Removes the mapping for the specified key from this map, and the
+   * corresponding mapping from the {@link #reverse()} map.
+   *
+   * @param key The key.
+   * @return The value to which {@code key} was mapped, or {@code null} if there
+   *         was no mapping for {@code key}.
+   * @throws NullPointerException If the specified key is null.
+   */
+  @Override
+  public V remove(final Object key) {
+    return doRemove(Objects.requireNonNull(key), null);
+  }
+
+  @Override
+  public boolean remove(final Object key, final Object value) {
+    Objects.requireNonNull(key);
+    return value != null && doRemove(key, value) != null;
+  }
+
+  /**
+   * Removes all of the mappings from this map. All lock stripes are held for
+   * the duration of this method.
+   */
+  @Override
+  public void clear() {
+    final long stripes = lock(locks.length == Long.SIZE ? -1L : (1L << locks.length) - 1);
+    try {
+      forward.clear();
+      backward.clear();
+    }
+    finally {
+      unlock(stripes);
+    }
+  }
+
+  @Override
+  public void forEach(final BiConsumer<? super K,? super V> action) {
+    forward.forEach(action);
+  }
+
+  private abstract class ViewIterator<E> implements Iterator<E> {
+    private final Iterator<Map.Entry<K,V>> iterator = forward.entrySet().iterator();
+    private Map.Entry<K,V> last;
+
+    @Override
+    public boolean hasNext() {
+      return iterator.hasNext();
+    }
+
+    final Map.Entry<K,V> nextEntry() {
+      return last = iterator.next();
+    }
+
+    @Override
+    public void remove() {
+      if (last == null)
+        throw new IllegalStateException();
+
+      ConcurrentHashBiMap.this.remove(last.getKey(), last.getValue());
+      last = null;
+    }
+  }
+
+  private transient Set<K> keySet;
+
+  @Override
+  public Set<K> keySet() {
+    return keySet == null ? keySet = new AbstractSet<K>() {
+      @Override
+      public Iterator<K> iterator() {
+        return new ViewIterator<K>() {
+          @Override
+          public K next() {
+            return nextEntry().getKey();
+          }
+        };
+      }
+
+      @Override
+      public int size() {
+        return forward.size();
+      }
+
+      @Override
+      public boolean contains(final Object o) {
+        return forward.containsKey(o);
+      }
+
+      @Override
+      public boolean remove(final Object o) {
+        return ConcurrentHashBiMap.this.remove(o) != null;
+      }
+
+      @Override
+      public void clear() {
+        ConcurrentHashBiMap.this.clear();
+      }
+    } : keySet;
+  }
+
+  private transient Collection<V> values;
+
+  @Override
+  public Collection<V> values() {
+    return values == null ? values = new AbstractCollection<V>() {
+      @Override
+      public Iterator<V> iterator() {
+        return new ViewIterator<V>() {
+          @Override
+          public V next() {
+            return nextEntry().getValue();
+          }
+        };
+      }
+
+      @Override
+      public int size() {
+        return forward.size();
+      }
+
+      @Override
+      public boolean contains(final Object o) {
+        return backward.containsKey(o);
+      }
+
+      @Override
+      public boolean remove(final Object o) {
+        return reverse.remove(o) != null;
+      }
+
+      @Override
+      public void clear() {
+        ConcurrentHashBiMap.this.clear();
+      }
+    } : values;
+  }
+
+  private transient Set<Map.Entry<K,V>> entrySet;
+
+  @Override
+  public Set<Map.Entry<K,V>> entrySet() {
+    return entrySet == null ? entrySet = new AbstractSet<Map.Entry<K,V>>() {
+      @Override
+      public Iterator<Map.Entry<K,V>> iterator() {
+        return new ViewIterator<Map.Entry<K,V>>() {
+          @Override
+          public Map.Entry<K,V> next() {
+            return new AbstractMap.SimpleEntry<K,V>(nextEntry()) {
+              private static final long serialVersionUID = -6251328289693185127L;
+
+              @Override
+              public V setValue(final V value) {
+                ConcurrentHashBiMap.this.put(getKey(), value);
+                return super.setValue(value);
+              }
+            };
+          }
+        };
+      }
+
+      @Override
+      public int size() {
+        return forward.size();
+      }
+
+      @Override
+      public boolean contains(final Object o) {
+        if (!(o instanceof Map.Entry))
+          return false;
+
+        final Map.Entry<?,?> entry = (Map.Entry<?,?>)o;
+        final Object key = entry.getKey();
+        final Object value = entry.getValue();
+        return key != null && value != null && value.equals(forward.get(key));
+      }
+
+      @Override
+      public boolean remove(final Object o) {
+        if (!(o instanceof Map.Entry))
+          return false;
+
+        final Map.Entry<?,?> entry = (Map.Entry<?,?>)o;
+        final Object key = entry.getKey();
+        return key != null && ConcurrentHashBiMap.this.remove(key, entry.getValue());
+      }
+
+      @Override
+      public void clear() {
+        ConcurrentHashBiMap.this.clear();
+      }
+    } : entrySet;
+  }
+}
@@ -20,42 +20,32 @@ import java.io.IOException;
 import java.io.InvalidObjectException;
 import java.io.ObjectInputStream;
 import java.io.ObjectOutputStream;
+import java.io.Serializable;
+import java.util.AbstractSet;
 import java.util.Collection;
-import java.util.HashSet;
 import java.util.Iterator;
+import java.util.Objects;
+import java.util.Set;
 import java.util.Spliterator;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.BiFunction;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.Predicate;
 
 /**
- * A concurrent {@link HashSet} implementation backed by a
- * {@link ConcurrentHashMap}.
+ * A concurrent {@link Set} implementation backed by a
+ * {@link ConcurrentNullableHashMap}, which supports the {@code null} element.
+ * <p>
+ * In addition to the {@link Set} methods, this class exposes the parallel bulk
+ * operations of {@link ConcurrentHashMap}: {@link #forEach(long,Consumer)},
+ * {@link #search(long,Function)}, {@link #reduce(long,Function,BiFunction)},
+ * {@link #addAll(long,Collection)} and {@link #removeIf(long,Predicate)}.
  *
  * @param <E> The type of elements maintained by this set.
  */
-public class ConcurrentHashSet<E> extends HashSet<E> {
-  private static final class CloneableConcurrentHashMap<K,V> extends ConcurrentNullHashMap<K,V> {
-    private static final long serialVersionUID = -3259218346584869178L;
-
-    private CloneableConcurrentHashMap(final int initialCapacity) {
-      super(initialCapacity);
-    }
-
-    private CloneableConcurrentHashMap() {
-      super();
-    }
-
-    @Override
-    @SuppressWarnings("unchecked")
-    protected ConcurrentHashMap<K,V> clone() {
-      try {
-        return (ConcurrentHashMap<K,V>)super.clone();
-      }
-      catch (final CloneNotSupportedException e) {
-        throw new RuntimeException(e);
-      }
-    }
-  }
-
+public class ConcurrentHashSet<E> extends AbstractSet<E> implements Cloneable, Serializable {
   private static final long serialVersionUID = -2016698281843655212L;
 
   /**
@@ -64,7 +54,7 @@ public class ConcurrentHashSet<E> extends HashSet<E> {
    */
   private static final int DEFAULT_CAPACITY = 16;
 
-  private transient CloneableConcurrentHashMap<E,Object> map;
+  private transient ConcurrentNullableHashMap<E,Object> map;
 
   // Dummy value to associate with an Object in the backing Map
   private static final Object PRESENT = new Object();
@@ -74,7 +64,7 @@ public class ConcurrentHashSet<E> extends HashSet<E> {
    * has default expected maximum size (16).
    */
   public ConcurrentHashSet() {
-    map = new CloneableConcurrentHashMap<>();
+    map = new ConcurrentNullableHashMap<>();
   }
 
   /**
@@ -87,7 +77,7 @@ public class ConcurrentHashSet<E> extends HashSet<E> {
    * @throws NullPointerException If the specified collection is null.
    */
   public ConcurrentHashSet(final Collection<? extends E> c) {
-    map = new CloneableConcurrentHashMap<>(DEFAULT_CAPACITY);
+    map = new ConcurrentNullableHashMap<>(Math.max(c.size(), DEFAULT_CAPACITY));
     addAll(c);
   }
 
@@ -99,7 +89,7 @@ public class ConcurrentHashSet<E> extends HashSet<E> {
    * @throws IllegalArgumentException If the initial capacity is less than zero.
    */
   public ConcurrentHashSet(final int initialCapacity) {
-    map = new CloneableConcurrentHashMap<>(initialCapacity);
+    map = new ConcurrentNullableHashMap<>(initialCapacity);
   }
 
   @Override
@@ -125,7 +115,7 @@ public class ConcurrentHashSet<E> extends HashSet<E> {
 
   @Override
   public boolean add(final E e) {
-    return map.put(e, PRESENT) == null;
+    return map.putIfAbsent(e, PRESENT) == null;
   }
 
   @Override
@@ -134,6 +124,99 @@ public class ConcurrentHashSet<E> extends HashSet<E> {
     return map.remove(o) == PRESENT;
   }
 
+  /**
+   * Adds all of the elements in the specified collection to this set, in
+   * parallel if the collection has at least the given number of elements.
+   *
+   * @param parallelismThreshold The number of elements of the collection
+   *          needed for this operation to be executed in parallel.
+   * @param c The collection containing elements to be added to this set.
+   * @return {@code true} if this set changed as a result of the call.
+   * @throws NullPointerException If {@code c} is null.
+   */
+  public boolean addAll(final long parallelismThreshold, final Collection<? extends E> c) {
+    if (c.size() < parallelismThreshold)
+      return addAll(c);
+
+    return c.parallelStream().map(this::add).reduce(Boolean.FALSE, Boolean::logicalOr);
+  }
+
+  /**
+   * Removes all of the elements of this set that satisfy the given predicate,
+   * in parallel if the estimated size of this set is at least the given
+   * threshold.
+   *
+   * @param parallelismThreshold The (estimated) number of elements needed for
+   *          this operation to be executed in parallel.
+   * @param filter A predicate which returns {@code true} for elements to be
+   *          removed.
+   * @return {@code true} if any elements were removed.
+   * @throws NullPointerException If {@code filter} is null.
+   */
+  public boolean removeIf(final long parallelismThreshold, final Predicate<? super E> filter) {
+    Objects.requireNonNull(filter);
+    final AtomicBoolean removed = new AtomicBoolean();
+    map.forEachKey(parallelismThreshold, e -> {
+      if (filter.test(e) && map.remove(e) == PRESENT)
+        removed.set(true);
+    });
+
+    return removed.get();
+  }
+
+  /**
+   * Performs the given action for each element, in parallel if the estimated
+   * size of this set is at least the given threshold.
+   *
+   * @param parallelismThreshold The (estimated) number of elements needed for
+   *          this operation to be executed in parallel.
+   * @param action The action.
+   * @throws NullPointerException If {@code action} is null.
+   */
+  public void forEach(final long parallelismThreshold, final Consumer<? super E> action) {
+    map.forEachKey(parallelismThreshold, action);
+  }
+
+  /**
+   * Returns a non-null result from applying the given search function on each
+   * element, or {@code null} if none. Upon success, further element processing
+   * is suppressed, and the results of any other parallel invocations of the
+   * search function are ignored.
+   *
+   * @param <U> The type parameter of the result.
+   * @param parallelismThreshold The (estimated) number of elements needed for
+   *          this operation to be executed in parallel.
+   * @param searchFunction A function returning a non-null result on success,
+   *          otherwise {@code null}.
+   * @return A non-null result from applying the given search function on each
+   *         element, or {@code null} if none.
+   * @throws NullPointerException If {@code searchFunction} is null.
+   */
+  public <U>U search(final long parallelismThreshold, final Function<? super E,? extends U> searchFunction) {
+    return map.searchKeys(parallelismThreshold, searchFunction);
+  }
+
+  /**
+   * Returns the result of accumulating the given transformation of all
+   * elements using the given reducer to combine values, or {@code null} if
+   * none.
+   *
+   * @param <U> The type parameter of the result.
+   * @param parallelismThreshold The (estimated) number of elements needed for
+   *          this operation to be executed in parallel.
+   * @param transformer A function returning the transformation for an element,
+   *          or {@code null} if there is no transformation (in which case it
+   *          is not combined).
+   * @param reducer A commutative associative combining function.
+   * @return The result of accumulating the given transformation of all
+   *         elements, or {@code null} if none.
+   * @throws NullPointerException If {@code transformer} or {@code reducer} is
+   *           null.
+   */
+  public <U>U reduce(final long parallelismThreshold, final Function<? super E,? extends U> transformer, final BiFunction<? super U,? super U,? extends U> reducer) {
+    return map.reduceKeys(parallelismThreshold, transformer, reducer);
+  }
+
   @Override
   public void clear() {
     map.clear();
@@ -153,9 +236,14 @@ public class ConcurrentHashSet<E> extends HashSet<E> {
   @Override
   @SuppressWarnings("unchecked")
   public ConcurrentHashSet<E> clone() {
-    final ConcurrentHashSet<E> newSet = (ConcurrentHashSet<E>)super.clone();
-    newSet.map = (CloneableConcurrentHashMap<E,Object>)map.clone();
-    return newSet;
+    try {
+      final ConcurrentHashSet<E> newSet = (ConcurrentHashSet<E>)super.clone();
+      newSet.map = map.clone();
+      return newSet;
+    }
+    catch (final CloneNotSupportedException e) {
+      throw new RuntimeException(e);
+    }
   }
 
   /**
@@ -208,7 +296,7 @@ public class ConcurrentHashSet<E> extends HashSet<E> {
       throw new InvalidObjectException("Illegal size: " + size);
 
     // Create backing ConcurrentHashMap
-    map = new CloneableConcurrentHashMap<>(Math.max((int)(capacity / .75f) + 1, 16));
+    map = new ConcurrentNullableHashMap<>(Math.max((int)(capacity / .75f) + 1, 16));
 
     // Read in all elements in the proper order.
     for (int i = 0; i < size; ++i) {
@@ -27,7 +27,8 @@ import java.util.concurrent.ConcurrentHashMap;
  * <p>
  * <b>NOTE:</b> This class does not properly handle
  * {@link ConcurrentHashMap#keySet()} and
- * {@link ConcurrentHashMap#keySet(Object)}.
+ * {@link ConcurrentHashMap#keySet(Object)}. {@link ConcurrentNullableHashMap}
+ * does not have this limitation.
  *
  * @param <K> The type of keys maintained by this map.
  * @param <V> The type of mapped values.
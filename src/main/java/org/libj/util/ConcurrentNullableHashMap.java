@@ -0,0 +1,824 @@
+/* Copyright (c) 2012 LibJ
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * You should have received a copy of The MIT License (MIT) along with this
+ * program. If not, see <http://opensource.org/licenses/MIT/>.
+ */
+
+package org.libj.util;
+
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.Serializable;
+import java.util.AbstractCollection;
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.Spliterator;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.BiConsumer;
+import java.util.function.BiFunction;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+/**
+ * A {@link ConcurrentMap} supporting {@code null} keys and values, backed by a
+ * {@link ConcurrentHashMap} in which {@code null} is masked by a sentinel.
+ * <p>
+ * Unlike {@link ConcurrentNullHashMap}, this class does not expose the
+ * sentinel through any of the methods or views of {@link ConcurrentHashMap}:
+ * the {@link #keySet()}, {@link #values()} and {@link #entrySet()} views, and
+ * their iterators, unmask the sentinel directly. {@link #putAll(Map)} presizes
+ * the backing table once for the size of the provided map, and the
+ * {@link #compute(Object,BiFunction) compute} and
+ * {@link #merge(Object,Object,BiFunction) merge} methods are atomic, with the
+ * semantics specified by {@link Map} for maps that support {@code null}
+ * values.
+ *
+ * @param <K> The type of keys maintained by this map.
+ * @param <V> The type of mapped values.
+ */
+public class ConcurrentNullableHashMap<K,V> extends AbstractMap<K,V> implements ConcurrentMap<K,V>, Cloneable, Serializable {
+  private static final long serialVersionUID = -2742213946541498384L;
+  private static final Object NULL = new Object();
+
+  private static Object mask(final Object obj) {
+    return obj == null ? NULL : obj;
+  }
+
+  @SuppressWarnings("unchecked")
+  private static <T>T unmask(final Object obj) {
+    return obj == NULL ? null : (T)obj;
+  }
+
+  /**
+   * A view of a {@link Map} with masked keys and values, for the bulk insert
+   * of {@link ConcurrentHashMap#putAll(Map)}, which presizes the table for
+   * {@link #size()}, and then reads each entry of the iterator exactly once.
+   * The iterator therefore returns the same mutable entry for each mapping.
+   */
+  private static final class MaskedMap extends AbstractMap<Object,Object> {
+    private final Map<?,?> source;
+
+    private MaskedMap(final Map<?,?> source) {
+      this.source = source;
+    }
+
+    @Override
+    public int size() {
+      return source.size();
+    }
+
+    @Override
+    public Set<Map.Entry<Object,Object>> entrySet() {
+      return new AbstractSet<Map.Entry<Object,Object>>() {
+        @Override
+        public int size() {
+          return source.size();
+        }
+
+        @Override
+        public Iterator<Map.Entry<Object,Object>> iterator() {
+          final Iterator<? extends Map.Entry<?,?>> iterator = source.entrySet().iterator();
+          final MaskedEntry<Object,Object> entry = new MaskedEntry<>(null, null);
+          return new Iterator<Map.Entry<Object,Object>>() {
+            @Override
+            public boolean hasNext() {
+              return iterator.hasNext();
+            }
+
+            @Override
+            public Map.Entry<Object,Object> next() {
+              final Map.Entry<?,?> next = iterator.next();
+              entry.key = mask(next.getKey());
+              entry.value = mask(next.getValue());
+              return entry;
+            }
+          };
+        }
+      };
+    }
+  }
+
+  /**
+   * A mutable {@link Map.Entry} whose fields are directly accessible.
+   */
+  private static final class MaskedEntry<K,V> implements Map.Entry<K,V> {
+    private K key;
+    private V value;
+
+    private MaskedEntry(final K key, final V value) {
+      this.key = key;
+      this.value = value;
+    }
+
+    @Override
+    public K getKey() {
+      return key;
+    }
+
+    @Override
+    public V getValue() {
+      return value;
+    }
+
+    @Override
+    public V setValue(final V value) {
+      throw new UnsupportedOperationException();
+    }
+  }
+
+  /**
+   * A {@link Spliterator} of a view of the backing {@link ConcurrentHashMap},
+   * which unmasks its elements, and otherwise retains the characteristics of
+   * the backing view (such as {@link Spliterator#CONCURRENT}), except for
+   * {@link Spliterator#NONNULL} if elements may be unmasked to {@code null}.
+   */
+  private static final class UnmaskingSpliterator<T> extends DelegateSpliterator<T> {
+    private final Function<Object,T> unmask;
+    private final boolean nullable;
+
+    @SuppressWarnings("unchecked")
+    private UnmaskingSpliterator(final Spliterator<?> target, final Function<Object,T> unmask, final boolean nullable) {
+      super((Spliterator<T>)target);
+      this.unmask = unmask;
+      this.nullable = nullable;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public boolean tryAdvance(final Consumer<? super T> action) {
+      Objects.requireNonNull(action);
+      return target.tryAdvance(o -> action.accept(unmask.apply(o)));
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public void forEachRemaining(final Consumer<? super T> action) {
+      Objects.requireNonNull(action);
+      target.forEachRemaining(o -> action.accept(unmask.apply(o)));
+    }
+
+    @Override
+    public Spliterator<T> trySplit() {
+      final Spliterator<?> split = target.trySplit();
+      return split == null ? null : new UnmaskingSpliterator<>(split, unmask, nullable);
+    }
+
+    @Override
+    public int characteristics() {
+      final int characteristics = target.characteristics();
+      return nullable ? characteristics & ~Spliterator.NONNULL : characteristics;
+    }
+  }
+
+  private final class NullableEntry implements Map.Entry<K,V> {
+    private final K key;
+    private V value;
+
+    private NullableEntry(final K key, final V value) {
+      this.key = key;
+      this.value = value;
+    }
+
+    @Override
+    public K getKey() {
+      return key;
+    }
+
+    @Override
+    public V getValue() {
+      return value;
+    }
+
+    @Override
+    public V setValue(final V value) {
+      final V oldValue = this.value;
+      this.value = value;
+      map.put(mask(key), mask(value));
+      return oldValue;
+    }
+
+    @Override
+    public boolean equals(final Object obj) {
+      if (obj == this)
+        return true;
+
+      if (!(obj instanceof Map.Entry))
+        return false;
+
+      final Map.Entry<?,?> that = (Map.Entry<?,?>)obj;
+      return Objects.equals(key, that.getKey()) && Objects.equals(value, that.getValue());
+    }
+
+    @Override
+    public int hashCode() {
+      return Objects.hashCode(key) ^ Objects.hashCode(value);
+    }
+
+    @Override
+    public String toString() {
+      return key + "=" + value;
+    }
+  }
+
+  private transient ConcurrentHashMap<Object,Object> map;
+
+  /**
+   * Creates a new, empty map with the default initial table size (16).
+   */
+  public ConcurrentNullableHashMap() {
+    this.map = new ConcurrentHashMap<>();
+  }
+
+  /**
+   * Creates a new, empty map with an initial table size accommodating the
+   * specified number of elements without the need to dynamically resize.
+   *
+   * @param initialCapacity The implementation performs internal sizing to
+   *          accommodate this many elements.
+   * @throws IllegalArgumentException If the initial capacity of elements is
+   *           negative.
+   */
+  public ConcurrentNullableHashMap(final int initialCapacity) {
+    this.map = new ConcurrentHashMap<>(initialCapacity);
+  }
+
+  /**
+   * Creates a new, empty map with an initial table size based on the given
+   * number of elements ({@code initialCapacity}) and initial table density
+   * ({@code loadFactor}).
+   *
+   * @param initialCapacity The initial capacity. The implementation performs
+   *          internal sizing to accommodate this many elements, given the
+   *          specified load factor.
+   * @param loadFactor The load factor (table density) for establishing the
+   *          initial table size.
+   * @throws IllegalArgumentException If the initial capacity of elements is
+   *           negative or the load factor is nonpositive.
+   */
+  public ConcurrentNullableHashMap(final int initialCapacity, final float loadFactor) {
+    this(initialCapacity, loadFactor, 1);
+  }
+
+  /**
+   * Creates a new, empty map with an initial table size based on the given
+   * number of elements ({@code initialCapacity}), table density
+   * ({@code loadFactor}), and number of concurrently updating threads
+   * ({@code concurrencyLevel}).
+   *
+   * @param initialCapacity The initial capacity. The implementation performs
+   *          internal sizing to accommodate this many elements, given the
+   *          specified load factor.
+   * @param loadFactor The load factor (table density) for establishing the
+   *          initial table size.
+   * @param concurrencyLevel The estimated number of concurrently updating
+   *          threads. The implementation may use this value as a sizing hint.
+   * @throws IllegalArgumentException If the initial capacity is negative or the
+   *           load factor or concurrencyLevel are nonpositive.
+   */
+  public ConcurrentNullableHashMap(final int initialCapacity, final float loadFactor, final int concurrencyLevel) {
+    this.map = new ConcurrentHashMap<>(initialCapacity, loadFactor, concurrencyLevel);
+  }
+
+  /**
+   * Creates a new map with the same mappings as the given map.
+   *
+   * @param m The map.
+   * @throws NullPointerException If {@code m} is null.
+   */
+  public ConcurrentNullableHashMap(final Map<? extends K,? extends V> m) {
+    this.map = new ConcurrentHashMap<>();
+    putAll(m);
+  }
+
+  @Override
+  public int size() {
+    return map.size();
+  }
+
+  /**
+   * Returns the number of mappings. This method should be used instead of
+   * {@link #size()} because a {@link ConcurrentNullableHashMap} may contain
+   * more mappings than can be represented as an int.
+   *
+   * @return The number of mappings.
+   * @see ConcurrentHashMap#mappingCount()
+   */
+  public long mappingCount() {
+    return map.mappingCount();
+  }
+
+  @Override
+  public boolean isEmpty() {
+    return map.isEmpty();
+  }
+
+  @Override
+  public boolean containsKey(final Object key) {
+    return map.containsKey(mask(key));
+  }
+
+  @Override
+  public boolean containsValue(final Object value) {
+    return map.containsValue(mask(value));
+  }
+
+  @Override
+  public V get(final Object key) {
+    return unmask(map.get(mask(key)));
+  }
+
+  @Override
+  public V getOrDefault(final Object key, final V defaultValue) {
+    final Object value = map.get(mask(key));
+    return value == null ? defaultValue : unmask(value);
+  }
+
+  @Override
+  public V put(final K key, final V value) {
+    return unmask(map.put(mask(key), mask(value)));
+  }
+
+  /**
+   * {@inheritDoc}
+   * <p>
+   * The backing table is presized once for the size of the provided map,
+   * before the mappings are inserted.
+   */
+  @Override
+  public void putAll(final Map<? extends K,? extends V> m) {
+    map.putAll(new MaskedMap(m));
+  }
+
+  @Override
+  public V putIfAbsent(final K key, final V value) {
+    return unmask(map.putIfAbsent(mask(key), mask(value)));
+  }
+
+  @Override
+  public V remove(final Object key) {
+    return unmask(map.remove(mask(key)));
+  }
+
+  @Override
+  public boolean remove(final Object key, final Object value) {
+    return map.remove(mask(key), mask(value));
+  }
+
+  @Override
+  public boolean replace(final K key, final V oldValue, final V newValue) {
+    return map.replace(mask(key), mask(oldValue), mask(newValue));
+  }
+
+  @Override
+  public V replace(final K key, final V value) {
+    return unmask(map.replace(mask(key), mask(value)));
+  }
+
+  @Override
+  public void clear() {
+    map.clear();
+  }
+
+  /**
+   * {@inheritDoc}
+   * <p>
+   * If the remapping function returns {@code null}, the mapping is removed (or
+   * remains absent if initially absent). The entire method invocation is
+   * performed atomically.
+   */
+  @Override
+  public V compute(final K key, final BiFunction<? super K,? super V,? extends V> remappingFunction) {
+    Objects.requireNonNull(remappingFunction);
+    return unmask(map.compute(mask(key), (k, v) -> remappingFunction.apply(key, unmask(v))));
+  }
+
+  /**
+   * {@inheritDoc}
+   * <p>
+   * A key that is mapped to {@code null} is considered absent, in which case
+   * the mapping function is applied. If the mapping function returns
+   * {@code null}, the existing mapping (if any) is not changed. The entire
+   * method invocation is performed atomically.
+   */
+  @Override
+  public V computeIfAbsent(final K key, final Function<? super K,? extends V> mappingFunction) {
+    Objects.requireNonNull(mappingFunction);
+    final Object mask = mask(key);
+    final Object value = map.get(mask);
+    if (value != null && value != NULL)
+      return unmask(value);
+
+    return unmask(map.compute(mask, (k, v) -> {
+      if (v != null && v != NULL)
+        return v;
+
+      final V newValue = mappingFunction.apply(key);
+      return newValue != null ? newValue : v;
+    }));
+  }
+
+  /**
+   * {@inheritDoc}
+   * <p>
+   * A key that is mapped to {@code null} is considered absent, in which case
+   * the remapping function is not applied. The entire method invocation is
+   * performed atomically.
+   */
+  @Override
+  public V computeIfPresent(final K key, final BiFunction<? super K,? super V,? extends V> remappingFunction) {
+    Objects.requireNonNull(remappingFunction);
+    return unmask(map.computeIfPresent(mask(key), (k, v) -> v == NULL ? v : remappingFunction.apply(key, unmask(v))));
+  }
+
+  /**
+   * {@inheritDoc}
+   * <p>
+   * A key that is mapped to {@code null} is considered absent, in which case
+   * it is associated with the given value. The entire method invocation is
+   * performed atomically.
+   */
+  @Override
+  public V merge(final K key, final V value, final BiFunction<? super V,? super V,? extends V> remappingFunction) {
+    Objects.requireNonNull(value);
+    Objects.requireNonNull(remappingFunction);
+    return unmask(map.compute(mask(key), (k, v) -> v == null || v == NULL ? value : remappingFunction.apply(unmask(v), value)));
+  }
+
+  @Override
+  public void forEach(final BiConsumer<? super K,? super V> action) {
+    Objects.requireNonNull(action);
+    map.forEach((k, v) -> action.accept(unmask(k), unmask(v)));
+  }
+
+  @Override
+  public void replaceAll(final BiFunction<? super K,? super V,? extends V> function) {
+    Objects.requireNonNull(function);
+    map.replaceAll((k, v) -> mask(function.apply(unmask(k), unmask(v))));
+  }
+
+  /**
+   * Performs the given action for each mapping, in parallel if the estimated
+   * number of mappings is at least the given threshold.
+   *
+   * @param parallelismThreshold The (estimated) number of mappings needed for
+   *          this operation to be executed in parallel.
+   * @param action The action.
+   * @throws NullPointerException If {@code action} is null.
+   * @see ConcurrentHashMap#forEach(long,BiConsumer)
+   */
+  public void forEach(final long parallelismThreshold, final BiConsumer<? super K,? super V> action) {
+    Objects.requireNonNull(action);
+    map.forEach(parallelismThreshold, (k, v) -> action.accept(unmask(k), unmask(v)));
+  }
+
+  /**
+   * Performs the given action for each key, in parallel if the estimated
+   * number of mappings is at least the given threshold.
+   *
+   * @param parallelismThreshold The (estimated) number of mappings needed for
+   *          this operation to be executed in parallel.
+   * @param action The action.
+   * @throws NullPointerException If {@code action} is null.
+   * @see ConcurrentHashMap#forEachKey(long,Consumer)
+   */
+  public void forEachKey(final long parallelismThreshold, final Consumer<? super K> action) {
+    Objects.requireNonNull(action);
+    map.forEachKey(parallelismThreshold, k -> action.accept(unmask(k)));
+  }
+
+  /**
+   * Returns a non-null result from applying the given search function on each
+   * mapping, or {@code null} if none. Upon success, further element processing
+   * is suppressed, and the results of any other parallel invocations of the
+   * search function are ignored.
+   *
+   * @param <U> The type parameter of the result.
+   * @param parallelismThreshold The (estimated) number of mappings needed for
+   *          this operation to be executed in parallel.
+   * @param searchFunction A function returning a non-null result on success,
+   *          otherwise {@code null}.
+   * @return A non-null result from applying the given search function on each
+   *         mapping, or {@code null} if none.
+   * @throws NullPointerException If {@code searchFunction} is null.
+   * @see ConcurrentHashMap#search(long,BiFunction)
+   */
+  public <U>U search(final long parallelismThreshold, final BiFunction<? super K,? super V,? extends U> searchFunction) {
+    Objects.requireNonNull(searchFunction);
+    return map.search(parallelismThreshold, (k, v) -> searchFunction.apply(unmask(k), unmask(v)));
+  }
+
+  /**
+   * Returns a non-null result from applying the given search function on each
+   * key, or {@code null} if none. Upon success, further element processing is
+   * suppressed, and the results of any other parallel invocations of the
+   * search function are ignored.
+   *
+   * @param <U> The type parameter of the result.
+   * @param parallelismThreshold The (estimated) number of mappings needed for
+   *          this operation to be executed in parallel.
+   * @param searchFunction A function returning a non-null result on success,
+   *          otherwise {@code null}.
+   * @return A non-null result from applying the given search function on each
+   *         key, or {@code null} if none.
+   * @throws NullPointerException If {@code searchFunction} is null.
+   * @see ConcurrentHashMap#searchKeys(long,Function)
+   */
+  public <U>U searchKeys(final long parallelismThreshold, final Function<? super K,? extends U> searchFunction) {
+    Objects.requireNonNull(searchFunction);
+    return map.searchKeys(parallelismThreshold, k -> searchFunction.apply(unmask(k)));
+  }
+
+  /**
+   * Returns the result of accumulating the given transformation of all
+   * mappings using the given reducer to combine values, or {@code null} if
+   * none.
+   *
+   * @param <U> The type parameter of the result.
+   * @param parallelismThreshold The (estimated) number of mappings needed for
+   *          this operation to be executed in parallel.
+   * @param transformer A function returning the transformation for a mapping,
+   *          or {@code null} if there is no transformation (in which case it
+   *          is not combined).
+   * @param reducer A commutative associative combining function.
+   * @return The result of accumulating the given transformation of all
+   *         mappings, or {@code null} if none.
+   * @throws NullPointerException If {@code transformer} or {@code reducer} is
+   *           null.
+   * @see ConcurrentHashMap#reduce(long,BiFunction,BiFunction)
+   */
+  public <U>U reduce(final long parallelismThreshold, final BiFunction<? super K,? super V,? extends U> transformer, final BiFunction<? super U,? super U,? extends U> reducer) {
+    Objects.requireNonNull(transformer);
+    return map.reduce(parallelismThreshold, (k, v) -> transformer.apply(unmask(k), unmask(v)), reducer);
+  }
+
+  /**
+   * Returns the result of accumulating the given transformation of all keys
+   * using the given reducer to combine values, or {@code null} if none.
+   *
+   * @param <U> The type parameter of the result.
+   * @param parallelismThreshold The (estimated) number of mappings needed for
+   *          this operation to be executed in parallel.
+   * @param transformer A function returning the transformation for a key, or
+   *          {@code null} if there is no transformation (in which case it is
+   *          not combined).
+   * @param reducer A commutative associative combining function.
+   * @return The result of accumulating the given transformation of all keys,
+   *         or {@code null} if none.
+   * @throws NullPointerException If {@code transformer} or {@code reducer} is
+   *           null.
+   * @see ConcurrentHashMap#reduceKeys(long,Function,BiFunction)
+   */
+  public <U>U reduceKeys(final long parallelismThreshold, final Function<? super K,? extends U> transformer, final BiFunction<? super U,? super U,? extends U> reducer) {
+    Objects.requireNonNull(transformer);
+    return map.reduceKeys(parallelismThreshold, k -> transformer.apply(unmask(k)), reducer);
+  }
+
+  @Override
+  public Set<K> keySet() {
+    return new AbstractSet<K>() {
+      @Override
+      public Iterator<K> iterator() {
+        final Iterator<Object> iterator = map.keySet().iterator();
+        return new Iterator<K>() {
+          @Override
+          public boolean hasNext() {
+            return iterator.hasNext();
+          }
+
+          @Override
+          public K next() {
+            return unmask(iterator.next());
+          }
+
+          @Override
+          public void remove() {
+            iterator.remove();
+          }
+        };
+      }
+
+      @Override
+      public int size() {
+        return map.size();
+      }
+
+      @Override
+      public boolean isEmpty() {
+        return map.isEmpty();
+      }
+
+      @Override
+      public boolean contains(final Object o) {
+        return map.containsKey(mask(o));
+      }
+
+      @Override
+      public boolean remove(final Object o) {
+        return map.remove(mask(o)) != null;
+      }
+
+      @Override
+      public void clear() {
+        map.clear();
+      }
+
+      @Override
+      public Spliterator<K> spliterator() {
+        return new UnmaskingSpliterator<>(map.keySet().spliterator(), ConcurrentNullableHashMap::unmask, true);
+      }
+    };
+  }
+
+  @Override
+  public Collection<V> values() {
+    return new AbstractCollection<V>() {
+      @Override
+      public Iterator<V> iterator() {
+        final Iterator<Object> iterator = map.values().iterator();
+        return new Iterator<V>() {
+          @Override
+          public boolean hasNext() {
+            return iterator.hasNext();
+          }
+
+          @Override
+          public V next() {
+            return unmask(iterator.next());
+          }
+
+          @Override
+          public void remove() {
+            iterator.remove();
+          }
+        };
+      }
+
+      @Override
+      public int size() {
+        return map.size();
+      }
+
+      @Override
+      public boolean isEmpty() {
+        return map.isEmpty();
+      }
+
+      @Override
+      public boolean contains(final Object o) {
+        return map.containsValue(mask(o));
+      }
+
+      @Override
+      public void clear() {
+        map.clear();
+      }
+
+      @Override
+      public Spliterator<V> spliterator() {
+        return new UnmaskingSpliterator<>(map.values().spliterator(), ConcurrentNullableHashMap::unmask, true);
+      }
+    };
+  }
+
+  @Override
+  public Set<Map.Entry<K,V>> entrySet() {
+    return new AbstractSet<Map.Entry<K,V>>() {
+      @Override
+      public Iterator<Map.Entry<K,V>> iterator() {
+        final Iterator<Map.Entry<Object,Object>> iterator = map.entrySet().iterator();
+        return new Iterator<Map.Entry<K,V>>() {
+          @Override
+          public boolean hasNext() {
+            return iterator.hasNext();
+          }
+
+          @Override
+          public Map.Entry<K,V> next() {
+            final Map.Entry<Object,Object> entry = iterator.next();
+            return new NullableEntry(unmask(entry.getKey()), unmask(entry.getValue()));
+          }
+
+          @Override
+          public void remove() {
+            iterator.remove();
+          }
+        };
+      }
+
+      @Override
+      public int size() {
+        return map.size();
+      }
+
+      @Override
+      public boolean isEmpty() {
+        return map.isEmpty();
+      }
+
+      @Override
+      public boolean contains(final Object o) {
+        if (!(o instanceof Map.Entry))
+          return false;
+
+        final Map.Entry<?,?> entry = (Map.Entry<?,?>)o;
+        final Object value = map.get(mask(entry.getKey()));
+        return value != null && value.equals(mask(entry.getValue()));
+      }
+
+      @Override
+      public boolean remove(final Object o) {
+        if (!(o instanceof Map.Entry))
+          return false;
+
+        final Map.Entry<?,?> entry = (Map.Entry<?,?>)o;
+        return map.remove(mask(entry.getKey()), mask(entry.getValue()));
+      }
+
+      @Override
+      public void clear() {
+        map.clear();
+      }
+
+      @Override
+      @SuppressWarnings("unchecked")
+      public Spliterator<Map.Entry<K,V>> spliterator() {
+        return new UnmaskingSpliterator<>(map.entrySet().spliterator(), o -> {
+          final Map.Entry<Object,Object> entry = (Map.Entry<Object,Object>)o;
+          return new NullableEntry(unmask(entry.getKey()), unmask(entry.getValue()));
+        }, false);
+      }
+    };
+  }
+
+  /**
+   * Returns a shallow copy of this {@link ConcurrentNullableHashMap} instance
+   * (the keys and values themselves are not cloned).
+   *
+   * @return A shallow copy of this {@link ConcurrentNullableHashMap} instance.
+   */
+  @Override
+  @SuppressWarnings("unchecked")
+  public ConcurrentNullableHashMap<K,V> clone() {
+    try {
+      final ConcurrentNullableHashMap<K,V> clone = (ConcurrentNullableHashMap<K,V>)super.clone();
+      clone.map = new ConcurrentHashMap<>(map);
+      return clone;
+    }
+    catch (final CloneNotSupportedException e) {
+      throw new RuntimeException(e);
+    }
+  }
+
+  /**
+   * Save the state of this {@link ConcurrentNullableHashMap} instance to a
+   * stream (that is, serialize it).
+   *
+   * @serialData Each key-value mapping preceded by {@code true} (boolean),
+   *             followed by {@code false} (boolean).
+   * @param s The {@link ObjectOutputStream}.
+   * @throws IOException If an I/O error has occurred.
+   */
+  private void writeObject(final ObjectOutputStream s) throws IOException {
+    s.defaultWriteObject();
+    for (final Map.Entry<Object,Object> entry : map.entrySet()) {
+      s.writeBoolean(true);
+      s.writeObject(unmask(entry.getKey()));
+      s.writeObject(unmask(entry.getValue()));
+    }
+
+    s.writeBoolean(false);
+  }
+
+  /**
+   * Reconstitute the {@link ConcurrentNullableHashMap} instance from a stream
+   * (that is, deserialize it).
+   *
+   * @param s The {@link ObjectInputStream}.
+   * @throws ClassNotFoundException If the class of a serialized object could
+   *           not be found.
+   * @throws IOException If an I/O error has occurred.
+   */
+  private void readObject(final ObjectInputStream s) throws ClassNotFoundException, IOException {
+    s.defaultReadObject();
+    map = new ConcurrentHashMap<>();
+    while (s.readBoolean())
+      map.put(mask(s.readObject()), mask(s.readObject()));
+  }
+}
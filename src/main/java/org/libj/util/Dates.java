@@ -16,12 +16,13 @@
 
 package org.libj.util;
 
+import java.nio.charset.StandardCharsets;
 import java.text.ParseException;
-import java.util.Calendar;
 import java.util.Date;
 import java.util.TimeZone;
 
-import org.libj.lang.Numbers;
+import org.libj.lang.Assertions;
+import org.libj.util.primitive.ArrayLongList;
 
 /**
  * Utility functions for operations pertaining to {@link Date}.
@@ -29,6 +30,8 @@ import org.libj.lang.Numbers;
 public final class Dates {
   public static final TimeZone UTC_TIME_ZONE = TimeZone.getTimeZone("UTC");
 
+  private static final Iso8601Formatter ISO_8601 = new Iso8601Formatter(null, 3, false);
+
   /** Number of days in a week. */
   public static final byte DAYS_IN_WEEK = 7;
   /** Number of hours in a day. */
@@ -434,163 +437,665 @@ public final class Dates {
   }
 
   /**
-   * Converts a <a href="https://en.wikipedia.org/wiki/ISO_8601">ISO-8601</a>
-   * formatted date-time string to epoch millis.
+   * Removes the time part of each {@code long} time value in the provided
+   * range of the specified array, in place, as per {@link #dropTimePart(long)}.
    *
-   * @param iso8601 The
-   *          <a href="https://en.wikipedia.org/wiki/ISO_8601">ISO-8601</a>
-   *          formatted date-time string to convert.
-   * @return The millis representation of the
-   *         <a href="https://en.wikipedia.org/wiki/ISO_8601">ISO-8601</a>
-   *         formatted date-time string.
-   * @throws NullPointerException If {@code iso8601} is null.
+   * @param times The array of {@code long} time values.
+   * @param fromIndex The index of the first element (inclusive).
+   * @param toIndex The index of the last element (exclusive).
+   * @throws IllegalArgumentException If {@code fromIndex > toIndex}.
+   * @throws ArrayIndexOutOfBoundsException If {@code fromIndex < 0} or
+   *           {@code toIndex > times.length}.
+   * @throws NullPointerException If {@code times} is null.
+   */
+  public static void dropTimePart(final long[] times, final int fromIndex, final int toIndex) {
+    align(times, fromIndex, toIndex, MILLISECONDS_IN_DAY);
+  }
+
+  /**
+   * Removes the time part of each {@code long} time value in the provided
+   * range of the specified {@link ArrayLongList}, in place, as per
+   * {@link #dropTimePart(long)}.
+   *
+   * @param times The {@link ArrayLongList} of {@code long} time values.
+   * @param fromIndex The index of the first element (inclusive).
+   * @param toIndex The index of the last element (exclusive).
+   * @throws IllegalArgumentException If {@code fromIndex > toIndex}.
+   * @throws ArrayIndexOutOfBoundsException If {@code fromIndex < 0} or
+   *           {@code toIndex > times.size()}.
+   * @throws NullPointerException If {@code times} is null.
+   */
+  public static void dropTimePart(final ArrayLongList times, final int fromIndex, final int toIndex) {
+    align(times, fromIndex, toIndex, MILLISECONDS_IN_DAY);
+  }
+
+  /**
+   * Replaces each {@code long} time value in the provided range of the
+   * specified array, in place, with the start of its day in the provided
+   * {@link TimeZone}. For repeated calls with the same {@link TimeZone}, the
+   * {@link TimeZoneTransitions} table used by this method can be retained and
+   * reused.
+   *
+   * @param times The array of {@code long} time values.
+   * @param fromIndex The index of the first element (inclusive).
+   * @param toIndex The index of the last element (exclusive).
+   * @param timeZone The {@link TimeZone}.
+   * @throws IllegalArgumentException If {@code fromIndex > toIndex}.
+   * @throws ArrayIndexOutOfBoundsException If {@code fromIndex < 0} or
+   *           {@code toIndex > times.length}.
+   * @throws NullPointerException If {@code times} or {@code timeZone} is null.
+   * @see TimeZoneTransitions#startOfDay(long[],int,int)
+   */
+  public static void dropTimePart(final long[] times, final int fromIndex, final int toIndex, final TimeZone timeZone) {
+    new TimeZoneTransitions(timeZone).startOfDay(times, fromIndex, toIndex);
+  }
+
+  /**
+   * Replaces each {@code long} time value in the provided range of the
+   * specified {@link ArrayLongList}, in place, with the start of its day in
+   * the provided {@link TimeZone}. For repeated calls with the same
+   * {@link TimeZone}, the {@link TimeZoneTransitions} table used by this method
+   * can be retained and reused.
+   *
+   * @param times The {@link ArrayLongList} of {@code long} time values.
+   * @param fromIndex The index of the first element (inclusive).
+   * @param toIndex The index of the last element (exclusive).
+   * @param timeZone The {@link TimeZone}.
+   * @throws IllegalArgumentException If {@code fromIndex > toIndex}.
+   * @throws ArrayIndexOutOfBoundsException If {@code fromIndex < 0} or
+   *           {@code toIndex > times.size()}.
+   * @throws NullPointerException If {@code times} or {@code timeZone} is null.
+   * @see TimeZoneTransitions#startOfDay(ArrayLongList,int,int)
+   */
+  public static void dropTimePart(final ArrayLongList times, final int fromIndex, final int toIndex, final TimeZone timeZone) {
+    new TimeZoneTransitions(timeZone).startOfDay(times, fromIndex, toIndex);
+  }
+
+  /**
+   * Removes the seconds part of each {@code long} time value in the provided
+   * range of the specified array, in place, as per {@link #dropSeconds(long)}.
+   *
+   * @param times The array of {@code long} time values.
+   * @param fromIndex The index of the first element (inclusive).
+   * @param toIndex The index of the last element (exclusive).
+   * @throws IllegalArgumentException If {@code fromIndex > toIndex}.
+   * @throws ArrayIndexOutOfBoundsException If {@code fromIndex < 0} or
+   *           {@code toIndex > times.length}.
+   * @throws NullPointerException If {@code times} is null.
+   */
+  public static void dropSeconds(final long[] times, final int fromIndex, final int toIndex) {
+    Assertions.assertRangeArray(fromIndex, toIndex, times.length);
+    for (int i = fromIndex; i < toIndex; ++i)
+      times[i] = MILLISECONDS_IN_MINUTE * (times[i] / MILLISECONDS_IN_MINUTE);
+  }
+
+  /**
+   * Removes the seconds part of each {@code long} time value in the provided
+   * range of the specified {@link ArrayLongList}, in place, as per
+   * {@link #dropSeconds(long)}.
+   *
+   * @param times The {@link ArrayLongList} of {@code long} time values.
+   * @param fromIndex The index of the first element (inclusive).
+   * @param toIndex The index of the last element (exclusive).
+   * @throws IllegalArgumentException If {@code fromIndex > toIndex}.
+   * @throws ArrayIndexOutOfBoundsException If {@code fromIndex < 0} or
+   *           {@code toIndex > times.size()}.
+   * @throws NullPointerException If {@code times} is null.
+   */
+  public static void dropSeconds(final ArrayLongList times, final int fromIndex, final int toIndex) {
+    Assertions.assertRangeArray(fromIndex, toIndex, times.size());
+    for (int i = fromIndex; i < toIndex; ++i)
+      times.set(i, MILLISECONDS_IN_MINUTE * (times.get(i) / MILLISECONDS_IN_MINUTE));
+  }
+
+  /**
+   * Removes the milliseconds part of each {@code long} time value in the
+   * provided range of the specified array, in place, as per
+   * {@link #dropMilliseconds(long)}.
+   *
+   * @param times The array of {@code long} time values.
+   * @param fromIndex The index of the first element (inclusive).
+   * @param toIndex The index of the last element (exclusive).
+   * @throws IllegalArgumentException If {@code fromIndex > toIndex}.
+   * @throws ArrayIndexOutOfBoundsException If {@code fromIndex < 0} or
+   *           {@code toIndex > times.length}.
+   * @throws NullPointerException If {@code times} is null.
+   */
+  public static void dropMilliseconds(final long[] times, final int fromIndex, final int toIndex) {
+    Assertions.assertRangeArray(fromIndex, toIndex, times.length);
+    for (int i = fromIndex; i < toIndex; ++i)
+      times[i] = MILLISECONDS_IN_SECOND * (times[i] / MILLISECONDS_IN_SECOND);
+  }
+
+  /**
+   * Removes the milliseconds part of each {@code long} time value in the
+   * provided range of the specified {@link ArrayLongList}, in place, as per
+   * {@link #dropMilliseconds(long)}.
+   *
+   * @param times The {@link ArrayLongList} of {@code long} time values.
+   * @param fromIndex The index of the first element (inclusive).
+   * @param toIndex The index of the last element (exclusive).
+   * @throws IllegalArgumentException If {@code fromIndex > toIndex}.
+   * @throws ArrayIndexOutOfBoundsException If {@code fromIndex < 0} or
+   *           {@code toIndex > times.size()}.
+   * @throws NullPointerException If {@code times} is null.
+   */
+  public static void dropMilliseconds(final ArrayLongList times, final int fromIndex, final int toIndex) {
+    Assertions.assertRangeArray(fromIndex, toIndex, times.size());
+    for (int i = fromIndex; i < toIndex; ++i)
+      times.set(i, MILLISECONDS_IN_SECOND * (times.get(i) / MILLISECONDS_IN_SECOND));
+  }
+
+  /**
+   * Aligns each {@code long} time value in the provided range of the specified
+   * array, in place, to the greatest multiple of {@code interval} that is less
+   * than or equal to it (i.e. {@code interval} of {@link #MILLISECONDS_IN_HOUR}
+   * aligns each time value to the start of its hour in UTC).
+   *
+   * @param times The array of {@code long} time values.
+   * @param fromIndex The index of the first element (inclusive).
+   * @param toIndex The index of the last element (exclusive).
+   * @param interval The interval in milliseconds.
+   * @throws IllegalArgumentException If {@code fromIndex > toIndex}, or if
+   *           {@code interval} is not positive.
+   * @throws ArrayIndexOutOfBoundsException If {@code fromIndex < 0} or
+   *           {@code toIndex > times.length}.
+   * @throws NullPointerException If {@code times} is null.
+   */
+  public static void align(final long[] times, final int fromIndex, final int toIndex, final long interval) {
+    Assertions.assertRangeArray(fromIndex, toIndex, times.length);
+    if (interval <= 0)
+      throw new IllegalArgumentException("interval (" + interval + ") must be positive");
+
+    for (int i = fromIndex; i < toIndex; ++i)
+      times[i] -= Math.floorMod(times[i], interval);
+  }
+
+  /**
+   * Aligns each {@code long} time value in the provided range of the specified
+   * {@link ArrayLongList}, in place, to the greatest multiple of
+   * {@code interval} that is less than or equal to it (i.e. {@code interval}
+   * of {@link #MILLISECONDS_IN_HOUR} aligns each time value to the start of its
+   * hour in UTC).
+   *
+   * @param times The {@link ArrayLongList} of {@code long} time values.
+   * @param fromIndex The index of the first element (inclusive).
+   * @param toIndex The index of the last element (exclusive).
+   * @param interval The interval in milliseconds.
+   * @throws IllegalArgumentException If {@code fromIndex > toIndex}, or if
+   *           {@code interval} is not positive.
+   * @throws ArrayIndexOutOfBoundsException If {@code fromIndex < 0} or
+   *           {@code toIndex > times.size()}.
+   * @throws NullPointerException If {@code times} is null.
+   */
+  public static void align(final ArrayLongList times, final int fromIndex, final int toIndex, final long interval) {
+    Assertions.assertRangeArray(fromIndex, toIndex, times.size());
+    if (interval <= 0)
+      throw new IllegalArgumentException("interval (" + interval + ") must be positive");
+
+    for (int i = fromIndex; i < toIndex; ++i) {
+      final long time = times.get(i);
+      times.set(i, time - Math.floorMod(time, interval));
+    }
+  }
+
+  /**
+   * Replaces each {@code long} time value in the provided range of the
+   * specified array, in place, with the index of the bucket of width
+   * {@code interval} to which it belongs, counting from the bucket that starts
+   * at {@code origin} (i.e. {@code floorDiv(time - origin, interval)}).
+   *
+   * @param times The array of {@code long} time values.
+   * @param fromIndex The index of the first element (inclusive).
+   * @param toIndex The index of the last element (exclusive).
+   * @param origin The start of the bucket with index 0.
+   * @param interval The width of each bucket in milliseconds.
+   * @throws IllegalArgumentException If {@code fromIndex > toIndex}, or if
+   *           {@code interval} is not positive.
+   * @throws ArrayIndexOutOfBoundsException If {@code fromIndex < 0} or
+   *           {@code toIndex > times.length}.
+   * @throws NullPointerException If {@code times} is null.
+   */
+  public static void bucket(final long[] times, final int fromIndex, final int toIndex, final long origin, final long interval) {
+    Assertions.assertRangeArray(fromIndex, toIndex, times.length);
+    if (interval <= 0)
+      throw new IllegalArgumentException("interval (" + interval + ") must be positive");
+
+    for (int i = fromIndex; i < toIndex; ++i)
+      times[i] = Math.floorDiv(times[i] - origin, interval);
+  }
+
+  /**
+   * Replaces each {@code long} time value in the provided range of the
+   * specified {@link ArrayLongList}, in place, with the index of the bucket of
+   * width {@code interval} to which it belongs, counting from the bucket that
+   * starts at {@code origin} (i.e. {@code floorDiv(time - origin, interval)}).
+   *
+   * @param times The {@link ArrayLongList} of {@code long} time values.
+   * @param fromIndex The index of the first element (inclusive).
+   * @param toIndex The index of the last element (exclusive).
+   * @param origin The start of the bucket with index 0.
+   * @param interval The width of each bucket in milliseconds.
+   * @throws IllegalArgumentException If {@code fromIndex > toIndex}, or if
+   *           {@code interval} is not positive.
+   * @throws ArrayIndexOutOfBoundsException If {@code fromIndex < 0} or
+   *           {@code toIndex > times.size()}.
+   * @throws NullPointerException If {@code times} is null.
+   */
+  public static void bucket(final ArrayLongList times, final int fromIndex, final int toIndex, final long origin, final long interval) {
+    Assertions.assertRangeArray(fromIndex, toIndex, times.size());
+    if (interval <= 0)
+      throw new IllegalArgumentException("interval (" + interval + ") must be positive");
+
+    for (int i = fromIndex; i < toIndex; ++i)
+      times.set(i, Math.floorDiv(times.get(i) - origin, interval));
+  }
+
+  /**
+   * Returns the number of days since the epoch (1970-01-01) of the specified
+   * date in the proleptic Gregorian calendar.
+   *
+   * @param year The year.
+   * @param month The month of the year, from 1 to 12.
+   * @param day The day of the month, from 1.
+   * @return The number of days since the epoch (1970-01-01) of the specified
+   *         date in the proleptic Gregorian calendar.
+   */
+  static long epochDay(long year, final int month, final int day) {
+    if (month <= 2)
+      --year;
+
+    final long era = (year >= 0 ? year : year - 399) / 400;
+    final long yearOfEra = year - era * 400;
+    final int dayOfYear = (153 * (month + (month > 2 ? -3 : 9)) + 2) / 5 + day - 1;
+    final long dayOfEra = yearOfEra * 365 + yearOfEra / 4 - yearOfEra / 100 + dayOfYear;
+    return era * 146097 + dayOfEra - 719468;
+  }
+
+  private static char charAt(final Object src, final int index) {
+    if (src instanceof char[])
+      return ((char[])src)[index];
+
+    if (src instanceof byte[])
+      return (char)(((byte[])src)[index] & 0xff);
+
+    return ((CharSequence)src).charAt(index);
+  }
+
+  private static int parseDigits(final Object src, final int fromIndex, final int toIndex) {
+    int value = 0;
+    for (int i = fromIndex; i < toIndex; ++i) {
+      final char ch = charAt(src, i);
+      if (ch < '0' || '9' < ch)
+        return -1;
+
+      value = value * 10 + ch - '0';
+    }
+
+    return value;
+  }
+
+  private static ParseException unparseable(final Object src, final int fromIndex, final int toIndex, final int index) {
+    final String text;
+    if (src instanceof char[])
+      text = new String((char[])src, fromIndex, toIndex - fromIndex);
+    else if (src instanceof byte[])
+      text = new String((byte[])src, fromIndex, toIndex - fromIndex, StandardCharsets.ISO_8859_1);
+    else
+      text = ((CharSequence)src).subSequence(fromIndex, toIndex).toString();
+
+    return new ParseException("Unparseable date: \"" + text + "\"", index - fromIndex);
+  }
+
+  private static final int[] FRACTION_SCALE = {1000000000, 100000000, 10000000, 1000000, 100000, 10000, 1000, 100, 10, 1};
+
+  /**
+   * Parses the <a href="https://en.wikipedia.org/wiki/ISO_8601">ISO-8601</a>
+   * formatted date-time in {@code src} from {@code fromIndex} to
+   * {@code toIndex}, and returns the epoch millis (if {@code nanos} is
+   * {@code false}) or epoch nanos (if {@code nanos} is {@code true}).
+   * <p>
+   * The epoch value is computed directly from the parsed fields with civil
+   * (proleptic Gregorian) date arithmetic. No objects are allocated unless the
+   * date-time does not specify an offset, in which case the offset of
+   * {@link TimeZone#getDefault()} is applied.
+   *
+   * @param src The {@link CharSequence}, {@code char[]} or {@code byte[]}.
+   * @param fromIndex The index from which to parse (inclusive).
+   * @param toIndex The index to which to parse (exclusive).
+   * @param nanos Whether to return epoch nanos instead of epoch millis.
+   * @return The epoch millis or epoch nanos of the date-time.
    * @throws ParseException If a parsing error has occurred.
    */
-  public static long iso8601ToEpochMilli(final String iso8601) throws ParseException {
-    final int len = iso8601.length();
+  private static long parseIso8601(final Object src, final int fromIndex, final int toIndex, final boolean nanos) throws ParseException {
     // The minimum length of a iso8601 dateTime is 14
-    if (len < 14)
-      throw new ParseException("Unparseable date: \"" + iso8601 + "\"", 0);
+    if (toIndex - fromIndex < 14)
+      throw unparseable(src, fromIndex, toIndex, fromIndex);
 
-    int i = 0;
-    final int year = Numbers.parseInt(iso8601, i, i += 4, -1);
+    int i = fromIndex;
+    final int year = parseDigits(src, i, i += 4);
     if (year == -1)
-      throw new ParseException("Unparseable date: \"" + iso8601 + "\"", i - 4);
+      throw unparseable(src, fromIndex, toIndex, i - 4);
 
-    if (iso8601.charAt(i) == '-')
+    if (charAt(src, i) == '-')
       ++i;
 
-    final int month = Numbers.parseInt(iso8601, i, i += 2, -1);
-    if (month == -1)
-      throw new ParseException("Unparseable date: \"" + iso8601 + "\"", i - 2);
+    final int month = parseDigits(src, i, i += 2);
+    if (month < 1 || month > 12)
+      throw unparseable(src, fromIndex, toIndex, i - 2);
 
-    if (iso8601.charAt(i) == '-')
+    if (charAt(src, i) == '-')
       ++i;
 
-    final int date = Numbers.parseInt(iso8601, i, i += 2, -1);
+    final int date = parseDigits(src, i, i += 2);
     if (date == -1)
-      throw new ParseException("Unparseable date: \"" + iso8601 + "\"", i - 2);
+      throw unparseable(src, fromIndex, toIndex, i - 2);
 
-    if (iso8601.charAt(i) == 'T')
+    if (charAt(src, i) == 'T')
       ++i;
 
-    if (len < i + 2)
-      throw new ParseException("Unparseable date: \"" + iso8601 + "\"", i);
+    if (toIndex < i + 2)
+      throw unparseable(src, fromIndex, toIndex, i);
 
-    final int hour = Numbers.parseInt(iso8601, i, i += 2, -1);
+    final int hour = parseDigits(src, i, i += 2);
     if (hour == -1)
-      throw new ParseException("Unparseable date: \"" + iso8601 + "\"", i - 2);
+      throw unparseable(src, fromIndex, toIndex, i - 2);
 
-    if (iso8601.charAt(i) == ':')
+    if (i < toIndex && charAt(src, i) == ':')
       ++i;
 
     // Need to start checking the length again, because here it may be more than 14 (see prior comment above)
-    if (len < i + 2)
-      throw new ParseException("Unparseable date: \"" + iso8601 + "\"", i);
+    if (toIndex < i + 2)
+      throw unparseable(src, fromIndex, toIndex, i);
 
-    final int minute = Numbers.parseInt(iso8601, i, i += 2, -1);
+    final int minute = parseDigits(src, i, i += 2);
     if (minute == -1)
-      throw new ParseException("Unparseable date: \"" + iso8601 + "\"", i - 2);
+      throw unparseable(src, fromIndex, toIndex, i - 2);
 
-    if (iso8601.charAt(i) == ':')
+    if (i < toIndex && charAt(src, i) == ':')
       ++i;
 
-    if (len < i + 2)
-      throw new ParseException("Unparseable date: \"" + iso8601 + "\"", i);
+    if (toIndex < i + 2)
+      throw unparseable(src, fromIndex, toIndex, i);
 
-    final int second = Numbers.parseInt(iso8601, i, i += 2, -1);
+    final int second = parseDigits(src, i, i += 2);
     if (second == -1)
-      throw new ParseException("Unparseable date: \"" + iso8601 + "\"", i - 2);
+      throw unparseable(src, fromIndex, toIndex, i - 2);
 
-    int millis = 0;
-    char ch = iso8601.charAt(i);
+    int nanoOfSecond = 0;
+    char ch = i < toIndex ? charAt(src, i) : '\0';
     if (ch == '.') {
       ++i;
       int p = i;
-      for (; p < len; ++p) {
-        ch = iso8601.charAt(p);
+      for (; p < toIndex; ++p) {
+        ch = charAt(src, p);
         if (ch < '0' || '9' < ch)
           break;
       }
 
-      final int precision = p - i;
-      final int factor = precision == 1 ? 100 : precision == 2 ? 10 : 1;
-      millis = Numbers.parseInt(iso8601, i, i + Math.min(precision, 3), -1);
-      if (millis == -1)
-        throw new ParseException("Unparseable date: \"" + iso8601 + "\"", i);
+      final int precision = Math.min(p - i, 9);
+      if (precision == 0)
+        throw unparseable(src, fromIndex, toIndex, i);
 
-      millis *= factor;
+      nanoOfSecond = parseDigits(src, i, i + precision) * FRACTION_SCALE[precision];
       i = p;
+      ch = i < toIndex ? charAt(src, i) : '\0';
     }
 
-    final TimeZone timeZone;
-    int offset = 0;
-    if (i == len) {
-      timeZone = TimeZone.getDefault();
+    long epochSecond = epochDay(year, month, date) * SECONDS_IN_DAY + hour * SECONDS_IN_HOUR + minute * SECONDS_IN_MINUTE + second;
+    if (i == toIndex) {
+      final TimeZone timeZone = TimeZone.getDefault();
+      final long localMilli = epochSecond * MILLISECONDS_IN_SECOND;
+      final int offset = timeZone.getOffset(localMilli - timeZone.getOffset(localMilli - timeZone.getRawOffset()));
+      epochSecond -= offset / MILLISECONDS_IN_SECOND;
     }
-    else {
-      timeZone = UTC_TIME_ZONE;
-      if (ch != 'Z') {
-        final int factor;
-        if (ch == '+')
-          factor = -1;
-        else if (ch == '-')
-          factor = 1;
-        else
-          throw new ParseException("Unparseable date: \"" + iso8601 + "\"", i);
-
-        ++i;
-        if (len < i + 2)
-          throw new ParseException("Unparseable date: \"" + iso8601 + "\"", i);
-
-        offset = Numbers.parseInt(iso8601, i, i += 2, -1);
-        if (i == -1 || offset > 24)
-          throw new ParseException("Unparseable date: \"" + iso8601 + "\"", i - 2);
-
-        offset *= 60;
-
-        if (i < len) {
-          ch = iso8601.charAt(i);
-          if (ch == ':')
-            ++i;
-
-          if (len < i + 2)
-            throw new ParseException("Unparseable date: \"" + iso8601 + "\"", i);
-
-          final int mins = Numbers.parseInt(iso8601, i, i += 2, -1);
-          if (mins == -1 || mins > 60)
-            throw new ParseException("Unparseable date: \"" + iso8601 + "\"", i - 2);
-
-          if (i < len)
-            throw new ParseException("Unparseable date: \"" + iso8601 + "\"", i);
-
-          offset += mins;
-        }
-
-        offset *= factor;
+    else if (ch != 'Z') {
+      final int factor;
+      if (ch == '+')
+        factor = -1;
+      else if (ch == '-')
+        factor = 1;
+      else
+        throw unparseable(src, fromIndex, toIndex, i);
+
+      ++i;
+      if (toIndex < i + 2)
+        throw unparseable(src, fromIndex, toIndex, i);
+
+      int offset = parseDigits(src, i, i += 2);
+      if (offset == -1 || offset > 24)
+        throw unparseable(src, fromIndex, toIndex, i - 2);
+
+      offset *= MINUTES_IN_HOUR;
+
+      if (i < toIndex) {
+        if (charAt(src, i) == ':')
+          ++i;
+
+        if (toIndex < i + 2)
+          throw unparseable(src, fromIndex, toIndex, i);
+
+        final int mins = parseDigits(src, i, i += 2);
+        if (mins == -1 || mins > 60)
+          throw unparseable(src, fromIndex, toIndex, i - 2);
+
+        if (i < toIndex)
+          throw unparseable(src, fromIndex, toIndex, i);
+
+        offset += mins;
       }
+
+      epochSecond += factor * offset * SECONDS_IN_MINUTE;
+    }
+    else if (i + 1 < toIndex) {
+      throw unparseable(src, fromIndex, toIndex, i + 1);
     }
 
-    final Calendar calendar = Calendar.getInstance(timeZone);
-    calendar.set(Calendar.YEAR, year);
-    calendar.set(Calendar.MONTH, month - 1);
-    calendar.set(Calendar.DATE, date);
-    calendar.set(Calendar.HOUR_OF_DAY, hour);
-    calendar.set(Calendar.MINUTE, minute);
-    calendar.set(Calendar.SECOND, second);
-    if (millis > 0)
-      calendar.set(Calendar.MILLISECOND, millis);
+    return nanos ? epochSecond * 1000000000L + nanoOfSecond : epochSecond * MILLISECONDS_IN_SECOND + nanoOfSecond / 1000000;
+  }
 
-    if (offset != 0)
-      calendar.add(Calendar.MINUTE, offset);
+  /**
+   * Converts a <a href="https://en.wikipedia.org/wiki/ISO_8601">ISO-8601</a>
+   * formatted date-time string to epoch millis.
+   *
+   * @param iso8601 The
+   *          <a href="https://en.wikipedia.org/wiki/ISO_8601">ISO-8601</a>
+   *          formatted date-time string to convert.
+   * @return The millis representation of the
+   *         <a href="https://en.wikipedia.org/wiki/ISO_8601">ISO-8601</a>
+   *         formatted date-time string.
+   * @throws NullPointerException If {@code iso8601} is null.
+   * @throws ParseException If a parsing error has occurred.
+   */
+  public static long iso8601ToEpochMilli(final String iso8601) throws ParseException {
+    return parseIso8601(iso8601, 0, iso8601.length(), false);
+  }
 
-    return calendar.getTimeInMillis();
+  /**
+   * Converts the <a href="https://en.wikipedia.org/wiki/ISO_8601">ISO-8601</a>
+   * formatted date-time in the specified range of the {@link CharSequence} to
+   * epoch millis. The epoch millis are computed with civil date arithmetic,
+   * without allocating objects (unless the date-time does not specify an
+   * offset, in which case the offset of {@link TimeZone#getDefault()} is
+   * applied).
+   *
+   * @param iso8601 The {@link CharSequence} with the
+   *          <a href="https://en.wikipedia.org/wiki/ISO_8601">ISO-8601</a>
+   *          formatted date-time to convert.
+   * @param fromIndex The index from which to parse (inclusive).
+   * @param toIndex The index to which to parse (exclusive).
+   * @return The millis representation of the
+   *         <a href="https://en.wikipedia.org/wiki/ISO_8601">ISO-8601</a>
+   *         formatted date-time.
+   * @throws NullPointerException If {@code iso8601} is null.
+   * @throws IndexOutOfBoundsException If {@code fromIndex} or {@code toIndex}
+   *           are out of range.
+   * @throws ParseException If a parsing error has occurred.
+   */
+  public static long iso8601ToEpochMilli(final CharSequence iso8601, final int fromIndex, final int toIndex) throws ParseException {
+    return parseIso8601(iso8601, fromIndex, toIndex, false);
+  }
+
+  /**
+   * Converts the <a href="https://en.wikipedia.org/wiki/ISO_8601">ISO-8601</a>
+   * formatted date-time in the specified range of the {@code char[]} to epoch
+   * millis. The epoch millis are computed with civil date arithmetic, without
+   * allocating objects (unless the date-time does not specify an offset, in
+   * which case the offset of {@link TimeZone#getDefault()} is applied).
+   *
+   * @param iso8601 The {@code char[]} with the
+   *          <a href="https://en.wikipedia.org/wiki/ISO_8601">ISO-8601</a>
+   *          formatted date-time to convert.
+   * @param fromIndex The index from which to parse (inclusive).
+   * @param toIndex The index to which to parse (exclusive).
+   * @return The millis representation of the
+   *         <a href="https://en.wikipedia.org/wiki/ISO_8601">ISO-8601</a>
+   *         formatted date-time.
+   * @throws NullPointerException If {@code iso8601} is null.
+   * @throws ArrayIndexOutOfBoundsException If {@code fromIndex} or
+   *           {@code toIndex} are out of range.
+   * @throws ParseException If a parsing error has occurred.
+   */
+  public static long iso8601ToEpochMilli(final char[] iso8601, final int fromIndex, final int toIndex) throws ParseException {
+    return parseIso8601(iso8601, fromIndex, toIndex, false);
+  }
+
+  /**
+   * Converts the <a href="https://en.wikipedia.org/wiki/ISO_8601">ISO-8601</a>
+   * formatted date-time in the specified range of the ASCII {@code byte[]} to
+   * epoch millis. The epoch millis are computed with civil date arithmetic,
+   * without allocating objects (unless the date-time does not specify an
+   * offset, in which case the offset of {@link TimeZone#getDefault()} is
+   * applied).
+   *
+   * @param iso8601 The ASCII {@code byte[]} with the
+   *          <a href="https://en.wikipedia.org/wiki/ISO_8601">ISO-8601</a>
+   *          formatted date-time to convert.
+   * @param fromIndex The index from which to parse (inclusive).
+   * @param toIndex The index to which to parse (exclusive).
+   * @return The millis representation of the
+   *         <a href="https://en.wikipedia.org/wiki/ISO_8601">ISO-8601</a>
+   *         formatted date-time.
+   * @throws NullPointerException If {@code iso8601} is null.
+   * @throws ArrayIndexOutOfBoundsException If {@code fromIndex} or
+   *           {@code toIndex} are out of range.
+   * @throws ParseException If a parsing error has occurred.
+   */
+  public static long iso8601ToEpochMilli(final byte[] iso8601, final int fromIndex, final int toIndex) throws ParseException {
+    return parseIso8601(iso8601, fromIndex, toIndex, false);
+  }
+
+  /**
+   * Converts a <a href="https://en.wikipedia.org/wiki/ISO_8601">ISO-8601</a>
+   * formatted date-time string to epoch nanos, retaining up to 9 digits of
+   * the fraction of the second. The range of epoch nanos representable as a
+   * {@code long} is from year 1677 to year 2262.
+   *
+   * @param iso8601 The
+   *          <a href="https://en.wikipedia.org/wiki/ISO_8601">ISO-8601</a>
+   *          formatted date-time string to convert.
+   * @return The nanos representation of the
+   *         <a href="https://en.wikipedia.org/wiki/ISO_8601">ISO-8601</a>
+   *         formatted date-time string.
+   * @throws NullPointerException If {@code iso8601} is null.
+   * @throws ParseException If a parsing error has occurred.
+   */
+  public static long iso8601ToEpochNano(final String iso8601) throws ParseException {
+    return parseIso8601(iso8601, 0, iso8601.length(), true);
+  }
+
+  /**
+   * Converts the <a href="https://en.wikipedia.org/wiki/ISO_8601">ISO-8601</a>
+   * formatted date-time in the specified range of the {@link CharSequence} to
+   * epoch nanos, retaining up to 9 digits of the fraction of the second. The
+   * range of epoch nanos representable as a {@code long} is from year 1677 to
+   * year 2262.
+   *
+   * @param iso8601 The {@link CharSequence} with the
+   *          <a href="https://en.wikipedia.org/wiki/ISO_8601">ISO-8601</a>
+   *          formatted date-time to convert.
+   * @param fromIndex The index from which to parse (inclusive).
+   * @param toIndex The index to which to parse (exclusive).
+   * @return The nanos representation of the
+   *         <a href="https://en.wikipedia.org/wiki/ISO_8601">ISO-8601</a>
+   *         formatted date-time.
+   * @throws NullPointerException If {@code iso8601} is null.
+   * @throws IndexOutOfBoundsException If {@code fromIndex} or {@code toIndex}
+   *           are out of range.
+   * @throws ParseException If a parsing error has occurred.
+   */
+  public static long iso8601ToEpochNano(final CharSequence iso8601, final int fromIndex, final int toIndex) throws ParseException {
+    return parseIso8601(iso8601, fromIndex, toIndex, true);
+  }
+
+  /**
+   * Converts the <a href="https://en.wikipedia.org/wiki/ISO_8601">ISO-8601</a>
+   * formatted date-time in the specified range of the {@code char[]} to epoch
+   * nanos, retaining up to 9 digits of the fraction of the second. The range
+   * of epoch nanos representable as a {@code long} is from year 1677 to year
+   * 2262.
+   *
+   * @param iso8601 The {@code char[]} with the
+   *          <a href="https://en.wikipedia.org/wiki/ISO_8601">ISO-8601</a>
+   *          formatted date-time to convert.
+   * @param fromIndex The index from which to parse (inclusive).
+   * @param toIndex The index to which to parse (exclusive).
+   * @return The nanos representation of the
+   *         <a href="https://en.wikipedia.org/wiki/ISO_8601">ISO-8601</a>
+   *         formatted date-time.
+   * @throws NullPointerException If {@code iso8601} is null.
+   * @throws ArrayIndexOutOfBoundsException If {@code fromIndex} or
+   *           {@code toIndex} are out of range.
+   * @throws ParseException If a parsing error has occurred.
+   */
+  public static long iso8601ToEpochNano(final char[] iso8601, final int fromIndex, final int toIndex) throws ParseException {
+    return parseIso8601(iso8601, fromIndex, toIndex, true);
+  }
+
+  /**
+   * Converts the <a href="https://en.wikipedia.org/wiki/ISO_8601">ISO-8601</a>
+   * formatted date-time in the specified range of the ASCII {@code byte[]} to
+   * epoch nanos, retaining up to 9 digits of the fraction of the second. The
+   * range of epoch nanos representable as a {@code long} is from year 1677 to
+   * year 2262.
+   *
+   * @param iso8601 The ASCII {@code byte[]} with the
+   *          <a href="https://en.wikipedia.org/wiki/ISO_8601">ISO-8601</a>
+   *          formatted date-time to convert.
+   * @param fromIndex The index from which to parse (inclusive).
+   * @param toIndex The index to which to parse (exclusive).
+   * @return The nanos representation of the
+   *         <a href="https://en.wikipedia.org/wiki/ISO_8601">ISO-8601</a>
+   *         formatted date-time.
+   * @throws NullPointerException If {@code iso8601} is null.
+   * @throws ArrayIndexOutOfBoundsException If {@code fromIndex} or
+   *           {@code toIndex} are out of range.
+   * @throws ParseException If a parsing error has occurred.
+   */
+  public static long iso8601ToEpochNano(final byte[] iso8601, final int fromIndex, final int toIndex) throws ParseException {
+    return parseIso8601(iso8601, fromIndex, toIndex, true);
+  }
+
+  /**
+   * Resolves the {@link TimeZone#getDefault() default time zone} anew for
+   * {@link #epochMilliToIso8601(long)} and
+   * {@link #epochMilliToIso8601(long,StringBuilder)}, which otherwise use the
+   * default time zone as of the initialization of this class. This method is
+   * to be called after a change of the default time zone with
+   * {@link TimeZone#setDefault(TimeZone)}.
+   *
+   * @see Iso8601Formatter#refreshTimeZone()
+   */
+  public static void refreshDefaultTimeZone() {
+    ISO_8601.refreshTimeZone();
   }
 
   /**
    * Converts the provided epoch millis to a
    * <a href="https://en.wikipedia.org/wiki/ISO_8601">ISO-8601</a> formatted
-   * date-time string representation.
+   * date-time string representation, in the default time zone as of the
+   * initialization of this class, or the last call to
+   * {@link #refreshDefaultTimeZone()}.
    *
    * @param epochMilli The epoch millis to convert to
    *          <a href="https://en.wikipedia.org/wiki/ISO_8601">ISO-8601</a>
@@ -600,7 +1105,27 @@ public final class Dates {
    *         millis.
    */
   public static String epochMilliToIso8601(final long epochMilli) {
-    return SimpleDateFormats.ISO_8601.get().format(epochMilli);
+    return ISO_8601.format(epochMilli);
+  }
+
+  /**
+   * Converts the provided epoch millis to a
+   * <a href="https://en.wikipedia.org/wiki/ISO_8601">ISO-8601</a> formatted
+   * date-time string representation, which is appended to the specified
+   * {@link StringBuilder}, in the default time zone as of the initialization of
+   * this class, or the last call to {@link #refreshDefaultTimeZone()}.
+   *
+   * @param epochMilli The epoch millis to convert to
+   *          <a href="https://en.wikipedia.org/wiki/ISO_8601">ISO-8601</a>
+   *          formatted date-time string representation.
+   * @param builder The {@link StringBuilder} to which the result is to be
+   *          appended.
+   * @return The provided {@link StringBuilder}.
+   * @throws NullPointerException If {@code builder} is null.
+   * @see Iso8601Formatter
+   */
+  public static StringBuilder epochMilliToIso8601(final long epochMilli, final StringBuilder builder) {
+    return ISO_8601.format(epochMilli, builder);
   }
 
   private Dates() {
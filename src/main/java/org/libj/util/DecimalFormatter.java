@@ -33,8 +33,27 @@ public final class DecimalFormatter {
    * @throws IllegalArgumentException If the given pattern is invalid.
    */
   public static ThreadLocal<DecimalFormat> createDecimalFormat(final String pattern) {
-    final DecimalFormat format = new DecimalFormat(pattern);
-    return ThreadLocal.withInitial(() -> format);
+    // Validate the pattern eagerly, but give each thread its own instance, as DecimalFormat is not thread-safe
+    new DecimalFormat(pattern);
+    return ThreadLocal.withInitial(() -> new DecimalFormat(pattern));
+  }
+
+  /**
+   * Returns an immutable and thread-safe {@link CompiledDecimalFormat} using the
+   * given {@code pattern} and the symbols for the default
+   * {@link java.util.Locale.Category#FORMAT FORMAT} locale, which can be shared
+   * across threads instead of the {@link ThreadLocal} returned by
+   * {@link #createDecimalFormat(String)}.
+   *
+   * @param pattern A non-localized pattern string.
+   * @return An immutable and thread-safe {@link CompiledDecimalFormat} using the
+   *         given {@code pattern}.
+   * @throws IllegalArgumentException If the given pattern is invalid or
+   *           unsupported by {@link CompiledDecimalFormat}.
+   * @throws NullPointerException If {@code pattern} is null.
+   */
+  public static CompiledDecimalFormat compileDecimalFormat(final String pattern) {
+    return new CompiledDecimalFormat(pattern);
   }
 
   private DecimalFormatter() {
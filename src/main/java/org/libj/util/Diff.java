@@ -16,7 +16,13 @@
 
 package org.libj.util;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
 import java.nio.charset.Charset;
+import java.nio.charset.CharsetDecoder;
+import java.nio.charset.CoderResult;
 import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
 import java.util.Iterator;
@@ -34,6 +40,14 @@ import name.fraser.neil.plaintext.diff_match_patch;
  * diff information (i.e. the transformation steps) is encoded with bit-level
  * packing, allowing for a super compact representation.
  * <p>
+ * An alternative byte-aligned encoding is available via
+ * {@link #toAlignedBytes()}, whereby each modification is encoded as a varint
+ * header (combining the ordinal and length), followed by the UTF-8 bytes of
+ * its text (for inserts and replaces). The byte-aligned encoding is faster to
+ * encode and decode, and can be applied directly to a string via
+ * {@link #patchAligned(ByteBuffer,CharSequence,Appendable)}, without
+ * materializing a {@link Diff} object.
+ * <p>
  * This class utilizes a 3rd-party library named
  * <a href="https://github.com/google/diff-match-patch">diff-match-patch</a> for
  * synchronizing plain text.
@@ -160,6 +174,258 @@ public class Diff {
     return diff;
   }
 
+  /**
+   * Returns the number of bytes required for the varint encoding of the
+   * specified value.
+   *
+   * @param value The value.
+   * @return The number of bytes required for the varint encoding of the
+   *         specified value.
+   */
+  private static int getVarintSize(long value) {
+    int size = 1;
+    while ((value >>>= 7) != 0)
+      ++size;
+
+    return size;
+  }
+
+  /**
+   * Writes the {@code value} into {@code dest} at {@code offset} as an
+   * unsigned varint, 7 bits per byte, least significant group first.
+   *
+   * @param dest The destination array.
+   * @param offset The offset at which the varint will be written.
+   * @param value The value.
+   * @return The new offset adjusted by the written bytes.
+   */
+  private static int writeVarint(final byte[] dest, int offset, long value) {
+    while ((value & ~0x7FL) != 0) {
+      dest[offset++] = (byte)((value & 0x7F) | 0x80);
+      value >>>= 7;
+    }
+
+    dest[offset++] = (byte)value;
+    return offset;
+  }
+
+  /**
+   * Reads an unsigned varint from the current position of {@code src}.
+   *
+   * @param src The source {@link ByteBuffer}.
+   * @return The value of the unsigned varint.
+   * @throws IllegalArgumentException If the varint is malformed or truncated.
+   */
+  private static long readVarint(final ByteBuffer src) {
+    long value = 0;
+    for (int shift = 0; shift < 64; shift += 7) {
+      if (!src.hasRemaining())
+        throw new IllegalArgumentException("Truncated varint at position " + src.position());
+
+      final byte b = src.get();
+      value |= (long)(b & 0x7F) << shift;
+      if (b >= 0)
+        return value;
+    }
+
+    throw new IllegalArgumentException("Malformed varint at position " + src.position());
+  }
+
+  /**
+   * Returns the length of the modification of the specified header of the
+   * byte-aligned encoding, which was read from {@code src}. If the
+   * modification has text, the length is checked against the remaining bytes
+   * of {@code src}.
+   *
+   * @param header The header.
+   * @param src The source {@link ByteBuffer}.
+   * @return The length of the modification of the specified header.
+   * @throws IllegalArgumentException If the length is out of range, or if the
+   *           text of the modification is truncated.
+   */
+  private static int readLength(final long header, final ByteBuffer src) {
+    final long length = header >>> 2;
+    if (length > Integer.MAX_VALUE)
+      throw new IllegalArgumentException("Length (" + length + ") out of range at position " + src.position());
+
+    final byte ordinal = (byte)(header & 0b11);
+    if ((ordinal == 0b00 || ordinal == 0b10) && length > src.remaining())
+      throw new IllegalArgumentException("Truncated text of length " + length + " at position " + src.position() + " with " + src.remaining() + " remaining");
+
+    return (int)length;
+  }
+
+  /**
+   * Decodes {@code length} bytes of UTF-8 text from the current position of
+   * {@code src}, appending the decoded chars to {@code out} in chunks of the
+   * capacity of the provided {@link CharBuffer}.
+   *
+   * @param src The source {@link ByteBuffer}.
+   * @param length The number of bytes of UTF-8 text.
+   * @param decoder The {@link CharsetDecoder}.
+   * @param chars The {@link CharBuffer} to be used for intermediate decoding.
+   * @param out The {@link Appendable} to which the decoded chars are to be
+   *          appended.
+   * @return The number of chars appended to {@code out}.
+   * @throws IOException If an I/O error has occurred, or if the text is not
+   *           valid UTF-8.
+   */
+  private static int appendText(final ByteBuffer src, final int length, final CharsetDecoder decoder, final CharBuffer chars, final Appendable out) throws IOException {
+    final int limit = src.limit();
+    src.limit(src.position() + length);
+    decoder.reset();
+    int count = 0;
+    try {
+      CoderResult result;
+      do {
+        result = decoder.decode(src, chars, true);
+        if (result.isError())
+          result.throwException();
+
+        chars.flip();
+        count += chars.remaining();
+        out.append(chars);
+        chars.clear();
+      }
+      while (result.isOverflow());
+    }
+    finally {
+      src.limit(limit);
+    }
+
+    return count;
+  }
+
+  /**
+   * Decodes a byte-aligned encoding of a diff (as produced by
+   * {@link #toAlignedBytes()}) into a {@link Diff} object.
+   *
+   * @param bytes The {@code byte[]} array.
+   * @return The {@link Diff} object decoded from the byte array.
+   * @throws NullPointerException If {@code bytes} is null.
+   * @throws IllegalArgumentException If {@code bytes} is malformed or
+   *           truncated.
+   */
+  public static Diff decodeAligned(final byte[] bytes) {
+    return decodeAligned(ByteBuffer.wrap(bytes));
+  }
+
+  /**
+   * Decodes a byte-aligned encoding of a diff (as produced by
+   * {@link #toAlignedBytes()}) from the remaining bytes of the specified
+   * {@link ByteBuffer} into a {@link Diff} object.
+   *
+   * @param src The {@link ByteBuffer}.
+   * @return The {@link Diff} object decoded from the {@link ByteBuffer}.
+   * @throws NullPointerException If {@code src} is null.
+   * @throws IllegalArgumentException If {@code src} is malformed or
+   *           truncated.
+   */
+  public static Diff decodeAligned(final ByteBuffer src) {
+    final List<Mod> mods = new ArrayList<>();
+    final Diff diff = new Diff(mods, (byte)0);
+    int maxLength = 0;
+    while (src.hasRemaining()) {
+      final long header = readVarint(src);
+      final byte ordinal = (byte)(header & 0b11);
+      final int length = readLength(header, src);
+      final Mod mod;
+      if (ordinal == 0b00 || ordinal == 0b10) {
+        final String text;
+        if (src.hasArray()) {
+          text = new String(src.array(), src.arrayOffset() + src.position(), length, charset);
+          src.position(src.position() + length);
+        }
+        else {
+          final byte[] bytes = new byte[length];
+          src.get(bytes);
+          text = new String(bytes, charset);
+        }
+
+        mod = ordinal == 0b00 ? diff.new Insert(text) : diff.new Replace(text);
+      }
+      else if (ordinal == 0b01) {
+        mod = diff.new Delete(length);
+      }
+      else {
+        mod = diff.new Equal(length);
+      }
+
+      if (mod.length > maxLength)
+        maxLength = mod.length;
+
+      mods.add(mod);
+    }
+
+    diff.lengthSize = maxLength == 0 ? 0 : Bytes.getSize(maxLength);
+    return diff;
+  }
+
+  /**
+   * Patches the specified {@link CharSequence} with the byte-aligned encoding
+   * of a diff (as produced by {@link #toAlignedBytes()}) in the remaining bytes
+   * of the specified {@link ByteBuffer}, appending the result to the provided
+   * {@link Appendable}.
+   * <p>
+   * This method applies each modification as it is read from {@code encoded},
+   * without materializing {@link Diff} or {@link Diff.Mod} objects, and decodes
+   * the UTF-8 text of inserts and replaces directly into {@code out}.
+   *
+   * @param <T> The type parameter of the {@link Appendable}.
+   * @param encoded The {@link ByteBuffer} with the byte-aligned encoding of a
+   *          diff.
+   * @param source The {@link CharSequence} to patch.
+   * @param out The {@link Appendable} to which the patched chars are to be
+   *          appended.
+   * @return The provided {@link Appendable}.
+   * @throws IOException If an I/O error has occurred, or if the encoded text is
+   *           not valid UTF-8.
+   * @throws NullPointerException If {@code encoded}, {@code source}, or
+   *           {@code out} is null.
+   * @throws IllegalArgumentException If {@code encoded} is malformed or
+   *           truncated, or modifies {@code source} beyond its length.
+   */
+  public static <T extends Appendable>T patchAligned(final ByteBuffer encoded, final CharSequence source, final T out) throws IOException {
+    CharsetDecoder decoder = null;
+    CharBuffer chars = null;
+    int position = 0;
+    while (encoded.hasRemaining()) {
+      final long header = readVarint(encoded);
+      final byte ordinal = (byte)(header & 0b11);
+      final int length = readLength(header, encoded);
+      if (ordinal == 0b00 || ordinal == 0b10) {
+        if (decoder == null) {
+          decoder = charset.newDecoder();
+          chars = CharBuffer.allocate(1024);
+        }
+
+        final int count = appendText(encoded, length, decoder, chars, out);
+        if (ordinal == 0b10)
+          position += count;
+      }
+      else if (ordinal == 0b01) {
+        position += length;
+      }
+      else {
+        final int end = position + length;
+        if (end < 0 || end > source.length())
+          throw new IllegalArgumentException("Equal of length " + length + " at index " + position + " exceeds the length of source (" + source.length() + ")");
+
+        out.append(source, position, end);
+        position = end;
+      }
+
+      if (position < 0 || position > source.length())
+        throw new IllegalArgumentException("Modification at position " + encoded.position() + " exceeds the length of source (" + source.length() + ")");
+    }
+
+    final int length = source.length();
+    if (position < length)
+      out.append(source, position, length);
+
+    return out;
+  }
+
   /**
    * Class representing an abstract modification.
    */
@@ -194,15 +460,32 @@ public class Diff {
     protected abstract byte ordinal();
 
     /**
-     * Patches the specified {@link StringBuilder} at the specified position
-     * with the modification represented by this instance, returning the change
-     * in length due to the patch operation.
+     * Applies the modification represented by this instance to the specified
+     * {@code source} at the specified position, appending the resulting chars
+     * to the provided {@link Appendable}, and returning the position in
+     * {@code source} at which the next modification is to be applied.
+     *
+     * @param source The source {@link CharSequence} being patched.
+     * @param position The position in {@code source} at which to perform the
+     *          patch.
+     * @param out The {@link Appendable} to which the patched chars are to be
+     *          appended.
+     * @return The position in {@code source} at which the next modification is
+     *         to be applied.
+     * @throws IOException If an I/O error has occurred.
+     */
+    protected abstract int patch(CharSequence source, int position, Appendable out) throws IOException;
+
+    /**
+     * Returns the change in length of the patched string due to the
+     * modification represented by this instance.
      *
-     * @param builder The {@link StringBuilder} in which to perform the patch.
-     * @param position The position at which to perform the patch.
-     * @return The change in length due to the patch operation.
+     * @return The change in length of the patched string due to the
+     *         modification represented by this instance.
      */
-    protected abstract int patch(StringBuilder builder, int position);
+    protected int delta() {
+      return 0;
+    }
 
     /**
      * Encodes this modification into the specified byte array, at the specified
@@ -229,6 +512,17 @@ public class Diff {
     protected int getSize() {
       return 2 + lengthSize;
     }
+
+    /**
+     * Returns the text of this modification, or {@code null} if this
+     * modification does not carry text.
+     *
+     * @return The text of this modification, or {@code null} if this
+     *         modification does not carry text.
+     */
+    protected String getText() {
+      return null;
+    }
   }
 
   /**
@@ -266,8 +560,13 @@ public class Diff {
     }
 
     @Override
-    protected int patch(final StringBuilder builder, final int position) {
-      builder.insert(position, text);
+    protected int patch(final CharSequence source, final int position, final Appendable out) throws IOException {
+      out.append(text);
+      return position;
+    }
+
+    @Override
+    protected int delta() {
       return length;
     }
 
@@ -283,6 +582,11 @@ public class Diff {
       return super.getSize() + length * 8;
     }
 
+    @Override
+    protected String getText() {
+      return text;
+    }
+
     @Override
     public String toString() {
       return "I " + length + " " + text;
@@ -317,9 +621,13 @@ public class Diff {
     }
 
     @Override
-    protected int patch(final StringBuilder builder, final int position) {
-      builder.delete(position, position + length);
-      return 0;
+    protected int patch(final CharSequence source, final int position, final Appendable out) {
+      return position + length;
+    }
+
+    @Override
+    protected int delta() {
+      return -length;
     }
 
     @Override
@@ -360,9 +668,9 @@ public class Diff {
     }
 
     @Override
-    protected int patch(final StringBuilder builder, final int position) {
-      builder.replace(position, position + length, text);
-      return length;
+    protected int patch(final CharSequence source, final int position, final Appendable out) throws IOException {
+      out.append(text);
+      return position + length;
     }
 
     @Override
@@ -377,6 +685,11 @@ public class Diff {
       return super.getSize() + length * 8;
     }
 
+    @Override
+    protected String getText() {
+      return text;
+    }
+
     @Override
     public String toString() {
       return "R " + length + " " + text;
@@ -411,8 +724,10 @@ public class Diff {
     }
 
     @Override
-    protected int patch(final StringBuilder builder, final int position) {
-      return length;
+    protected int patch(final CharSequence source, final int position, final Appendable out) throws IOException {
+      final int end = position + length;
+      out.append(source, position, end);
+      return end;
     }
 
     @Override
@@ -422,7 +737,7 @@ public class Diff {
   }
 
   private final List<Mod> mods;
-  private final byte lengthSize;
+  private byte lengthSize;
 
   /**
    * Creates a {@link Diff} that represents the steps necessary to transform a
@@ -526,14 +841,56 @@ public class Diff {
    *         string.
    */
   public String patch(final String string) {
-    final StringBuilder builder = new StringBuilder(string);
-    int position = 0;
-    for (final Mod mod : mods)
-      position += mod.patch(builder, position);
+    int length = string.length();
+    for (int i = 0, len = mods.size(); i < len; ++i)
+      length += mods.get(i).delta();
+
+    final StringBuilder builder = new StringBuilder(length);
+    try {
+      patch(string, builder);
+    }
+    catch (final IOException e) {
+      throw new UncheckedIOException(e);
+    }
 
     return builder.toString();
   }
 
+  /**
+   * Patches the specified {@link CharSequence} with the list of
+   * {@link Diff.Mod} objects in this {@link Diff}, appending the result to the
+   * provided {@link Appendable} (i.e. a {@link StringBuilder},
+   * {@link java.nio.CharBuffer}, or {@link java.io.Writer}).
+   * <p>
+   * Unlike an in-place patch of a {@link StringBuilder}, which shifts the
+   * remainder of the buffer on each insert, delete and replace, this method
+   * streams the result forward in a single pass over {@code source}: runs of
+   * {@link Equal} chars are copied directly from {@code source}, and the text
+   * of {@link Insert} and {@link Replace} modifications is appended as-is.
+   *
+   * @param <T> The type parameter of the {@link Appendable}.
+   * @param source The {@link CharSequence} to patch.
+   * @param out The {@link Appendable} to which the patched chars are to be
+   *          appended.
+   * @return The provided {@link Appendable}.
+   * @throws IOException If an I/O error has occurred.
+   * @throws NullPointerException If {@code source} or {@code out} is null.
+   * @throws IndexOutOfBoundsException If the modifications in this
+   *           {@link Diff} reference positions beyond the length of
+   *           {@code source}.
+   */
+  public <T extends Appendable>T patch(final CharSequence source, final T out) throws IOException {
+    int position = 0;
+    for (int i = 0, len = mods.size(); i < len; ++i)
+      position = mods.get(i).patch(source, position, out);
+
+    final int length = source.length();
+    if (position < length)
+      out.append(source, position, length);
+
+    return out;
+  }
+
   /**
    * Encodes this {@link Diff} object into a byte array representation.
    *
@@ -552,6 +909,52 @@ public class Diff {
     return dest;
   }
 
+  /**
+   * Encodes this {@link Diff} object into a byte-aligned array representation,
+   * whereby each modification is encoded as an unsigned varint header of
+   * {@code length << 2 | ordinal}, followed by the UTF-8 bytes of its text (for
+   * inserts and replaces, {@code length} is the number of UTF-8 bytes).
+   *
+   * @return This {@link Diff} object encoded to a byte-aligned array.
+   * @see #decodeAligned(byte[])
+   * @see #patchAligned(ByteBuffer,CharSequence,Appendable)
+   */
+  public byte[] toAlignedBytes() {
+    final int len = this.mods.size();
+    final byte[][] texts = new byte[len][];
+    final long[] headers = new long[len];
+    int size = 0;
+    for (int i = 0; i < len; ++i) {
+      final Mod mod = this.mods.get(i);
+      final String text = mod.getText();
+      final int length;
+      if (text != null) {
+        texts[i] = text.getBytes(charset);
+        length = texts[i].length;
+        size += length;
+      }
+      else {
+        length = mod.length;
+      }
+
+      headers[i] = (long)length << 2 | mod.ordinal();
+      size += getVarintSize(headers[i]);
+    }
+
+    final byte[] dest = new byte[size];
+    int offset = 0;
+    for (int i = 0; i < len; ++i) {
+      offset = writeVarint(dest, offset, headers[i]);
+      final byte[] text = texts[i];
+      if (text != null) {
+        System.arraycopy(text, 0, dest, offset, text.length);
+        offset += text.length;
+      }
+    }
+
+    return dest;
+  }
+
   /**
    * Returns the list of {@link Diff.Mod} objects in this {@link Diff}.
    *
@@ -29,7 +29,7 @@ import java.util.LinkedHashSet;
  * {@link Digraph#getTopologicalOrder()}.
  * <p>
  * This implementation uses {@link Integer}-based vertex indices as references
- * to the arbitrary-typed object vertices via {@link HashBiMap}.
+ * to the arbitrary-typed object vertices via {@link ObjectIntBiMap}.
  * <p>
  * The digraph is internally represented as a dynamically scalable
  * {@link ArrayList} list of index-&gt;{@link LinkedHashSet} set of adjacent
@@ -56,13 +56,13 @@ public class Digraph<T> extends AbstractDigraph<T,T> {
   @Override
   @SuppressWarnings("unchecked")
   protected T indexToKey(final int v) {
-    return (T)indexToObject.get(v);
+    return (T)objectToIndex.get(v);
   }
 
   @Override
   @SuppressWarnings("unchecked")
   protected T indexToValue(final int v) {
-    return (T)indexToObject.get(v);
+    return (T)objectToIndex.get(v);
   }
 
   @Override
@@ -91,6 +91,11 @@ public class HashBiMap<K,V> extends BiMap<K,V> implements Cloneable, Serializabl
     return new HashBiMap<>(true);
   }
 
+  @Override
+  protected boolean directViews() {
+    return true;
+  }
+
   @SuppressWarnings("unchecked")
   private HashBiMap<K,V> superClone() {
     try {
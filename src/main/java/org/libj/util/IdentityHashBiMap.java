@@ -117,9 +117,6 @@ public class IdentityHashBiMap<K,V> extends BiMap<K,V> implements Cloneable, Ser
   @SuppressWarnings("unchecked")
   public IdentityHashBiMap<K,V> clone() {
     final IdentityHashBiMap<K,V> clone = superClone();
-    clone.entrySet = null;
-    clone.keySet = null;
-    clone.values = null;
     clone.reverse = ((IdentityHashBiMap<V,K>)reverse).superClone();
     clone.setTarget((Map<K,V>)(((IdentityHashMap<K,V>)((ObservableMap<K,V>)target).target).clone()));
     clone.reverse.setTarget((Map<V,K>)(((IdentityHashMap<K,V>)((ObservableMap<K,V>)reverse.target).target).clone()));
@@ -20,30 +20,35 @@ import java.io.IOException;
 import java.io.InvalidObjectException;
 import java.io.ObjectInputStream;
 import java.io.ObjectOutputStream;
+import java.io.Serializable;
+import java.util.AbstractSet;
+import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.ConcurrentModificationException;
-import java.util.HashSet;
 import java.util.IdentityHashMap;
 import java.util.Iterator;
+import java.util.NoSuchElementException;
 import java.util.Set;
-import java.util.Spliterator;
 import java.util.TreeSet;
 
 /**
- * This class implements the {@link Set} interface, backed by a hash table
- * (actually a {@link IdentityHashMap} instance). It makes no guarantees as to
- * the iteration order of the set; in particular, it does not guarantee that the
- * order will remain constant over time. This class permits the null element.
+ * This class implements the {@link Set} interface with an open-addressing hash
+ * table that compares elements by reference-equality (as does
+ * {@link IdentityHashMap}), in place of object-equality. The elements are
+ * stored directly in a single {@code Object[]}, which is probed linearly from
+ * the {@link System#identityHashCode(Object) identity hash code} of each
+ * element. It makes no guarantees as to the iteration order of the set; in
+ * particular, it does not guarantee that the order will remain constant over
+ * time. This class permits the null element.
  * <p>
  * This class offers constant time performance for the basic operations
  * ({@code add}, {@code remove}, {@code contains} and {@code size}), assuming
- * the hash function disperses the elements properly among the buckets.
- * Iterating over this set requires time proportional to the sum of the
- * {@link IdentityHashSet} instance's size (the number of elements) plus the
- * "capacity" of the backing {@link IdentityHashMap} instance (the number of
- * buckets). Thus, it's very important not to set the initial capacity too high
- * (or the load factor too low) if iteration performance is important.
+ * the identity hash function disperses the elements properly among the
+ * buckets. Iterating over this set requires time proportional to the
+ * "capacity" of the table (the number of buckets). Thus, it's very important
+ * not to set the initial capacity too high if iteration performance is
+ * important. The table is not allocated until the first element is added.
  * <p>
  * <strong>Note that this implementation is not synchronized.</strong> If
  * multiple threads access a hash set concurrently, and at least one of the
@@ -79,7 +84,7 @@ import java.util.TreeSet;
  * @see TreeSet
  * @see IdentityHashMap
  */
-public class IdentityHashSet<E> extends HashSet<E> {
+public class IdentityHashSet<E> extends AbstractSet<E> implements Cloneable, Serializable {
   private static final long serialVersionUID = -1418532724651347957L;
 
   /**
@@ -88,84 +93,268 @@ public class IdentityHashSet<E> extends HashSet<E> {
    */
   static final int MAXIMUM_CAPACITY = 1 << 30;
 
-  private transient IdentityHashMap<E,Object> map;
+  /**
+   * The capacity of the table upon the first {@link #add(Object)} to a set
+   * constructed with {@link #IdentityHashSet()}.
+   */
+  private static final int DEFAULT_CAPACITY = 16;
+
+  private static final Object[] EMPTY_TABLE = {};
+
+  // Value representing the null element in the table
+  private static final Object NULL = new Object();
+
+  private static Object mask(final Object o) {
+    return o == null ? NULL : o;
+  }
+
+  @SuppressWarnings("unchecked")
+  private static <E>E unmask(final Object o) {
+    return o == NULL ? null : (E)o;
+  }
+
+  private static int hash(final Object o, final int length) {
+    final int h = System.identityHashCode(o);
+    // Multiply by -127, and spread the high bits, to disperse sequential identity hash codes
+    return (h - (h << 7) ^ h >>> 16) & (length - 1);
+  }
+
+  /**
+   * Returns the capacity of the table for the given expected maximum size,
+   * which keeps the load factor at or below 2/3.
+   */
+  private static int capacity(final int expectedMaxSize) {
+    final int minCapacity = expectedMaxSize + (expectedMaxSize >> 1);
+    return minCapacity > MAXIMUM_CAPACITY / 2 || minCapacity < 0 ? MAXIMUM_CAPACITY : Math.max(4, Integer.highestOneBit(Math.max(1, minCapacity - 1)) << 1);
+  }
 
-  // Dummy value to associate with an Object in the backing Map
-  private static final Object PRESENT = new Object();
+  private transient Object[] table;
+  private transient int size;
+  private transient int initialCapacity;
+  private transient int modCount;
 
   /**
-   * Constructs a new, empty set; the backing {@link IdentityHashMap} instance
-   * has default expected maximum size (21).
+   * Constructs a new, empty set with the default capacity (16). The table is
+   * allocated upon the first {@link #add(Object)}.
    */
   public IdentityHashSet() {
-    map = new IdentityHashMap<>();
+    this.table = EMPTY_TABLE;
+    this.initialCapacity = DEFAULT_CAPACITY;
   }
 
   /**
    * Constructs a new set containing the elements in the specified collection.
-   * The {@link IdentityHashMap} is created with default load factor (0.75) and
-   * an initial capacity sufficient to contain the elements in the specified
-   * collection.
+   * The table is created with a capacity sufficient to contain the elements in
+   * the specified collection.
    *
    * @param c The collection whose elements are to be placed into this set.
    * @throws NullPointerException If the specified collection is null.
    */
   public IdentityHashSet(final Collection<? extends E> c) {
-    map = new IdentityHashMap<>(Math.max((int)(c.size() / .75f) + 1, 16));
+    this(c.size());
     addAll(c);
   }
 
   /**
-   * Constructs a new, empty set; the backing {@link IdentityHashMap} instance
-   * has the specified initial capacity and default load factor (0.75).
+   * Constructs a new, empty set with a capacity sufficient to contain the
+   * specified number of elements.
    *
-   * @param initialCapacity The initial capacity of the hash table.
+   * @param initialCapacity The expected maximum size of the set.
    * @throws IllegalArgumentException If the initial capacity is less than zero.
    */
   public IdentityHashSet(final int initialCapacity) {
-    map = new IdentityHashMap<>(initialCapacity);
+    if (initialCapacity < 0)
+      throw new IllegalArgumentException("Illegal initial capacity: " + initialCapacity);
+
+    this.table = new Object[capacity(initialCapacity)];
+    this.initialCapacity = table.length;
   }
 
   @Override
   public Iterator<E> iterator() {
-    return map.keySet().iterator();
+    return new IdentityIterator();
   }
 
   @Override
   public int size() {
-    return map.size();
+    return size;
   }
 
   @Override
   public boolean isEmpty() {
-    return map.isEmpty();
+    return size == 0;
   }
 
   @Override
-  @SuppressWarnings("unlikely-arg-type")
   public boolean contains(final Object o) {
-    return map.containsKey(o);
+    return size != 0 && indexOf(mask(o)) >= 0;
+  }
+
+  private int indexOf(final Object o) {
+    final Object[] table = this.table;
+    final int length = table.length;
+    for (int i = hash(o, length);; i = (i + 1) & (length - 1)) {
+      final Object item = table[i];
+      if (item == o)
+        return i;
+
+      if (item == null)
+        return -1;
+    }
   }
 
   @Override
   public boolean add(final E e) {
-    return map.put(e, PRESENT) == null;
+    final Object o = mask(e);
+    if (table.length == 0)
+      table = new Object[initialCapacity];
+
+    Object[] table = this.table;
+    int length = table.length;
+    int i = hash(o, length);
+    for (Object item; (item = table[i]) != null; i = (i + 1) & (length - 1))
+      if (item == o)
+        return false;
+
+    final int size = this.size + 1;
+    if (size + (size >> 1) > length && resize(length << 1)) {
+      table = this.table;
+      length = table.length;
+      i = hash(o, length);
+      while (table[i] != null)
+        i = (i + 1) & (length - 1);
+    }
+
+    table[i] = o;
+    this.size = size;
+    ++modCount;
+    return true;
+  }
+
+  /**
+   * Resizes the table to the specified capacity, if possible.
+   *
+   * @return Whether the table was resized.
+   * @throws IllegalStateException If the table is full.
+   */
+  private boolean resize(final int capacity) {
+    final Object[] oldTable = table;
+    if (oldTable.length == MAXIMUM_CAPACITY) {
+      if (size == MAXIMUM_CAPACITY - 1)
+        throw new IllegalStateException("Capacity exhausted.");
+
+      return false;
+    }
+
+    final Object[] newTable = new Object[capacity];
+    for (final Object item : oldTable) {
+      if (item != null) {
+        int i = hash(item, capacity);
+        while (newTable[i] != null)
+          i = (i + 1) & (capacity - 1);
+
+        newTable[i] = item;
+      }
+    }
+
+    table = newTable;
+    return true;
   }
 
   @Override
-  @SuppressWarnings("unlikely-arg-type")
   public boolean remove(final Object o) {
-    return map.remove(o) == PRESENT;
+    if (size == 0)
+      return false;
+
+    final int index = indexOf(mask(o));
+    if (index < 0)
+      return false;
+
+    removeAt(index);
+    return true;
+  }
+
+  private void removeAt(int d) {
+    ++modCount;
+    --size;
+    final Object[] table = this.table;
+    final int length = table.length;
+    table[d] = null;
+
+    // Shift back the following elements of the probe sequence into the
+    // vacated slot, as there are no tombstones (Knuth's Algorithm R)
+    Object item;
+    for (int i = (d + 1) & (length - 1); (item = table[i]) != null; i = (i + 1) & (length - 1)) {
+      final int r = hash(item, length);
+      if (i < r && (r <= d || d <= i) || r <= d && d <= i) {
+        table[d] = item;
+        table[i] = null;
+        d = i;
+      }
+    }
   }
 
   @Override
   public void clear() {
-    map.clear();
+    if (size > 0) {
+      ++modCount;
+      size = 0;
+      Arrays.fill(table, null);
+    }
   }
 
-  @Override
-  public Spliterator<E> spliterator() {
-    return map.keySet().spliterator();
+  private final class IdentityIterator implements Iterator<E> {
+    /**
+     * The table being traversed, which is a copy of the table after the first
+     * {@link #remove()}, because the removal shifts elements between slots.
+     */
+    private Object[] traversal = table;
+    private int index;
+    private Object last;
+    private int expectedModCount = modCount;
+
+    private IdentityIterator() {
+      advance();
+    }
+
+    private void advance() {
+      while (index < traversal.length && traversal[index] == null)
+        ++index;
+    }
+
+    @Override
+    public boolean hasNext() {
+      return index < traversal.length;
+    }
+
+    @Override
+    public E next() {
+      if (modCount != expectedModCount)
+        throw new ConcurrentModificationException();
+
+      if (index >= traversal.length)
+        throw new NoSuchElementException();
+
+      last = traversal[index++];
+      advance();
+      return unmask(last);
+    }
+
+    @Override
+    public void remove() {
+      if (last == null)
+        throw new IllegalStateException();
+
+      if (modCount != expectedModCount)
+        throw new ConcurrentModificationException();
+
+      if (traversal == table)
+        traversal = table.clone();
+
+      removeAt(indexOf(last));
+      expectedModCount = modCount;
+      last = null;
+    }
   }
 
   /**
@@ -177,19 +366,24 @@ public class IdentityHashSet<E> extends HashSet<E> {
   @Override
   @SuppressWarnings("unchecked")
   public IdentityHashSet<E> clone() {
-    final IdentityHashSet<E> newSet = (IdentityHashSet<E>)super.clone();
-    newSet.map = (IdentityHashMap<E,Object>)map.clone();
-    return newSet;
+    try {
+      final IdentityHashSet<E> newSet = (IdentityHashSet<E>)super.clone();
+      newSet.table = table.length == 0 ? EMPTY_TABLE : table.clone();
+      newSet.modCount = 0;
+      return newSet;
+    }
+    catch (final CloneNotSupportedException e) {
+      throw new RuntimeException(e);
+    }
   }
 
   /**
    * Save the state of this {@link IdentityHashSet} instance to a stream (that
    * is, serialize it).
    *
-   * @serialData The capacity of the backing {@link IdentityHashMap} instance
-   *             (int), followed by the size of the set (the number of elements
-   *             it contains) (int), followed by all of its elements (each an
-   *             Object) in no particular order.
+   * @serialData The capacity of the table (int), followed by the size of the
+   *             set (the number of elements it contains) (int), followed by
+   *             all of its elements (each an Object) in no particular order.
    * @param s The {@link ObjectInputStream}.
    * @throws IOException If an I/O error has occurred.
    */
@@ -197,15 +391,16 @@ public class IdentityHashSet<E> extends HashSet<E> {
     // Write out any hidden serialization magic
     s.defaultWriteObject();
 
-    // Write out IdentityHashMap capacity and load factor
-    s.writeInt(map.size());
+    // Write out the expected maximum size
+    s.writeInt(size);
 
     // Write out size
-    s.writeInt(map.size());
+    s.writeInt(size);
 
     // Write out all elements in the proper order.
-    for (final E e : map.keySet())
-      s.writeObject(e);
+    for (final Object item : table)
+      if (item != null)
+        s.writeObject(unmask(item));
   }
 
   /**
@@ -231,14 +426,15 @@ public class IdentityHashSet<E> extends HashSet<E> {
     if (size < 0)
       throw new InvalidObjectException("Illegal size: " + size);
 
-    // Create backing IdentityHashMap
-    map = new IdentityHashMap<>(Math.max((int)(capacity / .75f) + 1, 16));
+    // Create the table
+    table = new Object[capacity(Math.max(capacity, size))];
+    initialCapacity = table.length;
 
     // Read in all elements in the proper order.
-    for (int i = 0; i < size; i++) {
+    for (int i = 0; i < size; ++i) {
       @SuppressWarnings("unchecked")
       final E e = (E)s.readObject();
-      map.put(e, PRESENT);
+      add(e);
     }
   }
-}
\ No newline at end of file
+}
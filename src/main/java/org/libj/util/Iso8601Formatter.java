@@ -0,0 +1,311 @@
+/* Copyright (c) 2012 LibJ
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * You should have received a copy of The MIT License (MIT) along with this
+ * program. If not, see <http://opensource.org/licenses/MIT/>.
+ */
+
+package org.libj.util;
+
+import java.util.TimeZone;
+
+/**
+ * A formatter of epoch millis and epoch nanos to
+ * <a href="https://en.wikipedia.org/wiki/ISO_8601">ISO-8601</a> date-time
+ * strings of the form {@code yyyy-MM-dd'T'HH:mm:ss[.S...][offset]}, which
+ * writes directly into a caller-supplied {@link StringBuilder}, {@code char[]}
+ * or {@code byte[]}. Dates are expressed in the proleptic Gregorian calendar
+ * (as in {@code java.time}).
+ * <p>
+ * The date part of the most recently formatted day is cached, so that
+ * consecutive timestamps in the same day only require the time part to be
+ * computed. The formatter does not allocate objects, except when the day
+ * changes.
+ * <p>
+ * A formatter that is not bound to a specific {@link TimeZone} resolves
+ * {@link TimeZone#getDefault()} once upon construction, and thereafter only
+ * upon {@link #refreshTimeZone()}, because {@link TimeZone#getDefault()}
+ * returns a new clone of the default time zone on each call. A change of the
+ * default time zone with {@link TimeZone#setDefault(TimeZone)} is therefore
+ * not observed by such a formatter until {@link #refreshTimeZone()} is called.
+ * <p>
+ * Instances of this class are thread-safe.
+ */
+public final class Iso8601Formatter {
+  private static final class Day {
+    private final long epochDay;
+    private final char[] chars;
+
+    private Day(final long epochDay) {
+      this.epochDay = epochDay;
+
+      // Civil date from the number of days since the epoch (1970-01-01)
+      final long z = epochDay + 719468;
+      final long era = (z >= 0 ? z : z - 146096) / 146097;
+      final long dayOfEra = z - era * 146097;
+      final long yearOfEra = (dayOfEra - dayOfEra / 1460 + dayOfEra / 36524 - dayOfEra / 146096) / 365;
+      final long dayOfYear = dayOfEra - (365 * yearOfEra + yearOfEra / 4 - yearOfEra / 100);
+      final int mp = (int)((5 * dayOfYear + 2) / 153);
+      final int day = (int)(dayOfYear - (153 * mp + 2) / 5 + 1);
+      final int month = mp < 10 ? mp + 3 : mp - 9;
+      final long year = yearOfEra + era * 400 + (month <= 2 ? 1 : 0);
+
+      final String y;
+      if (year < 0)
+        y = "-" + pad(-year);
+      else if (year > 9999)
+        y = "+" + year;
+      else
+        y = pad(year);
+
+      final int len = y.length();
+      this.chars = new char[len + 6];
+      y.getChars(0, len, chars, 0);
+      chars[len] = '-';
+      chars[len + 1] = (char)('0' + month / 10);
+      chars[len + 2] = (char)('0' + month % 10);
+      chars[len + 3] = '-';
+      chars[len + 4] = (char)('0' + day / 10);
+      chars[len + 5] = (char)('0' + day % 10);
+    }
+
+    private static String pad(final long year) {
+      final String str = String.valueOf(year);
+      return str.length() >= 4 ? str : "0000".substring(str.length()) + str;
+    }
+  }
+
+  private static final int[] POWERS_OF_TEN = {1000000000, 100000000, 10000000, 1000000, 100000, 10000, 1000, 100, 10, 1};
+
+  private final boolean defaultTimeZone;
+  private volatile TimeZone timeZone;
+  private final int precision;
+  private final boolean offsetSuffix;
+  private volatile Day day;
+
+  /**
+   * Creates a new {@link Iso8601Formatter} with the provided parameters.
+   *
+   * @param timeZone The {@link TimeZone} in which the date-time is to be
+   *          expressed, or {@code null} to use {@link TimeZone#getDefault()}
+   *          as of the construction of this formatter, or the last call to
+   *          {@link #refreshTimeZone()}.
+   * @param precision The number of digits of the fraction of the second, from
+   *          0 (no fraction) to 9 (nanos).
+   * @param offsetSuffix Whether to append the offset of the date-time from
+   *          UTC, as {@code 'Z'} for a zero offset, or {@code +hh:mm} or
+   *          {@code -hh:mm} otherwise.
+   * @throws IllegalArgumentException If {@code precision} is not between 0 and
+   *           9.
+   */
+  public Iso8601Formatter(final TimeZone timeZone, final int precision, final boolean offsetSuffix) {
+    if (precision < 0 || precision > 9)
+      throw new IllegalArgumentException("precision (" + precision + ") must be between 0 and 9");
+
+    this.defaultTimeZone = timeZone == null;
+    this.timeZone = timeZone == null ? TimeZone.getDefault() : (TimeZone)timeZone.clone();
+    this.precision = precision;
+    this.offsetSuffix = offsetSuffix;
+  }
+
+  /**
+   * Resolves the {@link TimeZone#getDefault() default time zone} anew, if this
+   * formatter was created without a specific {@link TimeZone}. Otherwise, this
+   * method does nothing.
+   */
+  public void refreshTimeZone() {
+    if (defaultTimeZone)
+      timeZone = TimeZone.getDefault();
+  }
+
+  private Day getDay(final long epochDay) {
+    Day day = this.day;
+    if (day == null || day.epochDay != epochDay)
+      this.day = day = new Day(epochDay);
+
+    return day;
+  }
+
+  private static void put(final Object dest, final int index, final char ch) {
+    if (dest instanceof char[])
+      ((char[])dest)[index] = ch;
+    else if (dest instanceof byte[])
+      ((byte[])dest)[index] = (byte)ch;
+    else
+      ((StringBuilder)dest).setCharAt(index, ch);
+  }
+
+  private static int put2(final Object dest, final int index, final int value) {
+    put(dest, index, (char)('0' + value / 10));
+    put(dest, index + 1, (char)('0' + value % 10));
+    return index + 2;
+  }
+
+  private int length(final Day day, final int offsetSeconds) {
+    int length = day.chars.length + 9;
+    if (precision > 0)
+      length += 1 + precision;
+
+    if (offsetSuffix)
+      length += offsetSeconds == 0 ? 1 : 6;
+
+    return length;
+  }
+
+  private int format(final long epochSecond, final int nanoOfSecond, final Object dest, final int offset) {
+    final int offsetSeconds = timeZone.getOffset(epochSecond * Dates.MILLISECONDS_IN_SECOND) / Dates.MILLISECONDS_IN_SECOND;
+    final long localSecond = epochSecond + offsetSeconds;
+    final Day day = getDay(Math.floorDiv(localSecond, Dates.SECONDS_IN_DAY));
+    final int secondOfDay = (int)Math.floorMod(localSecond, Dates.SECONDS_IN_DAY);
+
+    if (dest instanceof StringBuilder)
+      ((StringBuilder)dest).setLength(offset + length(day, offsetSeconds));
+
+    int i = offset;
+    final char[] chars = day.chars;
+    for (int j = 0; j < chars.length; ++j)
+      put(dest, i++, chars[j]);
+
+    put(dest, i++, 'T');
+    i = put2(dest, i, secondOfDay / Dates.SECONDS_IN_HOUR);
+    put(dest, i++, ':');
+    i = put2(dest, i, secondOfDay / Dates.SECONDS_IN_MINUTE % Dates.MINUTES_IN_HOUR);
+    put(dest, i++, ':');
+    i = put2(dest, i, secondOfDay % Dates.SECONDS_IN_MINUTE);
+    if (precision > 0) {
+      put(dest, i++, '.');
+      for (int p = 1; p <= precision; ++p)
+        put(dest, i++, (char)('0' + nanoOfSecond / POWERS_OF_TEN[p] % 10));
+    }
+
+    if (offsetSuffix) {
+      if (offsetSeconds == 0) {
+        put(dest, i++, 'Z');
+      }
+      else {
+        put(dest, i++, offsetSeconds < 0 ? '-' : '+');
+        final int offsetMinutes = Math.abs(offsetSeconds) / Dates.SECONDS_IN_MINUTE;
+        i = put2(dest, i, offsetMinutes / Dates.MINUTES_IN_HOUR);
+        put(dest, i++, ':');
+        i = put2(dest, i, offsetMinutes % Dates.MINUTES_IN_HOUR);
+      }
+    }
+
+    return i;
+  }
+
+  /**
+   * Formats the provided epoch millis, appending the result to the specified
+   * {@link StringBuilder}.
+   *
+   * @param epochMilli The epoch millis.
+   * @param builder The {@link StringBuilder} to which the result is to be
+   *          appended.
+   * @return The provided {@link StringBuilder}.
+   * @throws NullPointerException If {@code builder} is null.
+   */
+  public StringBuilder format(final long epochMilli, final StringBuilder builder) {
+    format(Math.floorDiv(epochMilli, Dates.MILLISECONDS_IN_SECOND), (int)Math.floorMod(epochMilli, Dates.MILLISECONDS_IN_SECOND) * 1000000, builder, builder.length());
+    return builder;
+  }
+
+  /**
+   * Formats the provided epoch millis into the specified {@code char[]} at the
+   * specified offset, returning the offset after the last written char.
+   *
+   * @param epochMilli The epoch millis.
+   * @param dest The {@code char[]} into which the result is to be written.
+   * @param offset The offset in {@code dest} at which to start writing.
+   * @return The offset in {@code dest} after the last written char.
+   * @throws NullPointerException If {@code dest} is null.
+   * @throws ArrayIndexOutOfBoundsException If {@code dest} does not have
+   *           sufficient space after {@code offset}.
+   */
+  public int format(final long epochMilli, final char[] dest, final int offset) {
+    return format(Math.floorDiv(epochMilli, Dates.MILLISECONDS_IN_SECOND), (int)Math.floorMod(epochMilli, Dates.MILLISECONDS_IN_SECOND) * 1000000, dest, offset);
+  }
+
+  /**
+   * Formats the provided epoch millis as ASCII into the specified
+   * {@code byte[]} at the specified offset, returning the offset after the last
+   * written byte.
+   *
+   * @param epochMilli The epoch millis.
+   * @param dest The {@code byte[]} into which the result is to be written.
+   * @param offset The offset in {@code dest} at which to start writing.
+   * @return The offset in {@code dest} after the last written byte.
+   * @throws NullPointerException If {@code dest} is null.
+   * @throws ArrayIndexOutOfBoundsException If {@code dest} does not have
+   *           sufficient space after {@code offset}.
+   */
+  public int format(final long epochMilli, final byte[] dest, final int offset) {
+    return format(Math.floorDiv(epochMilli, Dates.MILLISECONDS_IN_SECOND), (int)Math.floorMod(epochMilli, Dates.MILLISECONDS_IN_SECOND) * 1000000, dest, offset);
+  }
+
+  /**
+   * Formats the provided epoch nanos, appending the result to the specified
+   * {@link StringBuilder}.
+   *
+   * @param epochNano The epoch nanos.
+   * @param builder The {@link StringBuilder} to which the result is to be
+   *          appended.
+   * @return The provided {@link StringBuilder}.
+   * @throws NullPointerException If {@code builder} is null.
+   */
+  public StringBuilder formatNano(final long epochNano, final StringBuilder builder) {
+    format(Math.floorDiv(epochNano, 1000000000L), (int)Math.floorMod(epochNano, 1000000000L), builder, builder.length());
+    return builder;
+  }
+
+  /**
+   * Formats the provided epoch nanos into the specified {@code char[]} at the
+   * specified offset, returning the offset after the last written char.
+   *
+   * @param epochNano The epoch nanos.
+   * @param dest The {@code char[]} into which the result is to be written.
+   * @param offset The offset in {@code dest} at which to start writing.
+   * @return The offset in {@code dest} after the last written char.
+   * @throws NullPointerException If {@code dest} is null.
+   * @throws ArrayIndexOutOfBoundsException If {@code dest} does not have
+   *           sufficient space after {@code offset}.
+   */
+  public int formatNano(final long epochNano, final char[] dest, final int offset) {
+    return format(Math.floorDiv(epochNano, 1000000000L), (int)Math.floorMod(epochNano, 1000000000L), dest, offset);
+  }
+
+  /**
+   * Formats the provided epoch nanos as ASCII into the specified
+   * {@code byte[]} at the specified offset, returning the offset after the last
+   * written byte.
+   *
+   * @param epochNano The epoch nanos.
+   * @param dest The {@code byte[]} into which the result is to be written.
+   * @param offset The offset in {@code dest} at which to start writing.
+   * @return The offset in {@code dest} after the last written byte.
+   * @throws NullPointerException If {@code dest} is null.
+   * @throws ArrayIndexOutOfBoundsException If {@code dest} does not have
+   *           sufficient space after {@code offset}.
+   */
+  public int formatNano(final long epochNano, final byte[] dest, final int offset) {
+    return format(Math.floorDiv(epochNano, 1000000000L), (int)Math.floorMod(epochNano, 1000000000L), dest, offset);
+  }
+
+  /**
+   * Returns the provided epoch millis formatted as a string.
+   *
+   * @param epochMilli The epoch millis.
+   * @return The provided epoch millis formatted as a string.
+   */
+  public String format(final long epochMilli) {
+    return format(epochMilli, new StringBuilder(36)).toString();
+  }
+}
@@ -0,0 +1,582 @@
+/* Copyright (c) 2012 LibJ
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * You should have received a copy of The MIT License (MIT) along with this
+ * program. If not, see <http://opensource.org/licenses/MIT/>.
+ */
+
+package org.libj.util;
+
+import java.util.AbstractSet;
+import java.util.Arrays;
+import java.util.ConcurrentModificationException;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Set;
+
+/**
+ * Bidirectional map of {@code key<->index} mappings, whereby each key is an
+ * arbitrary object (compared by object-equality), and each index is a
+ * non-negative {@code int}. This class is intended for the assignment of dense
+ * {@code int} ids to objects, as an alternative to a
+ * {@code HashBiMap<Object,Integer>} that does not box the indices, and does not
+ * allocate entries or observers upon lookups or mutations.
+ * <p>
+ * The {@code key->index} mappings are stored in an open-addressing hash table
+ * of parallel {@code Object[]} keys and {@code int[]} indices, which is probed
+ * linearly from the {@link Object#hashCode() hash code} of each key. The
+ * {@code index->key} mappings are stored in an {@code Object[]} that is
+ * indexed directly by the index, and is therefore sized by the largest index
+ * in the map. Both {@link #indexOf(Object)} and {@link #get(int)} are thus
+ * allocation-free. This class permits the null key.
+ * <p>
+ * <strong>Note that this implementation is not synchronized.</strong> If
+ * multiple threads access the map concurrently, and at least one of the
+ * threads modifies the map, it <i>must</i> be synchronized externally.
+ *
+ * @param <K> The type of keys maintained by this map.
+ */
+public class ObjectIntBiMap<K> implements Cloneable {
+  /**
+   * The value returned by {@link #indexOf(Object)}, {@link #put(Object,int)}
+   * and {@link #remove(Object)} to signify the absence of a mapping.
+   */
+  public static final int NO_INDEX = -1;
+
+  /**
+   * The maximum capacity of the hash table. MUST be a power of two <= 1 << 30.
+   */
+  private static final int MAXIMUM_CAPACITY = 1 << 30;
+
+  /**
+   * The capacity of the hash table upon the first {@link #put(Object,int)} to
+   * a map constructed with {@link #ObjectIntBiMap()}.
+   */
+  private static final int DEFAULT_CAPACITY = 16;
+
+  private static final Object[] EMPTY_TABLE = {};
+  private static final int[] EMPTY_INDICES = {};
+
+  // Value representing the null key in the tables
+  private static final Object NULL = new Object();
+
+  private static Object mask(final Object o) {
+    return o == null ? NULL : o;
+  }
+
+  @SuppressWarnings("unchecked")
+  private static <K>K unmask(final Object o) {
+    return o == NULL ? null : (K)o;
+  }
+
+  private static int hash(final Object o, final int length) {
+    final int h = o.hashCode();
+    // Multiply by -127, and spread the high bits, to disperse sequential hash codes
+    return (h - (h << 7) ^ h >>> 16) & (length - 1);
+  }
+
+  /**
+   * Returns the capacity of the hash table for the given expected maximum
+   * size, which keeps the load factor at or below 2/3.
+   */
+  private static int capacity(final int expectedMaxSize) {
+    final int minCapacity = expectedMaxSize + (expectedMaxSize >> 1);
+    return minCapacity > MAXIMUM_CAPACITY / 2 || minCapacity < 0 ? MAXIMUM_CAPACITY : Math.max(4, Integer.highestOneBit(Math.max(1, minCapacity - 1)) << 1);
+  }
+
+  /** The masked keys of the hash table, or {@code null} for empty slots. */
+  private Object[] keys;
+
+  /** The indices of the keys at the same slot of {@link #keys}. */
+  private int[] indices;
+
+  /** The masked keys at their index, or {@code null} for unmapped indices. */
+  private Object[] indexToKey;
+
+  private final int initialCapacity;
+  private int size;
+  private int modCount;
+  private Set<K> keySet;
+
+  /**
+   * Creates an empty map with the default capacity (16). The tables are
+   * allocated upon the first {@link #put(Object,int)}.
+   */
+  public ObjectIntBiMap() {
+    this.keys = EMPTY_TABLE;
+    this.indices = EMPTY_INDICES;
+    this.indexToKey = EMPTY_TABLE;
+    this.initialCapacity = DEFAULT_CAPACITY;
+  }
+
+  /**
+   * Creates an empty map with a capacity sufficient to contain the specified
+   * number of mappings with indices between {@code 0} (inclusive) and
+   * {@code initialCapacity} (exclusive).
+   *
+   * @param initialCapacity The expected maximum size of the map.
+   * @throws IllegalArgumentException If the initial capacity is negative.
+   */
+  public ObjectIntBiMap(final int initialCapacity) {
+    if (initialCapacity < 0)
+      throw new IllegalArgumentException("Illegal initial capacity: " + initialCapacity);
+
+    this.initialCapacity = Math.max(1, initialCapacity);
+    this.keys = new Object[capacity(initialCapacity)];
+    this.indices = new int[keys.length];
+    this.indexToKey = new Object[this.initialCapacity];
+  }
+
+  /**
+   * Returns the number of {@code key<->index} mappings in this map.
+   *
+   * @return The number of {@code key<->index} mappings in this map.
+   */
+  public int size() {
+    return size;
+  }
+
+  /**
+   * Returns {@code true} if this map contains no mappings.
+   *
+   * @return {@code true} if this map contains no mappings.
+   */
+  public boolean isEmpty() {
+    return size == 0;
+  }
+
+  private int slotOf(final Object o) {
+    final Object[] keys = this.keys;
+    final int length = keys.length;
+    for (int i = hash(o, length);; i = (i + 1) & (length - 1)) {
+      final Object item = keys[i];
+      if (item == null)
+        return -1;
+
+      if (item == o || item.equals(o))
+        return i;
+    }
+  }
+
+  /**
+   * Returns the index to which the specified key is mapped, or
+   * {@link #NO_INDEX} if this map contains no mapping for the key.
+   *
+   * @param key The key.
+   * @return The index to which the specified key is mapped, or
+   *         {@link #NO_INDEX} if this map contains no mapping for the key.
+   */
+  public int indexOf(final Object key) {
+    if (size == 0)
+      return NO_INDEX;
+
+    final int slot = slotOf(mask(key));
+    return slot < 0 ? NO_INDEX : indices[slot];
+  }
+
+  /**
+   * Returns the key mapped to the specified index, or {@code null} if this map
+   * contains no mapping for the index. A return value of {@code null} does not
+   * necessarily indicate that the map contains no mapping for the index, as
+   * the null key is permitted. {@link #containsIndex(int)} may be used to
+   * distinguish these cases.
+   *
+   * @param index The index.
+   * @return The key mapped to the specified index, or {@code null} if this map
+   *         contains no mapping for the index.
+   */
+  public K get(final int index) {
+    return index < 0 || index >= indexToKey.length ? null : unmask(indexToKey[index]);
+  }
+
+  /**
+   * Returns {@code true} if this map contains a mapping for the specified key.
+   *
+   * @param key The key.
+   * @return {@code true} if this map contains a mapping for the specified key.
+   */
+  public boolean containsKey(final Object key) {
+    return size != 0 && slotOf(mask(key)) >= 0;
+  }
+
+  /**
+   * Returns {@code true} if this map contains a mapping for the specified
+   * index.
+   *
+   * @param index The index.
+   * @return {@code true} if this map contains a mapping for the specified
+   *         index.
+   */
+  public boolean containsIndex(final int index) {
+    return index >= 0 && index < indexToKey.length && indexToKey[index] != null;
+  }
+
+  /**
+   * Associates the specified key with the specified index in this map. If the
+   * map previously contained a mapping for the key, the old index is unmapped.
+   * If the map previously contained a mapping for the index, the old key is
+   * removed.
+   *
+   * @param key The key.
+   * @param index The non-negative index.
+   * @return The previous index associated with {@code key}, or
+   *         {@link #NO_INDEX} if there was no mapping for {@code key}.
+   * @throws IllegalArgumentException If {@code index} is negative.
+   */
+  public int put(final K key, final int index) {
+    if (index < 0)
+      throw new IllegalArgumentException("Index cannot be negative: " + index);
+
+    final Object o = mask(key);
+    if (index < indexToKey.length) {
+      final Object holder = indexToKey[index];
+      if (holder != null) {
+        if (holder == o || holder.equals(o))
+          return index;
+
+        removeAt(slotOf(holder));
+      }
+    }
+    else {
+      indexToKey = Arrays.copyOf(indexToKey, Math.max(index + 1, Math.max(initialCapacity, indexToKey.length << 1)));
+    }
+
+    if (keys.length == 0) {
+      keys = new Object[capacity(initialCapacity)];
+      indices = new int[keys.length];
+    }
+
+    Object[] keys = this.keys;
+    int length = keys.length;
+    int i = hash(o, length);
+    for (Object item; (item = keys[i]) != null; i = (i + 1) & (length - 1)) {
+      if (item == o || item.equals(o)) {
+        final int previous = indices[i];
+        indexToKey[previous] = null;
+        indexToKey[index] = item;
+        indices[i] = index;
+        return previous;
+      }
+    }
+
+    final int size = this.size + 1;
+    if (size + (size >> 1) > length && resize(length << 1)) {
+      keys = this.keys;
+      length = keys.length;
+      i = hash(o, length);
+      while (keys[i] != null)
+        i = (i + 1) & (length - 1);
+    }
+
+    keys[i] = o;
+    indices[i] = index;
+    indexToKey[index] = o;
+    this.size = size;
+    ++modCount;
+    return NO_INDEX;
+  }
+
+  /**
+   * Resizes the hash table to the specified capacity, if possible.
+   *
+   * @return Whether the hash table was resized.
+   * @throws IllegalStateException If the hash table is full.
+   */
+  private boolean resize(final int capacity) {
+    final Object[] oldKeys = keys;
+    if (oldKeys.length == MAXIMUM_CAPACITY) {
+      if (size == MAXIMUM_CAPACITY - 1)
+        throw new IllegalStateException("Capacity exhausted.");
+
+      return false;
+    }
+
+    final int[] oldIndices = indices;
+    final Object[] newKeys = new Object[capacity];
+    final int[] newIndices = new int[capacity];
+    for (int j = 0; j < oldKeys.length; ++j) {
+      final Object item = oldKeys[j];
+      if (item != null) {
+        int i = hash(item, capacity);
+        while (newKeys[i] != null)
+          i = (i + 1) & (capacity - 1);
+
+        newKeys[i] = item;
+        newIndices[i] = oldIndices[j];
+      }
+    }
+
+    keys = newKeys;
+    indices = newIndices;
+    return true;
+  }
+
+  /**
+   * Removes the mapping for the specified key from this map, if present.
+   *
+   * @param key The key.
+   * @return The index to which {@code key} was mapped, or {@link #NO_INDEX} if
+   *         there was no mapping for {@code key}.
+   */
+  public int remove(final Object key) {
+    if (size == 0)
+      return NO_INDEX;
+
+    final int slot = slotOf(mask(key));
+    if (slot < 0)
+      return NO_INDEX;
+
+    final int index = indices[slot];
+    removeAt(slot);
+    return index;
+  }
+
+  /**
+   * Removes the mapping for the specified index from this map, if present.
+   *
+   * @param index The index.
+   * @return The key to which {@code index} was mapped, or {@code null} if there
+   *         was no mapping for {@code index}.
+   */
+  public K removeIndex(final int index) {
+    if (!containsIndex(index))
+      return null;
+
+    final Object key = indexToKey[index];
+    removeAt(slotOf(key));
+    return unmask(key);
+  }
+
+  private void removeAt(int d) {
+    ++modCount;
+    --size;
+    final Object[] keys = this.keys;
+    final int[] indices = this.indices;
+    final int length = keys.length;
+    indexToKey[indices[d]] = null;
+    keys[d] = null;
+
+    // Shift back the following keys of the probe sequence into the vacated
+    // slot, as there are no tombstones (Knuth's Algorithm R)
+    Object item;
+    for (int i = (d + 1) & (length - 1); (item = keys[i]) != null; i = (i + 1) & (length - 1)) {
+      final int r = hash(item, length);
+      if (i < r && (r <= d || d <= i) || r <= d && d <= i) {
+        keys[d] = item;
+        indices[d] = indices[i];
+        keys[i] = null;
+        d = i;
+      }
+    }
+  }
+
+  /**
+   * Removes all of the mappings from this map.
+   */
+  public void clear() {
+    if (size > 0) {
+      ++modCount;
+      size = 0;
+      Arrays.fill(keys, null);
+      Arrays.fill(indexToKey, null);
+    }
+  }
+
+  /**
+   * Returns a {@link Set} view of the keys contained in this map, in no
+   * particular order. The set is backed by the map, so changes to the map are
+   * reflected in the set. The set supports element removal, which removes the
+   * corresponding mapping from the map, but does not support the {@code add}
+   * or {@code addAll} operations. The iterators of the set are
+   * <i>fail-fast</i>.
+   *
+   * @return A {@link Set} view of the keys contained in this map.
+   */
+  public Set<K> keySet() {
+    return keySet == null ? keySet = new AbstractSet<K>() {
+      @Override
+      public Iterator<K> iterator() {
+        return new KeyIterator();
+      }
+
+      @Override
+      public int size() {
+        return size;
+      }
+
+      @Override
+      public boolean contains(final Object o) {
+        return containsKey(o);
+      }
+
+      @Override
+      public boolean remove(final Object o) {
+        return ObjectIntBiMap.this.remove(o) != NO_INDEX;
+      }
+
+      @Override
+      public void clear() {
+        ObjectIntBiMap.this.clear();
+      }
+    } : keySet;
+  }
+
+  private final class KeyIterator implements Iterator<K> {
+    /**
+     * The hash table being traversed, which is a copy of the hash table after
+     * the first {@link #remove()}, because the removal shifts keys between
+     * slots.
+     */
+    private Object[] traversal = keys;
+    private int slot;
+    private Object last;
+    private int expectedModCount = modCount;
+
+    private KeyIterator() {
+      advance();
+    }
+
+    private void advance() {
+      while (slot < traversal.length && traversal[slot] == null)
+        ++slot;
+    }
+
+    @Override
+    public boolean hasNext() {
+      return slot < traversal.length;
+    }
+
+    @Override
+    public K next() {
+      if (modCount != expectedModCount)
+        throw new ConcurrentModificationException();
+
+      if (slot >= traversal.length)
+        throw new NoSuchElementException();
+
+      last = traversal[slot++];
+      advance();
+      return unmask(last);
+    }
+
+    @Override
+    public void remove() {
+      if (last == null)
+        throw new IllegalStateException();
+
+      if (modCount != expectedModCount)
+        throw new ConcurrentModificationException();
+
+      if (traversal == keys)
+        traversal = keys.clone();
+
+      removeAt(slotOf(last));
+      expectedModCount = modCount;
+      last = null;
+    }
+  }
+
+  /**
+   * Returns a shallow copy of this {@link ObjectIntBiMap} instance (the keys
+   * themselves are not cloned).
+   *
+   * @return A shallow copy of this {@link ObjectIntBiMap} instance.
+   */
+  @Override
+  @SuppressWarnings("unchecked")
+  public ObjectIntBiMap<K> clone() {
+    try {
+      final ObjectIntBiMap<K> clone = (ObjectIntBiMap<K>)super.clone();
+      clone.keys = keys.length == 0 ? EMPTY_TABLE : keys.clone();
+      clone.indices = indices.length == 0 ? EMPTY_INDICES : indices.clone();
+      clone.indexToKey = indexToKey.length == 0 ? EMPTY_TABLE : indexToKey.clone();
+      clone.modCount = 0;
+      clone.keySet = null;
+      return clone;
+    }
+    catch (final CloneNotSupportedException e) {
+      throw new RuntimeException(e);
+    }
+  }
+
+  /**
+   * Compares the specified object with this map for equality. Returns
+   * {@code true} if the given object is also a {@link ObjectIntBiMap}, and the
+   * two maps represent the same {@code key<->index} mappings.
+   *
+   * @param obj The object to be compared for equality with this map.
+   * @return {@code true} if the specified object is equal to this map.
+   */
+  @Override
+  public boolean equals(final Object obj) {
+    if (obj == this)
+      return true;
+
+    if (!(obj instanceof ObjectIntBiMap))
+      return false;
+
+    final ObjectIntBiMap<?> that = (ObjectIntBiMap<?>)obj;
+    if (size != that.size)
+      return false;
+
+    final Object[] a = indexToKey.length <= that.indexToKey.length ? indexToKey : that.indexToKey;
+    final Object[] b = a == indexToKey ? that.indexToKey : indexToKey;
+    for (int i = 0; i < a.length; ++i) {
+      final Object key = a[i];
+      if (key == null ? b[i] != null : b[i] == null || !key.equals(b[i]))
+        return false;
+    }
+
+    return true;
+  }
+
+  /**
+   * Returns the hash code value for this map, which is the sum of the hash
+   * codes of the keys, each xor'ed with its index.
+   *
+   * @return The hash code value for this map.
+   */
+  @Override
+  public int hashCode() {
+    int hashCode = 0;
+    for (int i = 0, len = indexToKey.length; i < len; ++i) {
+      final Object key = indexToKey[i];
+      if (key != null)
+        hashCode += (key == NULL ? 0 : key.hashCode()) ^ i;
+    }
+
+    return hashCode;
+  }
+
+  /**
+   * Returns a string representation of this map, in ascending order of the
+   * indices, in the form {@code {key=index, ...}}.
+   *
+   * @return A string representation of this map.
+   */
+  @Override
+  public String toString() {
+    final StringBuilder builder = new StringBuilder();
+    builder.append('{');
+    for (int i = 0, len = indexToKey.length; i < len; ++i) {
+      final Object key = indexToKey[i];
+      if (key != null) {
+        if (builder.length() > 1)
+          builder.append(", ");
+
+        builder.append((Object)unmask(key)).append('=').append(i);
+      }
+    }
+
+    return builder.append('}').toString();
+  }
+}
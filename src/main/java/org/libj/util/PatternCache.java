@@ -0,0 +1,247 @@
+/* Copyright (c) 2016 LibJ
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * You should have received a copy of The MIT License (MIT) along with this
+ * program. If not, see <http://opensource.org/licenses/MIT/>.
+ */
+
+package org.libj.util;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.regex.Pattern;
+import java.util.regex.PatternSyntaxException;
+
+/**
+ * A concurrent cache of compiled {@link Pattern}s, keyed by the regular
+ * expression and its match flags.
+ * <p>
+ * Each distinct {@code (regex, flags)} key is compiled no more than once
+ * (concurrent requests for the same key wait for the single compilation to
+ * complete). The cache may be bounded by a {@code capacity}, in which case
+ * entries are evicted with the CLOCK (second-chance) approximation of LRU:
+ * reading an entry only sets its "accessed" flag, and eviction gives accessed
+ * entries a second chance before they are removed.
+ * <p>
+ * Hit, miss and eviction counts are maintained for the purpose of metrics.
+ */
+public final class PatternCache {
+  private static final class Key {
+    private final String regex;
+    private final int flags;
+    private final int hashCode;
+
+    private Key(final String regex, final int flags) {
+      this.regex = regex;
+      this.flags = flags;
+      this.hashCode = 31 * regex.hashCode() + flags;
+    }
+
+    @Override
+    public boolean equals(final Object obj) {
+      if (obj == this)
+        return true;
+
+      if (!(obj instanceof Key))
+        return false;
+
+      final Key that = (Key)obj;
+      return flags == that.flags && regex.equals(that.regex);
+    }
+
+    @Override
+    public int hashCode() {
+      return hashCode;
+    }
+  }
+
+  private static final class Entry {
+    private final Key key;
+    private final Pattern pattern;
+    private volatile boolean accessed;
+
+    private Entry(final Key key, final Pattern pattern) {
+      this.key = key;
+      this.pattern = pattern;
+    }
+  }
+
+  private final ConcurrentHashMap<Key,Entry> map = new ConcurrentHashMap<>();
+  private final ConcurrentLinkedQueue<Entry> clock = new ConcurrentLinkedQueue<>();
+  private final LongAdder hits = new LongAdder();
+  private final LongAdder misses = new LongAdder();
+  private final LongAdder evictions = new LongAdder();
+  private volatile int capacity;
+
+  /**
+   * Creates a new {@link PatternCache} with the specified capacity.
+   *
+   * @param capacity The maximum number of patterns to be retained in the cache,
+   *          or {@link Integer#MAX_VALUE} for an unbounded cache.
+   * @throws IllegalArgumentException If {@code capacity} is negative.
+   */
+  public PatternCache(final int capacity) {
+    setCapacity(capacity);
+  }
+
+  /**
+   * Creates a new unbounded {@link PatternCache}.
+   */
+  public PatternCache() {
+    this(Integer.MAX_VALUE);
+  }
+
+  /**
+   * Returns the compiled {@link Pattern} of the given regular expression with
+   * the given flags, compiling and caching it if it is not present in the
+   * cache.
+   *
+   * @param regex The expression to be compiled.
+   * @param flags Match flags, a bit mask that may include
+   *          {@link Pattern#CASE_INSENSITIVE}, {@link Pattern#MULTILINE},
+   *          {@link Pattern#DOTALL}, {@link Pattern#UNICODE_CASE},
+   *          {@link Pattern#CANON_EQ}, {@link Pattern#UNIX_LINES},
+   *          {@link Pattern#LITERAL}, {@link Pattern#UNICODE_CHARACTER_CLASS}
+   *          and {@link Pattern#COMMENTS}.
+   * @return The given regular expression compiled into a pattern with the given
+   *         flags.
+   * @throws IllegalArgumentException If bit values other than those
+   *           corresponding to the defined match flags are set in
+   *           {@code flags}.
+   * @throws PatternSyntaxException If the expression's syntax is invalid.
+   * @throws NullPointerException If {@code regex} is null.
+   */
+  public Pattern compile(final String regex, final int flags) {
+    final Key key = new Key(regex, flags);
+    Entry entry = map.get(key);
+    if (entry != null) {
+      hits.increment();
+      if (!entry.accessed)
+        entry.accessed = true;
+
+      return entry.pattern;
+    }
+
+    final Entry[] created = new Entry[1];
+    entry = map.computeIfAbsent(key, k -> {
+      final Entry e = new Entry(k, Pattern.compile(k.regex, k.flags));
+      clock.offer(e);
+      return created[0] = e;
+    });
+
+    if (entry != created[0]) {
+      hits.increment();
+      return entry.pattern;
+    }
+
+    misses.increment();
+    if (map.size() > capacity)
+      evict();
+
+    return entry.pattern;
+  }
+
+  private void evict() {
+    for (Entry entry; map.size() > capacity && (entry = clock.poll()) != null;) {
+      if (entry.accessed) {
+        entry.accessed = false;
+        clock.offer(entry);
+      }
+      else if (map.remove(entry.key, entry)) {
+        evictions.increment();
+      }
+    }
+  }
+
+  /**
+   * Returns the maximum number of patterns retained in this cache.
+   *
+   * @return The maximum number of patterns retained in this cache.
+   */
+  public int getCapacity() {
+    return capacity;
+  }
+
+  /**
+   * Sets the maximum number of patterns to be retained in this cache. If the
+   * cache presently holds more patterns than {@code capacity}, the excess is
+   * evicted.
+   *
+   * @param capacity The maximum number of patterns to be retained in the cache,
+   *          or {@link Integer#MAX_VALUE} for an unbounded cache.
+   * @throws IllegalArgumentException If {@code capacity} is negative.
+   */
+  public void setCapacity(final int capacity) {
+    if (capacity < 0)
+      throw new IllegalArgumentException("capacity (" + capacity + ") must be non-negative");
+
+    this.capacity = capacity;
+    if (map.size() > capacity)
+      evict();
+  }
+
+  /**
+   * Returns the number of patterns presently in this cache.
+   *
+   * @return The number of patterns presently in this cache.
+   */
+  public int size() {
+    return map.size();
+  }
+
+  /**
+   * Returns the number of requests that were served from this cache.
+   *
+   * @return The number of requests that were served from this cache.
+   */
+  public long getHitCount() {
+    return hits.sum();
+  }
+
+  /**
+   * Returns the number of requests that required a pattern to be compiled.
+   *
+   * @return The number of requests that required a pattern to be compiled.
+   */
+  public long getMissCount() {
+    return misses.sum();
+  }
+
+  /**
+   * Returns the number of patterns that were evicted from this cache due to
+   * its capacity.
+   *
+   * @return The number of patterns that were evicted from this cache due to
+   *         its capacity.
+   */
+  public long getEvictionCount() {
+    return evictions.sum();
+  }
+
+  /**
+   * Removes all patterns from this cache. The hit, miss and eviction counts
+   * are not reset. Patterns that are compiled concurrently with this method
+   * may remain in the cache.
+   */
+  public void clear() {
+    // As with eviction, entries are removed from the map as they are polled from the clock, so that every entry in the map
+    // remains in the clock (a separate map.clear() and clock.clear() would lose the clock entries of concurrent compiles)
+    for (Entry entry; (entry = clock.poll()) != null;)
+      map.remove(entry.key, entry);
+  }
+
+  @Override
+  public String toString() {
+    return "{size: " + size() + ", capacity: " + capacity + ", hits: " + getHitCount() + ", misses: " + getMissCount() + ", evictions: " + getEvictionCount() + "}";
+  }
+}
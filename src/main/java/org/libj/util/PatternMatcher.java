@@ -0,0 +1,382 @@
+/* Copyright (c) 2016 LibJ
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * You should have received a copy of The MIT License (MIT) along with this
+ * program. If not, see <http://opensource.org/licenses/MIT/>.
+ */
+
+package org.libj.util;
+
+import java.util.regex.Pattern;
+import java.util.regex.PatternSyntaxException;
+
+/**
+ * A matcher of a regular expression that is analyzed once at construction, in
+ * order to dispatch each match to the cheapest sufficient strategy:
+ * <ul>
+ * <li>If the regular expression can only match a single string (see
+ * {@link Patterns#unescape(String)}), matching is performed with
+ * {@link String#contentEquals(CharSequence)} and {@link String#indexOf(String)}.</li>
+ * <li>If the regular expression has a required literal prefix, inputs that do
+ * not contain the prefix are rejected before the regular expression is
+ * evaluated.</li>
+ * <li>Otherwise, matching is performed with the {@link Pattern} compiled via
+ * {@link Patterns#compile(String,int)}.</li>
+ * </ul>
+ * Instances of this class are immutable and thread-safe.
+ */
+public final class PatternMatcher {
+  private final Pattern pattern;
+  private final String literal;
+  private final String prefix;
+  private final boolean anchoredStart;
+  private final boolean anchoredEnd;
+
+  /**
+   * Creates a new {@link PatternMatcher} for the given regular expression with
+   * the given flags.
+   *
+   * @param regex The expression to be compiled.
+   * @param flags Match flags, a bit mask that may include
+   *          {@link Pattern#CASE_INSENSITIVE}, {@link Pattern#MULTILINE},
+   *          {@link Pattern#DOTALL}, {@link Pattern#UNICODE_CASE},
+   *          {@link Pattern#CANON_EQ}, {@link Pattern#UNIX_LINES},
+   *          {@link Pattern#LITERAL}, {@link Pattern#UNICODE_CHARACTER_CLASS}
+   *          and {@link Pattern#COMMENTS}.
+   * @throws IllegalArgumentException If bit values other than those
+   *           corresponding to the defined match flags are set in
+   *           {@code flags}.
+   * @throws PatternSyntaxException If the expression's syntax is invalid.
+   * @throws NullPointerException If {@code regex} is null.
+   */
+  PatternMatcher(final String regex, final int flags) {
+    this.pattern = Patterns.compile(regex, flags);
+    if (flags == Pattern.LITERAL) {
+      this.literal = regex;
+      this.prefix = regex;
+      this.anchoredStart = false;
+      this.anchoredEnd = false;
+    }
+    else if (flags != 0 || !isAnalyzable(regex)) {
+      this.literal = null;
+      this.prefix = null;
+      this.anchoredStart = false;
+      this.anchoredEnd = false;
+    }
+    else {
+      final boolean alternation = hasTopLevelAlternation(regex);
+      this.anchoredStart = !alternation && regex.startsWith("^");
+      this.anchoredEnd = !alternation && endsWithUnEscaped(regex, '$');
+      this.literal = isPlainLiteral(regex) ? Patterns.unescape(regex) : null;
+      this.prefix = literal != null ? literal : literalPrefix(regex, anchoredStart ? 1 : 0);
+    }
+  }
+
+  /**
+   * Returns whether the specified regex is free of constructs that would make
+   * its literal analysis unsound, i.e. special groups, boundary matchers, back
+   * references, and anchors other than a leading {@code '^'} and trailing
+   * {@code '$'}.
+   *
+   * @param regex The regex.
+   * @return Whether the specified regex is free of constructs that would make
+   *         its literal analysis unsound.
+   */
+  private static boolean isAnalyzable(final String regex) {
+    boolean escaped = false;
+    for (int i = 0, len = regex.length(); i < len; ++i) {
+      final char ch = regex.charAt(i);
+      if (escaped) {
+        escaped = false;
+        if (ch == 'Q') {
+          final int end = regex.indexOf("\\E", i + 1);
+          if (end < 0)
+            return true;
+
+          i = end + 1;
+        }
+        else if (ch == 'b' || ch == 'B' || ch == 'A' || ch == 'G' || ch == 'Z' || ch == 'z' || ch == 'k' || '1' <= ch && ch <= '9') {
+          return false;
+        }
+      }
+      else if (ch == '\\') {
+        escaped = true;
+      }
+      else if (ch == '(' && i + 1 < len && regex.charAt(i + 1) == '?') {
+        return false;
+      }
+      else if (ch == '^' && i != 0 || ch == '$' && i != len - 1) {
+        return false;
+      }
+    }
+
+    return true;
+  }
+
+  /**
+   * Returns whether the specified regex is a plain literal, i.e. it has no
+   * unescaped {@code .|[](){}*+?}, and each of its escapes is of a char that
+   * {@link Patterns#unescape(String)} decodes to itself, i.e. one of
+   * {@code .|[](){}*+?}. Other escapes (such as the escapes of {@code '/'},
+   * {@code '\\'} and {@code '$'}, control and octal escapes, hexadecimal and
+   * Unicode escapes, and quotations) are not decoded as they are by
+   * {@code java.util.regex}, and thus preclude the literal analysis. Likewise,
+   * {@link Patterns#unescape(String)} does not regard {@code '.'} and
+   * {@code {m,n}} quantifiers as multi-match constructs.
+   *
+   * @param regex The regex.
+   * @return Whether the specified regex is a plain literal.
+   */
+  private static boolean isPlainLiteral(final String regex) {
+    for (int i = 0, len = regex.length(); i < len; ++i) {
+      char ch = regex.charAt(i);
+      if (ch == '\\') {
+        if (++i == len)
+          return false;
+
+        ch = regex.charAt(i);
+        if (!isLiteralMetaChar(ch))
+          return false;
+      }
+      else if (isLiteralMetaChar(ch)) {
+        return false;
+      }
+    }
+
+    return true;
+  }
+
+  private static boolean isLiteralMetaChar(final char ch) {
+    return ch == '.' || ch == '|' || ch == '[' || ch == ']' || ch == '(' || ch == ')' || ch == '{' || ch == '}' || ch == '*' || ch == '+' || ch == '?';
+  }
+
+  /**
+   * Returns whether the specified regex has an unescaped {@code '|'} outside of
+   * any group, quotation or character class, in which case neither a leading
+   * {@code '^'} nor a trailing {@code '$'} anchors the whole regex.
+   *
+   * @param regex The regex.
+   * @return Whether the specified regex has a top-level alternation.
+   */
+  private static boolean hasTopLevelAlternation(final String regex) {
+    for (int i = 0, len = regex.length(), depth = 0; i < len; ++i) {
+      final char ch = regex.charAt(i);
+      if (ch == '\\') {
+        if (++i < len && regex.charAt(i) == 'Q') {
+          final int end = regex.indexOf("\\E", i + 1);
+          if (end < 0)
+            return false;
+
+          i = end + 1;
+        }
+      }
+      else if (ch == '[') {
+        final int end = Patterns.indexOfClassClose(regex, i + 1);
+        if (end < 0)
+          return false;
+
+        i = end;
+      }
+      else if (ch == '(') {
+        ++depth;
+      }
+      else if (ch == ')') {
+        --depth;
+      }
+      else if (ch == '|' && depth == 0) {
+        return true;
+      }
+    }
+
+    return false;
+  }
+
+  private static boolean endsWithUnEscaped(final String regex, final char ch) {
+    final int len = regex.length();
+    return len > 0 && regex.charAt(len - 1) == ch && Patterns.countEscapes(regex, len - 2) % 2 == 0;
+  }
+
+  /**
+   * Returns the literal prefix that is required to be present at the start of
+   * any match of the specified regex, or {@code null} if the regex does not
+   * have a required literal prefix.
+   *
+   * @param regex The regex.
+   * @param fromIndex The index from which to start the analysis.
+   * @return The literal prefix that is required to be present at the start of
+   *         any match of the specified regex, or {@code null} if the regex does
+   *         not have a required literal prefix.
+   */
+  static String literalPrefix(final String regex, final int fromIndex) {
+    final int len = regex.length();
+    if (Patterns.indexOfUnEscaped(regex, '|', fromIndex, len) > -1)
+      return null;
+
+    final StringBuilder builder = new StringBuilder();
+    for (int i = fromIndex; i < len; ++i) {
+      char ch = regex.charAt(i);
+      if (ch == '\\') {
+        if (++i == len || Character.isLetterOrDigit(ch = regex.charAt(i)))
+          break;
+      }
+      else if (isMetaChar(ch)) {
+        break;
+      }
+
+      if (Character.isSurrogate(ch))
+        break;
+
+      if (i + 1 < len) {
+        final char next = regex.charAt(i + 1);
+        // The char is optional
+        if (next == '?' || next == '*' || next == '{')
+          break;
+
+        // The char is required once, but may repeat
+        if (next == '+') {
+          builder.append(ch);
+          break;
+        }
+      }
+
+      builder.append(ch);
+    }
+
+    return builder.length() == 0 ? null : builder.toString();
+  }
+
+  private static boolean isMetaChar(final char ch) {
+    return ch == '.' || ch == '[' || ch == ']' || ch == '(' || ch == ')' || ch == '{' || ch == '}' || ch == '?' || ch == '*' || ch == '+' || ch == '^' || ch == '$';
+  }
+
+  /**
+   * Returns the {@link Pattern} of this matcher.
+   *
+   * @return The {@link Pattern} of this matcher.
+   */
+  public Pattern getPattern() {
+    return pattern;
+  }
+
+  /**
+   * Returns the single string that the regular expression of this matcher can
+   * match, or {@code null} if the regular expression can match more than one
+   * string.
+   *
+   * @return The single string that the regular expression of this matcher can
+   *         match, or {@code null} if the regular expression can match more
+   *         than one string.
+   */
+  public String getLiteral() {
+    return literal;
+  }
+
+  /**
+   * Returns the literal prefix that is required to be present at the start of
+   * any match of the regular expression of this matcher, or {@code null} if
+   * there is no such prefix.
+   *
+   * @return The literal prefix that is required to be present at the start of
+   *         any match of the regular expression of this matcher, or
+   *         {@code null} if there is no such prefix.
+   */
+  public String getPrefix() {
+    return prefix;
+  }
+
+  /**
+   * Returns whether the entire {@code input} matches the regular expression of
+   * this matcher.
+   *
+   * @param input The input.
+   * @return Whether the entire {@code input} matches the regular expression of
+   *         this matcher.
+   * @throws NullPointerException If {@code input} is null.
+   * @see java.util.regex.Matcher#matches()
+   */
+  public boolean matches(final CharSequence input) {
+    if (literal != null)
+      return literal.contentEquals(input);
+
+    if (prefix != null && !startsWith(input, prefix))
+      return false;
+
+    return pattern.matcher(input).matches();
+  }
+
+  /**
+   * Returns whether a subsequence of {@code input} matches the regular
+   * expression of this matcher.
+   *
+   * @param input The input.
+   * @return Whether a subsequence of {@code input} matches the regular
+   *         expression of this matcher.
+   * @throws NullPointerException If {@code input} is null.
+   * @see java.util.regex.Matcher#find()
+   */
+  public boolean find(final CharSequence input) {
+    if (literal != null && !anchoredEnd)
+      return anchoredStart ? startsWith(input, literal) : indexOf(input, literal) > -1;
+
+    if (prefix != null && (anchoredStart ? !startsWith(input, prefix) : indexOf(input, prefix) < 0))
+      return false;
+
+    return pattern.matcher(input).find();
+  }
+
+  private static boolean startsWith(final CharSequence input, final String prefix) {
+    if (input instanceof String)
+      return ((String)input).startsWith(prefix);
+
+    final int len = prefix.length();
+    if (input.length() < len)
+      return false;
+
+    for (int i = 0; i < len; ++i)
+      if (input.charAt(i) != prefix.charAt(i))
+        return false;
+
+    return true;
+  }
+
+  static int indexOf(final CharSequence input, final String str) {
+    if (input instanceof String)
+      return ((String)input).indexOf(str);
+
+    if (input instanceof StringBuilder)
+      return ((StringBuilder)input).indexOf(str);
+
+    final int len = str.length();
+    if (len == 0)
+      return 0;
+
+    final char first = str.charAt(0);
+    OUT:
+    for (int i = 0, max = input.length() - len; i <= max; ++i) {
+      if (input.charAt(i) != first)
+        continue;
+
+      for (int j = 1; j < len; ++j)
+        if (input.charAt(i + j) != str.charAt(j))
+          continue OUT;
+
+      return i;
+    }
+
+    return -1;
+  }
+
+  @Override
+  public String toString() {
+    return pattern.toString();
+  }
+}
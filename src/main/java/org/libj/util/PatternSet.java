@@ -0,0 +1,377 @@
+/* Copyright (c) 2016 LibJ
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * You should have received a copy of The MIT License (MIT) along with this
+ * program. If not, see <http://opensource.org/licenses/MIT/>.
+ */
+
+package org.libj.util;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.regex.PatternSyntaxException;
+
+/**
+ * A set of regular expressions that are matched against an input together.
+ * <p>
+ * Each regular expression is analyzed with {@link PatternMatcher} for a
+ * literal (or literal prefix) that is required to be present in any input it
+ * matches. The required literals of all regular expressions are compiled into
+ * a single Aho-Corasick automaton, which determines the candidate regular
+ * expressions for an input with one scan of the input. Regular expressions
+ * without a required literal are always candidates.
+ * <p>
+ * Additionally, the regular expressions are compiled into a single alternation
+ * of named groups (one group per regular expression), which is used to
+ * determine the first matching regular expression with one evaluation. The
+ * alternation is not used if any regular expression contains a back reference,
+ * or a group name that conflicts with another regular expression (see
+ * {@link Patterns#getGroupNames(Pattern)}).
+ * <p>
+ * Instances of this class are immutable and thread-safe.
+ */
+public final class PatternSet {
+  /**
+   * An Aho-Corasick automaton of literals, each mapped to the indices of the
+   * regular expressions that require it.
+   */
+  private static final class Automaton {
+    private final char[][] labels;
+    private final int[][] targets;
+    private final int[] fail;
+    private final int[][] outputs;
+
+    private Automaton(final String[] literals) {
+      // Build the trie
+      final List<TreeMap<Character,Integer>> children = new ArrayList<>();
+      final List<int[]> terminals = new ArrayList<>();
+      children.add(new TreeMap<>());
+      terminals.add(null);
+      for (int i = 0; i < literals.length; ++i) {
+        final String literal = literals[i];
+        if (literal == null)
+          continue;
+
+        int node = 0;
+        for (int j = 0, len = literal.length(); j < len; ++j) {
+          final Character ch = literal.charAt(j);
+          Integer next = children.get(node).get(ch);
+          if (next == null) {
+            children.get(node).put(ch, next = children.size());
+            children.add(new TreeMap<>());
+            terminals.add(null);
+          }
+
+          node = next;
+        }
+
+        final int[] terminal = terminals.get(node);
+        terminals.set(node, terminal == null ? new int[] {i} : append(terminal, i));
+      }
+
+      // Flatten the trie into arrays
+      final int size = children.size();
+      this.labels = new char[size][];
+      this.targets = new int[size][];
+      for (int node = 0; node < size; ++node) {
+        final TreeMap<Character,Integer> map = children.get(node);
+        final char[] label = labels[node] = new char[map.size()];
+        final int[] target = targets[node] = new int[map.size()];
+        int k = 0;
+        for (final Map.Entry<Character,Integer> entry : map.entrySet()) {
+          label[k] = entry.getKey();
+          target[k++] = entry.getValue();
+        }
+      }
+
+      // Compute the failure links breadth-first, merging the outputs of each
+      // node with the outputs of the node its failure link points to
+      this.fail = new int[size];
+      this.outputs = new int[size][];
+      outputs[0] = terminals.get(0);
+      final ArrayDeque<Integer> queue = new ArrayDeque<>();
+      for (final int child : targets[0])
+        queue.add(child);
+
+      for (int i = 0; i < targets[0].length; ++i)
+        outputs[targets[0][i]] = terminals.get(targets[0][i]);
+
+      while (!queue.isEmpty()) {
+        final int node = queue.poll();
+        for (int k = 0; k < labels[node].length; ++k) {
+          final char ch = labels[node][k];
+          final int child = targets[node][k];
+          int f = fail[node];
+          int next;
+          while ((next = transition(f, ch)) < 0 && f != 0)
+            f = fail[f];
+
+          fail[child] = next < 0 ? 0 : next;
+          outputs[child] = merge(terminals.get(child), outputs[fail[child]]);
+          queue.add(child);
+        }
+      }
+    }
+
+    private int transition(final int node, final char ch) {
+      final int index = Arrays.binarySearch(labels[node], ch);
+      return index < 0 ? -1 : targets[node][index];
+    }
+
+    private void scan(final CharSequence input, final BitSet candidates) {
+      int node = 0;
+      for (int i = 0, len = input.length(); i < len; ++i) {
+        final char ch = input.charAt(i);
+        int next;
+        while ((next = transition(node, ch)) < 0 && node != 0)
+          node = fail[node];
+
+        node = next < 0 ? 0 : next;
+        final int[] output = outputs[node];
+        if (output != null)
+          for (final int index : output)
+            candidates.set(index);
+      }
+    }
+
+    private static int[] append(final int[] array, final int value) {
+      final int[] result = Arrays.copyOf(array, array.length + 1);
+      result[array.length] = value;
+      return result;
+    }
+
+    private static int[] merge(final int[] a, final int[] b) {
+      if (a == null)
+        return b;
+
+      if (b == null)
+        return a;
+
+      final int[] result = Arrays.copyOf(a, a.length + b.length);
+      System.arraycopy(b, 0, result, a.length, b.length);
+      return result;
+    }
+  }
+
+  private static final String groupNamePrefix = "patternSet";
+
+  private final PatternMatcher[] matchers;
+  private final Automaton automaton;
+  private final BitSet unconditional;
+  private final Pattern alternation;
+  private final int[] groups;
+
+  /**
+   * Creates a new {@link PatternSet} of the given regular expressions.
+   *
+   * @param regexes The expressions to be compiled.
+   * @throws PatternSyntaxException If the syntax of an expression is invalid.
+   * @throws NullPointerException If {@code regexes}, or a member of
+   *           {@code regexes} is null.
+   */
+  public PatternSet(final String ... regexes) {
+    this(0, regexes);
+  }
+
+  /**
+   * Creates a new {@link PatternSet} of the given regular expressions.
+   *
+   * @param regexes The expressions to be compiled.
+   * @throws PatternSyntaxException If the syntax of an expression is invalid.
+   * @throws NullPointerException If {@code regexes}, or a member of
+   *           {@code regexes} is null.
+   */
+  public PatternSet(final Collection<String> regexes) {
+    this(0, regexes.toArray(new String[regexes.size()]));
+  }
+
+  /**
+   * Creates a new {@link PatternSet} of the given regular expressions with the
+   * given flags.
+   *
+   * @param flags Match flags, a bit mask that may include
+   *          {@link Pattern#CASE_INSENSITIVE}, {@link Pattern#MULTILINE},
+   *          {@link Pattern#DOTALL}, {@link Pattern#UNICODE_CASE},
+   *          {@link Pattern#CANON_EQ}, {@link Pattern#UNIX_LINES},
+   *          {@link Pattern#LITERAL}, {@link Pattern#UNICODE_CHARACTER_CLASS}
+   *          and {@link Pattern#COMMENTS}.
+   * @param regexes The expressions to be compiled.
+   * @throws IllegalArgumentException If bit values other than those
+   *           corresponding to the defined match flags are set in
+   *           {@code flags}.
+   * @throws PatternSyntaxException If the syntax of an expression is invalid.
+   * @throws NullPointerException If {@code regexes}, or a member of
+   *           {@code regexes} is null.
+   */
+  public PatternSet(final int flags, final String ... regexes) {
+    final int len = regexes.length;
+    this.matchers = new PatternMatcher[len];
+    this.unconditional = new BitSet(len);
+    final String[] literals = new String[len];
+    for (int i = 0; i < len; ++i) {
+      final PatternMatcher matcher = matchers[i] = Patterns.compileMatcher(regexes[i], flags);
+      final String literal = matcher.getLiteral() != null ? matcher.getLiteral() : matcher.getPrefix();
+      // A literal that the pattern does not match would drop real matches from the prefilter
+      if (literal == null || literal.length() == 0 || literal == matcher.getLiteral() && !matcher.getPattern().matcher(literal).matches())
+        unconditional.set(i);
+      else
+        literals[i] = literal;
+    }
+
+    this.automaton = unconditional.cardinality() == len ? null : new Automaton(literals);
+
+    final int[] groups = new int[len];
+    this.alternation = len > 1 ? compileAlternation(flags, regexes, groups) : null;
+    this.groups = alternation != null ? groups : null;
+  }
+
+  private Pattern compileAlternation(final int flags, final String[] regexes, final int[] groups) {
+    if ((flags & (Pattern.LITERAL | Pattern.COMMENTS)) != 0)
+      return null;
+
+    final HashSet<String> names = new HashSet<>();
+    final StringBuilder builder = new StringBuilder();
+    for (int i = 0, group = 1; i < regexes.length; ++i) {
+      final String regex = regexes[i];
+      // Numbered and named back references would be broken by the renumbering of groups
+      for (int j = 0, end = regex.length() - 1; j < end; ++j) {
+        if (regex.charAt(j) == '\\') {
+          final char ch = regex.charAt(++j);
+          if ('1' <= ch && ch <= '9' || ch == 'k')
+            return null;
+        }
+      }
+
+      final Pattern pattern = matchers[i].getPattern();
+      final String[] groupNames;
+      try {
+        groupNames = Patterns.getGroupNames(pattern);
+      }
+      catch (final PatternSyntaxException e) {
+        // The group names cannot be extracted, so the patterns are matched separately
+        return null;
+      }
+
+      for (final String name : groupNames)
+        if (name.startsWith(groupNamePrefix) || !names.add(name))
+          return null;
+
+      if (i > 0)
+        builder.append('|');
+
+      builder.append("(?<").append(groupNamePrefix).append(i).append('>').append(regex).append(')');
+      groups[i] = group;
+      group += 1 + pattern.matcher("").groupCount();
+    }
+
+    return Pattern.compile(builder.toString(), flags);
+  }
+
+  /**
+   * Returns the number of regular expressions in this set.
+   *
+   * @return The number of regular expressions in this set.
+   */
+  public int size() {
+    return matchers.length;
+  }
+
+  /**
+   * Returns the {@link PatternMatcher} of the regular expression at the
+   * specified index.
+   *
+   * @param index The index.
+   * @return The {@link PatternMatcher} of the regular expression at the
+   *         specified index.
+   * @throws ArrayIndexOutOfBoundsException If the index is out of range.
+   */
+  public PatternMatcher get(final int index) {
+    return matchers[index];
+  }
+
+  private BitSet candidates(final CharSequence input) {
+    final BitSet candidates = (BitSet)unconditional.clone();
+    if (automaton != null)
+      automaton.scan(input, candidates);
+
+    return candidates;
+  }
+
+  /**
+   * Returns the index of the first regular expression in this set that matches
+   * the entire {@code input}, or {@code -1} if no regular expression matches.
+   *
+   * @param input The input.
+   * @return The index of the first regular expression in this set that matches
+   *         the entire {@code input}, or {@code -1} if no regular expression
+   *         matches.
+   * @throws NullPointerException If {@code input} is null.
+   */
+  public int matchFirst(final CharSequence input) {
+    final BitSet candidates = candidates(input);
+    final int cardinality = candidates.cardinality();
+    if (cardinality == 0)
+      return -1;
+
+    if (cardinality > 1 && alternation != null) {
+      final Matcher matcher = alternation.matcher(input);
+      if (!matcher.matches())
+        return -1;
+
+      for (int i = 0; i < groups.length; ++i)
+        if (matcher.start(groups[i]) > -1)
+          return i;
+
+      throw new IllegalStateException("Should not get here");
+    }
+
+    for (int i = candidates.nextSetBit(0); i > -1; i = candidates.nextSetBit(i + 1))
+      if (matchers[i].matches(input))
+        return i;
+
+    return -1;
+  }
+
+  /**
+   * Returns the indices, in ascending order, of all regular expressions in this
+   * set that match the entire {@code input}.
+   *
+   * @param input The input.
+   * @return The indices, in ascending order, of all regular expressions in this
+   *         set that match the entire {@code input}.
+   * @throws NullPointerException If {@code input} is null.
+   */
+  public int[] matchAll(final CharSequence input) {
+    final BitSet candidates = candidates(input);
+    int[] indices = new int[candidates.cardinality()];
+    int size = 0;
+    for (int i = candidates.nextSetBit(0); i > -1; i = candidates.nextSetBit(i + 1))
+      if (matchers[i].matches(input))
+        indices[size++] = i;
+
+    return size == indices.length ? indices : Arrays.copyOf(indices, size);
+  }
+
+  @Override
+  public String toString() {
+    return Arrays.toString(matchers);
+  }
+}
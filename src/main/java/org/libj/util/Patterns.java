@@ -17,7 +17,6 @@
 package org.libj.util;
 
 import java.util.Arrays;
-import java.util.concurrent.ConcurrentHashMap;
 import java.util.regex.Pattern;
 import java.util.regex.PatternSyntaxException;
 
@@ -25,7 +24,19 @@ import java.util.regex.PatternSyntaxException;
  * Utility functions for operations pertaining to {@link Pattern}.
  */
 public final class Patterns {
-  private static final ConcurrentHashMap<String,Pattern> propertyNameToPattern = new ConcurrentHashMap<>();
+  private static final PatternCache cache = new PatternCache();
+
+  /**
+   * Returns the {@link PatternCache} used by {@link #compile(String)} and
+   * {@link #compile(String,int)}. The cache is unbounded by default, and can
+   * be bounded with {@link PatternCache#setCapacity(int)}.
+   *
+   * @return The {@link PatternCache} used by {@link #compile(String)} and
+   *         {@link #compile(String,int)}.
+   */
+  public static PatternCache getCache() {
+    return cache;
+  }
 
   /**
    * Compiles the given regular expression into a pattern.
@@ -46,7 +57,9 @@ public final class Patterns {
    * Compiles the given regular expression into a pattern with the given flags.
    * <p>
    * This method differentiates itself from {@link Pattern#compile(String,int)}
-   * by caching the result for faster subsequence execution.
+   * by caching the result for faster subsequence execution. Concurrent calls
+   * for the same {@code regex} and {@code flags} compile the pattern only
+   * once.
    *
    * @param regex The expression to be compiled
    * @param flags Match flags, a bit mask that may include
@@ -63,12 +76,47 @@ public final class Patterns {
    * @throws NullPointerException If {@code regex} is null.
    */
   public static Pattern compile(final String regex, final int flags) {
-    final String key = regex + "$" + flags;
-    Pattern pattern = propertyNameToPattern.get(key);
-    if (pattern == null)
-      propertyNameToPattern.put(key, pattern = Pattern.compile(regex, flags));
+    return cache.compile(regex, flags);
+  }
 
-    return pattern;
+  /**
+   * Compiles the given regular expression into a {@link PatternMatcher}, which
+   * analyzes the expression once in order to match literal expressions and
+   * literal prefixes without evaluating the regular expression.
+   *
+   * @param regex The expression to be compiled.
+   * @return The given regular expression compiled into a
+   *         {@link PatternMatcher}.
+   * @throws PatternSyntaxException If the expression's syntax is invalid.
+   * @throws NullPointerException If {@code regex} is null.
+   */
+  public static PatternMatcher compileMatcher(final String regex) {
+    return new PatternMatcher(regex, 0);
+  }
+
+  /**
+   * Compiles the given regular expression with the given flags into a
+   * {@link PatternMatcher}, which analyzes the expression once in order to
+   * match literal expressions and literal prefixes without evaluating the
+   * regular expression.
+   *
+   * @param regex The expression to be compiled.
+   * @param flags Match flags, a bit mask that may include
+   *          {@link Pattern#CASE_INSENSITIVE}, {@link Pattern#MULTILINE},
+   *          {@link Pattern#DOTALL}, {@link Pattern#UNICODE_CASE},
+   *          {@link Pattern#CANON_EQ}, {@link Pattern#UNIX_LINES},
+   *          {@link Pattern#LITERAL}, {@link Pattern#UNICODE_CHARACTER_CLASS}
+   *          and {@link Pattern#COMMENTS}.
+   * @return The given regular expression compiled into a
+   *         {@link PatternMatcher} with the given flags.
+   * @throws IllegalArgumentException If bit values other than those
+   *           corresponding to the defined match flags are set in
+   *           {@code flags}.
+   * @throws PatternSyntaxException If the expression's syntax is invalid.
+   * @throws NullPointerException If {@code regex} is null.
+   */
+  public static PatternMatcher compileMatcher(final String regex, final int flags) {
+    return new PatternMatcher(regex, flags);
   }
 
   /**
@@ -91,7 +139,11 @@ public final class Patterns {
   private static String[] empty = new String[0];
 
   private static String[] getGroupNames(final String regex, final int index, final int depth) {
-    final int start = regex.indexOf("(?<", index);
+    int start = index;
+    // Skip the lookbehind constructs "(?<=" and "(?<!"
+    while ((start = regex.indexOf("(?<", start)) > -1 && start + 3 < regex.length() && (regex.charAt(start + 3) == '=' || regex.charAt(start + 3) == '!'))
+      start += 3;
+
     if (start < 0)
       return depth == 0 ? empty : new String[depth];
 
@@ -260,7 +312,7 @@ public final class Patterns {
           builder.delete(builderLen - 1, builderLen);
       }
 
-      if (builder.charAt(0) == '^')
+      if (builder.length() > 0 && builder.charAt(0) == '^')
         builder.delete(0, 1);
     }
 
@@ -412,7 +464,7 @@ public final class Patterns {
     return -1;
   }
 
-  private static int indexOfClassClose(final CharSequence string, final int fromIndex) {
+  static int indexOfClassClose(final CharSequence string, final int fromIndex) {
     boolean escaped = false;
     for (int i = Math.max(fromIndex, 0), len = string.length(), and = 0, depth = 1; i < len; ++i) {
       final char c = string.charAt(i);
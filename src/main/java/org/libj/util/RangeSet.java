@@ -0,0 +1,305 @@
+/* Copyright (c) 2012 LibJ
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * You should have received a copy of The MIT License (MIT) along with this
+ * program. If not, see <http://opensource.org/licenses/MIT/>.
+ */
+
+package org.libj.util;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * A set of disjoint half-open spans {@code [from, to)} of a {@link Comparable}
+ * dimension (such as time or distance), which supports the computation of the
+ * gaps of a range that are not covered by the set. Overlapping and adjacent
+ * spans are merged upon {@link #add(Comparable,Comparable)}.
+ * <p>
+ * Each span records when it was last added or {@linkplain #touch(Comparable,Comparable)
+ * touched}, so that the coldest span can be {@linkplain #pollColdest() evicted}.
+ * <p>
+ * This class is not thread-safe.
+ *
+ * @param <A> Type parameter of the dimension.
+ */
+public final class RangeSet<A extends Comparable<A>> {
+  /**
+   * A half-open span {@code [from, to)} of a {@link RangeSet}.
+   *
+   * @param <A> Type parameter of the dimension.
+   */
+  public static final class Span<A extends Comparable<A>> {
+    private final A from;
+    private final A to;
+    private long accessed;
+
+    private Span(final A from, final A to, final long accessed) {
+      this.from = from;
+      this.to = to;
+      this.accessed = accessed;
+    }
+
+    /**
+     * Returns the lower bound of this span, inclusive.
+     *
+     * @return The lower bound of this span, inclusive.
+     */
+    public A getFrom() {
+      return from;
+    }
+
+    /**
+     * Returns the upper bound of this span, exclusive.
+     *
+     * @return The upper bound of this span, exclusive.
+     */
+    public A getTo() {
+      return to;
+    }
+
+    @Override
+    public boolean equals(final Object obj) {
+      if (obj == this)
+        return true;
+
+      if (!(obj instanceof Span))
+        return false;
+
+      final Span<?> that = (Span<?>)obj;
+      return from.equals(that.from) && to.equals(that.to);
+    }
+
+    @Override
+    public int hashCode() {
+      return 31 * from.hashCode() + to.hashCode();
+    }
+
+    @Override
+    public String toString() {
+      return "[" + from + ", " + to + ")";
+    }
+  }
+
+  private static <A extends Comparable<A>>A max(final A a, final A b) {
+    return a.compareTo(b) < 0 ? b : a;
+  }
+
+  private static <A extends Comparable<A>>void assertRange(final A from, final A to) {
+    if (from.compareTo(to) > 0)
+      throw new IllegalArgumentException("from (" + from + ") > to (" + to + ")");
+  }
+
+  private final TreeMap<A,Span<A>> spans = new TreeMap<>();
+  private long clock;
+
+  /**
+   * Adds the span {@code [from, to)} to this set, merging it with the spans
+   * that it overlaps or adjoins.
+   *
+   * @param from The lower bound of the span, inclusive.
+   * @param to The upper bound of the span, exclusive.
+   * @throws IllegalArgumentException If {@code from > to}.
+   * @throws NullPointerException If {@code from} or {@code to} is null.
+   */
+  public void add(final A from, final A to) {
+    assertRange(from, to);
+    if (from.compareTo(to) == 0)
+      return;
+
+    A start = from;
+    A end = to;
+    final Map.Entry<A,Span<A>> floor = spans.floorEntry(from);
+    if (floor != null && floor.getValue().to.compareTo(from) >= 0) {
+      start = floor.getKey();
+      end = max(end, floor.getValue().to);
+      spans.remove(start);
+    }
+
+    for (Map.Entry<A,Span<A>> entry; (entry = spans.ceilingEntry(start)) != null && entry.getKey().compareTo(end) <= 0;) {
+      end = max(end, entry.getValue().to);
+      spans.remove(entry.getKey());
+    }
+
+    spans.put(start, new Span<>(start, end, ++clock));
+  }
+
+  /**
+   * Removes the span {@code [from, to)} from this set, truncating or splitting
+   * the spans that it overlaps.
+   *
+   * @param from The lower bound of the span, inclusive.
+   * @param to The upper bound of the span, exclusive.
+   * @throws IllegalArgumentException If {@code from > to}.
+   * @throws NullPointerException If {@code from} or {@code to} is null.
+   */
+  public void remove(final A from, final A to) {
+    assertRange(from, to);
+    if (from.compareTo(to) == 0)
+      return;
+
+    final Map.Entry<A,Span<A>> lower = spans.lowerEntry(from);
+    if (lower != null && lower.getValue().to.compareTo(from) > 0) {
+      final Span<A> span = lower.getValue();
+      spans.put(span.from, new Span<>(span.from, from, span.accessed));
+      if (span.to.compareTo(to) > 0)
+        spans.put(to, new Span<>(to, span.to, span.accessed));
+    }
+
+    for (final Iterator<Span<A>> iterator = spans.subMap(from, true, to, false).values().iterator(); iterator.hasNext();) {
+      final Span<A> span = iterator.next();
+      iterator.remove();
+      if (span.to.compareTo(to) > 0) {
+        spans.put(to, new Span<>(to, span.to, span.accessed));
+        break;
+      }
+    }
+  }
+
+  /**
+   * Returns whether the range {@code [from, to)} is entirely covered by this
+   * set.
+   *
+   * @param from The lower bound of the range, inclusive.
+   * @param to The upper bound of the range, exclusive.
+   * @return Whether the range {@code [from, to)} is entirely covered by this
+   *         set.
+   * @throws IllegalArgumentException If {@code from > to}.
+   * @throws NullPointerException If {@code from} or {@code to} is null.
+   */
+  public boolean contains(final A from, final A to) {
+    assertRange(from, to);
+    if (from.compareTo(to) == 0)
+      return true;
+
+    final Map.Entry<A,Span<A>> floor = spans.floorEntry(from);
+    return floor != null && floor.getValue().to.compareTo(to) >= 0;
+  }
+
+  /**
+   * Returns the gaps of the range {@code [from, to)} that are not covered by
+   * this set, in ascending order.
+   *
+   * @param from The lower bound of the range, inclusive.
+   * @param to The upper bound of the range, exclusive.
+   * @return The gaps of the range {@code [from, to)} that are not covered by
+   *         this set, in ascending order.
+   * @throws IllegalArgumentException If {@code from > to}.
+   * @throws NullPointerException If {@code from} or {@code to} is null.
+   */
+  public List<Span<A>> gaps(final A from, final A to) {
+    assertRange(from, to);
+    if (from.compareTo(to) == 0)
+      return Collections.emptyList();
+
+    final ArrayList<Span<A>> gaps = new ArrayList<>();
+    A cursor = from;
+    final Map.Entry<A,Span<A>> floor = spans.floorEntry(from);
+    if (floor != null)
+      cursor = max(cursor, floor.getValue().to);
+
+    for (final Span<A> span : spans.subMap(from, false, to, false).values()) {
+      if (cursor.compareTo(span.from) < 0)
+        gaps.add(new Span<>(cursor, span.from, 0));
+
+      cursor = max(cursor, span.to);
+    }
+
+    if (cursor.compareTo(to) < 0)
+      gaps.add(new Span<>(cursor, to, 0));
+
+    return gaps;
+  }
+
+  /**
+   * Marks the spans that overlap the range {@code [from, to)} as the most
+   * recently accessed.
+   *
+   * @param from The lower bound of the range, inclusive.
+   * @param to The upper bound of the range, exclusive.
+   * @throws IllegalArgumentException If {@code from > to}.
+   * @throws NullPointerException If {@code from} or {@code to} is null.
+   */
+  public void touch(final A from, final A to) {
+    assertRange(from, to);
+    final long accessed = ++clock;
+    final Map.Entry<A,Span<A>> lower = spans.lowerEntry(from);
+    if (lower != null && lower.getValue().to.compareTo(from) > 0)
+      lower.getValue().accessed = accessed;
+
+    for (final Span<A> span : spans.subMap(from, true, to, false).values())
+      span.accessed = accessed;
+  }
+
+  /**
+   * Removes and returns the least recently added or touched span, or
+   * {@code null} if this set is empty.
+   *
+   * @return The least recently added or touched span, or {@code null} if this
+   *         set is empty.
+   */
+  public Span<A> pollColdest() {
+    Span<A> coldest = null;
+    for (final Span<A> span : spans.values())
+      if (coldest == null || span.accessed < coldest.accessed)
+        coldest = span;
+
+    if (coldest != null)
+      spans.remove(coldest.from);
+
+    return coldest;
+  }
+
+  /**
+   * Returns an unmodifiable view of the spans in this set, in ascending order.
+   *
+   * @return An unmodifiable view of the spans in this set, in ascending order.
+   */
+  public Collection<Span<A>> spans() {
+    return Collections.unmodifiableCollection(spans.values());
+  }
+
+  /**
+   * Returns the number of spans in this set.
+   *
+   * @return The number of spans in this set.
+   */
+  public int size() {
+    return spans.size();
+  }
+
+  /**
+   * Returns whether this set has no spans.
+   *
+   * @return Whether this set has no spans.
+   */
+  public boolean isEmpty() {
+    return spans.isEmpty();
+  }
+
+  /**
+   * Removes all spans from this set.
+   */
+  public void clear() {
+    spans.clear();
+  }
+
+  @Override
+  public String toString() {
+    return spans.values().toString();
+  }
+}
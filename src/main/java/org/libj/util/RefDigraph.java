@@ -93,14 +93,14 @@ public class RefDigraph<K,V> extends AbstractDigraph<K,V> {
   @SuppressWarnings("unchecked")
   protected K indexToKey(final int v) {
     swapRefs();
-    return (K)indexToObject.get(v);
+    return (K)objectToIndex.get(v);
   }
 
   @Override
   @SuppressWarnings("unchecked")
   protected V indexToValue(final int v) {
     swapRefs();
-    return reference.apply((K)indexToObject.get(v));
+    return reference.apply((K)objectToIndex.get(v));
   }
 
   /**
@@ -117,8 +117,8 @@ public class RefDigraph<K,V> extends AbstractDigraph<K,V> {
     for (final K vertex : vertices) {
       final V ref = reference.apply(vertex);
       references.remove(ref);
-      final Integer index = digraph.objectToIndex.remove(ref);
-      if (index != null)
+      final int index = digraph.objectToIndex.remove(ref);
+      if (index != ObjectIntBiMap.NO_INDEX)
         digraph.objectToIndex.put(vertex, index);
     }
 
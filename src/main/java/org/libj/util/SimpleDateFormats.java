@@ -19,15 +19,50 @@ package org.libj.util;
 import java.text.FieldPosition;
 import java.text.ParsePosition;
 import java.text.SimpleDateFormat;
+import java.time.ZoneOffset;
 import java.util.Date;
+import java.util.HashMap;
 import java.util.Locale;
 import java.util.TimeZone;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.TimeUnit;
 
 public final class SimpleDateFormats {
-  private static final String[] timeZoneIDs = TimeZone.getAvailableIDs();
+  /**
+   * Index of raw offsets to the first {@link TimeZone} (in the order of
+   * {@link TimeZone#getAvailableIDs()}) having the raw offset, keyed by
+   * {@code hours * 60 + |minutes|}. The index is built on first use.
+   */
+  private static final class RawOffsetIndex {
+    private static final HashMap<Integer,TimeZone> index = new HashMap<>();
+
+    static {
+      for (final String timeZoneID : TimeZone.getAvailableIDs()) {
+        final TimeZone timeZone = TimeZone.getTimeZone(timeZoneID);
+        final long hours = TimeUnit.MILLISECONDS.toHours(timeZone.getRawOffset());
+        final long minutes = Math.abs(TimeUnit.MILLISECONDS.toMinutes(timeZone.getRawOffset()) % 60);
+        index.putIfAbsent((int)(hours * 60 + minutes), timeZone);
+      }
+    }
+  }
 
-  public static TimeZone fetchTimeZone(String offset) {
+  private static final ConcurrentHashMap<Integer,TimeZone> offsetToTimeZone = new ConcurrentHashMap<>();
+
+  /**
+   * Returns the {@link TimeZone} for the specified offset, which is either a
+   * time zone ID, or a numeric offset of the form {@code +hhmm} or
+   * {@code -hhmm}. For a numeric offset, the first {@link TimeZone} (in the
+   * order of {@link TimeZone#getAvailableIDs()}) with a matching raw offset is
+   * returned, as looked up from an index that is computed once.
+   *
+   * @param offset The time zone ID, or numeric offset of the form
+   *          {@code +hhmm} or {@code -hhmm}.
+   * @return The {@link TimeZone} for the specified offset, or {@code null} if
+   *         the numeric offset does not match a {@link TimeZone}.
+   * @throws NullPointerException If {@code offset} is null.
+   * @throws NumberFormatException If the numeric offset is malformed.
+   */
+  public static TimeZone fetchTimeZone(final String offset) {
     if (offset.charAt(0) != '+' && offset.charAt(0) != '-')
       return TimeZone.getTimeZone(offset);
 
@@ -37,15 +72,43 @@ public final class SimpleDateFormats {
     final int offsetHours = Integer.parseInt(offset.substring(0, 3));
     final int offsetMinutes = Integer.parseInt(offset.substring(3));
 
-    for (final String timeZoneID : timeZoneIDs) {
-      final TimeZone timeZone = TimeZone.getTimeZone(timeZoneID);
-      final long hours = TimeUnit.MILLISECONDS.toHours(timeZone.getRawOffset());
-      final long minutes = Math.abs(TimeUnit.MILLISECONDS.toMinutes(timeZone.getRawOffset()) % 60);
-      if (hours == offsetHours && minutes == offsetMinutes)
-        return timeZone;
+    final TimeZone timeZone = RawOffsetIndex.index.get(offsetHours * 60 + offsetMinutes);
+    return timeZone == null ? null : (TimeZone)timeZone.clone();
+  }
+
+  /**
+   * Returns a fixed-offset {@link TimeZone} (backed by a {@link ZoneOffset})
+   * for the numeric offset of the form {@code +hhmm} or {@code -hhmm}, or
+   * {@code null} if the specified string is not such a numeric offset.
+   * Instances are cached per offset, and must therefore not be mutated.
+   *
+   * @param offset The numeric offset of the form {@code +hhmm} or
+   *          {@code -hhmm}.
+   * @return A fixed-offset {@link TimeZone} for the numeric offset, or
+   *         {@code null} if the specified string is not such a numeric offset.
+   */
+  static TimeZone getOffsetTimeZone(final String offset) {
+    if (offset.length() != 5)
+      return null;
+
+    final char sign = offset.charAt(0);
+    if (sign != '+' && sign != '-')
+      return null;
+
+    int minutes = 0;
+    for (int i = 1; i < 5; ++i) {
+      final char ch = offset.charAt(i);
+      if (ch < '0' || '9' < ch)
+        return null;
+
+      minutes = minutes * 10 + ch - '0';
     }
 
-    return null;
+    minutes = minutes / 100 * 60 + minutes % 100;
+    if (minutes > 18 * 60)
+      return null;
+
+    return offsetToTimeZone.computeIfAbsent(sign == '-' ? -minutes : minutes, k -> TimeZone.getTimeZone(ZoneOffset.ofTotalSeconds(k * 60)));
   }
 
   private static class IsoDateFormatLocal extends ThreadLocal<SimpleDateFormat> {
@@ -67,7 +130,8 @@ public final class SimpleDateFormats {
 //        for (int i = 0; i < formats.length; ++i) {
           final IsoDateFormat format = formats[i];
 
-          format.setTimeZone(fetchTimeZone(tzPart));
+          final TimeZone timeZone = getOffsetTimeZone(tzPart);
+          format.setTimeZone(timeZone != null ? timeZone : fetchTimeZone(tzPart));
           final Date date = format.parse(text, pos);
           if (date != null)
             return date;
@@ -197,6 +261,49 @@ public final class SimpleDateFormats {
     return newSimpleDateFormat(null, patterns);
   }
 
+  public static final CompiledDateFormat ISO_8601_FORMAT = SimpleDateFormats.compileDateFormat("yyyy-MM-dd'T'HH:mm:ss.SSS");
+  // Formats with the zone name, as does ISO_1123 for a Date that was not parsed by it
+  public static final CompiledDateFormat ISO_1123_FORMAT = SimpleDateFormats.compileDateFormat(Locale.US, "EEE, dd MMM yyyy HH:mm:ss zz", "EEE, dd MMM yyyy HH:mm:ss Z");
+
+  /**
+   * Returns an immutable and thread-safe {@link CompiledDateFormat} of the
+   * provided patterns, which can be shared across threads instead of the
+   * {@link ThreadLocal} returned by
+   * {@link #newSimpleDateFormat(Locale,String...)}.
+   *
+   * @param locale The {@link Locale}, or {@code null} to use the default
+   *          {@link java.util.Locale.Category#FORMAT FORMAT} locale.
+   * @param patterns The patterns, of which the first is used for formatting,
+   *          and all are used for parsing.
+   * @return An immutable and thread-safe {@link CompiledDateFormat} of the
+   *         provided patterns.
+   * @throws IllegalArgumentException If {@code patterns} is empty, or if a
+   *           pattern is invalid.
+   * @throws NullPointerException If {@code patterns}, or a member of
+   *           {@code patterns} is null.
+   */
+  public static CompiledDateFormat compileDateFormat(final Locale locale, final String ... patterns) {
+    return new CompiledDateFormat(locale, patterns);
+  }
+
+  /**
+   * Returns an immutable and thread-safe {@link CompiledDateFormat} of the
+   * provided patterns for the default {@link java.util.Locale.Category#FORMAT
+   * FORMAT} locale.
+   *
+   * @param patterns The patterns, of which the first is used for formatting,
+   *          and all are used for parsing.
+   * @return An immutable and thread-safe {@link CompiledDateFormat} of the
+   *         provided patterns.
+   * @throws IllegalArgumentException If {@code patterns} is empty, or if a
+   *           pattern is invalid.
+   * @throws NullPointerException If {@code patterns}, or a member of
+   *           {@code patterns} is null.
+   */
+  public static CompiledDateFormat compileDateFormat(final String ... patterns) {
+    return compileDateFormat(null, patterns);
+  }
+
   private SimpleDateFormats() {
   }
 }
\ No newline at end of file
@@ -16,7 +16,14 @@
 
 package org.libj.util;
 
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
 import java.util.SortedMap;
+import java.util.TreeMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -35,6 +42,23 @@ import org.slf4j.LoggerFactory;
  * tier, thus resembling a caching mechanism. The {@link TieredRangeFetcher} is
  * intended to provide an abstraction for the caching of range data belonging to
  * a data source that is expensive to call, such as a remote database.
+ * <p>
+ * The {@link #fetchAsync(Comparable,Comparable,Executor)} method fetches the
+ * missing portions of a range from the next tier in parallel, and coalesces
+ * concurrent requests for overlapping ranges, so that each missing portion is
+ * loaded from the next tier only once. In the asynchronous path, calls to
+ * {@link #range()} and {@link #insert(Comparable,Comparable,SortedMap)} are
+ * serialized per tier, but calls to {@link #select(Comparable,Comparable)} are
+ * not, and must therefore be safe to execute concurrently with
+ * {@link #insert(Comparable,Comparable,SortedMap)}.
+ * <p>
+ * A tier that is created with a {@link RangeSet} (see
+ * {@link #TieredRangeFetcher(TieredRangeFetcher,RangeSet)}) tracks the spans
+ * of the range that it holds in the {@link RangeSet}, instead of the single
+ * span returned by {@link #range()}. Such a tier fetches exactly the gaps of a
+ * requested range that it does not hold, and can {@linkplain #evict() evict}
+ * its least recently used span. The {@link RangeSet} is only accessed while
+ * holding a lock of the tier, and therefore need not be thread safe.
  *
  * @param <A> Type parameter of the "range" data.
  * @param <B> Type parameter of the data.
@@ -42,7 +66,63 @@ import org.slf4j.LoggerFactory;
 public abstract class TieredRangeFetcher<A extends Comparable<A>,B> {
   private static final Logger logger = LoggerFactory.getLogger(TieredRangeFetcher.class);
 
+  /**
+   * A load of the range between {@code from} (inclusive) and {@code to}
+   * (exclusive) from the next tier that is in flight.
+   */
+  private static final class Load<A,B> {
+    private final A from;
+    private final A to;
+    private final CompletableFuture<SortedMap<A,B>> future = new CompletableFuture<>();
+
+    private Load(final A from, final A to) {
+      this.from = from;
+      this.to = to;
+    }
+  }
+
+  /**
+   * A listener of the events of a tier of a {@link TieredRangeFetcher}, for the
+   * purpose of instrumentation. The methods of a listener are called
+   * synchronously, and should therefore return quickly.
+   *
+   * @param <A> Type parameter of the "range" data.
+   * @see TieredRangeFetcherMetrics
+   */
+  public interface Listener<A> {
+    /**
+     * Called when a range is requested from the tier.
+     *
+     * @param from The lower bound of the requested range, inclusive.
+     * @param to The upper bound of the requested range, exclusive.
+     * @param gaps The number of portions of the range that were missing from
+     *          the tier, and were therefore fetched from the next tier (or
+     *          joined from a load that was already in flight). A value of
+     *          {@code 0} represents a hit.
+     */
+    void onFetch(A from, A to, int gaps);
+
+    /**
+     * Called when a load of a range from the next tier has completed, before
+     * the data is inserted into the tier.
+     *
+     * @param from The lower bound of the loaded range, inclusive.
+     * @param to The upper bound of the loaded range, exclusive.
+     * @param nanos The latency of the load, in nanoseconds.
+     * @param size The number of entries that were loaded (to be inserted into
+     *          the tier).
+     * @param thrown The {@link Throwable} with which the load failed, or
+     *          {@code null} if the load succeeded.
+     */
+    void onLoad(A from, A to, long nanos, int size, Throwable thrown);
+  }
+
   private final TieredRangeFetcher<A,B> next;
+  private final RangeSet<A> coverage;
+  private volatile Listener<A> listener;
+
+  /** The {@link Load}s in flight, sorted by {@link Load#from}, which do not overlap. */
+  private final ArrayList<Load<A,B>> loads = new ArrayList<>();
 
   /**
    * Creates a {@link TieredRangeFetcher} with the specified next
@@ -52,6 +132,81 @@ public abstract class TieredRangeFetcher<A extends Comparable<A>,B> {
    */
   public TieredRangeFetcher(final TieredRangeFetcher<A,B> next) {
     this.next = next;
+    this.coverage = null;
+  }
+
+  /**
+   * Creates a {@link TieredRangeFetcher} with the specified next
+   * {@link TieredRangeFetcher} that represents the next tier, and the specified
+   * {@link RangeSet} in which the spans of the range held by this tier are to
+   * be tracked. The spans are added to the {@link RangeSet} upon
+   * {@link #insert(Comparable,Comparable,SortedMap)}, and {@link #range()} is
+   * not used.
+   *
+   * @param next The {@link TieredRangeFetcher} that represents the next tier.
+   * @param coverage The {@link RangeSet} in which the spans of the range held
+   *          by this tier are to be tracked.
+   * @throws NullPointerException If {@code coverage} is null.
+   */
+  public TieredRangeFetcher(final TieredRangeFetcher<A,B> next, final RangeSet<A> coverage) {
+    this.next = next;
+    this.coverage = Objects.requireNonNull(coverage);
+  }
+
+  /**
+   * Returns the {@link Listener} of the events of this tier, or {@code null} if
+   * there is none.
+   *
+   * @return The {@link Listener} of the events of this tier, or {@code null} if
+   *         there is none.
+   */
+  public Listener<A> getListener() {
+    return listener;
+  }
+
+  /**
+   * Sets the {@link Listener} of the events of this tier.
+   *
+   * @param listener The {@link Listener} of the events of this tier, or
+   *          {@code null} to remove the listener.
+   */
+  public void setListener(final Listener<A> listener) {
+    this.listener = listener;
+  }
+
+  /**
+   * Returns the {@link RangeSet} in which the spans of the range held by this
+   * tier are tracked, or {@code null} if this tier is tracked with
+   * {@link #range()}.
+   *
+   * @return The {@link RangeSet} in which the spans of the range held by this
+   *         tier are tracked, or {@code null} if this tier is tracked with
+   *         {@link #range()}.
+   */
+  public RangeSet<A> getCoverage() {
+    return coverage;
+  }
+
+  /**
+   * Evicts the least recently used span of the range held by this tier, by
+   * removing it from the {@link RangeSet} of this tier, and calling
+   * {@link #remove(Comparable,Comparable)} for it.
+   *
+   * @return Whether a span was evicted, which is {@code false} if this tier
+   *         holds no spans, or is not tracked with a {@link RangeSet}.
+   */
+  public boolean evict() {
+    if (coverage == null)
+      return false;
+
+    synchronized (loads) {
+      final RangeSet.Span<A> span = coverage.pollColdest();
+      if (span == null)
+        return false;
+
+      remove(span.getFrom(), span.getTo());
+      return true;
+    }
   }
 
   /**
@@ -78,49 +233,321 @@ public abstract class TieredRangeFetcher<A extends Comparable<A>,B> {
    *         {@code to} (exclusive).
    */
   public SortedMap<A,B> fetch(final A from, final A to, final TieredRangeFetcher<A,B> last) {
+    if (coverage != null) {
+      // The coverage is guarded by the lock of loads, as in evict() and fetchAsync(), but the next tier is called outside of it
+      if (this != last && next != null) {
+        final List<RangeSet.Span<A>> gaps;
+        synchronized (loads) {
+          gaps = coverage.gaps(from, to);
+        }
+
+        fetched(from, to, gaps.size());
+        for (final RangeSet.Span<A> gap : gaps) {
+          load(gap.getFrom(), gap.getTo(), last);
+          synchronized (loads) {
+            coverage.add(gap.getFrom(), gap.getTo());
+          }
+        }
+      }
+      else {
+        fetched(from, to, 0);
+      }
+
+      synchronized (loads) {
+        coverage.touch(from, to);
+      }
+
+      return select(from, to);
+    }
+
     final A[] range = range();
     if (range == null || range[0] == range[1]) {
       if (next == null)
         return null;
 
-      final SortedMap<A,B> data = next.fetch(from, to, last);
-      insert(from, to, data);
-      return data;
+      fetched(from, to, 1);
+      return load(from, to, last);
     }
 
     if (this != last) {
       if (to.compareTo(range[0]) <= 0) {
-        logger.trace(toString() + "{1} (" + from + ", " + range[0] + "]");
-        insert(from, range[0], next.fetch(from, range[0], last));
+        fetched(from, to, 1);
+        load(from, range[0], last);
       }
       else if (range[1].compareTo(from) <= 0) {
-        logger.trace(toString() + " {2} (" + range[1] + ", " + to + "]");
-        insert(range[1], to, next.fetch(range[1], to, last));
+        fetched(from, to, 1);
+        load(range[1], to, last);
       }
       else {
-        if (from.compareTo(range[0]) < 0) {
-          logger.trace(toString() + " {3} (" + from + ", " + range[0] + "]");
-          insert(from, range[0], next.fetch(from, range[0], last));
+        final boolean left = from.compareTo(range[0]) < 0;
+        final boolean right = range[1].compareTo(to) < 0;
+        fetched(from, to, (left ? 1 : 0) + (right ? 1 : 0));
+        if (left)
+          load(from, range[0], last);
+
+        if (right)
+          load(range[1], to, last);
+      }
+    }
+    else {
+      fetched(from, to, 0);
+    }
+
+    return select(from, to);
+  }
+
+  private void fetched(final A from, final A to, final int gaps) {
+    final Listener<A> listener = this.listener;
+    if (listener != null)
+      listener.onFetch(from, to, gaps);
+  }
+
+  /**
+   * Fetches the range between {@code from} (inclusive) and {@code to}
+   * (exclusive) from the next tier, and inserts it into this tier.
+   */
+  private SortedMap<A,B> load(final A from, final A to, final TieredRangeFetcher<A,B> last) {
+    if (logger.isTraceEnabled())
+      logger.trace("{} <- ({}, {}]", this, from, to);
+
+    final Listener<A> listener = this.listener;
+    final long start = listener != null ? System.nanoTime() : 0;
+    final SortedMap<A,B> data;
+    try {
+      data = next.fetch(from, to, last);
+    }
+    catch (final RuntimeException | Error e) {
+      if (listener != null)
+        listener.onLoad(from, to, System.nanoTime() - start, 0, e);
+
+      throw e;
+    }
+
+    try {
+      if (listener != null)
+        listener.onLoad(from, to, System.nanoTime() - start, data == null ? 0 : data.size(), null);
+    }
+    finally {
+      insert(from, to, data);
+    }
+
+    return data;
+  }
+
+  /**
+   * Returns a {@link CompletableFuture} of a {@link SortedMap} of data from
+   * {@code from} (inclusive) to {@code to} (exclusive), which is fetched with
+   * the {@link ForkJoinPool#commonPool() common pool}.
+   *
+   * @param from The lower bound of the range, inclusive.
+   * @param to The upper bound of the range, exclusive.
+   * @return A {@link CompletableFuture} of a {@link SortedMap} of data from
+   *         {@code from} (inclusive) to {@code to} (exclusive).
+   * @see #fetchAsync(Comparable,Comparable,Executor)
+   */
+  public CompletableFuture<SortedMap<A,B>> fetchAsync(final A from, final A to) {
+    return fetchAsync(from, to, ForkJoinPool.commonPool());
+  }
+
+  /**
+   * Returns a {@link CompletableFuture} of a {@link SortedMap} of data from
+   * {@code from} (inclusive) to {@code to} (exclusive).
+   * <p>
+   * The portions of the range that are missing from this tier are fetched from
+   * the next tier in parallel, and are inserted into this tier upon
+   * completion. If a missing portion overlaps a load from the next tier that is
+   * already in flight (due to a concurrent call), the in-flight load is joined
+   * instead of being repeated.
+   *
+   * @param from The lower bound of the range, inclusive.
+   * @param to The upper bound of the range, exclusive.
+   * @param executor The {@link Executor} with which to execute
+   *          {@link #select(Comparable,Comparable)}.
+   * @return A {@link CompletableFuture} of a {@link SortedMap} of data from
+   *         {@code from} (inclusive) to {@code to} (exclusive).
+   * @throws NullPointerException If {@code from}, {@code to} or
+   *           {@code executor} is null.
+   */
+  public CompletableFuture<SortedMap<A,B>> fetchAsync(final A from, final A to, final Executor executor) {
+    final ArrayList<Load<A,B>> pending = new ArrayList<>();
+    final ArrayList<Load<A,B>> started = new ArrayList<>();
+    final boolean empty;
+    synchronized (loads) {
+      final A[] range = coverage != null ? null : range();
+      empty = coverage == null && (range == null || range[0] == range[1]);
+      if (coverage != null) {
+        if (next != null)
+          for (final RangeSet.Span<A> gap : coverage.gaps(from, to))
+            join(gap.getFrom(), gap.getTo(), pending, started);
+
+        coverage.touch(from, to);
+      }
+      else if (empty) {
+        if (next == null)
+          return CompletableFuture.completedFuture(null);
+
+        join(from, to, pending, started);
+      }
+      else if (next != null) {
+        if (to.compareTo(range[0]) <= 0) {
+          join(from, range[0], pending, started);
+        }
+        else if (range[1].compareTo(from) <= 0) {
+          join(range[1], to, pending, started);
         }
+        else {
+          if (from.compareTo(range[0]) < 0)
+            join(from, range[0], pending, started);
 
-        if (range[1].compareTo(to) < 0) {
-          logger.trace(toString() + " {3} (" + range[1] + ", " + to + "]");
-          insert(range[1], to, next.fetch(range[1], to, last));
+          if (range[1].compareTo(to) < 0)
+            join(range[1], to, pending, started);
         }
       }
     }
 
-    return select(from, to);
+    fetched(from, to, pending.size());
+
+    // The next tier is called outside of the lock, so that completions (which may run on this thread) never hold two locks
+    for (final Load<A,B> load : started)
+      start(load, executor);
+
+    if (pending.size() == 0)
+      return CompletableFuture.supplyAsync(() -> select(from, to), executor);
+
+    final CompletableFuture<?>[] futures = new CompletableFuture<?>[pending.size()];
+    for (int i = 0; i < futures.length; ++i)
+      futures[i] = pending.get(i).future;
+
+    return CompletableFuture.allOf(futures).thenApply(v -> empty ? merge(pending, from, to) : select(from, to));
+  }
+
+  /**
+   * Adds the {@link Load}s that cover the range between {@code from}
+   * (inclusive) and {@code to} (exclusive) to {@code pending}, joining the
+   * overlapping {@link Load}s that are in flight, and creating (and adding to
+   * {@code started}) new {@link Load}s for the remainder. Must be called while
+   * holding the lock of {@link #loads}.
+   */
+  private void join(final A from, final A to, final ArrayList<Load<A,B>> pending, final ArrayList<Load<A,B>> started) {
+    A cursor = from;
+    int index = 0;
+    for (; index < loads.size() && cursor.compareTo(to) < 0; ++index) {
+      final Load<A,B> load = loads.get(index);
+      if (load.to.compareTo(cursor) <= 0)
+        continue;
+
+      if (to.compareTo(load.from) <= 0)
+        break;
+
+      if (cursor.compareTo(load.from) < 0) {
+        final Load<A,B> gap = new Load<>(cursor, load.from);
+        loads.add(index++, gap);
+        pending.add(gap);
+        started.add(gap);
+      }
+
+      pending.add(load);
+      cursor = load.to;
+    }
+
+    if (cursor.compareTo(to) < 0) {
+      final Load<A,B> gap = new Load<>(cursor, to);
+      loads.add(index, gap);
+      pending.add(gap);
+      started.add(gap);
+    }
+  }
+
+  private void start(final Load<A,B> load, final Executor executor) {
+    if (logger.isTraceEnabled())
+      logger.trace("{} <- ({}, {}]", this, load.from, load.to);
+
+    final Listener<A> listener = this.listener;
+    final long start = listener != null ? System.nanoTime() : 0;
+    CompletableFuture<SortedMap<A,B>> future;
+    try {
+      future = next.fetchAsync(load.from, load.to, executor);
+    }
+    catch (final Throwable t) {
+      // Otherwise the load would remain in flight, and its future would never complete
+      future = new CompletableFuture<>();
+      future.completeExceptionally(t);
+    }
+
+    future.whenComplete((data, t) -> complete(load, listener, start, data, t));
+  }
+
+  /**
+   * Completes the specified {@link Load} with {@code data}, or with
+   * {@code thrown} if the load failed, after inserting {@code data} into this
+   * tier and removing the {@link Load} from {@link #loads}. The {@link Load} is
+   * removed and completed even if the {@link Listener} or
+   * {@link #insert(Comparable,Comparable,SortedMap)} throws.
+   */
+  private void complete(final Load<A,B> load, final Listener<A> listener, final long start, final SortedMap<A,B> data, Throwable thrown) {
+    try {
+      if (listener != null)
+        listener.onLoad(load.from, load.to, System.nanoTime() - start, data == null ? 0 : data.size(), thrown);
+    }
+    finally {
+      synchronized (loads) {
+        try {
+          if (thrown == null) {
+            insert(load.from, load.to, data);
+            if (coverage != null)
+              coverage.add(load.from, load.to);
+          }
+        }
+        catch (final Throwable t) {
+          thrown = t;
+        }
+        finally {
+          loads.remove(load);
+        }
+      }
+
+      if (thrown != null)
+        load.future.completeExceptionally(thrown);
+      else
+        load.future.complete(data);
+    }
+  }
+
+  private static <A extends Comparable<A>,B>SortedMap<A,B> merge(final ArrayList<Load<A,B>> pending, final A from, final A to) {
+    final TreeMap<A,B> data = new TreeMap<>();
+    for (final Load<A,B> load : pending) {
+      final SortedMap<A,B> part = load.future.join();
+      // Joined loads may extend beyond the requested range
+      if (part != null)
+        data.putAll(part.subMap(from.compareTo(load.from) < 0 ? load.from : from, load.to.compareTo(to) < 0 ? load.to : to));
+    }
+
+    return data;
   }
 
   /**
    * Returns the range of the keys present in this TieredFetcher, as an array of
-   * length 2. Must not be null, and must be of length 2.
+   * length 2. Must not be null, and must be of length 2, unless this tier is
+   * tracked with a {@link RangeSet}, in which case this method is not used. The
+   * default implementation returns {@code null}.
    *
    * @return The not-null range of the keys present in this TieredFetcher, as an
    *         array of length 2.
    */
-  protected abstract A[] range();
+  protected A[] range() {
+    return null;
+  }
+
+  /**
+   * Removes the data in this {@link TieredRangeFetcher} for the range between
+   * {@code from} and {@code to}, upon the {@linkplain #evict() eviction} of the
+   * span. The default implementation does nothing.
+   *
+   * @param from The start of the range, inclusive.
+   * @param to The end of the range, exclusive.
+   */
+  protected void remove(final A from, final A to) {
+  }
 
   /**
    * Returns a {@link SortedMap} of data in this {@link TieredRangeFetcher} for
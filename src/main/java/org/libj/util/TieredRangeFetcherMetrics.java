@@ -0,0 +1,225 @@
+/* Copyright (c) 2012 LibJ
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * You should have received a copy of The MIT License (MIT) along with this
+ * program. If not, see <http://opensource.org/licenses/MIT/>.
+ */
+
+package org.libj.util;
+
+import java.util.concurrent.atomic.DoubleAdder;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.ToDoubleBiFunction;
+
+/**
+ * A {@link TieredRangeFetcher.Listener} that records the metrics of a tier of a
+ * {@link TieredRangeFetcher}: the number of requests and hits, the widths of the
+ * requested and loaded ranges, the number of loaded entries, and a histogram of
+ * the latencies of the loads from the next tier.
+ * <p>
+ * The latency histogram has a bucket for each power of 2 of nanoseconds, so
+ * that {@link #getLoadLatency(double)} is accurate to within a factor of 2.
+ * <p>
+ * Instances of this class are thread-safe.
+ *
+ * @param <A> Type parameter of the "range" data.
+ */
+public final class TieredRangeFetcherMetrics<A> implements TieredRangeFetcher.Listener<A> {
+  private final ToDoubleBiFunction<? super A,? super A> width;
+  private final LongAdder requests = new LongAdder();
+  private final LongAdder hits = new LongAdder();
+  private final LongAdder loads = new LongAdder();
+  private final LongAdder failures = new LongAdder();
+  private final LongAdder loadedEntries = new LongAdder();
+  private final DoubleAdder requestedWidth = new DoubleAdder();
+  private final DoubleAdder loadedWidth = new DoubleAdder();
+  private final LongAdder[] latencies = new LongAdder[64];
+
+  /**
+   * Creates a new {@link TieredRangeFetcherMetrics} that does not record range
+   * widths.
+   */
+  public TieredRangeFetcherMetrics() {
+    this(null);
+  }
+
+  /**
+   * Creates a new {@link TieredRangeFetcherMetrics} that records range widths
+   * with the provided function.
+   *
+   * @param width The function that returns the width of the range between its
+   *          first (inclusive) and second (exclusive) arguments, or
+   *          {@code null} to not record range widths.
+   */
+  public TieredRangeFetcherMetrics(final ToDoubleBiFunction<? super A,? super A> width) {
+    this.width = width;
+    for (int i = 0; i < latencies.length; ++i)
+      latencies[i] = new LongAdder();
+  }
+
+  @Override
+  public void onFetch(final A from, final A to, final int gaps) {
+    requests.increment();
+    if (gaps == 0)
+      hits.increment();
+
+    if (width != null)
+      requestedWidth.add(width.applyAsDouble(from, to));
+  }
+
+  @Override
+  public void onLoad(final A from, final A to, final long nanos, final int size, final Throwable thrown) {
+    latencies[63 - Long.numberOfLeadingZeros(Math.max(1, nanos))].increment();
+    if (thrown != null) {
+      failures.increment();
+      return;
+    }
+
+    loads.increment();
+    loadedEntries.add(size);
+    if (width != null)
+      loadedWidth.add(width.applyAsDouble(from, to));
+  }
+
+  /**
+   * Returns the number of requests of ranges from the tier.
+   *
+   * @return The number of requests of ranges from the tier.
+   */
+  public long getRequestCount() {
+    return requests.sum();
+  }
+
+  /**
+   * Returns the number of requests of ranges that were entirely present in the
+   * tier.
+   *
+   * @return The number of requests of ranges that were entirely present in the
+   *         tier.
+   */
+  public long getHitCount() {
+    return hits.sum();
+  }
+
+  /**
+   * Returns the ratio of hits to requests, or {@link Double#NaN} if there have
+   * been no requests.
+   *
+   * @return The ratio of hits to requests, or {@link Double#NaN} if there have
+   *         been no requests.
+   */
+  public double getHitRatio() {
+    final long requests = this.requests.sum();
+    return requests == 0 ? Double.NaN : (double)hits.sum() / requests;
+  }
+
+  /**
+   * Returns the number of successful loads of ranges from the next tier.
+   *
+   * @return The number of successful loads of ranges from the next tier.
+   */
+  public long getLoadCount() {
+    return loads.sum();
+  }
+
+  /**
+   * Returns the number of failed loads of ranges from the next tier.
+   *
+   * @return The number of failed loads of ranges from the next tier.
+   */
+  public long getFailureCount() {
+    return failures.sum();
+  }
+
+  /**
+   * Returns the number of entries loaded from the next tier (and inserted into
+   * the tier).
+   *
+   * @return The number of entries loaded from the next tier.
+   */
+  public long getLoadedEntryCount() {
+    return loadedEntries.sum();
+  }
+
+  /**
+   * Returns the sum of the widths of the requested ranges, or {@code 0} if
+   * range widths are not recorded.
+   *
+   * @return The sum of the widths of the requested ranges.
+   */
+  public double getRequestedWidth() {
+    return requestedWidth.sum();
+  }
+
+  /**
+   * Returns the sum of the widths of the ranges loaded from the next tier, or
+   * {@code 0} if range widths are not recorded.
+   *
+   * @return The sum of the widths of the ranges loaded from the next tier.
+   */
+  public double getLoadedWidth() {
+    return loadedWidth.sum();
+  }
+
+  /**
+   * Returns the upper bound (in nanoseconds) of the bucket of the latency
+   * histogram of loads from the next tier that contains the provided quantile,
+   * or {@code 0} if there have been no loads.
+   *
+   * @param quantile The quantile, between {@code 0} and {@code 1} (i.e.
+   *          {@code 0.99} for p99).
+   * @return The upper bound (in nanoseconds) of the bucket of the latency
+   *         histogram that contains the provided quantile.
+   * @throws IllegalArgumentException If {@code quantile} is not between
+   *           {@code 0} and {@code 1}.
+   */
+  public long getLoadLatency(final double quantile) {
+    if (!(0 <= quantile && quantile <= 1))
+      throw new IllegalArgumentException("quantile (" + quantile + ") must be between 0 and 1");
+
+    final long[] counts = new long[latencies.length];
+    long total = 0;
+    for (int i = 0; i < counts.length; ++i)
+      total += counts[i] = latencies[i].sum();
+
+    if (total == 0)
+      return 0;
+
+    final long rank = Math.max(1, (long)Math.ceil(quantile * total));
+    long count = 0;
+    for (int i = 0; i < counts.length; ++i)
+      if ((count += counts[i]) >= rank)
+        return i == 62 ? Long.MAX_VALUE : (1L << (i + 1)) - 1;
+
+    return Long.MAX_VALUE;
+  }
+
+  /**
+   * Resets all metrics to zero.
+   */
+  public void reset() {
+    requests.reset();
+    hits.reset();
+    loads.reset();
+    failures.reset();
+    loadedEntries.reset();
+    requestedWidth.reset();
+    loadedWidth.reset();
+    for (final LongAdder latency : latencies)
+      latency.reset();
+  }
+
+  @Override
+  public String toString() {
+    return "requests=" + getRequestCount() + ", hits=" + getHitCount() + ", loads=" + getLoadCount() + ", failures=" + getFailureCount() + ", loadedEntries=" + getLoadedEntryCount() + ", p50=" + getLoadLatency(0.5) + "ns, p99=" + getLoadLatency(0.99) + "ns";
+  }
+}
@@ -0,0 +1,192 @@
+/* Copyright (c) 2012 LibJ
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * You should have received a copy of The MIT License (MIT) along with this
+ * program. If not, see <http://opensource.org/licenses/MIT/>.
+ */
+
+package org.libj.util;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.time.zone.ZoneOffsetTransition;
+import java.time.zone.ZoneRules;
+import java.util.Arrays;
+import java.util.TimeZone;
+
+import org.libj.lang.Assertions;
+import org.libj.util.primitive.ArrayLongList;
+
+/**
+ * A precomputed table of the offset transitions of a {@link TimeZone}, for the
+ * bucketing of epoch millis to the start of their day in that time zone.
+ * <p>
+ * The transitions between the years 1900 and 2100 are computed once at
+ * construction. Times that are not within two days of a transition are
+ * bucketed with a binary search of the table and integer arithmetic. Times
+ * close to a transition (where the start of the day may be shifted or
+ * repeated), or outside of the table, are bucketed with {@code java.time},
+ * with the same result as {@link LocalDate#atStartOfDay(ZoneId)}.
+ * <p>
+ * Instances of this class are immutable and thread-safe.
+ */
+public final class TimeZoneTransitions {
+  private static final long MIN_TIME = LocalDate.of(1900, 1, 1).toEpochDay() * Dates.MILLISECONDS_IN_DAY;
+  private static final long MAX_TIME = LocalDate.of(2100, 1, 1).toEpochDay() * Dates.MILLISECONDS_IN_DAY;
+  private static final long MARGIN = 2L * Dates.MILLISECONDS_IN_DAY;
+
+  private final ZoneId zoneId;
+
+  /** Epoch millis of the transitions, with {@link #MIN_TIME} at index 0. */
+  private final long[] transitions;
+
+  /** Offset millis in effect from the transition at the same index. */
+  private final int[] offsets;
+
+  /**
+   * Creates a new {@link TimeZoneTransitions} table for the provided
+   * {@link TimeZone}.
+   *
+   * @param timeZone The {@link TimeZone}.
+   * @throws NullPointerException If {@code timeZone} is null.
+   */
+  public TimeZoneTransitions(final TimeZone timeZone) {
+    this.zoneId = timeZone.toZoneId();
+    final ZoneRules rules = zoneId.getRules();
+    final Instant min = Instant.ofEpochMilli(MIN_TIME);
+    long[] transitions = new long[16];
+    int[] offsets = new int[16];
+    transitions[0] = MIN_TIME;
+    offsets[0] = rules.getOffset(min).getTotalSeconds() * Dates.MILLISECONDS_IN_SECOND;
+    int size = 1;
+    for (ZoneOffsetTransition transition = rules.nextTransition(min); transition != null && transition.toEpochSecond() * Dates.MILLISECONDS_IN_SECOND < MAX_TIME; transition = rules.nextTransition(transition.getInstant())) {
+      if (size == transitions.length) {
+        transitions = Arrays.copyOf(transitions, size * 2);
+        offsets = Arrays.copyOf(offsets, size * 2);
+      }
+
+      transitions[size] = transition.toEpochSecond() * Dates.MILLISECONDS_IN_SECOND;
+      offsets[size++] = transition.getOffsetAfter().getTotalSeconds() * Dates.MILLISECONDS_IN_SECOND;
+    }
+
+    this.transitions = Arrays.copyOf(transitions, size);
+    this.offsets = Arrays.copyOf(offsets, size);
+  }
+
+  /**
+   * Returns the {@link ZoneId} of this table.
+   *
+   * @return The {@link ZoneId} of this table.
+   */
+  public ZoneId getZoneId() {
+    return zoneId;
+  }
+
+  private int indexOf(final long time, final int hint) {
+    if (hint < transitions.length && transitions[hint] <= time && (hint + 1 == transitions.length || time < transitions[hint + 1]))
+      return hint;
+
+    final int index = Arrays.binarySearch(transitions, time);
+    return index < 0 ? -index - 2 : index;
+  }
+
+  /**
+   * Returns the start of the day in the time zone of this table (as epoch
+   * millis) of the provided epoch millis, given the index of the transition in
+   * effect at the time (or {@code -1}).
+   */
+  private long startOfDay(final long time, final int index) {
+    if (index >= 0 && time < MAX_TIME && time - transitions[index] > MARGIN && (index + 1 == transitions.length || transitions[index + 1] - time > MARGIN)) {
+      final int offset = offsets[index];
+      return Math.floorDiv(time + offset, Dates.MILLISECONDS_IN_DAY) * Dates.MILLISECONDS_IN_DAY - offset;
+    }
+
+    final LocalDate date = Instant.ofEpochMilli(time).atZone(zoneId).toLocalDate();
+    return date.atStartOfDay(zoneId).toInstant().toEpochMilli();
+  }
+
+  /**
+   * Returns the offset (in millis) from UTC of the time zone of this table at
+   * the provided epoch millis.
+   *
+   * @param time The epoch millis.
+   * @return The offset (in millis) from UTC of the time zone of this table at
+   *         the provided epoch millis.
+   */
+  public int getOffset(final long time) {
+    if (time < MIN_TIME || time >= MAX_TIME)
+      return zoneId.getRules().getOffset(Instant.ofEpochMilli(time)).getTotalSeconds() * Dates.MILLISECONDS_IN_SECOND;
+
+    return offsets[indexOf(time, 0)];
+  }
+
+  /**
+   * Returns the start of the day in the time zone of this table (as epoch
+   * millis) of the provided epoch millis.
+   *
+   * @param time The epoch millis.
+   * @return The start of the day in the time zone of this table (as epoch
+   *         millis) of the provided epoch millis.
+   */
+  public long startOfDay(final long time) {
+    return startOfDay(time, time < MIN_TIME ? -1 : indexOf(time, 0));
+  }
+
+  /**
+   * Replaces each epoch millis in the provided range of the specified array
+   * with the start of its day in the time zone of this table. The lookup of
+   * the transition is skipped for consecutive times in the same interval
+   * between transitions, so sorted input is bucketed fastest.
+   *
+   * @param times The array of epoch millis.
+   * @param fromIndex The index of the first element (inclusive).
+   * @param toIndex The index of the last element (exclusive).
+   * @throws IllegalArgumentException If {@code fromIndex > toIndex}.
+   * @throws ArrayIndexOutOfBoundsException If {@code fromIndex < 0} or
+   *           {@code toIndex > times.length}.
+   * @throws NullPointerException If {@code times} is null.
+   */
+  public void startOfDay(final long[] times, final int fromIndex, final int toIndex) {
+    Assertions.assertRangeArray(fromIndex, toIndex, times.length);
+    for (int i = fromIndex, index = 0; i < toIndex; ++i) {
+      final long time = times[i];
+      times[i] = startOfDay(time, time < MIN_TIME ? -1 : (index = indexOf(time, index)));
+    }
+  }
+
+  /**
+   * Replaces each epoch millis in the provided range of the specified
+   * {@link ArrayLongList} with the start of its day in the time zone of this
+   * table.
+   *
+   * @param times The {@link ArrayLongList} of epoch millis.
+   * @param fromIndex The index of the first element (inclusive).
+   * @param toIndex The index of the last element (exclusive).
+   * @throws IllegalArgumentException If {@code fromIndex > toIndex}.
+   * @throws ArrayIndexOutOfBoundsException If {@code fromIndex < 0} or
+   *           {@code toIndex > times.size()}.
+   * @throws NullPointerException If {@code times} is null.
+   */
+  public void startOfDay(final ArrayLongList times, final int fromIndex, final int toIndex) {
+    Assertions.assertRangeArray(fromIndex, toIndex, times.size());
+    for (int i = fromIndex, index = 0; i < toIndex; ++i) {
+      final long time = times.get(i);
+      times.set(i, startOfDay(time, time < MIN_TIME ? -1 : (index = indexOf(time, index))));
+    }
+  }
+
+  @Override
+  public String toString() {
+    return zoneId + " (" + transitions.length + " transitions)";
+  }
+}
@@ -100,6 +100,11 @@ public class TreeBiMap<K,V> extends BiMap<K,V> implements Cloneable, NavigableMa
     return new TreeBiMap<>(true);
   }
 
+  @Override
+  protected boolean directViews() {
+    return true;
+  }
+
   private TreeMap<K,V> target() {
     return (TreeMap<K,V>)((ObservableMap<K,V>)target).target;
   }
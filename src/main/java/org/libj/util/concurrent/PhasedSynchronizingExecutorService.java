@@ -0,0 +1,202 @@
+/* Copyright (c) 2017 LibJ
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * You should have received a copy of The MIT License (MIT) along with this
+ * program. If not, see <http://opensource.org/licenses/MIT/>.
+ */
+
+package org.libj.util.concurrent;
+
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.AbstractExecutorService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Phaser;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * An {@link ExecutorService} that allows its threads to be synchronized, with
+ * the same semantics as {@link SynchronizingExecutorService}, but without
+ * contention between submitting threads when not synchronizing.
+ * <p>
+ * Tasks are counted with a pair of striped, increment-only {@link LongAdder}s
+ * of started and finished tasks, and are admitted without locks: a submitting
+ * thread increments the started count, and then checks whether a
+ * {@link #synchronize()} is in progress. If it is, the task is withdrawn by
+ * incrementing the finished count, and the submitting thread waits on a
+ * {@link Phaser} that advances once per synchronization. The thread of
+ * {@link #synchronize()} is parked until the finished count equals the started
+ * count, and is unparked by finishing threads.
+ * <p>
+ * Because both counts only ever increase, reading the finished count before
+ * the started count is exact: if the two reads are equal, then no task was
+ * running at the instant between the reads. A single up-and-down counter would
+ * not have this property, as {@link LongAdder#sum()} is not an atomic snapshot.
+ * <p>
+ * If the thread of the {@link #synchronize()} method call is interrupted while
+ * the method is waiting for this instance's threads to finish, the command to
+ * synchronize is aborted, and {@link #synchronize()} throws an
+ * {@link InterruptedException}.
+ */
+public abstract class PhasedSynchronizingExecutorService extends AbstractExecutorService {
+  private final LongAdder startedThreadCount = new LongAdder();
+  private final LongAdder finishedThreadCount = new LongAdder();
+  private final AtomicReference<Thread> synchronizer = new AtomicReference<>();
+  private final Phaser phaser = new Phaser(1);
+
+  /**
+   * The source {@link ExecutorService}.
+   */
+  private final ExecutorService executorService;
+
+  /**
+   * Construct a new {@link PhasedSynchronizingExecutorService} with the
+   * specified source {@link ExecutorService}.
+   *
+   * @param executorService The source {@link ExecutorService}.
+   * @throws NullPointerException If {@code executorService} is null.
+   */
+  public PhasedSynchronizingExecutorService(final ExecutorService executorService) {
+    this.executorService = Objects.requireNonNull(executorService);
+  }
+
+  /**
+   * Called when this service synchronizes all executing threads to finish. When
+   * this method is called, no threads in this service are pending completion.
+   */
+  public abstract void onSynchronize();
+
+  /**
+   * Returns the current count of running threads in this service.
+   *
+   * @return The current count of running threads in this service.
+   */
+  public int getRunningThreadCount() {
+    return (int)(startedThreadCount.sum() - finishedThreadCount.sum());
+  }
+
+  /**
+   * Stop execution of new threads, and wait for all running threads to finish.
+   * Once all threads have finished, {@link #onSynchronize()} is called. If
+   * another thread is synchronizing this service, this method returns
+   * immediately. If this method's thread is interrupted waiting for this
+   * instance's threads to finish, the command to synchronize is aborted, and
+   * this method throws an {@link InterruptedException}.
+   *
+   * @throws InterruptedException If this method's thread is interrupted waiting
+   *           for this instance's threads to finish.
+   */
+  public void synchronize() throws InterruptedException {
+    if (!synchronizer.compareAndSet(null, Thread.currentThread()))
+      return;
+
+    try {
+      // Tasks that started before the synchronizer was set are visible in the
+      // started count, and tasks that start after will withdraw. The finished
+      // count must be read first: it is then no greater than the finished count
+      // at the instant between the reads, and the started count is no less than
+      // the started count at that instant, so equality means none were running
+      while (finishedThreadCount.sum() != startedThreadCount.sum()) {
+        LockSupport.park(this);
+        if (Thread.interrupted())
+          throw new InterruptedException();
+      }
+
+      onSynchronize();
+    }
+    finally {
+      synchronizer.set(null);
+      phaser.arrive();
+    }
+  }
+
+  private void finished() {
+    finishedThreadCount.increment();
+    final Thread thread = synchronizer.get();
+    if (thread != null)
+      LockSupport.unpark(thread);
+  }
+
+  /**
+   * Executes the given command at some time in the future. If the
+   * {@link PhasedSynchronizingExecutorService} is synchronizing, the given
+   * command will wait until {@link #onSynchronize()} returns.
+   *
+   * @param command The runnable task.
+   * @throws RejectedExecutionException If this task cannot be accepted for
+   *           execution.
+   * @throws NullPointerException If {@code command} is null.
+   */
+  @Override
+  public void execute(final Runnable command) {
+    Objects.requireNonNull(command);
+    final Runnable wrapper = () -> {
+      try {
+        command.run();
+      }
+      finally {
+        finished();
+      }
+    };
+
+    while (true) {
+      final int phase = phaser.getPhase();
+      if (synchronizer.get() == null) {
+        startedThreadCount.increment();
+        if (synchronizer.get() == null) {
+          try {
+            executorService.execute(wrapper);
+          }
+          catch (final Throwable t) {
+            finished();
+            throw t;
+          }
+
+          return;
+        }
+
+        finished();
+      }
+
+      phaser.awaitAdvance(phase);
+    }
+  }
+
+  @Override
+  public void shutdown() {
+    executorService.shutdown();
+  }
+
+  @Override
+  public List<Runnable> shutdownNow() {
+    return executorService.shutdownNow();
+  }
+
+  @Override
+  public boolean isShutdown() {
+    return executorService.isShutdown();
+  }
+
+  @Override
+  public boolean isTerminated() {
+    return executorService.isTerminated();
+  }
+
+  @Override
+  public boolean awaitTermination(final long timeout, final TimeUnit unit) throws InterruptedException {
+    return executorService.awaitTermination(timeout, unit);
+  }
+}
@@ -16,6 +16,7 @@
 
 package org.libj.util.concurrent;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Objects;
 import java.util.concurrent.AbstractExecutorService;
@@ -50,6 +51,7 @@ public abstract class SynchronizingExecutorService extends AbstractExecutorServi
   private final Object startLock = new Object();
   private final Object finishLock = new Object();
   private volatile boolean synchronizing;
+  private final SynchronizingExecutorServiceMetrics metrics = new SynchronizingExecutorServiceMetrics();
 
   /**
    * The source {@link ExecutorService}.
@@ -81,6 +83,17 @@ public abstract class SynchronizingExecutorService extends AbstractExecutorServi
     return runningThreadCount.get();
   }
 
+  /**
+   * Returns the {@link SynchronizingExecutorServiceMetrics} of the
+   * synchronizations of this service.
+   *
+   * @return The {@link SynchronizingExecutorServiceMetrics} of the
+   *         synchronizations of this service.
+   */
+  public SynchronizingExecutorServiceMetrics getMetrics() {
+    return metrics;
+  }
+
   /**
    * Stop execution of new threads, and wait for all running threads to finish.
    * Once all threads have finished, {@link #onSynchronize()} is called. If this
@@ -101,28 +114,27 @@ public abstract class SynchronizingExecutorService extends AbstractExecutorServi
 
       try {
         logger.debug("Starting sync....");
-        if (runningThreadCount.get() > 0) {
+        final long startTime = System.nanoTime();
+        try {
           synchronized (finishLock) {
             synchronizing = true;
-            if (logger.isDebugEnabled())
-              logger.debug("wait() [1] for threads to finish...");
-
-            finishLock.wait();
-          }
-        }
-        else {
-          synchronizing = true;
-          if (runningThreadCount.get() > 0) {
-            synchronized (finishLock) {
+            // The count is checked after synchronizing is set, so that a
+            // thread that finishes in between does not go unnoticed
+            while (runningThreadCount.get() > 0) {
               if (logger.isDebugEnabled())
-                logger.debug("wait() [2] for threads to finish...");
+                logger.debug("wait() for threads to finish...");
 
               finishLock.wait();
             }
           }
         }
+        finally {
+          metrics.onDrain(System.nanoTime() - startTime);
+        }
 
+        final long syncTime = System.nanoTime();
         onSynchronize();
+        metrics.onSynchronize(System.nanoTime() - syncTime);
       }
       finally {
         synchronizing = false;
@@ -133,13 +145,48 @@ public abstract class SynchronizingExecutorService extends AbstractExecutorServi
     }
   }
 
+  private void finished(final int count) {
+    if (runningThreadCount.addAndGet(-count) == 0 && synchronizing) {
+      synchronized (finishLock) {
+        if (logger.isDebugEnabled())
+          logger.debug("notify() synchronize to continue...");
+
+        finishLock.notify();
+      }
+    }
+  }
+
+  private Runnable wrap(final Runnable command) {
+    return () -> {
+      try {
+        command.run();
+      }
+      finally {
+        finished(1);
+      }
+    };
+  }
+
   private void doExecute(final Runnable command) {
     runningThreadCount.incrementAndGet();
     try {
-      executorService.execute(command);
+      executorService.execute(wrap(command));
+    }
+    catch (final Throwable t) {
+      finished(1);
+      throw t;
+    }
+  }
+
+  private void doExecuteAll(final Runnable[] commands) {
+    runningThreadCount.addAndGet(commands.length);
+    int i = 0;
+    try {
+      for (final int len = commands.length; i < len; ++i)
+        executorService.execute(wrap(commands[i]));
     }
     catch (final Throwable t) {
-      runningThreadCount.decrementAndGet();
+      finished(commands.length - i);
       throw t;
     }
   }
@@ -157,33 +204,48 @@ public abstract class SynchronizingExecutorService extends AbstractExecutorServi
   @Override
   public void execute(final Runnable command) {
     Objects.requireNonNull(command);
-    final Runnable wrapper = () -> {
-      try {
-        command.run();
-      }
-      finally {
-        if (logger.isDebugEnabled())
-          logger.debug("Remaining threads: " + (runningThreadCount.get() - 1));
+    if (!synchronizing) {
+      doExecute(command);
+      return;
+    }
 
-        if (runningThreadCount.decrementAndGet() == 0 && synchronizing) {
-          synchronized (finishLock) {
-            if (logger.isDebugEnabled())
-              logger.debug("notify() synchronize to continue...");
+    logger.debug("Waiting for unlock to exec new threads...");
+    metrics.onBlocked(1);
+    synchronized (startLock) {
+      doExecute(command);
+    }
+  }
 
-            finishLock.notify();
-          }
-        }
-      }
-    };
+  /**
+   * Executes the given commands at some time in the future. The commands are
+   * admitted as a batch: if the {@link SynchronizingExecutorService} is
+   * synchronizing, all of the given commands will wait until
+   * {@link #onSynchronize()} returns.
+   *
+   * @param commands The runnable tasks.
+   * @throws RejectedExecutionException If a task cannot be accepted for
+   *           execution, in which case the tasks that precede it have been
+   *           accepted, and the tasks that follow it have not.
+   * @throws NullPointerException If {@code commands}, or a member of
+   *           {@code commands} is null.
+   */
+  public void executeAll(final Collection<? extends Runnable> commands) {
+    final Runnable[] array = commands.toArray(new Runnable[commands.size()]);
+    for (final Runnable command : array)
+      Objects.requireNonNull(command);
+
+    if (array.length == 0)
+      return;
 
     if (!synchronizing) {
-      doExecute(wrapper);
+      doExecuteAll(array);
       return;
     }
 
     logger.debug("Waiting for unlock to exec new threads...");
+    metrics.onBlocked(array.length);
     synchronized (startLock) {
-      doExecute(wrapper);
+      doExecuteAll(array);
     }
   }
 
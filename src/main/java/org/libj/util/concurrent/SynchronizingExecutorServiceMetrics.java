@@ -0,0 +1,138 @@
+/* Copyright (c) 2017 LibJ
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * You should have received a copy of The MIT License (MIT) along with this
+ * program. If not, see <http://opensource.org/licenses/MIT/>.
+ */
+
+package org.libj.util.concurrent;
+
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * The metrics of the synchronizations of a {@link SynchronizingExecutorService}
+ * (see {@link SynchronizingExecutorService#getMetrics()}): the time spent
+ * waiting for running threads to drain, the duration of
+ * {@link SynchronizingExecutorService#onSynchronize()}, and the number of tasks
+ * that were blocked because they were submitted during a synchronization.
+ * <p>
+ * Instances of this class are thread-safe.
+ */
+public final class SynchronizingExecutorServiceMetrics {
+  private final LongAdder synchronizations = new LongAdder();
+  private final LongAdder drainNanos = new LongAdder();
+  private final LongAccumulator maxDrainNanos = new LongAccumulator(Math::max, 0);
+  private final LongAdder onSynchronizeNanos = new LongAdder();
+  private final LongAccumulator maxOnSynchronizeNanos = new LongAccumulator(Math::max, 0);
+  private final LongAdder blockedTasks = new LongAdder();
+
+  SynchronizingExecutorServiceMetrics() {
+  }
+
+  void onDrain(final long nanos) {
+    drainNanos.add(nanos);
+    maxDrainNanos.accumulate(nanos);
+  }
+
+  void onSynchronize(final long nanos) {
+    synchronizations.increment();
+    onSynchronizeNanos.add(nanos);
+    maxOnSynchronizeNanos.accumulate(nanos);
+  }
+
+  void onBlocked(final int tasks) {
+    blockedTasks.add(tasks);
+  }
+
+  /**
+   * Returns the number of completed synchronizations, i.e. the number of calls
+   * to {@link SynchronizingExecutorService#onSynchronize()}.
+   *
+   * @return The number of completed synchronizations.
+   */
+  public long getSynchronizeCount() {
+    return synchronizations.sum();
+  }
+
+  /**
+   * Returns the total time (in nanoseconds) spent waiting for running threads
+   * to finish, including that of synchronizations that were aborted.
+   *
+   * @return The total time (in nanoseconds) spent waiting for running threads
+   *         to finish.
+   */
+  public long getDrainNanos() {
+    return drainNanos.sum();
+  }
+
+  /**
+   * Returns the longest time (in nanoseconds) spent waiting for running
+   * threads to finish in a single synchronization.
+   *
+   * @return The longest time (in nanoseconds) spent waiting for running
+   *         threads to finish in a single synchronization.
+   */
+  public long getMaxDrainNanos() {
+    return maxDrainNanos.get();
+  }
+
+  /**
+   * Returns the total time (in nanoseconds) spent in
+   * {@link SynchronizingExecutorService#onSynchronize()}.
+   *
+   * @return The total time (in nanoseconds) spent in
+   *         {@link SynchronizingExecutorService#onSynchronize()}.
+   */
+  public long getOnSynchronizeNanos() {
+    return onSynchronizeNanos.sum();
+  }
+
+  /**
+   * Returns the longest time (in nanoseconds) spent in a single call to
+   * {@link SynchronizingExecutorService#onSynchronize()}.
+   *
+   * @return The longest time (in nanoseconds) spent in a single call to
+   *         {@link SynchronizingExecutorService#onSynchronize()}.
+   */
+  public long getMaxOnSynchronizeNanos() {
+    return maxOnSynchronizeNanos.get();
+  }
+
+  /**
+   * Returns the number of tasks whose submission was blocked because the
+   * {@link SynchronizingExecutorService} was synchronizing.
+   *
+   * @return The number of tasks whose submission was blocked because the
+   *         {@link SynchronizingExecutorService} was synchronizing.
+   */
+  public long getBlockedTaskCount() {
+    return blockedTasks.sum();
+  }
+
+  /**
+   * Resets all metrics to zero.
+   */
+  public void reset() {
+    synchronizations.reset();
+    drainNanos.reset();
+    maxDrainNanos.reset();
+    onSynchronizeNanos.reset();
+    maxOnSynchronizeNanos.reset();
+    blockedTasks.reset();
+  }
+
+  @Override
+  public String toString() {
+    return "synchronizations=" + getSynchronizeCount() + ", drain=" + getDrainNanos() + "ns (max " + getMaxDrainNanos() + "ns), onSynchronize=" + getOnSynchronizeNanos() + "ns (max " + getMaxOnSynchronizeNanos() + "ns), blockedTasks=" + getBlockedTaskCount();
+  }
+}
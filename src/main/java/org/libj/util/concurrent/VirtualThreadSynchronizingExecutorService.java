@@ -0,0 +1,240 @@
+/* Copyright (c) 2017 LibJ
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * You should have received a copy of The MIT License (MIT) along with this
+ * program. If not, see <http://opensource.org/licenses/MIT/>.
+ */
+
+package org.libj.util.concurrent;
+
+import java.lang.reflect.InvocationTargetException;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.AbstractExecutorService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * An {@link ExecutorService} that allows its threads to be synchronized, with
+ * the same semantics as {@link SynchronizingExecutorService}, for use with
+ * virtual threads.
+ * <p>
+ * All blocking is done with a {@link ReentrantLock} and its
+ * {@link Condition}s, instead of {@code synchronized} blocks and
+ * {@link Object#wait()}, so that neither the tasks, the submitting threads,
+ * nor the thread of {@link #synchronize()} pin the carrier thread when they
+ * are virtual threads. The {@link #VirtualThreadSynchronizingExecutorService()
+ * no-arg constructor} creates a source {@link ExecutorService} that starts a
+ * new virtual thread for each task.
+ * <p>
+ * If the thread of the {@link #synchronize()} method call is interrupted while
+ * the method is waiting for this instance's threads to finish, the command to
+ * synchronize is aborted, and {@link #synchronize()} throws an
+ * {@link InterruptedException}.
+ */
+public abstract class VirtualThreadSynchronizingExecutorService extends AbstractExecutorService {
+  private static ExecutorService newVirtualThreadPerTaskExecutor() {
+    try {
+      return (ExecutorService)Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+    }
+    catch (final NoSuchMethodException e) {
+      throw new UnsupportedOperationException("Virtual threads are not supported by this JVM", e);
+    }
+    catch (final IllegalAccessException | InvocationTargetException e) {
+      throw new UnsupportedOperationException("Virtual threads are not enabled in this JVM", e);
+    }
+  }
+
+  private final ReentrantLock lock = new ReentrantLock();
+
+  /** Signalled when the count of running threads drops to zero while synchronizing. */
+  private final Condition drained = lock.newCondition();
+
+  /** Signalled when a synchronization has finished or was aborted. */
+  private final Condition released = lock.newCondition();
+
+  private volatile int runningThreadCount;
+  private Thread synchronizer;
+
+  /**
+   * The source {@link ExecutorService}.
+   */
+  private final ExecutorService executorService;
+
+  /**
+   * Construct a new {@link VirtualThreadSynchronizingExecutorService} with a
+   * source {@link ExecutorService} that starts a new virtual thread for each
+   * task.
+   *
+   * @throws UnsupportedOperationException If virtual threads are not supported
+   *           by the JVM.
+   */
+  public VirtualThreadSynchronizingExecutorService() {
+    this(newVirtualThreadPerTaskExecutor());
+  }
+
+  /**
+   * Construct a new {@link VirtualThreadSynchronizingExecutorService} with the
+   * specified source {@link ExecutorService}.
+   *
+   * @param executorService The source {@link ExecutorService}.
+   * @throws NullPointerException If {@code executorService} is null.
+   */
+  public VirtualThreadSynchronizingExecutorService(final ExecutorService executorService) {
+    this.executorService = Objects.requireNonNull(executorService);
+  }
+
+  /**
+   * Called when this service synchronizes all executing threads to finish. When
+   * this method is called, no threads in this service are pending completion.
+   */
+  public abstract void onSynchronize();
+
+  /**
+   * Returns the current count of running threads in this service.
+   *
+   * @return The current count of running threads in this service.
+   */
+  public int getRunningThreadCount() {
+    return runningThreadCount;
+  }
+
+  /**
+   * Stop execution of new threads, and wait for all running threads to finish.
+   * Once all threads have finished, {@link #onSynchronize()} is called. If
+   * another thread is synchronizing this service, this method returns
+   * immediately. If this method's thread is interrupted waiting for this
+   * instance's threads to finish, the command to synchronize is aborted, and
+   * this method throws an {@link InterruptedException}.
+   *
+   * @throws InterruptedException If this method's thread is interrupted waiting
+   *           for this instance's threads to finish.
+   */
+  public void synchronize() throws InterruptedException {
+    lock.lockInterruptibly();
+    try {
+      if (synchronizer != null)
+        return;
+
+      synchronizer = Thread.currentThread();
+      try {
+        while (runningThreadCount > 0)
+          drained.await();
+      }
+      catch (final InterruptedException e) {
+        synchronizer = null;
+        released.signalAll();
+        throw e;
+      }
+    }
+    finally {
+      lock.unlock();
+    }
+
+    // Tasks submitted from onSynchronize() are admitted, as their submitting
+    // thread is the synchronizer
+    try {
+      onSynchronize();
+    }
+    finally {
+      lock.lock();
+      try {
+        synchronizer = null;
+        released.signalAll();
+      }
+      finally {
+        lock.unlock();
+      }
+    }
+  }
+
+  private void finished() {
+    lock.lock();
+    try {
+      if (--runningThreadCount == 0 && synchronizer != null)
+        drained.signal();
+    }
+    finally {
+      lock.unlock();
+    }
+  }
+
+  /**
+   * Executes the given command at some time in the future. If the
+   * {@link VirtualThreadSynchronizingExecutorService} is synchronizing, the
+   * given command will wait until {@link #onSynchronize()} returns.
+   *
+   * @param command The runnable task.
+   * @throws RejectedExecutionException If this task cannot be accepted for
+   *           execution.
+   * @throws NullPointerException If {@code command} is null.
+   */
+  @Override
+  public void execute(final Runnable command) {
+    Objects.requireNonNull(command);
+    final Thread thread = Thread.currentThread();
+    lock.lock();
+    try {
+      while (synchronizer != null && synchronizer != thread)
+        released.awaitUninterruptibly();
+
+      ++runningThreadCount;
+    }
+    finally {
+      lock.unlock();
+    }
+
+    try {
+      executorService.execute(() -> {
+        try {
+          command.run();
+        }
+        finally {
+          finished();
+        }
+      });
+    }
+    catch (final Throwable t) {
+      finished();
+      throw t;
+    }
+  }
+
+  @Override
+  public void shutdown() {
+    executorService.shutdown();
+  }
+
+  @Override
+  public List<Runnable> shutdownNow() {
+    return executorService.shutdownNow();
+  }
+
+  @Override
+  public boolean isShutdown() {
+    return executorService.isShutdown();
+  }
+
+  @Override
+  public boolean isTerminated() {
+    return executorService.isTerminated();
+  }
+
+  @Override
+  public boolean awaitTermination(final long timeout, final TimeUnit unit) throws InterruptedException {
+    return executorService.awaitTermination(timeout, unit);
+  }
+}
@@ -0,0 +1,159 @@
+/* Copyright (c) 2018 LibJ
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * You should have received a copy of The MIT License (MIT) along with this
+ * program. If not, see <http://opensource.org/licenses/MIT/>.
+ */
+
+package org.libj.util.retry;
+
+import java.io.Serializable;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * A circuit breaker that rejects attempts to call a failing dependency, which
+ * can be shared by any number of {@link RetryPolicy} instances (see
+ * {@link RetryPolicy#setCircuitBreaker(CircuitBreaker)}).
+ * <ul>
+ * <li>In the {@link State#CLOSED CLOSED} state, all attempts are permitted. The
+ * breaker opens after {@code failureThreshold} consecutive failures.</li>
+ * <li>In the {@link State#OPEN OPEN} state, all attempts are rejected until
+ * {@code openMs} have elapsed, after which the breaker is half-open.</li>
+ * <li>In the {@link State#HALF_OPEN HALF_OPEN} state, a single trial attempt is
+ * permitted. The breaker closes if the trial succeeds, and opens again if it
+ * fails. If the outcome of the trial is not recorded within {@code openMs} of
+ * the trial being permitted (for instance, because the trial was abandoned),
+ * another trial attempt is permitted.</li>
+ * </ul>
+ * This class is lock-free and thread-safe.
+ */
+public final class CircuitBreaker implements Serializable {
+  private static final long serialVersionUID = 6297310475581096263L;
+
+  /**
+   * The state of a {@link CircuitBreaker}.
+   */
+  public enum State {
+    /** All attempts are permitted. */
+    CLOSED,
+    /** All attempts are rejected. */
+    OPEN,
+    /** A single trial attempt is permitted. */
+    HALF_OPEN
+  }
+
+  /**
+   * The state of a {@link CircuitBreaker}, with the time at which the state
+   * was entered.
+   */
+  private static final class Status implements Serializable {
+    private static final long serialVersionUID = -1524633412154045707L;
+
+    private final State state;
+    private final long time;
+
+    private Status(final State state, final long time) {
+      this.state = state;
+      this.time = time;
+    }
+  }
+
+  private static final Status CLOSED = new Status(State.CLOSED, 0);
+
+  private final int failureThreshold;
+  private final long openMs;
+  private final AtomicReference<Status> status = new AtomicReference<>(CLOSED);
+  private final AtomicInteger failures = new AtomicInteger();
+
+  /**
+   * Creates a new {@link CircuitBreaker} with the provided failure threshold
+   * and open duration.
+   *
+   * @param failureThreshold The number of consecutive failures after which the
+   *          breaker opens.
+   * @param openMs The time (in milliseconds) for which the breaker stays open,
+   *          before a trial attempt is permitted.
+   * @throws IllegalArgumentException If {@code failureThreshold} is not
+   *           positive, or if {@code openMs} is negative.
+   */
+  public CircuitBreaker(final int failureThreshold, final long openMs) {
+    if (failureThreshold <= 0)
+      throw new IllegalArgumentException("failureThreshold (" + failureThreshold + ") must be a positive value");
+
+    if (openMs < 0)
+      throw new IllegalArgumentException("openMs (" + openMs + ") is negative");
+
+    this.failureThreshold = failureThreshold;
+    this.openMs = openMs;
+  }
+
+  /**
+   * Returns the current {@link State} of this breaker.
+   *
+   * @return The current {@link State} of this breaker.
+   */
+  public State getState() {
+    final Status status = this.status.get();
+    return status.state == State.OPEN && System.currentTimeMillis() - status.time >= openMs ? State.HALF_OPEN : status.state;
+  }
+
+  /**
+   * Returns whether an attempt is permitted. If this breaker is open and
+   * {@code openMs} have elapsed, this method transitions the breaker to
+   * half-open, and permits the calling attempt as the single trial. If this
+   * breaker is half-open and {@code openMs} have elapsed since the trial was
+   * permitted without its outcome being recorded, the calling attempt is
+   * permitted as a new trial.
+   *
+   * @return {@code true} if the attempt is permitted, otherwise {@code false}.
+   */
+  public boolean tryAcquire() {
+    final Status status = this.status.get();
+    if (status.state == State.CLOSED)
+      return true;
+
+    // Whether OPEN or HALF_OPEN, the status time is the deadline from which a (new) trial is permitted
+    final long now = System.currentTimeMillis();
+    return now - status.time >= openMs && this.status.compareAndSet(status, new Status(State.HALF_OPEN, now));
+  }
+
+  /**
+   * Records the success of an attempt, which closes this breaker.
+   */
+  public void onSuccess() {
+    failures.set(0);
+    if (status.get() != CLOSED)
+      status.set(CLOSED);
+  }
+
+  /**
+   * Records the failure of an attempt, which opens this breaker if it is
+   * half-open, or if {@code failureThreshold} consecutive failures have been
+   * recorded.
+   */
+  public void onFailure() {
+    final Status status = this.status.get();
+    if (status.state == State.HALF_OPEN) {
+      this.status.compareAndSet(status, new Status(State.OPEN, System.currentTimeMillis()));
+    }
+    else if (status.state == State.CLOSED && failures.incrementAndGet() >= failureThreshold) {
+      if (this.status.compareAndSet(status, new Status(State.OPEN, System.currentTimeMillis())))
+        failures.set(0);
+    }
+  }
+
+  @Override
+  public String toString() {
+    return "state = " + getState() + ", failureThreshold = " + failureThreshold + ", openMs = " + openMs;
+  }
+}
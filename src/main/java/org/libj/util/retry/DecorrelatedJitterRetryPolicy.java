@@ -0,0 +1,78 @@
+/* Copyright (c) 2018 LibJ
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * You should have received a copy of The MIT License (MIT) along with this
+ * program. If not, see <http://opensource.org/licenses/MIT/>.
+ */
+
+package org.libj.util.retry;
+
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * A {@link RetryPolicy} that defines a maximum number of retries, and a
+ * "decorrelated jitter" delay for retry attempts: each delay is chosen
+ * uniformly at random between the base delay and 3 times the previous delay,
+ * capped at a maximum delay. The random delays are drawn from
+ * {@link ThreadLocalRandom}, and therefore do not contend across threads.
+ *
+ * @param <E> The type parameter of the {@link Exception} instance signifying
+ *          terminal failure of the {@link RetryPolicy} execution.
+ */
+public abstract class DecorrelatedJitterRetryPolicy<E extends Exception> extends RetryPolicy<E> {
+  private static final long serialVersionUID = 2308715327497740263L;
+
+  private final int baseDelayMs;
+  private final int maxDelayMs;
+
+  /**
+   * Creates a new {@link DecorrelatedJitterRetryPolicy} with the specified
+   * maximum number of retries, base delay, and maximum delay.
+   *
+   * @param maxRetries A positive value representing the number of retry
+   *          attempts allowed by the {@link DecorrelatedJitterRetryPolicy}.
+   * @param baseDelayMs A positive value representing the minimum delay for
+   *          each retry, in milliseconds.
+   * @param maxDelayMs The maximum delay, in milliseconds, which takes effect if
+   *          the randomly chosen delay is a greater value.
+   * @throws IllegalArgumentException If {@code maxRetries} is negative, if
+   *           {@code baseDelayMs} or {@code maxDelayMs} is not a positive
+   *           value, or if {@code maxDelayMs < baseDelayMs}.
+   */
+  public DecorrelatedJitterRetryPolicy(final int maxRetries, final int baseDelayMs, final int maxDelayMs) {
+    super(maxRetries, 0);
+    this.baseDelayMs = baseDelayMs;
+    if (baseDelayMs <= 0)
+      throw new IllegalArgumentException("baseDelayMs (" + baseDelayMs + ") must be a positive value");
+
+    this.maxDelayMs = maxDelayMs;
+    if (maxDelayMs < baseDelayMs)
+      throw new IllegalArgumentException("maxDelayMs (" + maxDelayMs + ") must be >= baseDelayMs (" + baseDelayMs + ")");
+  }
+
+  /**
+   * {@inheritDoc}
+   * <p>
+   * Returns the upper bound of the delay for the specified attempt number,
+   * i.e. {@code min(maxDelayMs, baseDelayMs * 3^(attemptNo - 1))}.
+   */
+  @Override
+  protected long getDelayMs(final int attemptNo) {
+    return (long)Math.min(maxDelayMs, baseDelayMs * StrictMath.pow(3, attemptNo - 1));
+  }
+
+  @Override
+  protected long getDelayMs(final int attemptNo, final long previousDelayMs) {
+    final long upper = Math.max(baseDelayMs, Math.min(maxDelayMs, previousDelayMs * 3));
+    return upper == baseDelayMs ? baseDelayMs : ThreadLocalRandom.current().nextLong(baseDelayMs, upper + 1);
+  }
+}
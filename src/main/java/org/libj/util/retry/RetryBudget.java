@@ -0,0 +1,101 @@
+/* Copyright (c) 2018 LibJ
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * You should have received a copy of The MIT License (MIT) along with this
+ * program. If not, see <http://opensource.org/licenses/MIT/>.
+ */
+
+package org.libj.util.retry;
+
+import java.io.Serializable;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * A retry budget that limits the number of retries to a ratio of the number of
+ * successful calls, which can be shared by any number of {@link RetryPolicy}
+ * instances (see {@link RetryPolicy#setRetryBudget(RetryBudget)}).
+ * <p>
+ * The budget is a token bucket: each successful call deposits {@code ratio}
+ * tokens (up to {@code maxTokens}), and each retry withdraws one token. A
+ * retry is rejected if less than one token is available. The bucket starts
+ * full, to allow for retries before any call has succeeded.
+ * <p>
+ * This class is lock-free and thread-safe.
+ */
+public final class RetryBudget implements Serializable {
+  private static final long serialVersionUID = -3592851813306219624L;
+
+  /** The number of units per token, by which tokens are represented as a {@code long}. */
+  private static final long SCALE = 1000;
+
+  private final long deposit;
+  private final long capacity;
+  private final AtomicLong balance;
+
+  /**
+   * Creates a new {@link RetryBudget} with the provided ratio of retries to
+   * successful calls, and maximum number of tokens.
+   *
+   * @param ratio The number of retries allowed per successful call (i.e.
+   *          {@code 0.1} allows 1 retry per 10 successful calls).
+   * @param maxTokens The maximum number of tokens in the budget, which is the
+   *          maximum number of retries allowed in a burst.
+   * @throws IllegalArgumentException If {@code ratio} is not positive, or if
+   *           {@code maxTokens} is negative.
+   */
+  public RetryBudget(final double ratio, final int maxTokens) {
+    if (!(ratio > 0))
+      throw new IllegalArgumentException("ratio (" + ratio + ") must be a positive value");
+
+    if (maxTokens < 0)
+      throw new IllegalArgumentException("maxTokens (" + maxTokens + ") is negative");
+
+    this.deposit = Math.max(1, Math.round(ratio * SCALE));
+    this.capacity = maxTokens * SCALE;
+    this.balance = new AtomicLong(capacity);
+  }
+
+  /**
+   * Deposits the tokens of a successful call into this budget.
+   */
+  public void onSuccess() {
+    for (long balance; (balance = this.balance.get()) < capacity && !this.balance.compareAndSet(balance, Math.min(capacity, balance + deposit)););
+  }
+
+  /**
+   * Withdraws one token from this budget for a retry, if available.
+   *
+   * @return {@code true} if a token was withdrawn, and the retry may proceed,
+   *         otherwise {@code false}.
+   */
+  public boolean tryAcquire() {
+    for (long balance; (balance = this.balance.get()) >= SCALE;)
+      if (this.balance.compareAndSet(balance, balance - SCALE))
+        return true;
+
+    return false;
+  }
+
+  /**
+   * Returns the number of tokens available in this budget.
+   *
+   * @return The number of tokens available in this budget.
+   */
+  public double getAvailable() {
+    return (double)balance.get() / SCALE;
+  }
+
+  @Override
+  public String toString() {
+    return "available = " + getAvailable() + ", maxTokens = " + (capacity / SCALE);
+  }
+}
@@ -0,0 +1,150 @@
+/* Copyright (c) 2018 LibJ
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * You should have received a copy of The MIT License (MIT) along with this
+ * program. If not, see <http://opensource.org/licenses/MIT/>.
+ */
+
+package org.libj.util.retry;
+
+import java.io.Serializable;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * The metrics of the executions of a {@link RetryPolicy} (see
+ * {@link RetryPolicy#getMetrics()}): the number of attempts, the number of
+ * successful executions by the number of retries they required, the time spent
+ * waiting between attempts, and the number of executions that gave up.
+ * <p>
+ * This class is thread-safe.
+ */
+public final class RetryMetrics implements Serializable {
+  private static final long serialVersionUID = 4961512962802557134L;
+
+  /** The number of retries above which successes are counted together. */
+  private static final int MAX_TRACKED_RETRIES = 16;
+
+  private final LongAdder attempts = new LongAdder();
+  private final LongAdder giveUps = new LongAdder();
+  private final LongAdder rejections = new LongAdder();
+  private final LongAdder delayMs = new LongAdder();
+  private final LongAdder[] successes = new LongAdder[MAX_TRACKED_RETRIES + 1];
+
+  RetryMetrics() {
+    for (int i = 0; i < successes.length; ++i)
+      successes[i] = new LongAdder();
+  }
+
+  void onAttempt() {
+    attempts.increment();
+  }
+
+  void onSuccess(final int attemptNo) {
+    successes[Math.min(attemptNo - 1, MAX_TRACKED_RETRIES)].increment();
+  }
+
+  void onDelay(final long delayMs) {
+    this.delayMs.add(delayMs);
+  }
+
+  void onGiveUp(final Exception cause) {
+    giveUps.increment();
+    if (cause instanceof RetryRejectedException)
+      rejections.increment();
+  }
+
+  /**
+   * Returns the number of attempts, including first attempts.
+   *
+   * @return The number of attempts, including first attempts.
+   */
+  public long getAttemptCount() {
+    return attempts.sum();
+  }
+
+  /**
+   * Returns the number of successful executions.
+   *
+   * @return The number of successful executions.
+   */
+  public long getSuccessCount() {
+    long count = 0;
+    for (final LongAdder success : successes)
+      count += success.sum();
+
+    return count;
+  }
+
+  /**
+   * Returns the number of successful executions that required the specified
+   * number of retries (i.e. {@code 0} for executions that succeeded on the
+   * first attempt). Executions that required more than 16 retries are counted
+   * as having required 16 retries.
+   *
+   * @param retries The number of retries.
+   * @return The number of successful executions that required the specified
+   *         number of retries.
+   * @throws IllegalArgumentException If {@code retries} is negative.
+   */
+  public long getSuccessCount(final int retries) {
+    if (retries < 0)
+      throw new IllegalArgumentException("retries (" + retries + ") is negative");
+
+    return retries > MAX_TRACKED_RETRIES ? 0 : successes[retries].sum();
+  }
+
+  /**
+   * Returns the number of executions that gave up, due to a non-retryable
+   * exception, the exhaustion of the retries or timeout, or a rejection.
+   *
+   * @return The number of executions that gave up.
+   */
+  public long getGiveUpCount() {
+    return giveUps.sum();
+  }
+
+  /**
+   * Returns the number of executions that gave up due to a rejection by a
+   * {@link RetryBudget} or {@link CircuitBreaker}.
+   *
+   * @return The number of executions that gave up due to a rejection.
+   */
+  public long getRejectionCount() {
+    return rejections.sum();
+  }
+
+  /**
+   * Returns the total time (in milliseconds) spent waiting between attempts.
+   *
+   * @return The total time (in milliseconds) spent waiting between attempts.
+   */
+  public long getDelayMs() {
+    return delayMs.sum();
+  }
+
+  /**
+   * Resets all metrics to zero.
+   */
+  public void reset() {
+    attempts.reset();
+    giveUps.reset();
+    rejections.reset();
+    delayMs.reset();
+    for (final LongAdder success : successes)
+      success.reset();
+  }
+
+  @Override
+  public String toString() {
+    return "attempts = " + getAttemptCount() + ", successes = " + getSuccessCount() + ", giveUps = " + getGiveUpCount() + ", rejections = " + getRejectionCount() + ", delayMs = " + getDelayMs();
+  }
+}
@@ -17,6 +17,11 @@
 package org.libj.util.retry;
 
 import java.io.Serializable;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -29,7 +34,10 @@ import org.slf4j.LoggerFactory;
  * when a retry should occur.
  * <p>
  * The {@link #run(Retryable)} method is the entrypoint for a {@link Retryable}
- * object to be executed.
+ * object to be executed, which sleeps the calling thread between attempts. The
+ * {@link #runAsync(Retryable,ScheduledExecutorService)} method is the
+ * non-blocking equivalent, which schedules each retry attempt on a
+ * {@link ScheduledExecutorService} instead.
  *
  * @param <E> The type parameter of the {@link Exception} instance signifying
  *          terminal failure of the {@link RetryPolicy} execution.
@@ -40,6 +48,9 @@ public abstract class RetryPolicy<E extends Exception> implements Serializable {
 
   private final int maxRetries;
   private final double jitter;
+  private volatile RetryBudget retryBudget;
+  private volatile CircuitBreaker circuitBreaker;
+  private final RetryMetrics metrics = new RetryMetrics();
 
   /**
    * Creates a new {@link RetryPolicy} with the specified {@code maxRetries}
@@ -66,7 +77,67 @@ public abstract class RetryPolicy<E extends Exception> implements Serializable {
       throw new IllegalArgumentException("maxRetries (" + maxRetries + ") must be a positive value");
   }
 
+  /**
+   * Returns the {@link RetryBudget} that is consulted before each retry, or
+   * {@code null} if retries are not limited by a budget.
+   *
+   * @return The {@link RetryBudget} that is consulted before each retry, or
+   *         {@code null} if retries are not limited by a budget.
+   */
+  public RetryBudget getRetryBudget() {
+    return retryBudget;
+  }
+
+  /**
+   * Sets the {@link RetryBudget} that is consulted before each retry. If the
+   * budget is exhausted, the execution fails with a
+   * {@link RetryRejectedException} as the cause. The {@link RetryBudget} may be
+   * shared by any number of {@link RetryPolicy} instances.
+   *
+   * @param retryBudget The {@link RetryBudget}, or {@code null} for retries to
+   *          not be limited by a budget.
+   */
+  public void setRetryBudget(final RetryBudget retryBudget) {
+    this.retryBudget = retryBudget;
+  }
+
+  /**
+   * Returns the {@link CircuitBreaker} that is consulted before each attempt,
+   * or {@code null} if there is none.
+   *
+   * @return The {@link CircuitBreaker} that is consulted before each attempt,
+   *         or {@code null} if there is none.
+   */
+  public CircuitBreaker getCircuitBreaker() {
+    return circuitBreaker;
+  }
+
+  /**
+   * Sets the {@link CircuitBreaker} that is consulted before each attempt. If
+   * the breaker rejects an attempt, the execution fails with a
+   * {@link RetryRejectedException} as the cause. The {@link CircuitBreaker} may
+   * be shared by any number of {@link RetryPolicy} instances.
+   *
+   * @param circuitBreaker The {@link CircuitBreaker}, or {@code null} for
+   *          attempts to not be subject to a breaker.
+   */
+  public void setCircuitBreaker(final CircuitBreaker circuitBreaker) {
+    this.circuitBreaker = circuitBreaker;
+  }
+
+  /**
+   * Returns the {@link RetryMetrics} of the executions of this
+   * {@link RetryPolicy}.
+   *
+   * @return The {@link RetryMetrics} of the executions of this
+   *         {@link RetryPolicy}.
+   */
+  public RetryMetrics getMetrics() {
+    return metrics;
+  }
+
   private void retryFailed(final Exception cause, final int attemptNo, final long delayMs) throws E, RetryFailureException {
+    metrics.onGiveUp(cause);
     final E e = onRetryFailure(cause, attemptNo, delayMs);
     if (e != null)
       throw e;
@@ -158,42 +229,214 @@ public abstract class RetryPolicy<E extends Exception> implements Serializable {
   protected void onRetry(final int attemptNo) {
   }
 
-  private final <T>T run0(final Retryable<T,E> retryable, final long timeout) throws E, RetryFailureException {
+  /**
+   * The entrypoint for a {@link Retryable} object to be executed
+   * asynchronously. Exceptions in {@link Retryable#retry(RetryPolicy,int)} will
+   * be considered for retry if the number of {@link #maxRetries} has not been
+   * exceeded, and {@link #retryOn(Exception)} returns {@code true}. Instead of
+   * sleeping between attempts, each attempt is scheduled on the provided
+   * {@link ScheduledExecutorService} after the delay of the policy.
+   *
+   * @param <T> The type of the result object.
+   * @param retryable The {@link Retryable} object to run.
+   * @param executor The {@link ScheduledExecutorService} on which the attempts
+   *          are to be executed.
+   * @return A {@link CompletableFuture} of the resulting value from
+   *         {@link Retryable#retry(RetryPolicy,int)}, which is completed
+   *         exceptionally with {@code E} or {@link RetryFailureException}
+   *         upon terminal failure.
+   * @throws NullPointerException If {@code retryable} or {@code executor} is
+   *           null.
+   */
+  public final <T>CompletableFuture<T> runAsync(final Retryable<T,E> retryable, final ScheduledExecutorService executor) {
+    return runAsync0(retryable, 0, executor);
+  }
+
+  /**
+   * The entrypoint for a {@link Retryable} object to be executed
+   * asynchronously. Exceptions in {@link Retryable#retry(RetryPolicy,int)} will
+   * be considered for retry if the number of {@link #maxRetries} has not been
+   * exceeded, and {@link #retryOn(Exception)} returns {@code true}. Instead of
+   * sleeping between attempts, each attempt is scheduled on the provided
+   * {@link ScheduledExecutorService} after the delay of the policy.
+   *
+   * @param <T> The type of the result object.
+   * @param retryable The {@link Retryable} object to run.
+   * @param timeout The maximum time to retry in milliseconds.
+   * @param executor The {@link ScheduledExecutorService} on which the attempts
+   *          are to be executed.
+   * @return A {@link CompletableFuture} of the resulting value from
+   *         {@link Retryable#retry(RetryPolicy,int)}, which is completed
+   *         exceptionally with {@code E} or {@link RetryFailureException}
+   *         upon terminal failure, or if {@code timeout} is exceeded.
+   * @throws IllegalArgumentException If {@code timeout} is negative.
+   * @throws NullPointerException If {@code retryable} or {@code executor} is
+   *           null.
+   */
+  public final <T>CompletableFuture<T> runAsync(final Retryable<T,E> retryable, final long timeout, final ScheduledExecutorService executor) {
+    if (timeout < 0)
+      throw new IllegalArgumentException("timeout value (" + timeout + ") is negative");
+
+    return runAsync0(retryable, timeout, executor);
+  }
+
+  private <T>CompletableFuture<T> runAsync0(final Retryable<T,E> retryable, final long timeout, final ScheduledExecutorService executor) {
+    Objects.requireNonNull(retryable);
+    final CompletableFuture<T> future = new CompletableFuture<>();
     final long startTime = System.currentTimeMillis();
-    long runTime = 0;
-    for (int attemptNo = 1;; ++attemptNo) {
-      onRetry(attemptNo);
+    try {
+      executor.execute(() -> attempt(retryable, timeout, executor, future, 1, startTime, 0, 0, null));
+    }
+    catch (final RuntimeException e) {
+      future.completeExceptionally(e);
+    }
+
+    return future;
+  }
+
+  private <T>void attempt(final Retryable<T,E> retryable, final long timeout, final ScheduledExecutorService executor, final CompletableFuture<T> future, final int attemptNo, final long startTime, final long runTime, final long previousDelayMs, final Exception last) {
+    // The future may have been cancelled
+    if (future.isDone())
+      return;
+
+    try {
+      acquire(attemptNo, last);
+      boolean recorded = false;
       try {
-        return retryable.retry(this, attemptNo);
+        onRetry(attemptNo);
+        metrics.onAttempt();
+        final T result;
+        try {
+          result = retryable.retry(this, attemptNo);
+        }
+        catch (final Exception e) {
+          recorded = true;
+          failed();
+          final long delayMs = nextDelayMs(e, attemptNo, runTime, timeout, previousDelayMs);
+          metrics.onDelay(delayMs);
+          if (logger.isDebugEnabled())
+            logger.debug("Retrying attemptNo = " + attemptNo + ", runTime = " + runTime);
+
+          executor.schedule(() -> attempt(retryable, timeout, executor, future, attemptNo + 1, startTime, System.currentTimeMillis() - startTime, delayMs, e), delayMs, TimeUnit.MILLISECONDS);
+          return;
+        }
+
+        recorded = true;
+        succeeded(attemptNo);
+        future.complete(result);
+      }
+      finally {
+        // An attempt that did not complete normally (due to onRetry, or an Error) must not leave a trial of the CircuitBreaker pending
+        if (!recorded)
+          failed();
       }
-      catch (final Exception e) {
-        if (attemptNo > maxRetries || !retryOn(e))
-          retryFailed(e, attemptNo, getDelayMs(attemptNo - 1));
+    }
+    catch (final Throwable t) {
+      future.completeExceptionally(t);
+    }
+  }
+
+  /**
+   * Returns the delay (in milliseconds) before the attempt following the
+   * specified failed attempt, or throws the exception signifying terminal
+   * failure if no further attempt is to be made.
+   */
+  private long nextDelayMs(final Exception e, final int attemptNo, final long runTime, final long timeout, final long previousDelayMs) throws E, RetryFailureException {
+    if (attemptNo > maxRetries || !retryOn(e))
+      retryFailed(e, attemptNo, getDelayMs(attemptNo - 1));
 
-        long delayMs = getDelayMs(attemptNo);
-        if (jitter > 0)
-          delayMs *= jitter * Math.random() + 1;
+    final RetryBudget retryBudget = this.retryBudget;
+    if (retryBudget != null && !retryBudget.tryAcquire())
+      retryFailed(new RetryRejectedException("Retry budget is exhausted", e), attemptNo, getDelayMs(attemptNo - 1));
 
-        if (timeout > 0) {
-          final long remaining = timeout - runTime;
-          if (remaining <= 0)
-            retryFailed(null, attemptNo, delayMs);
+    long delayMs = getDelayMs(attemptNo, previousDelayMs);
+    if (jitter > 0)
+      delayMs *= jitter * ThreadLocalRandom.current().nextDouble() + 1;
 
-          if (remaining < delayMs)
-            delayMs = remaining;
-        }
+    if (timeout > 0) {
+      final long remaining = timeout - runTime;
+      if (remaining <= 0)
+        retryFailed(null, attemptNo, delayMs);
+
+      if (remaining < delayMs)
+        delayMs = remaining;
+    }
+
+    return delayMs;
+  }
+
+  /**
+   * Consults the {@link CircuitBreaker} (if any) before the specified attempt,
+   * and throws the exception signifying terminal failure if the attempt is
+   * rejected.
+   */
+  private void acquire(final int attemptNo, final Exception last) throws E, RetryFailureException {
+    final CircuitBreaker circuitBreaker = this.circuitBreaker;
+    if (circuitBreaker != null && !circuitBreaker.tryAcquire())
+      retryFailed(new RetryRejectedException("Circuit breaker is open", last), attemptNo, 0);
+  }
+
+  private void succeeded(final int attemptNo) {
+    metrics.onSuccess(attemptNo);
+    final RetryBudget retryBudget = this.retryBudget;
+    if (retryBudget != null)
+      retryBudget.onSuccess();
+
+    final CircuitBreaker circuitBreaker = this.circuitBreaker;
+    if (circuitBreaker != null)
+      circuitBreaker.onSuccess();
+  }
+
+  private void failed() {
+    final CircuitBreaker circuitBreaker = this.circuitBreaker;
+    if (circuitBreaker != null)
+      circuitBreaker.onFailure();
+  }
 
+  private final <T>T run0(final Retryable<T,E> retryable, final long timeout) throws E, RetryFailureException {
+    final long startTime = System.currentTimeMillis();
+    long runTime = 0;
+    long delayMs = 0;
+    Exception last = null;
+    for (int attemptNo = 1;; ++attemptNo) {
+      acquire(attemptNo, last);
+      boolean recorded = false;
+      try {
+        onRetry(attemptNo);
+        metrics.onAttempt();
+        final T result;
         try {
-          Thread.sleep(delayMs);
-          runTime = System.currentTimeMillis() - startTime;
+          result = retryable.retry(this, attemptNo);
         }
-        catch (final InterruptedException ie) {
-          retryFailed(ie, attemptNo, delayMs);
+        catch (final Exception e) {
+          recorded = true;
+          failed();
+          last = e;
+          delayMs = nextDelayMs(e, attemptNo, runTime, timeout, delayMs);
+          metrics.onDelay(delayMs);
+          try {
+            Thread.sleep(delayMs);
+            runTime = System.currentTimeMillis() - startTime;
+          }
+          catch (final InterruptedException ie) {
+            retryFailed(ie, attemptNo, delayMs);
+          }
+
+          if (logger.isDebugEnabled())
+            logger.debug("Retrying attemptNo = " + attemptNo + ", runTime = " + runTime);
+
+          continue;
         }
-      }
 
-      if (logger.isDebugEnabled())
-        logger.debug("Retrying attemptNo = " + attemptNo + ", runTime = " + runTime);
+        recorded = true;
+        succeeded(attemptNo);
+        return result;
+      }
+      finally {
+        // An attempt that did not complete normally (due to onRetry, or an Error) must not leave a trial of the CircuitBreaker pending
+        if (!recorded)
+          failed();
+      }
     }
   }
 
@@ -215,4 +458,20 @@ public abstract class RetryPolicy<E extends Exception> implements Serializable {
    * @return The delay in milliseconds for the specified attempt number.
    */
   protected abstract long getDelayMs(int attemptNo);
+
+  /**
+   * Returns the delay in milliseconds for the specified attempt number, given
+   * the delay that preceded the failed attempt. This method is intended to be
+   * overridden by a subclass whose backoff function depends on the previous
+   * delay (such as {@link DecorrelatedJitterRetryPolicy}). The default
+   * implementation returns {@link #getDelayMs(int)}.
+   *
+   * @param attemptNo The attempt number, starting with {@code 1}.
+   * @param previousDelayMs The delay in milliseconds that preceded the failed
+   *          attempt, or {@code 0} if the failed attempt was the first.
+   * @return The delay in milliseconds for the specified attempt number.
+   */
+  protected long getDelayMs(final int attemptNo, final long previousDelayMs) {
+    return getDelayMs(attemptNo);
+  }
 }
\ No newline at end of file
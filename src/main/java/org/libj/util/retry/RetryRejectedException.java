@@ -0,0 +1,39 @@
+/* Copyright (c) 2018 LibJ
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * You should have received a copy of The MIT License (MIT) along with this
+ * program. If not, see <http://opensource.org/licenses/MIT/>.
+ */
+
+package org.libj.util.retry;
+
+/**
+ * Thrown to indicate that an attempt of a {@link RetryPolicy} was rejected by
+ * its {@link RetryBudget} or {@link CircuitBreaker}. This exception is provided
+ * as the cause to {@link RetryPolicy#onRetryFailure(Exception,int,long)}, and
+ * its own cause is the exception of the previous attempt (if any).
+ */
+public class RetryRejectedException extends Exception {
+  private static final long serialVersionUID = -2148394733170271656L;
+
+  /**
+   * Constructs a {@link RetryRejectedException} with the specified detail
+   * message and the exception of the previous attempt.
+   *
+   * @param message The detail message.
+   * @param cause The exception of the previous attempt, or {@code null} if
+   *          there was no previous attempt.
+   */
+  public RetryRejectedException(final String message, final Throwable cause) {
+    super(message, cause);
+  }
+}
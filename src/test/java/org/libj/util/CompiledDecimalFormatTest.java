@@ -0,0 +1,93 @@
+/* Copyright (c) 2012 LibJ
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * You should have received a copy of The MIT License (MIT) along with this
+ * program. If not, see <http://opensource.org/licenses/MIT/>.
+ */
+
+package org.libj.util;
+
+import static org.junit.Assert.*;
+
+import java.text.DecimalFormat;
+import java.util.Random;
+
+import org.junit.Test;
+
+public class CompiledDecimalFormatTest {
+  private static final String[] patterns = {"0", "#", "0.00", "#.##", "#,##0.###", "000,000.0#", "'$'#,##0.00", "#.#%", "0.0 'units'", "#.", ".##", "0.####################"};
+  private static final double[] values = {0, -0.0, 0.5, 1.5, 2.5, 2.675, 0.125, 0.005, -0.001, 1234567.891, -98765.4321, 0.1, 1e-10, 123456789012345.0, Double.NaN, Double.POSITIVE_INFINITY, Double.NEGATIVE_INFINITY};
+
+  private static void assertFormat(final String pattern, final double value) {
+    assertEquals(pattern + " " + value, new DecimalFormat(pattern).format(value), new CompiledDecimalFormat(pattern).format(value));
+  }
+
+  private static void assertFormat(final String pattern, final long value) {
+    assertEquals(pattern + " " + value, new DecimalFormat(pattern).format(value), new CompiledDecimalFormat(pattern).format(value));
+  }
+
+  @Test
+  public void testDouble() {
+    for (final String pattern : patterns)
+      for (final double value : values)
+        assertFormat(pattern, value);
+  }
+
+  @Test
+  public void testLong() {
+    for (final String pattern : patterns)
+      for (final long value : new long[] {0, 1, -1, 999, 1000, -1234567, Long.MAX_VALUE, Long.MIN_VALUE})
+        assertFormat(pattern, value);
+  }
+
+  @Test
+  public void testRandom() {
+    final Random random = new Random(1);
+    for (final String pattern : patterns) {
+      for (int i = 0; i < 1000; ++i) {
+        final double value = (random.nextDouble() - 0.5) * Math.pow(10, random.nextInt(12) - 4);
+        assertFormat(pattern, value);
+        assertFormat(pattern, Math.round(value * 1000) / 1000d);
+      }
+    }
+  }
+
+  @Test
+  public void testMultiplier() {
+    final String[] patterns = {"0%", "#.#%", "0.00%", "#,##0.###%", "0‰", "0.0‰", "#,##0.##‰"};
+    final double[] values = {0.0115, 0.285, 0.575, 1.005, 0.00125, 0.0245, 0.145, 1.1, 1e305, -1e306, Double.MAX_VALUE, Double.MIN_VALUE};
+    for (final String pattern : patterns)
+      for (final double value : values)
+        assertFormat(pattern, value);
+
+    final Random random = new Random(1);
+    for (final String pattern : patterns) {
+      for (int i = 0; i < 1000; ++i) {
+        final double value = (random.nextDouble() - 0.5) * Math.pow(10, random.nextInt(8) - 4);
+        assertFormat(pattern, value);
+        assertFormat(pattern, Math.round(value * 100000) / 100000d);
+      }
+    }
+  }
+
+  @Test
+  public void testUnsupported() {
+    for (final String pattern : new String[] {"0.00E0", "#;(#)", "¤#,##0.00", "'abc"}) {
+      try {
+        new CompiledDecimalFormat(pattern);
+        fail("Expected IllegalArgumentException: " + pattern);
+      }
+      catch (final IllegalArgumentException e) {
+      }
+    }
+  }
+}
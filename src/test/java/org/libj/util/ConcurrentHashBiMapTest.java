@@ -0,0 +1,170 @@
+/* Copyright (c) 2012 LibJ
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * You should have received a copy of The MIT License (MIT) along with this
+ * program. If not, see <http://opensource.org/licenses/MIT/>.
+ */
+
+package org.libj.util;
+
+import static org.junit.Assert.*;
+
+import java.util.AbstractMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Test;
+
+public class ConcurrentHashBiMapTest {
+  private static void assertConsistent(final ConcurrentHashBiMap<Integer,String> map) {
+    assertEquals(map.size(), map.reverse().size());
+    for (final Map.Entry<Integer,String> entry : map.entrySet())
+      assertEquals(entry.getKey(), map.reverse().get(entry.getValue()));
+
+    for (final Map.Entry<String,Integer> entry : map.reverse().entrySet())
+      assertEquals(entry.getKey(), map.get(entry.getValue()));
+  }
+
+  @Test
+  public void test() {
+    final ConcurrentHashBiMap<Integer,String> map = new ConcurrentHashBiMap<>();
+    assertNull(map.put(1, "a"));
+    assertNull(map.put(2, "b"));
+    assertEquals(Integer.valueOf(1), map.reverse().get("a"));
+    assertTrue(map.containsValue("b"));
+
+    // Replacing the value of a key removes the old value from the reverse map
+    assertEquals("a", map.put(1, "c"));
+    assertFalse(map.reverse().containsKey("a"));
+
+    // Mapping a value to another key removes its old key
+    assertNull(map.put(3, "b"));
+    assertFalse(map.containsKey(2));
+    assertEquals(Integer.valueOf(3), map.reverse().get("b"));
+
+    assertEquals("c", map.putIfAbsent(1, "d"));
+    assertNull(map.replace(4, "d"));
+    assertFalse(map.containsKey(4));
+    assertFalse(map.replace(1, "x", "d"));
+    assertTrue(map.replace(1, "c", "d"));
+    assertFalse(map.containsValue("c"));
+    assertFalse(map.remove(1, "c"));
+    assertTrue(map.remove(1, "d"));
+    assertFalse(map.reverse().containsKey("d"));
+
+    assertEquals(Integer.valueOf(3), map.reverse().remove("b"));
+    assertTrue(map.isEmpty());
+    assertConsistent(map);
+
+    try {
+      map.put(null, "a");
+      fail("Expected NullPointerException");
+    }
+    catch (final NullPointerException e) {
+    }
+
+    try {
+      map.put(1, null);
+      fail("Expected NullPointerException");
+    }
+    catch (final NullPointerException e) {
+    }
+  }
+
+  @Test
+  public void testViews() {
+    final ConcurrentHashBiMap<Integer,String> map = new ConcurrentHashBiMap<>();
+    for (int i = 0; i < 10; ++i)
+      map.put(i, String.valueOf(i));
+
+    assertTrue(map.keySet().remove(0));
+    assertFalse(map.reverse().containsKey("0"));
+    assertTrue(map.values().remove("1"));
+    assertFalse(map.containsKey(1));
+    assertTrue(map.entrySet().contains(new AbstractMap.SimpleEntry<>(2, "2")));
+    assertTrue(map.entrySet().remove(new AbstractMap.SimpleEntry<>(2, "2")));
+    assertFalse(map.reverse().containsKey("2"));
+
+    for (final Iterator<Map.Entry<Integer,String>> iterator = map.entrySet().iterator(); iterator.hasNext();) {
+      final Map.Entry<Integer,String> entry = iterator.next();
+      if (entry.getKey() == 3)
+        iterator.remove();
+      else if (entry.getKey() == 4)
+        assertEquals("4", entry.setValue("x"));
+    }
+
+    assertFalse(map.reverse().containsKey("3"));
+    assertEquals(Integer.valueOf(4), map.reverse().get("x"));
+    assertFalse(map.reverse().containsKey("4"));
+    assertEquals(6, map.size());
+    assertConsistent(map);
+
+    map.values().clear();
+    assertTrue(map.reverse().isEmpty());
+  }
+
+  @Test
+  public void testConcurrent() throws Exception {
+    final ConcurrentHashBiMap<Integer,String> map = new ConcurrentHashBiMap<>();
+    final int threads = 8;
+    final ExecutorService executor = Executors.newFixedThreadPool(threads);
+    final CountDownLatch latch = new CountDownLatch(1);
+    final Future<?>[] futures = new Future<?>[threads];
+    for (int t = 0; t < threads; ++t) {
+      futures[t] = executor.submit(() -> {
+        latch.await();
+        final ThreadLocalRandom random = ThreadLocalRandom.current();
+        for (int i = 0; i < 100000; ++i) {
+          // A small domain of keys and values, to force contention between the two directions
+          final Integer key = random.nextInt(64);
+          final String value = String.valueOf(random.nextInt(64));
+          switch (random.nextInt(6)) {
+            case 0:
+              map.remove(key);
+              break;
+            case 1:
+              map.reverse().remove(value);
+              break;
+            case 2:
+              map.putIfAbsent(key, value);
+              break;
+            case 3:
+              map.reverse().put(value, key);
+              break;
+            default:
+              map.put(key, value);
+          }
+
+          // Lock-free reads in both directions
+          map.get(key);
+          map.reverse().get(value);
+        }
+
+        return null;
+      });
+    }
+
+    latch.countDown();
+    for (final Future<?> future : futures)
+      future.get();
+
+    executor.shutdown();
+    assertTrue(executor.awaitTermination(10, TimeUnit.SECONDS));
+    assertConsistent(map);
+  }
+}
@@ -16,7 +16,12 @@
 
 package org.libj.util;
 
+import static org.junit.Assert.*;
+
+import java.util.ArrayList;
 import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.atomic.LongAdder;
 
 import org.junit.Test;
 import org.libj.lang.Strings;
@@ -48,4 +53,35 @@ public class ConcurrentHashSetTest {
       }).start();
     }
   }
-}
\ No newline at end of file
+
+  @Test
+  public void testBulk() {
+    final List<Integer> values = new ArrayList<>();
+    for (int i = 0; i < 100000; ++i)
+      values.add(i);
+
+    final ConcurrentHashSet<Integer> set = new ConcurrentHashSet<>();
+    assertTrue(set.addAll(1, values));
+    assertFalse(set.addAll(1, values));
+    assertEquals(values.size(), set.size());
+    assertTrue(set.add(null));
+    assertTrue(set.contains(null));
+
+    final LongAdder count = new LongAdder();
+    set.forEach(1, e -> count.increment());
+    assertEquals(values.size() + 1, count.sum());
+
+    assertEquals(Integer.valueOf(99999), set.search(1, e -> e != null && e == 99999 ? e : null));
+    assertNull(set.search(1, e -> e != null && e < 0 ? e : null));
+    assertEquals(Long.valueOf(99999L * 100000 / 2), set.reduce(1, e -> e == null ? null : Long.valueOf(e), Long::sum));
+
+    assertTrue(set.removeIf(1, e -> e == null || e % 2 == 0));
+    assertFalse(set.removeIf(1, e -> e == null || e % 2 == 0));
+    assertEquals(values.size() / 2, set.size());
+    assertFalse(set.contains(null));
+
+    final ConcurrentHashSet<Integer> clone = set.clone();
+    clone.clear();
+    assertEquals(values.size() / 2, set.size());
+  }
+}
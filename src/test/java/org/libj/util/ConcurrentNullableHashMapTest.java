@@ -0,0 +1,217 @@
+/* Copyright (c) 2012 LibJ
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * You should have received a copy of The MIT License (MIT) along with this
+ * program. If not, see <http://opensource.org/licenses/MIT/>.
+ */
+
+package org.libj.util;
+
+import static org.junit.Assert.*;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.util.AbstractMap;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Spliterator;
+import java.util.stream.Collectors;
+
+import org.junit.Test;
+
+public class ConcurrentNullableHashMapTest {
+  private static final String str = "value";
+
+  private static ConcurrentNullableHashMap<String,String> newMap() {
+    final ConcurrentNullableHashMap<String,String> map = new ConcurrentNullableHashMap<>();
+    map.put(str, str);
+    map.put(null, null);
+    map.put("a", null);
+    map.put(null + "", "b");
+    return map;
+  }
+
+  @Test
+  public void testGetPut() {
+    final ConcurrentNullableHashMap<String,String> map = newMap();
+    assertEquals(4, map.size());
+    assertTrue(map.containsKey(null));
+    assertTrue(map.containsValue(null));
+    assertNull(map.get(null));
+    assertNull(map.get("a"));
+    assertEquals("x", map.getOrDefault("missing", "x"));
+    assertNull(map.getOrDefault("a", "x"));
+    assertNull(map.put(null, str));
+    assertEquals(str, map.get(null));
+    assertEquals(str, map.remove(null));
+    assertFalse(map.containsKey(null));
+    assertNull(map.putIfAbsent(null, null));
+    assertTrue(map.containsKey(null));
+    assertTrue(map.remove(null, null));
+    assertTrue(map.replace("a", null, str));
+    assertEquals(str, map.replace("a", null));
+  }
+
+  @Test
+  public void testPutAll() {
+    final HashMap<String,String> source = new HashMap<>();
+    for (int i = 0; i < 10000; ++i)
+      source.put(String.valueOf(i), i % 2 == 0 ? null : String.valueOf(i));
+
+    source.put(null, null);
+    final ConcurrentNullableHashMap<String,String> map = new ConcurrentNullableHashMap<>();
+    map.putAll(source);
+    assertEquals(source, map);
+    assertEquals(map, source);
+    assertEquals(source.hashCode(), map.hashCode());
+    assertEquals(source, new ConcurrentNullableHashMap<>(source));
+  }
+
+  @Test
+  public void testViews() {
+    final ConcurrentNullableHashMap<String,String> map = newMap();
+    assertTrue(map.keySet().contains(null));
+    assertTrue(map.values().contains(null));
+    assertTrue(map.entrySet().contains(new AbstractMap.SimpleEntry<>(null, null)));
+    assertFalse(map.entrySet().contains(new AbstractMap.SimpleEntry<>(null, str)));
+
+    int nulls = 0;
+    for (final String key : map.keySet())
+      if (key == null)
+        ++nulls;
+
+    assertEquals(1, nulls);
+
+    nulls = 0;
+    for (final String value : map.values())
+      if (value == null)
+        ++nulls;
+
+    assertEquals(2, nulls);
+
+    for (final Map.Entry<String,String> entry : map.entrySet())
+      if (entry.getKey() == null)
+        entry.setValue(str);
+
+    assertEquals(str, map.get(null));
+
+    for (final Iterator<String> iterator = map.keySet().iterator(); iterator.hasNext();)
+      if (iterator.next() == null)
+        iterator.remove();
+
+    assertFalse(map.containsKey(null));
+    assertTrue(map.entrySet().remove(new AbstractMap.SimpleEntry<>("a", null)));
+    assertFalse(map.containsKey("a"));
+    assertTrue(map.keySet().remove(str));
+    assertEquals(1, map.size());
+  }
+
+  @Test
+  public void testSpliterators() {
+    final ConcurrentNullableHashMap<String,String> map = newMap();
+    final Spliterator<String> keys = map.keySet().spliterator();
+    assertTrue(keys.hasCharacteristics(Spliterator.CONCURRENT));
+    assertTrue(keys.hasCharacteristics(Spliterator.DISTINCT));
+    assertFalse(keys.hasCharacteristics(Spliterator.SIZED));
+    assertFalse(keys.hasCharacteristics(Spliterator.NONNULL));
+    assertTrue(map.values().spliterator().hasCharacteristics(Spliterator.CONCURRENT));
+    assertFalse(map.values().spliterator().hasCharacteristics(Spliterator.NONNULL));
+    assertTrue(map.entrySet().spliterator().hasCharacteristics(Spliterator.CONCURRENT));
+
+    assertEquals(new HashSet<>(Arrays.asList(str, null, "a", "null")), map.keySet().stream().collect(Collectors.toSet()));
+    assertEquals(2, map.values().parallelStream().filter(Objects::isNull).count());
+    final HashMap<String,String> entries = new HashMap<>();
+    map.entrySet().stream().forEach(e -> entries.put(e.getKey(), e.getValue()));
+    assertEquals(map, entries);
+
+    final ConcurrentHashSet<String> set = new ConcurrentHashSet<>();
+    set.add(null);
+    set.add(str);
+    assertTrue(set.spliterator().hasCharacteristics(Spliterator.CONCURRENT));
+    assertEquals(new HashSet<>(Arrays.asList(str, null)), set.stream().collect(Collectors.toSet()));
+  }
+
+  @Test
+  public void testCompute() {
+    final ConcurrentNullableHashMap<String,String> map = newMap();
+    assertEquals("null!", map.compute(null, (k, v) -> v + "!"));
+    assertNull(map.compute(null, (k, v) -> null));
+    assertFalse(map.containsKey(null));
+
+    assertEquals(str, map.computeIfAbsent("a", k -> str));
+    assertEquals(str, map.computeIfAbsent("a", k -> "other"));
+    map.put("a", null);
+    assertNull(map.computeIfAbsent("a", k -> null));
+    assertTrue(map.containsKey("a"));
+    assertNull(map.computeIfAbsent("c", k -> null));
+    assertFalse(map.containsKey("c"));
+
+    assertNull(map.computeIfPresent("a", (k, v) -> "x"));
+    assertNull(map.get("a"));
+    assertEquals(str + "!", map.computeIfPresent(str, (k, v) -> v + "!"));
+    assertNull(map.computeIfPresent(str, (k, v) -> null));
+    assertFalse(map.containsKey(str));
+  }
+
+  @Test
+  public void testMerge() {
+    final ConcurrentNullableHashMap<String,String> map = newMap();
+    assertEquals("x", map.merge("a", "x", (a, b) -> a + b));
+    assertEquals("xy", map.merge("a", "y", (a, b) -> a + b));
+    assertEquals("x", map.merge(null, "x", (a, b) -> a + b));
+    assertNull(map.merge(null, "x", (a, b) -> null));
+    assertFalse(map.containsKey(null));
+    try {
+      map.merge("a", null, (a, b) -> a);
+      fail("Expected NullPointerException");
+    }
+    catch (final NullPointerException e) {
+    }
+  }
+
+  @Test
+  public void testForEach() {
+    final ConcurrentNullableHashMap<String,String> map = newMap();
+    final HashMap<String,String> copy = new HashMap<>();
+    map.forEach(copy::put);
+    assertEquals(map, copy);
+
+    map.replaceAll((k, v) -> k == null ? str : v);
+    assertEquals(str, map.get(null));
+  }
+
+  @Test
+  @SuppressWarnings("unchecked")
+  public void testCloneAndSerialize() throws ClassNotFoundException, IOException {
+    final ConcurrentNullableHashMap<String,String> map = newMap();
+    final ConcurrentNullableHashMap<String,String> clone = map.clone();
+    assertEquals(map, clone);
+    clone.remove(null);
+    assertTrue(map.containsKey(null));
+
+    final ByteArrayOutputStream out = new ByteArrayOutputStream();
+    try (final ObjectOutputStream oos = new ObjectOutputStream(out)) {
+      oos.writeObject(map);
+    }
+
+    try (final ObjectInputStream ois = new ObjectInputStream(new ByteArrayInputStream(out.toByteArray()))) {
+      assertEquals(map, ois.readObject());
+    }
+  }
+}
@@ -19,7 +19,12 @@ package org.libj.util;
 import static org.junit.Assert.*;
 import static org.libj.lang.Strings.Align.*;
 
+import java.nio.charset.StandardCharsets;
 import java.text.ParseException;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.text.SimpleDateFormat;
 import java.util.TimeZone;
 
 import org.junit.After;
@@ -82,6 +87,7 @@ public class DatesTest {
   @Test
   public void testIso8601ToEpochMilli() throws ParseException {
     TimeZone.setDefault(Dates.UTC_TIME_ZONE);
+    Dates.refreshDefaultTimeZone();
     long time = Dates.iso8601ToEpochMilli("2020-05-24T09:20:55.5Z");
     testTime(time, "2020-05-24T09:20:55.5");
     testTime(time, "2020-05-24T09:20:55.50");
@@ -101,4 +107,150 @@ public class DatesTest {
       testTime(time, iso8601);
     }
   }
-}
\ No newline at end of file
+
+  @Test
+  public void testIso8601ToEpochNano() throws ParseException {
+    TimeZone.setDefault(Dates.UTC_TIME_ZONE);
+    assertEquals(Instant.parse("2020-05-24T09:20:55.500210123Z").getNano(), Dates.iso8601ToEpochNano("2020-05-24T09:20:55.500210123Z") % 1000000000L);
+    for (int i = 0; i < 1000; ++i) {
+      final Instant instant = Instant.ofEpochSecond((long)((Math.random() - .5) * 10000000000L), (long)(Math.random() * 1000000000));
+      final String iso8601 = instant.toString();
+      assertEquals(iso8601, instant.getEpochSecond() * 1000000000L + instant.getNano(), Dates.iso8601ToEpochNano(iso8601));
+      assertEquals(iso8601, instant.toEpochMilli(), Dates.iso8601ToEpochMilli(iso8601));
+    }
+  }
+
+  @Test
+  public void testIso8601Ranges() throws ParseException {
+    final String iso8601 = "2020-05-24T09:20:55.123456789+02:30";
+    final long expected = Instant.parse("2020-05-24T06:50:55.123456789Z").toEpochMilli();
+    final String padded = "[" + iso8601 + "]";
+    assertEquals(expected, Dates.iso8601ToEpochMilli(padded, 1, padded.length() - 1));
+    assertEquals(expected, Dates.iso8601ToEpochMilli(padded.toCharArray(), 1, padded.length() - 1));
+    assertEquals(expected, Dates.iso8601ToEpochMilli(padded.getBytes(StandardCharsets.US_ASCII), 1, padded.length() - 1));
+    assertEquals(expected * 1000000 + 456789, Dates.iso8601ToEpochNano(padded.getBytes(StandardCharsets.US_ASCII), 1, padded.length() - 1));
+  }
+
+  @Test
+  public void testIso8601DefaultTimeZone() throws ParseException {
+    for (final String id : new String[] {"America/New_York", "Asia/Kolkata", "Australia/Lord_Howe"}) {
+      TimeZone.setDefault(TimeZone.getTimeZone(id));
+      for (final String localDateTime : new String[] {"2020-01-15T12:00:00", "2020-07-15T12:00:00.250", "1969-12-31T23:59:59"})
+        assertEquals(id + " " + localDateTime, LocalDateTime.parse(localDateTime).atZone(ZoneId.of(id)).toInstant().toEpochMilli(), Dates.iso8601ToEpochMilli(localDateTime));
+    }
+  }
+
+  @Test
+  public void testIso8601Malformed() {
+    for (final String iso8601 : new String[] {"2020-13-24T09:20:55Z", "2020-05-24T09:20", "2020-05-24T09:20:55.Z", "2020-05-24T09:20:55X", "2020-05-24T09:20:55+0A"}) {
+      try {
+        Dates.iso8601ToEpochMilli(iso8601);
+        fail("Expected ParseException: " + iso8601);
+      }
+      catch (final ParseException e) {
+      }
+    }
+  }
+
+  @Test
+  public void testEpochMilliToIso8601() {
+    for (final String id : new String[] {"UTC", "America/New_York", "Asia/Kolkata"}) {
+      TimeZone.setDefault(TimeZone.getTimeZone(id));
+      Dates.refreshDefaultTimeZone();
+      final SimpleDateFormat format = new SimpleDateFormat("yyyy-MM-dd'T'HH:mm:ss.SSS");
+      for (int i = 0; i < 1000; ++i) {
+        // SimpleDateFormat uses the Julian calendar before 1582, whereas ISO-8601 is proleptic Gregorian
+        final long time = (long)((Math.random() - .5) * 20000000000000L);
+        assertEquals(format.format(time), Dates.epochMilliToIso8601(time));
+      }
+    }
+  }
+
+  @Test
+  public void testIso8601Formatter() {
+    final Iso8601Formatter utc = new Iso8601Formatter(Dates.UTC_TIME_ZONE, 9, true);
+    final Iso8601Formatter kolkata = new Iso8601Formatter(TimeZone.getTimeZone("Asia/Kolkata"), 0, true);
+    final char[] chars = new char[64];
+    final byte[] bytes = new byte[64];
+    for (int i = 0; i < 1000; ++i) {
+      final Instant instant = Instant.ofEpochSecond((long)((Math.random() - .5) * 10000000000L), (long)(Math.random() * 1000000000));
+      final long epochNano = instant.getEpochSecond() * 1000000000L + instant.getNano();
+      final String expected = String.format("%s.%09dZ", instant.toString().substring(0, 19), instant.getNano());
+      assertEquals(expected, utc.formatNano(epochNano, new StringBuilder()).toString());
+      assertEquals(expected, new String(chars, 0, utc.formatNano(epochNano, chars, 0)));
+      assertEquals(expected, new String(bytes, 0, utc.formatNano(epochNano, bytes, 0), StandardCharsets.US_ASCII));
+
+      final Instant recent = Instant.ofEpochSecond(Math.abs(instant.getEpochSecond()));
+      final String local = recent.atZone(ZoneId.of("Asia/Kolkata")).toOffsetDateTime().toString();
+      assertEquals(local.length() == 22 ? local.substring(0, 16) + ":00" + local.substring(16) : local, kolkata.format(recent.toEpochMilli()));
+    }
+
+    assertEquals("prefix 1970-01-01T00:00:00.000Z", new Iso8601Formatter(Dates.UTC_TIME_ZONE, 3, true).format(0, new StringBuilder("prefix ")).toString());
+  }
+
+  @Test
+  public void testIso8601FormatterDefaultTimeZone() {
+    TimeZone.setDefault(Dates.UTC_TIME_ZONE);
+    final Iso8601Formatter formatter = new Iso8601Formatter(null, 0, true);
+    final Iso8601Formatter utc = new Iso8601Formatter(Dates.UTC_TIME_ZONE, 0, true);
+    assertEquals("1970-01-01T00:00:00Z", formatter.format(0));
+
+    // The default time zone is resolved once, until refreshed
+    TimeZone.setDefault(TimeZone.getTimeZone("Asia/Kolkata"));
+    assertEquals("1970-01-01T00:00:00Z", formatter.format(0));
+    formatter.refreshTimeZone();
+    assertEquals("1970-01-01T05:30:00+05:30", formatter.format(0));
+
+    // A formatter bound to a specific time zone is not affected
+    utc.refreshTimeZone();
+    assertEquals("1970-01-01T00:00:00Z", utc.format(0));
+  }
+
+  @Test
+  public void testBatch() {
+    final long[] times = {Long.MIN_VALUE / 2, -86400001L, -1, 0, 1, 59999, 60000, 3599999, 1590312055123L, Long.MAX_VALUE / 2};
+    final long[] expected = new long[times.length];
+
+    long[] actual = times.clone();
+    Dates.dropTimePart(actual, 0, actual.length);
+    for (int i = 0; i < times.length; ++i)
+      expected[i] = Dates.dropTimePart(times[i]);
+
+    assertArrayEquals(expected, actual);
+
+    actual = times.clone();
+    Dates.dropSeconds(actual, 1, actual.length - 1);
+    for (int i = 0; i < times.length; ++i)
+      expected[i] = i == 0 || i == times.length - 1 ? times[i] : Dates.dropSeconds(times[i]);
+
+    assertArrayEquals(expected, actual);
+
+    actual = times.clone();
+    Dates.dropMilliseconds(actual, 0, actual.length);
+    for (int i = 0; i < times.length; ++i)
+      expected[i] = Dates.dropMilliseconds(times[i]);
+
+    assertArrayEquals(expected, actual);
+
+    actual = times.clone();
+    Dates.align(actual, 0, actual.length, Dates.MILLISECONDS_IN_HOUR);
+    for (int i = 0; i < times.length; ++i)
+      expected[i] = Math.floorDiv(times[i], Dates.MILLISECONDS_IN_HOUR) * Dates.MILLISECONDS_IN_HOUR;
+
+    assertArrayEquals(expected, actual);
+
+    actual = times.clone();
+    Dates.bucket(actual, 0, actual.length, 1000, Dates.MILLISECONDS_IN_MINUTE);
+    for (int i = 0; i < times.length; ++i)
+      expected[i] = Math.floorDiv(times[i] - 1000, Dates.MILLISECONDS_IN_MINUTE);
+
+    assertArrayEquals(expected, actual);
+
+    try {
+      Dates.align(actual, 0, actual.length, 0);
+      fail("Expected IllegalArgumentException");
+    }
+    catch (final IllegalArgumentException e) {
+    }
+  }
+}
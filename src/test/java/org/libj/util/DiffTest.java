@@ -18,6 +18,12 @@ package org.libj.util;
 
 import static org.junit.Assert.*;
 
+import java.io.IOException;
+import java.io.StringWriter;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.util.Arrays;
+
 import org.junit.Test;
 import org.libj.util.Diff.Mod;
 import org.slf4j.Logger;
@@ -26,19 +32,36 @@ import org.slf4j.LoggerFactory;
 public class DiffTest {
   private static final Logger logger = LoggerFactory.getLogger(DiffTest.class);
 
-  private static void assertDiff(final String source, final String target) {
+  private static void assertDiff(final String source, final String target) throws IOException {
     final Diff diff = new Diff(target, source);
     final String patched = diff.patch(target);
     assertEquals(source, patched);
 
+    assertEquals(source, diff.patch(target, new StringWriter()).toString());
+    final CharBuffer buffer = diff.patch(target, CharBuffer.allocate(source.length()));
+    buffer.flip();
+    assertEquals(source, buffer.toString());
+
     final byte[] encoded = diff.toBytes();
     final Diff decodedDiff = Diff.decode(encoded);
     final String decodedPatched = decodedDiff.patch(target);
     assertEquals(source, decodedPatched);
+
+    assertAlignedDiff(source, target, diff);
+  }
+
+  private static void assertAlignedDiff(final String source, final String target, final Diff diff) throws IOException {
+    final byte[] aligned = diff.toAlignedBytes();
+    assertEquals(source, Diff.decodeAligned(aligned).patch(target));
+    assertEquals(source, Diff.patchAligned(ByteBuffer.wrap(aligned), target, new StringBuilder()).toString());
+
+    final ByteBuffer direct = ByteBuffer.allocateDirect(aligned.length);
+    direct.put(aligned).flip();
+    assertEquals(source, Diff.patchAligned(direct, target, new StringBuilder()).toString());
   }
 
   @Test
-  public void test0() {
+  public void test0() throws IOException {
     assertDiff("http://www.w3.org/2001/XMLSchema", "org.w3._2001.xmlschema");
     assertDiff("http://java.sun.com/xml/ns/j2ee", "com.sun.java.xml.ns.j2ee");
     assertDiff("http://openuri.org/nameworld", "org.openuri.nameworld");
@@ -87,6 +110,55 @@ public class DiffTest {
     assertDiff("http://www.safris.com/schema/testtwo", "com.safris.schema.testtwo");
   }
 
+  @Test
+  public void testAlignedMultiByte() throws IOException {
+    final String source = "h\u00e9llo w\u00f6rld \ud83d\ude00 \u4e2d\u6587";
+    final String target = "hello world :) \u6587";
+    assertAlignedDiff(source, target, new Diff(target, source));
+  }
+
+  private static void assertMalformed(final byte[] aligned, final String target) throws IOException {
+    try {
+      Diff.decodeAligned(aligned).patch(target);
+      fail("Expected IllegalArgumentException");
+    }
+    catch (final IllegalArgumentException e) {
+    }
+
+    try {
+      Diff.patchAligned(ByteBuffer.wrap(aligned), target, new StringBuilder());
+      fail("Expected IllegalArgumentException");
+    }
+    catch (final IllegalArgumentException e) {
+    }
+  }
+
+  @Test
+  public void testAlignedTruncated() throws IOException {
+    final String target = "hello world";
+    // Equal of 5 chars, followed by an insert of 7 bytes of text
+    final byte[] aligned = {5 << 2 | 0b11, 7 << 2, ',', ' ', 't', 'h', 'e', 'r', 'e'};
+    assertEquals("hello, there world", Diff.decodeAligned(aligned).patch(target));
+    assertEquals("hello, there world", Diff.patchAligned(ByteBuffer.wrap(aligned), target, new StringBuilder()).toString());
+
+    // A truncation at the boundary between modifications is a valid (shorter) diff, but a truncation of the text is not
+    assertEquals(target, Diff.patchAligned(ByteBuffer.wrap(aligned, 0, 1), target, new StringBuilder()).toString());
+    for (int i = 2; i < aligned.length; ++i)
+      assertMalformed(Arrays.copyOf(aligned, i), target);
+
+    // Varint with a continuation bit and no next byte
+    assertMalformed(new byte[] {(byte)0x80}, target);
+    // Length beyond Integer.MAX_VALUE
+    assertMalformed(new byte[] {(byte)0xFF, (byte)0xFF, (byte)0xFF, (byte)0xFF, (byte)0xFF, 0x01}, target);
+    // Equal of 16 chars, which is beyond the length of the target
+    try {
+      Diff.patchAligned(ByteBuffer.wrap(new byte[] {16 << 2 | 0b11}), target, new StringBuilder());
+      fail("Expected IllegalArgumentException");
+    }
+    catch (final IllegalArgumentException e) {
+    }
+  }
+
   @Test
   public void test1() {
     final String source = "org.safris.xml.schema.binding.test.unit.complextypes";
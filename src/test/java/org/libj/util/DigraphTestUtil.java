@@ -113,7 +113,6 @@ final class DigraphTestUtil {
   static <T>void assertCloneData(final AbstractDigraph<?,?> expected, final AbstractDigraph<?,?> actual) {
     assertEqualClone(expected, actual);
     assertEqualClone(expected.objectToIndex, actual.objectToIndex);
-    assertEqualClone(expected.indexToObject, actual.indexToObject);
     assertEqualClone(expected.adjRemoved, actual.adjRemoved);
     assertEqualClone(expected.adj, actual.adj);
     assertEqualClone(expected.inDegree, actual.inDegree);
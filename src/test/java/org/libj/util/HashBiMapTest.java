@@ -18,12 +18,19 @@ package org.libj.util;
 
 import static org.junit.Assert.*;
 
+import java.util.AbstractMap;
+import java.util.HashMap;
 import java.util.Iterator;
 import java.util.Map;
+import java.util.Set;
 
 import org.junit.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
 public class HashBiMapTest {
+  private static final Logger logger = LoggerFactory.getLogger(HashBiMapTest.class);
+
   @SuppressWarnings("unlikely-arg-type")
   public static void test(final HashBiMap<Integer,String> map, final int offset, final boolean testClone) {
     for (int i = offset; i < 100 + offset; i++) {
@@ -79,4 +86,98 @@ public class HashBiMapTest {
   public void test() {
     test(new HashBiMap<>(), 0, true);
   }
-}
\ No newline at end of file
+
+  @Test
+  @SuppressWarnings("unlikely-arg-type")
+  public void testViews() {
+    final HashBiMap<Integer,String> map = new HashBiMap<>();
+    for (int i = 0; i < 10; ++i)
+      map.put(i, String.valueOf(i));
+
+    assertTrue(map.keySet().remove(1));
+    assertFalse(map.keySet().remove(1));
+    assertFalse(map.reverse().containsKey("1"));
+
+    assertTrue(map.values().contains("2"));
+    assertTrue(map.values().remove("2"));
+    assertFalse(map.containsKey(2));
+
+    assertTrue(map.entrySet().contains(new AbstractMap.SimpleEntry<>(3, "3")));
+    assertFalse(map.entrySet().contains(new AbstractMap.SimpleEntry<>(3, "4")));
+    assertTrue(map.entrySet().remove(new AbstractMap.SimpleEntry<>(3, "3")));
+    assertFalse(map.reverse().containsKey("3"));
+
+    for (final Map.Entry<Integer,String> entry : map.entrySet())
+      if (entry.getKey() == 4)
+        assertEquals("4", entry.setValue("x"));
+
+    assertEquals(Integer.valueOf(4), map.reverse().get("x"));
+    assertFalse(map.reverse().containsKey("4"));
+
+    for (final Iterator<Integer> iterator = map.reverse().values().iterator(); iterator.hasNext();)
+      if (iterator.next() == 5)
+        iterator.remove();
+
+    assertFalse(map.containsKey(5));
+    assertEquals(6, map.size());
+    assertEquals(6, map.reverse().size());
+
+    final HashBiMap<Integer,String> clone = map.clone();
+    clone.keySet().remove(6);
+    assertTrue(map.containsKey(6));
+    assertTrue(map.reverse().containsKey("6"));
+    assertFalse(clone.reverse().containsKey("6"));
+
+    map.keySet().clear();
+    assertTrue(map.isEmpty());
+    assertTrue(map.reverse().isEmpty());
+  }
+
+  private static long iterate(final Set<Integer> keys, final Iterable<Map.Entry<Integer,String>> entries) {
+    long sum = 0;
+    for (final Integer key : keys)
+      sum += key;
+
+    for (final Map.Entry<Integer,String> entry : entries)
+      sum += entry.getKey();
+
+    return sum;
+  }
+
+  @Test
+  public void testIterationTime() {
+    final int size = 500000;
+    final HashMap<Integer,String> hashMap = new HashMap<>(size);
+    final HashBiMap<Integer,String> biMap = new HashBiMap<>(size);
+    for (int i = 0; i < size; ++i) {
+      final String value = String.valueOf(i);
+      hashMap.put(i, value);
+      biMap.put(i, value);
+    }
+
+    // The chain of observable views that backed BiMap.keySet() and BiMap.entrySet() before the introduction of BiMap.KeySetView and BiMap.EntrySetView
+    final ObservableMap<Integer,String> observableMap = new ObservableMap<Integer,String>(hashMap) {};
+    final Set<Integer> observableKeys = new ObservableSet<Integer>(observableMap.keySet()) {};
+    final Set<Map.Entry<Integer,String>> observableEntries = new ObservableSet<Map.Entry<Integer,String>>(observableMap.entrySet()) {};
+
+    final long expected = 2L * size * (size - 1) / 2;
+    long hashMapTime = Long.MAX_VALUE;
+    long biMapTime = Long.MAX_VALUE;
+    long observableTime = Long.MAX_VALUE;
+    for (int i = 0; i < 5; ++i) {
+      long ts = System.nanoTime();
+      assertEquals(expected, iterate(hashMap.keySet(), hashMap.entrySet()));
+      hashMapTime = Math.min(hashMapTime, System.nanoTime() - ts);
+
+      ts = System.nanoTime();
+      assertEquals(expected, iterate(biMap.keySet(), biMap.entrySet()));
+      biMapTime = Math.min(biMapTime, System.nanoTime() - ts);
+
+      ts = System.nanoTime();
+      assertEquals(expected, iterate(observableKeys, observableEntries));
+      observableTime = Math.min(observableTime, System.nanoTime() - ts);
+    }
+
+    logger.info("Iteration of " + size + " keys and entries: HashMap " + hashMapTime / 1000000 + "ms, HashBiMap " + biMapTime / 1000000 + "ms, observable views " + observableTime / 1000000 + "ms");
+  }
+}
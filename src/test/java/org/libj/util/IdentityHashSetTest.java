@@ -18,7 +18,18 @@ package org.libj.util;
 
 import static org.junit.Assert.*;
 
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.util.Collections;
+import java.util.ConcurrentModificationException;
 import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.Random;
+import java.util.Set;
 
 import org.junit.Test;
 
@@ -40,4 +51,92 @@ public class IdentityHashSetTest {
     assertFalse(cloneIdentitySet.contains(new String("a")));
     assertTrue(cloneIdentitySet.contains(a));
   }
-}
\ No newline at end of file
+
+  @Test
+  public void testRandom() {
+    final Random random = new Random(0);
+    // Equal, but not identical, values
+    final String[] values = new String[2000];
+    for (int i = 0; i < values.length; ++i)
+      values[i] = String.valueOf(i % 100);
+
+    final Set<String> expected = Collections.newSetFromMap(new IdentityHashMap<>());
+    final IdentityHashSet<String> actual = new IdentityHashSet<>();
+    for (int i = 0; i < 100000; ++i) {
+      final String value = random.nextInt(20) == 0 ? null : values[random.nextInt(values.length)];
+      switch (random.nextInt(3)) {
+        case 0:
+          assertEquals(expected.add(value), actual.add(value));
+          break;
+        case 1:
+          assertEquals(expected.remove(value), actual.remove(value));
+          break;
+        default:
+          assertEquals(expected.contains(value), actual.contains(value));
+      }
+
+      assertEquals(expected.size(), actual.size());
+    }
+
+    final Set<String> iterated = Collections.newSetFromMap(new IdentityHashMap<>());
+    for (final String value : actual)
+      assertTrue(iterated.add(value));
+
+    assertEquals(expected, iterated);
+  }
+
+  @Test
+  public void testIteratorRemove() {
+    final Object[] values = new Object[1000];
+    for (int i = 0; i < values.length; ++i)
+      values[i] = new Object();
+
+    final IdentityHashSet<Object> set = new IdentityHashSet<>();
+    Collections.addAll(set, values);
+    set.add(null);
+
+    int count = 0;
+    for (final Iterator<Object> iterator = set.iterator(); iterator.hasNext(); ++count) {
+      final Object value = iterator.next();
+      if (value == null || count % 3 != 0)
+        iterator.remove();
+    }
+
+    assertEquals(values.length + 1, count);
+    assertFalse(set.contains(null));
+    for (final Object value : values)
+      set.remove(value);
+
+    assertTrue(set.isEmpty());
+
+    set.add(values[0]);
+    final Iterator<Object> iterator = set.iterator();
+    set.add(values[1]);
+    try {
+      iterator.next();
+      fail("Expected ConcurrentModificationException");
+    }
+    catch (final ConcurrentModificationException e) {
+    }
+  }
+
+  @Test
+  @SuppressWarnings("unchecked")
+  public void testSerialize() throws ClassNotFoundException, IOException {
+    final IdentityHashSet<String> set = new IdentityHashSet<>(100);
+    for (int i = 0; i < 100; ++i)
+      set.add(String.valueOf(i));
+
+    set.add(null);
+    final ByteArrayOutputStream out = new ByteArrayOutputStream();
+    try (final ObjectOutputStream oos = new ObjectOutputStream(out)) {
+      oos.writeObject(set);
+    }
+
+    try (final ObjectInputStream ois = new ObjectInputStream(new ByteArrayInputStream(out.toByteArray()))) {
+      final IdentityHashSet<String> copy = (IdentityHashSet<String>)ois.readObject();
+      assertEquals(set.size(), copy.size());
+      assertTrue(copy.contains(null));
+    }
+  }
+}
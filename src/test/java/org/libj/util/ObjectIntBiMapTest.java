@@ -0,0 +1,179 @@
+/* Copyright (c) 2012 LibJ
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * You should have received a copy of The MIT License (MIT) along with this
+ * program. If not, see <http://opensource.org/licenses/MIT/>.
+ */
+
+package org.libj.util;
+
+import static org.junit.Assert.*;
+
+import java.util.ConcurrentModificationException;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Random;
+
+import org.junit.Test;
+
+public class ObjectIntBiMapTest {
+  private static final class Collider {
+    private final int id;
+
+    private Collider(final int id) {
+      this.id = id;
+    }
+
+    @Override
+    public boolean equals(final Object obj) {
+      return obj instanceof Collider && ((Collider)obj).id == id;
+    }
+
+    @Override
+    public int hashCode() {
+      return id % 7;
+    }
+  }
+
+  private static void assertMap(final HashMap<Object,Integer> expected, final ObjectIntBiMap<Object> map) {
+    assertEquals(expected.size(), map.size());
+    assertEquals(expected.keySet(), new HashSet<>(map.keySet()));
+    for (final Map.Entry<Object,Integer> entry : expected.entrySet()) {
+      assertEquals((int)entry.getValue(), map.indexOf(entry.getKey()));
+      assertTrue(map.containsIndex(entry.getValue()));
+      assertEquals(entry.getKey(), map.get(entry.getValue()));
+    }
+  }
+
+  @Test
+  public void test() {
+    final ObjectIntBiMap<String> map = new ObjectIntBiMap<>();
+    assertTrue(map.isEmpty());
+    assertEquals(ObjectIntBiMap.NO_INDEX, map.indexOf("a"));
+    assertNull(map.get(0));
+    assertFalse(map.containsIndex(-1));
+
+    assertEquals(ObjectIntBiMap.NO_INDEX, map.put("a", 0));
+    assertEquals(ObjectIntBiMap.NO_INDEX, map.put(null, 5));
+    assertEquals(2, map.size());
+    assertEquals(5, map.indexOf(null));
+    assertTrue(map.containsIndex(5));
+    assertNull(map.get(5));
+    assertEquals("{a=0, null=5}", map.toString());
+
+    // Moving a key to another index unmaps its old index
+    assertEquals(0, map.put("a", 100));
+    assertFalse(map.containsIndex(0));
+    assertEquals("a", map.get(100));
+
+    // Mapping an index to another key removes its old key
+    assertEquals(ObjectIntBiMap.NO_INDEX, map.put("b", 100));
+    assertFalse(map.containsKey("a"));
+    assertEquals(2, map.size());
+
+    final ObjectIntBiMap<String> clone = map.clone();
+    assertEquals("b", map.removeIndex(100));
+    assertEquals(5, map.remove(null));
+    assertTrue(map.isEmpty());
+    assertEquals("{null=5, b=100}", clone.toString());
+
+    try {
+      map.put("c", -1);
+      fail("Expected IllegalArgumentException");
+    }
+    catch (final IllegalArgumentException e) {
+    }
+  }
+
+  @Test
+  public void testRandom() {
+    final Random random = new Random(0);
+    final HashMap<Object,Integer> expected = new HashMap<>();
+    final HashMap<Integer,Object> reverse = new HashMap<>();
+    final ObjectIntBiMap<Object> map = new ObjectIntBiMap<>(4);
+    for (int i = 0; i < 100000; ++i) {
+      final int k = random.nextInt(500);
+      final Object key = k == 0 ? null : k % 2 == 0 ? Integer.valueOf(k) : new Collider(k);
+      final int index = random.nextInt(600);
+      switch (random.nextInt(4)) {
+        case 0:
+        case 1:
+          final Integer previous = expected.remove(key);
+          if (previous != null)
+            reverse.remove(previous);
+
+          if (reverse.containsKey(index))
+            expected.remove(reverse.remove(index));
+
+          expected.put(key, index);
+          reverse.put(index, key);
+          assertEquals(previous == null ? ObjectIntBiMap.NO_INDEX : (int)previous, map.put(key, index));
+          break;
+        case 2:
+          final Integer removed = expected.remove(key);
+          if (removed != null)
+            reverse.remove(removed);
+
+          assertEquals(removed == null ? ObjectIntBiMap.NO_INDEX : (int)removed, map.remove(key));
+          break;
+        default:
+          final boolean contains = reverse.containsKey(index);
+          final Object removedKey = reverse.remove(index);
+          if (contains)
+            expected.remove(removedKey);
+
+          assertEquals(removedKey, map.removeIndex(index));
+      }
+    }
+
+    assertMap(expected, map);
+    assertMap(expected, map.clone());
+    map.clear();
+    assertTrue(map.isEmpty());
+    assertFalse(map.keySet().iterator().hasNext());
+  }
+
+  @Test
+  public void testKeySetIteratorRemove() {
+    final HashMap<Object,Integer> expected = new HashMap<>();
+    final ObjectIntBiMap<Object> map = new ObjectIntBiMap<>();
+    for (int i = 0; i < 1000; ++i) {
+      final Object key = i % 2 == 0 ? Integer.valueOf(i) : new Collider(i);
+      expected.put(key, i);
+      map.put(key, i);
+    }
+
+    int count = 0;
+    for (final Iterator<Object> iterator = map.keySet().iterator(); iterator.hasNext(); ++count) {
+      final Object key = iterator.next();
+      if (count % 3 != 0) {
+        iterator.remove();
+        expected.remove(key);
+      }
+    }
+
+    assertEquals(1000, count);
+    assertMap(expected, map);
+
+    final Iterator<Object> iterator = map.keySet().iterator();
+    iterator.next();
+    map.put("x", 2000);
+    try {
+      iterator.next();
+      fail("Expected ConcurrentModificationException");
+    }
+    catch (final ConcurrentModificationException e) {
+    }
+  }
+}
@@ -0,0 +1,95 @@
+/* Copyright (c) 2016 LibJ
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * You should have received a copy of The MIT License (MIT) along with this
+ * program. If not, see <http://opensource.org/licenses/MIT/>.
+ */
+
+package org.libj.util;
+
+import static org.junit.Assert.*;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Pattern;
+
+import org.junit.Test;
+
+public class PatternCacheTest {
+  @Test
+  public void testHitMiss() {
+    final PatternCache cache = new PatternCache();
+    final Pattern pattern = cache.compile("a+b", 0);
+    assertSame(pattern, cache.compile("a+b", 0));
+    assertNotSame(pattern, cache.compile("a+b", Pattern.CASE_INSENSITIVE));
+    assertEquals(2, cache.size());
+    assertEquals(1, cache.getHitCount());
+    assertEquals(2, cache.getMissCount());
+    assertEquals(0, cache.getEvictionCount());
+  }
+
+  @Test
+  public void testBounded() {
+    final PatternCache cache = new PatternCache(2);
+    final Pattern a = cache.compile("a", 0);
+    cache.compile("b", 0);
+    assertSame(a, cache.compile("a", 0));
+    cache.compile("c", 0);
+    assertEquals(2, cache.size());
+    assertEquals(1, cache.getEvictionCount());
+
+    // "a" was accessed, so "b" is evicted instead
+    assertSame(a, cache.compile("a", 0));
+
+    cache.setCapacity(0);
+    assertEquals(0, cache.size());
+    assertEquals(3, cache.getEvictionCount());
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testNegativeCapacity() {
+    new PatternCache(-1);
+  }
+
+  @Test
+  public void testConcurrentClear() throws InterruptedException {
+    final PatternCache cache = new PatternCache();
+    final ExecutorService executor = Executors.newFixedThreadPool(8);
+    for (int i = 0; i < 20000; ++i) {
+      final String regex = "[a-z]+" + i;
+      executor.execute(i % 100 == 0 ? cache::clear : () -> cache.compile(regex, 0));
+    }
+
+    executor.shutdown();
+    assertTrue(executor.awaitTermination(10, TimeUnit.SECONDS));
+
+    // Every pattern that survived the clears must still be evictable
+    cache.setCapacity(0);
+    assertEquals(0, cache.size());
+  }
+
+  @Test
+  public void testSingleFlight() throws InterruptedException {
+    final PatternCache cache = new PatternCache();
+    final ExecutorService executor = Executors.newFixedThreadPool(8);
+    for (int i = 0; i < 1000; ++i) {
+      final String regex = "[a-z]+" + (i % 10);
+      executor.execute(() -> cache.compile(regex, 0));
+    }
+
+    executor.shutdown();
+    assertTrue(executor.awaitTermination(10, TimeUnit.SECONDS));
+    assertEquals(10, cache.getMissCount());
+    assertEquals(990, cache.getHitCount());
+  }
+}
@@ -0,0 +1,107 @@
+/* Copyright (c) 2016 LibJ
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * You should have received a copy of The MIT License (MIT) along with this
+ * program. If not, see <http://opensource.org/licenses/MIT/>.
+ */
+
+package org.libj.util;
+
+import static org.junit.Assert.*;
+
+import java.util.regex.Pattern;
+
+import org.junit.Test;
+
+public class PatternMatcherTest {
+  private static final String[] inputs = {"", "abc", "xabc", "abcx", "abc\n", "a.c", "/api/v1/users/42", "/api/v1/users/", "/api/v2/users/42", "ab", "abbbc", "ac", "a/b", "a\\b", "a$b", "a-b", "a\nb", "a\tb", "aAb", "a\u00e9b", "a\u0007b", "b", "xab", "x"};
+
+  private static void assertMatcher(final String regex, final int flags, final String literal, final String prefix) {
+    final PatternMatcher matcher = Patterns.compileMatcher(regex, flags);
+    assertEquals(literal, matcher.getLiteral());
+    assertEquals(prefix, matcher.getPrefix());
+    final Pattern pattern = Pattern.compile(regex, flags);
+    for (final String input : inputs) {
+      assertEquals(regex + " matches " + input, pattern.matcher(input).matches(), matcher.matches(input));
+      assertEquals(regex + " find " + input, pattern.matcher(input).find(), matcher.find(input));
+      assertEquals(regex + " find " + input, pattern.matcher(input).find(), matcher.find(new StringBuilder(input)));
+    }
+  }
+
+  private static void assertMatcher(final String regex, final String literal, final String prefix) {
+    assertMatcher(regex, 0, literal, prefix);
+  }
+
+  @Test
+  public void testLiteral() {
+    assertMatcher("abc", "abc", "abc");
+    assertMatcher("^abc", "abc", "abc");
+    assertMatcher("abc$", "abc", "abc");
+    assertMatcher("^abc$", "abc", "abc");
+    assertMatcher("a\\.c", "a.c", "a.c");
+    assertMatcher("(abc)", null, null);
+    assertMatcher("a.c", Pattern.LITERAL, "a.c", "a.c");
+  }
+
+  @Test
+  public void testQuantifiers() {
+    assertMatcher("a{0,1}b", null, null);
+    assertMatcher("x{0,1}", null, null);
+    assertMatcher("ab{2}c", null, "a");
+    assertMatcher("ab?c", null, "a");
+  }
+
+  @Test
+  public void testAnchors() {
+    assertMatcher("^ab|ab", null, null);
+    assertMatcher("ab|ab$", null, null);
+    assertMatcher("^(a|x)b", null, null);
+    assertMatcher("$", "", "");
+    assertMatcher("^", "", "");
+    assertMatcher("^$", "", "");
+  }
+
+  @Test
+  public void testPrefix() {
+    assertMatcher("a.c", null, "a");
+    assertMatcher("ab+c", null, "ab");
+    assertMatcher("ab*c", null, "a");
+    assertMatcher("/api/v1/users/\\d+", null, "/api/v1/users/");
+    assertMatcher("^/api/v\\d/users/\\d*", null, "/api/v");
+  }
+
+  @Test
+  public void testRegex() {
+    assertMatcher("(a|x)bc", null, null);
+    assertMatcher("\\babc", null, null);
+    assertMatcher("(a)\\1bc", null, null);
+    assertMatcher("[a-z]+", null, null);
+    assertMatcher("abc", Pattern.CASE_INSENSITIVE, null, null);
+  }
+
+  @Test
+  public void testEscapes() {
+    assertMatcher("a\\/b", null, "a/b");
+    assertMatcher("a\\-b", null, "a-b");
+    assertMatcher("a\\$b", null, "a$b");
+    assertMatcher("a\\\\b", null, "a\\b");
+    assertMatcher("a\\^b", null, "a^b");
+    assertMatcher("a\\nb", null, "a");
+    assertMatcher("a\\tb", null, "a");
+    assertMatcher("a\\x41b", null, "a");
+    assertMatcher("a\\u00e9b", null, "a");
+    assertMatcher("a\\0101b", null, "a");
+    assertMatcher("a\\cGb", null, "a");
+    assertMatcher("a\\Q/\\Eb", null, "a");
+    assertMatcher("a\\|b", "a|b", "a|b");
+  }
+}
@@ -0,0 +1,99 @@
+/* Copyright (c) 2016 LibJ
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * You should have received a copy of The MIT License (MIT) along with this
+ * program. If not, see <http://opensource.org/licenses/MIT/>.
+ */
+
+package org.libj.util;
+
+import static org.junit.Assert.*;
+
+import java.util.Arrays;
+import java.util.regex.Pattern;
+
+import org.junit.Test;
+
+public class PatternSetTest {
+  private static final String[] inputs = {"", "/", "/api", "/api/v1/users", "/api/v1/users/42", "/api/v1/users/42/orders", "/api/v2/users/42", "/static/app.js", "/static/app.css", "/health", "/healthz", "/(a)(a)", "a/b", "a\\b", "a$b", "a-b", "a\nb", "ab", "b", "c"};
+
+  private static void assertPatternSet(final int flags, final String ... regexes) {
+    final PatternSet set = new PatternSet(flags, regexes);
+    assertEquals(regexes.length, set.size());
+    for (final String input : inputs) {
+      int first = -1;
+      final int[] all = new int[regexes.length];
+      int size = 0;
+      for (int i = 0; i < regexes.length; ++i) {
+        if (Pattern.compile(regexes[i], flags).matcher(input).matches()) {
+          if (first == -1)
+            first = i;
+
+          all[size++] = i;
+        }
+      }
+
+      assertEquals(input, first, set.matchFirst(input));
+      assertArrayEquals(Arrays.copyOf(all, size), set.matchAll(input));
+    }
+  }
+
+  @Test
+  public void testEmpty() {
+    assertPatternSet(0);
+  }
+
+  @Test
+  public void testRoutes() {
+    assertPatternSet(0, "/health", "/api/v1/users", "/api/v\\d/users/\\d+", "/api/v1/users/(?<id>\\d+)(/orders)?", "/static/.*\\.js", "/static/.*", ".*", "/healthz?");
+  }
+
+  @Test
+  public void testOverlappingLiterals() {
+    assertPatternSet(0, "/api.*", "/ap.*", "/api/v1.*", "pi/v.*", "/health", "/healthz");
+  }
+
+  @Test
+  public void testBackReference() {
+    assertPatternSet(0, "/(a)\\(a\\)", "/\\((a)\\)\\(\\1\\)", "/api/v1/users/\\d+");
+  }
+
+  @Test
+  public void testConflictingGroupNames() {
+    assertPatternSet(0, "/api/v(?<v>\\d)/users", "/api/v(?<v>\\d)/users/\\d+");
+  }
+
+  @Test
+  public void testFlags() {
+    assertPatternSet(Pattern.CASE_INSENSITIVE, "/API/V1/USERS", "/Static/.*", "/health");
+  }
+
+  @Test
+  public void testEscapedNonMetaChars() {
+    assertEquals(0, new PatternSet("a\\/b", "c.*").matchFirst("a/b"));
+    assertPatternSet(0, "a\\/b", "c.*");
+    assertPatternSet(0, "a\\\\b", "a\\$b", "a\\-b", "a\\nb", "a\\Q/\\Eb", "/health");
+  }
+
+  @Test
+  public void testLookbehind() {
+    assertPatternSet(0, "(?<=a)b", "c");
+    assertPatternSet(0, "(?<!a)b", "(?<n>c)");
+    assertPatternSet(0, ".(?<=a)b", "(?<n>a)b");
+  }
+
+  @Test
+  public void testEmptyLiteral() {
+    assertPatternSet(0, "a", "$");
+    assertPatternSet(0, "^", "c", "^$");
+  }
+}
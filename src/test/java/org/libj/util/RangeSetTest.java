@@ -0,0 +1,111 @@
+/* Copyright (c) 2012 LibJ
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * You should have received a copy of The MIT License (MIT) along with this
+ * program. If not, see <http://opensource.org/licenses/MIT/>.
+ */
+
+package org.libj.util;
+
+import static org.junit.Assert.*;
+
+import java.util.BitSet;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.Test;
+
+public class RangeSetTest {
+  @Test
+  public void testAddRemove() {
+    final RangeSet<Integer> set = new RangeSet<>();
+    set.add(10, 20);
+    set.add(30, 40);
+    assertEquals("[[10, 20), [30, 40)]", set.toString());
+    assertEquals("[[0, 10), [20, 30), [40, 50)]", set.gaps(0, 50).toString());
+    assertEquals("[[20, 30)]", set.gaps(15, 35).toString());
+    assertTrue(set.contains(12, 18));
+    assertFalse(set.contains(15, 35));
+
+    set.add(20, 30);
+    assertEquals("[[10, 40)]", set.toString());
+    assertTrue(set.gaps(10, 40).isEmpty());
+
+    set.remove(15, 25);
+    assertEquals("[[10, 15), [25, 40)]", set.toString());
+    set.remove(0, 12);
+    set.remove(35, 50);
+    assertEquals("[[12, 15), [25, 35)]", set.toString());
+
+    try {
+      set.add(2, 1);
+      fail("Expected IllegalArgumentException");
+    }
+    catch (final IllegalArgumentException e) {
+    }
+  }
+
+  @Test
+  public void testPollColdest() {
+    final RangeSet<Integer> set = new RangeSet<>();
+    set.add(0, 10);
+    set.add(20, 30);
+    set.add(40, 50);
+    set.touch(5, 6);
+    assertEquals("[20, 30)", set.pollColdest().toString());
+    assertEquals("[40, 50)", set.pollColdest().toString());
+    assertEquals("[0, 10)", set.pollColdest().toString());
+    assertNull(set.pollColdest());
+  }
+
+  @Test
+  public void testRandom() {
+    final Random random = new Random(1);
+    final RangeSet<Integer> set = new RangeSet<>();
+    final BitSet bits = new BitSet();
+    for (int i = 0; i < 10000; ++i) {
+      final int from = random.nextInt(200);
+      final int to = from + random.nextInt(20);
+      if (random.nextInt(3) == 0) {
+        set.remove(from, to);
+        bits.clear(from, to);
+      }
+      else {
+        set.add(from, to);
+        bits.set(from, to);
+      }
+
+      final int a = random.nextInt(200);
+      final int b = a + random.nextInt(50);
+      final List<RangeSet.Span<Integer>> gaps = set.gaps(a, b);
+      final BitSet covered = new BitSet();
+      covered.set(a, b);
+      for (final RangeSet.Span<Integer> gap : gaps) {
+        assertTrue(gap.getFrom() < gap.getTo());
+        for (int j = gap.getFrom(); j < gap.getTo(); ++j)
+          assertFalse(bits.get(j));
+
+        covered.clear(gap.getFrom(), gap.getTo());
+      }
+
+      for (int j = covered.nextSetBit(0); j >= 0; j = covered.nextSetBit(j + 1))
+        assertTrue(bits.get(j));
+
+      assertEquals(bits.get(a, b).cardinality() == b - a, set.contains(a, b));
+      Integer prev = null;
+      for (final RangeSet.Span<Integer> span : set.spans()) {
+        assertTrue(prev == null || prev < span.getFrom());
+        prev = span.getTo();
+      }
+    }
+  }
+}
@@ -0,0 +1,136 @@
+/* Copyright (c) 2012 LibJ
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * You should have received a copy of The MIT License (MIT) along with this
+ * program. If not, see <http://opensource.org/licenses/MIT/>.
+ */
+
+package org.libj.util;
+
+import static org.junit.Assert.*;
+
+import java.text.ParseException;
+import java.text.SimpleDateFormat;
+import java.time.ZoneId;
+import java.util.Date;
+import java.util.Locale;
+import java.util.TimeZone;
+
+import org.junit.Test;
+
+public class SimpleDateFormatsTest {
+  @Test
+  public void testFetchTimeZone() {
+    assertEquals(TimeZone.getTimeZone("America/New_York"), SimpleDateFormats.fetchTimeZone("America/New_York"));
+    assertEquals(2 * Dates.MILLISECONDS_IN_HOUR, SimpleDateFormats.fetchTimeZone("+0200").getRawOffset());
+    assertEquals(-(3 * Dates.MILLISECONDS_IN_HOUR + 30 * Dates.MILLISECONDS_IN_MINUTE), SimpleDateFormats.fetchTimeZone("-0330").getRawOffset());
+    assertEquals(5 * Dates.MILLISECONDS_IN_HOUR + 45 * Dates.MILLISECONDS_IN_MINUTE, SimpleDateFormats.fetchTimeZone("+0545").getRawOffset());
+    assertNull(SimpleDateFormats.fetchTimeZone("+0217"));
+    assertNull(SimpleDateFormats.fetchTimeZone("+02"));
+  }
+
+  @Test
+  public void testGetOffsetTimeZone() {
+    assertEquals(-(3 * Dates.MILLISECONDS_IN_HOUR + 30 * Dates.MILLISECONDS_IN_MINUTE), SimpleDateFormats.getOffsetTimeZone("-0330").getRawOffset());
+    assertSame(SimpleDateFormats.getOffsetTimeZone("+0200"), SimpleDateFormats.getOffsetTimeZone("+0200"));
+    assertNull(SimpleDateFormats.getOffsetTimeZone("GMT"));
+    assertNull(SimpleDateFormats.getOffsetTimeZone("+02:0"));
+  }
+
+  @Test
+  public void testIso1123() throws ParseException {
+    final String text = "Sun, 24 May 2020 09:20:55 +0200";
+    final Date date = SimpleDateFormats.ISO_1123.get().parse(text);
+    assertEquals(Dates.iso8601ToEpochMilli("2020-05-24T07:20:55Z"), date.getTime());
+    assertEquals(text, date.toString());
+  }
+
+  @Test
+  public void testCompiledIso1123() throws ParseException {
+    final long expected = Dates.iso8601ToEpochMilli("2020-05-24T07:20:55Z");
+    assertEquals(expected, SimpleDateFormats.ISO_1123_FORMAT.parse("Sun, 24 May 2020 09:20:55 +0200"));
+    assertEquals(expected, SimpleDateFormats.ISO_1123_FORMAT.parse("Sun, 24 May 2020 07:20:55 GMT"));
+    // As with ISO_1123, a Date is formatted with the zone name
+    assertEquals("Sun, 24 May 2020 09:20:55 CEST", SimpleDateFormats.ISO_1123_FORMAT.format(expected, ZoneId.of("Europe/Berlin")));
+    assertEquals(SimpleDateFormats.ISO_1123.get().format(new Date(expected)), SimpleDateFormats.ISO_1123_FORMAT.format(expected));
+    try {
+      SimpleDateFormats.compileDateFormat(Locale.US, "MMM dd").parse("May 24");
+      fail("Expected ParseException");
+    }
+    catch (final ParseException e) {
+    }
+
+    try {
+      SimpleDateFormats.ISO_1123_FORMAT.parse("24 May 2020");
+      fail("Expected ParseException");
+    }
+    catch (final ParseException e) {
+    }
+  }
+
+  private static void assertCompiled(final Locale locale, final String pattern) throws ParseException {
+    final CompiledDateFormat compiled = SimpleDateFormats.compileDateFormat(locale, pattern);
+    for (final String zone : new String[] {"UTC", "America/Los_Angeles", "Asia/Kolkata", "Australia/Lord_Howe"}) {
+      final SimpleDateFormat format = new SimpleDateFormat(pattern, locale);
+      format.setTimeZone(TimeZone.getTimeZone(zone));
+      for (long time = Dates.iso8601ToEpochMilli("1950-01-01T00:00:00Z"), end = Dates.iso8601ToEpochMilli("2040-01-01T00:00:00Z"); time < end; time += 86399999L * 37 + 3607001) {
+        final String text = format.format(new Date(time));
+        assertEquals(pattern + " " + zone, text, compiled.format(time, ZoneId.of(zone)));
+        // Zone names such as "IST" are ambiguous, and are therefore only parsed for zones with unique names, and with a time of day
+        if (pattern.indexOf('Z') > -1 || pattern.indexOf('X') > -1 || pattern.indexOf('z') > -1 && pattern.indexOf('H') > -1 && (zone.equals("UTC") || zone.equals("America/Los_Angeles")))
+          assertEquals(pattern + " " + text, format.parse(text).getTime(), compiled.parse(text));
+      }
+    }
+  }
+
+  @Test
+  public void testCompiledEquivalence() throws ParseException {
+    final String[] patterns = {
+      "EEE, dd MMM yyyy HH:mm:ss Z",
+      "EEE, dd MMM yyyy HH:mm:ss zz",
+      "EEEE, MMMM d, yy h:mm a zzzz",
+      "yyyyMMddHHmmssSSSZ",
+      "yyyy-MM-dd'T'HH:mm:ss.SSSXXX",
+      "yyyy-MM-dd'T'HH:mm:ssXX",
+      "G yyy-M-d H:m:s.S X",
+      "YYYY-'W'ww-u",
+      "D F W k K S 'o''clock' ''",
+      "LLLL LLL dd yyyy z",
+      "yyyy-MM-dd Z"
+    };
+
+    for (final String pattern : patterns)
+      assertCompiled(Locale.US, pattern);
+  }
+
+  @Test
+  public void testCompiledUnsupported() {
+    for (final String pattern : new String[] {"yyyy-MM-dd'T", "yyyy-MM-dd q", "XXXX"}) {
+      try {
+        SimpleDateFormats.compileDateFormat(pattern);
+        fail("Expected IllegalArgumentException: " + pattern);
+      }
+      catch (final IllegalArgumentException e) {
+      }
+    }
+  }
+
+  @Test
+  public void testCompiledIso8601() throws ParseException {
+    final SimpleDateFormat format = new SimpleDateFormat("yyyy-MM-dd'T'HH:mm:ss.SSS", Locale.getDefault(Locale.Category.FORMAT));
+    for (long time = Dates.iso8601ToEpochMilli("1900-01-01T00:00:00Z"), end = Dates.iso8601ToEpochMilli("2100-01-01T00:00:00Z"); time < end; time += 86399999L * 37) {
+      final String text = SimpleDateFormats.ISO_8601_FORMAT.format(time);
+      assertEquals(format.format(new Date(time)), text);
+      assertEquals(time, SimpleDateFormats.ISO_8601_FORMAT.parse(text));
+    }
+  }
+}
@@ -18,9 +18,20 @@ package org.libj.util;
 
 import static org.junit.Assert.*;
 
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
 import java.util.Map;
 import java.util.SortedMap;
 import java.util.TreeMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
 
 import org.junit.Test;
 import org.slf4j.Logger;
@@ -159,4 +170,345 @@ public class TieredRangeFetcherTest {
 //  CACHE -> (8, 26]
     assertEquals(18, cacheLoader.fetch(8, 26).size());
   }
-}
\ No newline at end of file
+
+  private static TieredRangeFetcher<Integer,Object> newCache(final TieredRangeFetcher<Integer,Object> next) {
+    return new TieredRangeFetcher<Integer,Object>(next) {
+      private final SortedMap<Integer,Object> cache = new TreeMap<>();
+      private Integer[] range;
+
+      @Override
+      protected Integer[] range() {
+        return range;
+      }
+
+      @Override
+      protected SortedMap<Integer,Object> select(final Integer from, final Integer to) {
+        synchronized (cache) {
+          return new TreeMap<>(cache.subMap(from, to));
+        }
+      }
+
+      @Override
+      protected void insert(final Integer from, final Integer to, final SortedMap<Integer,Object> data) {
+        range = range == null ? new Integer[] {from, to} : new Integer[] {Math.min(from, range[0]), Math.max(to, range[1])};
+        synchronized (cache) {
+          cache.putAll(data);
+        }
+      }
+    };
+  }
+
+  @Test
+  public void testFetchAsyncCoalescing() throws Exception {
+    final List<int[]> requests = Collections.synchronizedList(new ArrayList<>());
+    final CountDownLatch latch = new CountDownLatch(1);
+    final TieredRangeFetcher<Integer,Object> webLoader = new TieredRangeFetcher<Integer,Object>(null) {
+      private final Integer[] range = {Integer.MIN_VALUE, Integer.MAX_VALUE};
+
+      @Override
+      protected Integer[] range() {
+        return range;
+      }
+
+      @Override
+      protected SortedMap<Integer,Object> select(final Integer from, final Integer to) {
+        requests.add(new int[] {from, to});
+        try {
+          latch.await();
+        }
+        catch (final InterruptedException e) {
+          throw new IllegalStateException(e);
+        }
+
+        final SortedMap<Integer,Object> results = new TreeMap<>();
+        for (int i = from; i < to; ++i)
+          results.put(i, i);
+
+        return results;
+      }
+
+      @Override
+      protected void insert(final Integer from, final Integer to, final SortedMap<Integer,Object> data) {
+      }
+    };
+
+    final TieredRangeFetcher<Integer,Object> cacheLoader = newCache(webLoader);
+    final ExecutorService executor = Executors.newFixedThreadPool(8);
+    try {
+      final CompletableFuture<SortedMap<Integer,Object>> a = cacheLoader.fetchAsync(10, 20, executor);
+      final CompletableFuture<SortedMap<Integer,Object>> b = cacheLoader.fetchAsync(15, 30, executor);
+      final CompletableFuture<SortedMap<Integer,Object>> c = cacheLoader.fetchAsync(12, 18, executor);
+      latch.countDown();
+
+      assertEquals(10, a.get().size());
+      assertEquals(15, b.get().size());
+      assertEquals(6, c.get().size());
+      assertEquals(Integer.valueOf(15), b.get().firstKey());
+
+      // Each key was loaded from the web tier only once
+      final boolean[] loaded = new boolean[40];
+      for (final int[] request : requests) {
+        for (int i = request[0]; i < request[1]; ++i) {
+          assertFalse(String.valueOf(i), loaded[i]);
+          loaded[i] = true;
+        }
+      }
+
+      assertEquals(2, requests.size());
+
+      // Missing portions on both sides are fetched in parallel
+      requests.clear();
+      assertEquals(40, cacheLoader.fetchAsync(0, 40, executor).get().size());
+      assertEquals(2, requests.size());
+
+      requests.clear();
+      assertEquals(20, cacheLoader.fetchAsync(5, 25, executor).get().size());
+      assertEquals(0, requests.size());
+    }
+    finally {
+      executor.shutdown();
+    }
+  }
+
+  @Test
+  public void testFetchAsyncFailure() throws Exception {
+    final boolean[] fail = {true};
+    final TieredRangeFetcher<Integer,Object> webLoader = new TieredRangeFetcher<Integer,Object>(null) {
+      private final Integer[] range = {Integer.MIN_VALUE, Integer.MAX_VALUE};
+
+      @Override
+      protected Integer[] range() {
+        return range;
+      }
+
+      @Override
+      public CompletableFuture<SortedMap<Integer,Object>> fetchAsync(final Integer from, final Integer to, final Executor executor) {
+        if (fail[0])
+          throw new IllegalStateException();
+
+        return super.fetchAsync(from, to, executor);
+      }
+
+      @Override
+      protected SortedMap<Integer,Object> select(final Integer from, final Integer to) {
+        final SortedMap<Integer,Object> results = new TreeMap<>();
+        for (int i = from; i < to; ++i)
+          results.put(i, i);
+
+        return results;
+      }
+
+      @Override
+      protected void insert(final Integer from, final Integer to, final SortedMap<Integer,Object> data) {
+      }
+    };
+
+    final TieredRangeFetcher<Integer,Object> cacheLoader = newCache(webLoader);
+    try {
+      cacheLoader.fetchAsync(0, 10).get(5, TimeUnit.SECONDS);
+      fail("Expected ExecutionException");
+    }
+    catch (final ExecutionException e) {
+      assertEquals(IllegalStateException.class, e.getCause().getClass());
+    }
+
+    // The failed load is not left in flight, and a throwing listener does not leave the load in flight either
+    fail[0] = false;
+    cacheLoader.setListener(new TieredRangeFetcher.Listener<Integer>() {
+      @Override
+      public void onFetch(final Integer from, final Integer to, final int gaps) {
+      }
+
+      @Override
+      public void onLoad(final Integer from, final Integer to, final long nanos, final int size, final Throwable thrown) {
+        throw new UnsupportedOperationException();
+      }
+    });
+
+    assertEquals(10, cacheLoader.fetchAsync(0, 10).get(5, TimeUnit.SECONDS).size());
+    cacheLoader.setListener(null);
+    assertEquals(10, cacheLoader.fetchAsync(0, 10).get(5, TimeUnit.SECONDS).size());
+  }
+
+  @Test
+  public void testListenerBeforeInsert() throws Exception {
+    final TieredRangeFetcher<Integer,Object> webLoader = new TieredRangeFetcher<Integer,Object>(null) {
+      private final Integer[] range = {Integer.MIN_VALUE, Integer.MAX_VALUE};
+
+      @Override
+      protected Integer[] range() {
+        return range;
+      }
+
+      @Override
+      protected SortedMap<Integer,Object> select(final Integer from, final Integer to) {
+        final SortedMap<Integer,Object> results = new TreeMap<>();
+        for (int i = from; i < to; ++i)
+          results.put(i, i);
+
+        return results;
+      }
+
+      @Override
+      protected void insert(final Integer from, final Integer to, final SortedMap<Integer,Object> data) {
+      }
+    };
+
+    final TieredRangeFetcher<Integer,Object> cacheLoader = newCache(webLoader);
+    final List<Integer> inserted = Collections.synchronizedList(new ArrayList<>());
+    cacheLoader.setListener(new TieredRangeFetcher.Listener<Integer>() {
+      @Override
+      public void onFetch(final Integer from, final Integer to, final int gaps) {
+      }
+
+      @Override
+      public void onLoad(final Integer from, final Integer to, final long nanos, final int size, final Throwable thrown) {
+        inserted.add(cacheLoader.select(from, to).size());
+      }
+    });
+
+    cacheLoader.fetch(0, 10);
+    cacheLoader.fetchAsync(10, 20).get();
+    assertEquals(Arrays.asList(0, 0), inserted);
+  }
+
+  @Test
+  public void testCoverage() throws Exception {
+    final List<int[]> requests = Collections.synchronizedList(new ArrayList<>());
+    final TieredRangeFetcher<Integer,Object> webLoader = new TieredRangeFetcher<Integer,Object>(null) {
+      private final Integer[] range = {Integer.MIN_VALUE, Integer.MAX_VALUE};
+
+      @Override
+      protected Integer[] range() {
+        return range;
+      }
+
+      @Override
+      protected SortedMap<Integer,Object> select(final Integer from, final Integer to) {
+        requests.add(new int[] {from, to});
+        final SortedMap<Integer,Object> results = new TreeMap<>();
+        for (int i = from; i < to; ++i)
+          results.put(i, i);
+
+        return results;
+      }
+
+      @Override
+      protected void insert(final Integer from, final Integer to, final SortedMap<Integer,Object> data) {
+      }
+    };
+
+    final SortedMap<Integer,Object> cache = new TreeMap<>();
+    final TieredRangeFetcher<Integer,Object> cacheLoader = new TieredRangeFetcher<Integer,Object>(webLoader, new RangeSet<>()) {
+      @Override
+      protected SortedMap<Integer,Object> select(final Integer from, final Integer to) {
+        synchronized (cache) {
+          return new TreeMap<>(cache.subMap(from, to));
+        }
+      }
+
+      @Override
+      protected void insert(final Integer from, final Integer to, final SortedMap<Integer,Object> data) {
+        synchronized (cache) {
+          for (final Integer key : data.keySet())
+            assertNull("Attempted to insert a key that already exists: " + key, cache.put(key, data.get(key)));
+        }
+      }
+
+      @Override
+      protected void remove(final Integer from, final Integer to) {
+        synchronized (cache) {
+          cache.subMap(from, to).clear();
+        }
+      }
+    };
+
+    assertEquals(10, cacheLoader.fetch(0, 10).size());
+    assertEquals(10, cacheLoader.fetch(20, 30).size());
+    assertEquals("[[0, 10), [20, 30)]", cacheLoader.getCoverage().toString());
+
+    // Only the hole in between is fetched
+    requests.clear();
+    assertEquals(30, cacheLoader.fetch(0, 30).size());
+    assertEquals(1, requests.size());
+    assertArrayEquals(new int[] {10, 20}, requests.get(0));
+    assertEquals("[[0, 30)]", cacheLoader.getCoverage().toString());
+
+    assertEquals(10, cacheLoader.fetchAsync(40, 50).get().size());
+    requests.clear();
+    assertEquals(20, cacheLoader.fetchAsync(25, 45).get().size());
+    assertEquals(1, requests.size());
+    assertArrayEquals(new int[] {30, 40}, requests.get(0));
+
+    // The coldest span is evicted
+    cacheLoader.fetch(60, 70);
+    cacheLoader.fetch(0, 5);
+    assertEquals("[[0, 50), [60, 70)]", cacheLoader.getCoverage().toString());
+    assertTrue(cacheLoader.evict());
+    assertEquals("[[0, 50)]", cacheLoader.getCoverage().toString());
+    assertEquals(50, cache.size());
+    assertTrue(cacheLoader.evict());
+    assertFalse(cacheLoader.evict());
+    assertEquals(0, cache.size());
+  }
+
+  @Test
+  public void testMetrics() throws Exception {
+    final TieredRangeFetcher<Integer,Object> webLoader = new TieredRangeFetcher<Integer,Object>(null) {
+      private final Integer[] range = {Integer.MIN_VALUE, Integer.MAX_VALUE};
+
+      @Override
+      protected Integer[] range() {
+        return range;
+      }
+
+      @Override
+      protected SortedMap<Integer,Object> select(final Integer from, final Integer to) {
+        if (from < 0)
+          throw new IllegalArgumentException();
+
+        final SortedMap<Integer,Object> results = new TreeMap<>();
+        for (int i = from; i < to; ++i)
+          results.put(i, i);
+
+        return results;
+      }
+
+      @Override
+      protected void insert(final Integer from, final Integer to, final SortedMap<Integer,Object> data) {
+      }
+    };
+
+    final TieredRangeFetcher<Integer,Object> cacheLoader = newCache(webLoader);
+    final TieredRangeFetcherMetrics<Integer> metrics = new TieredRangeFetcherMetrics<>((from, to) -> to - from);
+    cacheLoader.setListener(metrics);
+    assertSame(metrics, cacheLoader.getListener());
+
+    cacheLoader.fetch(10, 20);
+    cacheLoader.fetch(12, 18);
+    cacheLoader.fetch(5, 25);
+    cacheLoader.fetchAsync(0, 30).get();
+    assertEquals(4, metrics.getRequestCount());
+    assertEquals(1, metrics.getHitCount());
+    assertEquals(0.25, metrics.getHitRatio(), 0);
+    assertEquals(5, metrics.getLoadCount());
+    assertEquals(30, metrics.getLoadedEntryCount());
+    assertEquals(66, metrics.getRequestedWidth(), 0);
+    assertEquals(30, metrics.getLoadedWidth(), 0);
+    assertTrue(metrics.getLoadLatency(0.99) > 0);
+    assertTrue(metrics.getLoadLatency(0.5) <= metrics.getLoadLatency(1));
+
+    try {
+      cacheLoader.fetch(-5, 30);
+      fail("Expected IllegalArgumentException");
+    }
+    catch (final IllegalArgumentException e) {
+    }
+
+    assertEquals(1, metrics.getFailureCount());
+
+    metrics.reset();
+    assertEquals(0, metrics.getRequestCount());
+    assertEquals(0, metrics.getLoadLatency(0.5));
+  }
+}
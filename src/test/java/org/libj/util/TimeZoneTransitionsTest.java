@@ -0,0 +1,71 @@
+/* Copyright (c) 2012 LibJ
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * You should have received a copy of The MIT License (MIT) along with this
+ * program. If not, see <http://opensource.org/licenses/MIT/>.
+ */
+
+package org.libj.util;
+
+import static org.junit.Assert.*;
+
+import java.time.Instant;
+import java.time.ZoneId;
+import java.util.Arrays;
+import java.util.Random;
+import java.util.TimeZone;
+
+import org.junit.Test;
+
+public class TimeZoneTransitionsTest {
+  private static final String[] zoneIds = {"UTC", "America/New_York", "America/Sao_Paulo", "Asia/Kolkata", "Australia/Lord_Howe", "Europe/Moscow", "Pacific/Apia", "America/Havana"};
+
+  private static long expected(final long time, final ZoneId zoneId) {
+    return Instant.ofEpochMilli(time).atZone(zoneId).toLocalDate().atStartOfDay(zoneId).toInstant().toEpochMilli();
+  }
+
+  @Test
+  public void testStartOfDay() {
+    final Random random = new Random(1);
+    for (final String id : zoneIds) {
+      final TimeZone timeZone = TimeZone.getTimeZone(id);
+      final TimeZoneTransitions transitions = new TimeZoneTransitions(timeZone);
+      final ZoneId zoneId = timeZone.toZoneId();
+      for (int i = 0; i < 100000; ++i) {
+        final long time = (random.nextLong() % (300L * 365 * Dates.MILLISECONDS_IN_DAY)) - 50L * 365 * Dates.MILLISECONDS_IN_DAY;
+        assertEquals(id + " " + time, expected(time, zoneId), transitions.startOfDay(time));
+        assertEquals(id + " " + time, zoneId.getRules().getOffset(Instant.ofEpochMilli(time)).getTotalSeconds() * 1000, transitions.getOffset(time));
+      }
+    }
+  }
+
+  @Test
+  public void testStartOfDayBatch() {
+    for (final String id : zoneIds) {
+      final TimeZone timeZone = TimeZone.getTimeZone(id);
+      final ZoneId zoneId = timeZone.toZoneId();
+      // Every 17 minutes over 2 years, which covers each transition
+      final long start = Instant.parse("2010-01-01T00:00:00Z").toEpochMilli();
+      final long[] times = new long[(int)(2L * 365 * Dates.MINUTES_IN_DAY / 17)];
+      for (int i = 0; i < times.length; ++i)
+        times[i] = start + i * 17L * Dates.MILLISECONDS_IN_MINUTE;
+
+      final long[] expected = new long[times.length];
+      for (int i = 0; i < times.length; ++i)
+        expected[i] = expected(times[i], zoneId);
+
+      final long[] actual = Arrays.copyOf(times, times.length);
+      Dates.dropTimePart(actual, 0, actual.length, timeZone);
+      assertArrayEquals(id, expected, actual);
+    }
+  }
+}
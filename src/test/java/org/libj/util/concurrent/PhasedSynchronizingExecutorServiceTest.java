@@ -0,0 +1,184 @@
+/* Copyright (c) 2017 LibJ
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * You should have received a copy of The MIT License (MIT) along with this
+ * program. If not, see <http://opensource.org/licenses/MIT/>.
+ */
+
+package org.libj.util.concurrent;
+
+import static org.junit.Assert.*;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Test;
+
+public class PhasedSynchronizingExecutorServiceTest {
+  private static final int tasks = 2000;
+
+  @Test
+  public void testSynchronize() throws InterruptedException {
+    final AtomicInteger running = new AtomicInteger();
+    final AtomicInteger finished = new AtomicInteger();
+    final AtomicInteger synchronizations = new AtomicInteger();
+    final String[] error = new String[1];
+    final PhasedSynchronizingExecutorService executorService = new PhasedSynchronizingExecutorService(Executors.newFixedThreadPool(16)) {
+      @Override
+      public void onSynchronize() {
+        if (getRunningThreadCount() != 0 || running.get() != 0)
+          error[0] = "getRunningThreadCount() = " + getRunningThreadCount() + ", running = " + running.get();
+
+        synchronizations.incrementAndGet();
+      }
+    };
+
+    final Thread synchronizer = new Thread(() -> {
+      try {
+        while (finished.get() < tasks) {
+          executorService.synchronize();
+          Thread.sleep(1);
+        }
+      }
+      catch (final InterruptedException e) {
+        error[0] = e.getMessage();
+      }
+    });
+    synchronizer.start();
+
+    final Thread[] submitters = new Thread[4];
+    for (int i = 0; i < submitters.length; ++i) {
+      submitters[i] = new Thread(() -> {
+        for (int j = 0; j < tasks / submitters.length; ++j) {
+          executorService.execute(() -> {
+            running.incrementAndGet();
+            try {
+              Thread.sleep((long)(Math.random() * 2));
+            }
+            catch (final InterruptedException e) {
+              throw new IllegalStateException(e);
+            }
+            finally {
+              running.decrementAndGet();
+              finished.incrementAndGet();
+            }
+          });
+        }
+      });
+      submitters[i].start();
+    }
+
+    for (final Thread submitter : submitters)
+      submitter.join();
+
+    synchronizer.join();
+    executorService.shutdown();
+    assertTrue(executorService.awaitTermination(10, TimeUnit.SECONDS));
+    assertNull(error[0], error[0]);
+    assertEquals(tasks, finished.get());
+    assertTrue(synchronizations.get() > 0);
+  }
+
+  @Test
+  public void testBlockedDuringSynchronize() throws InterruptedException {
+    final CountDownLatch release = new CountDownLatch(1);
+    final CountDownLatch synchronizing = new CountDownLatch(1);
+    final AtomicInteger executed = new AtomicInteger();
+    final PhasedSynchronizingExecutorService executorService = new PhasedSynchronizingExecutorService(Executors.newCachedThreadPool()) {
+      @Override
+      public void onSynchronize() {
+        assertEquals(0, executed.get());
+      }
+    };
+
+    executorService.execute(() -> {
+      synchronizing.countDown();
+      try {
+        release.await();
+      }
+      catch (final InterruptedException e) {
+        throw new IllegalStateException(e);
+      }
+    });
+
+    synchronizing.await();
+    assertEquals(1, executorService.getRunningThreadCount());
+    final Thread synchronizer = new Thread(() -> {
+      try {
+        executorService.synchronize();
+      }
+      catch (final InterruptedException e) {
+      }
+    });
+    synchronizer.start();
+    Thread.sleep(50);
+
+    final Thread submitter = new Thread(() -> executorService.execute(executed::incrementAndGet));
+    submitter.start();
+    Thread.sleep(50);
+    assertTrue(submitter.isAlive());
+    assertEquals(0, executed.get());
+
+    release.countDown();
+    synchronizer.join();
+    submitter.join();
+    executorService.shutdown();
+    assertTrue(executorService.awaitTermination(10, TimeUnit.SECONDS));
+    assertEquals(1, executed.get());
+  }
+
+  @Test
+  public void testInterrupt() throws InterruptedException {
+    final CountDownLatch release = new CountDownLatch(1);
+    final PhasedSynchronizingExecutorService executorService = new PhasedSynchronizingExecutorService(Executors.newCachedThreadPool()) {
+      @Override
+      public void onSynchronize() {
+        fail("Expected synchronize() to be aborted");
+      }
+    };
+
+    executorService.execute(() -> {
+      try {
+        release.await();
+      }
+      catch (final InterruptedException e) {
+        throw new IllegalStateException(e);
+      }
+    });
+
+    final boolean[] interrupted = new boolean[1];
+    final Thread synchronizer = new Thread(() -> {
+      try {
+        executorService.synchronize();
+      }
+      catch (final InterruptedException e) {
+        interrupted[0] = true;
+      }
+    });
+    synchronizer.start();
+    Thread.sleep(50);
+    synchronizer.interrupt();
+    synchronizer.join();
+    assertTrue(interrupted[0]);
+
+    // New tasks are admitted once the synchronization is aborted
+    final CountDownLatch executed = new CountDownLatch(1);
+    executorService.execute(executed::countDown);
+    assertTrue(executed.await(10, TimeUnit.SECONDS));
+
+    release.countDown();
+    executorService.shutdown();
+    assertTrue(executorService.awaitTermination(10, TimeUnit.SECONDS));
+  }
+}
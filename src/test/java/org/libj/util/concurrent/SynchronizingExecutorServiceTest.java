@@ -0,0 +1,126 @@
+/* Copyright (c) 2017 LibJ
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * You should have received a copy of The MIT License (MIT) along with this
+ * program. If not, see <http://opensource.org/licenses/MIT/>.
+ */
+
+package org.libj.util.concurrent;
+
+import static org.junit.Assert.*;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Test;
+
+public class SynchronizingExecutorServiceTest {
+  @Test
+  public void testExecuteAll() throws InterruptedException {
+    final AtomicInteger executed = new AtomicInteger();
+    final SynchronizingExecutorService executorService = new SynchronizingExecutorService(Executors.newFixedThreadPool(8)) {
+      @Override
+      public void onSynchronize() {
+        assertEquals(0, getRunningThreadCount());
+      }
+    };
+
+    final List<Runnable> commands = new ArrayList<>();
+    for (int i = 0; i < 100; ++i)
+      commands.add(executed::incrementAndGet);
+
+    executorService.executeAll(commands);
+    executorService.executeAll(Collections.emptyList());
+    executorService.synchronize();
+    assertEquals(100, executed.get());
+
+    try {
+      executorService.executeAll(Arrays.asList(executed::incrementAndGet, null));
+      fail("Expected NullPointerException");
+    }
+    catch (final NullPointerException e) {
+    }
+
+    executorService.synchronize();
+    assertEquals(100, executed.get());
+    executorService.shutdown();
+    assertTrue(executorService.awaitTermination(10, TimeUnit.SECONDS));
+  }
+
+  @Test
+  public void testMetrics() throws InterruptedException {
+    final CountDownLatch started = new CountDownLatch(1);
+    final CountDownLatch release = new CountDownLatch(1);
+    final AtomicInteger executed = new AtomicInteger();
+    final SynchronizingExecutorService executorService = new SynchronizingExecutorService(Executors.newCachedThreadPool()) {
+      @Override
+      public void onSynchronize() {
+        try {
+          Thread.sleep(20);
+        }
+        catch (final InterruptedException e) {
+          throw new IllegalStateException(e);
+        }
+      }
+    };
+
+    executorService.execute(() -> {
+      started.countDown();
+      try {
+        release.await();
+      }
+      catch (final InterruptedException e) {
+        throw new IllegalStateException(e);
+      }
+    });
+
+    started.await();
+    final Thread synchronizer = new Thread(() -> {
+      try {
+        executorService.synchronize();
+      }
+      catch (final InterruptedException e) {
+      }
+    });
+    synchronizer.start();
+    Thread.sleep(50);
+
+    final Thread submitter = new Thread(() -> executorService.executeAll(Arrays.asList(executed::incrementAndGet, executed::incrementAndGet)));
+    submitter.start();
+    Thread.sleep(50);
+    assertEquals(0, executed.get());
+
+    release.countDown();
+    synchronizer.join();
+    submitter.join();
+    executorService.shutdown();
+    assertTrue(executorService.awaitTermination(10, TimeUnit.SECONDS));
+    assertEquals(2, executed.get());
+
+    final SynchronizingExecutorServiceMetrics metrics = executorService.getMetrics();
+    assertEquals(1, metrics.getSynchronizeCount());
+    assertEquals(2, metrics.getBlockedTaskCount());
+    assertTrue(metrics.getDrainNanos() >= TimeUnit.MILLISECONDS.toNanos(50));
+    assertEquals(metrics.getDrainNanos(), metrics.getMaxDrainNanos());
+    assertTrue(metrics.getOnSynchronizeNanos() >= TimeUnit.MILLISECONDS.toNanos(20));
+
+    metrics.reset();
+    assertEquals(0, metrics.getSynchronizeCount());
+    assertEquals(0, metrics.getMaxDrainNanos());
+  }
+}
@@ -0,0 +1,126 @@
+/* Copyright (c) 2017 LibJ
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * You should have received a copy of The MIT License (MIT) along with this
+ * program. If not, see <http://opensource.org/licenses/MIT/>.
+ */
+
+package org.libj.util.concurrent;
+
+import static org.junit.Assert.*;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+public class VirtualThreadSynchronizingExecutorServiceTest {
+  private static final Logger logger = LoggerFactory.getLogger(VirtualThreadSynchronizingExecutorServiceTest.class);
+
+  private static final int tasks = 5000;
+  private static final int syncPeriod = 500;
+  private static final int threadRuntime = 2;
+
+  private static ExecutorService newVirtualThreadPerTaskExecutor() {
+    try {
+      return (ExecutorService)Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+    }
+    catch (final ReflectiveOperationException e) {
+      return null;
+    }
+  }
+
+  /**
+   * Submits {@link #tasks} sleeping tasks, synchronizing after every
+   * {@link #syncPeriod} tasks, and returns the elapsed time in milliseconds.
+   */
+  private static long run(final ExecutorService source) throws InterruptedException {
+    final AtomicInteger running = new AtomicInteger();
+    final AtomicInteger finished = new AtomicInteger();
+    final String[] error = new String[1];
+    final VirtualThreadSynchronizingExecutorService executorService = new VirtualThreadSynchronizingExecutorService(source) {
+      @Override
+      public void onSynchronize() {
+        if (getRunningThreadCount() != 0 || running.get() != 0)
+          error[0] = "getRunningThreadCount() = " + getRunningThreadCount() + ", running = " + running.get();
+
+        // Tasks submitted by onSynchronize() are admitted
+        execute(() -> {});
+      }
+    };
+
+    final long startTime = System.currentTimeMillis();
+    for (int i = 1; i <= tasks; ++i) {
+      executorService.execute(() -> {
+        running.incrementAndGet();
+        try {
+          Thread.sleep(threadRuntime);
+        }
+        catch (final InterruptedException e) {
+          throw new IllegalStateException(e);
+        }
+        finally {
+          running.decrementAndGet();
+          finished.incrementAndGet();
+        }
+      });
+
+      if (i % syncPeriod == 0)
+        executorService.synchronize();
+    }
+
+    executorService.shutdown();
+    assertTrue(executorService.awaitTermination(30, TimeUnit.SECONDS));
+    assertNull(error[0], error[0]);
+    assertEquals(tasks, finished.get());
+    assertEquals(0, executorService.getRunningThreadCount());
+    return System.currentTimeMillis() - startTime;
+  }
+
+  @Test
+  public void testPlatformThreads() throws InterruptedException {
+    run(Executors.newFixedThreadPool(64));
+  }
+
+  @Test
+  public void testVirtualThreads() throws InterruptedException {
+    final ExecutorService source = newVirtualThreadPerTaskExecutor();
+    if (source == null) {
+      logger.warn("Virtual threads are not supported by this JVM");
+      return;
+    }
+
+    run(source);
+  }
+
+  @Test
+  public void testBenchmark() throws InterruptedException {
+    // Warm up
+    run(Executors.newFixedThreadPool(64));
+
+    final long platformTime = run(Executors.newFixedThreadPool(64));
+    logger.info("Platform thread pool (64 threads): " + tasks + " tasks in " + platformTime + "ms");
+
+    final ExecutorService source = newVirtualThreadPerTaskExecutor();
+    if (source == null) {
+      logger.warn("Virtual threads are not supported by this JVM");
+      return;
+    }
+
+    final long virtualTime = run(source);
+    logger.info("Virtual thread per task: " + tasks + " tasks in " + virtualTime + "ms");
+  }
+}
@@ -0,0 +1,198 @@
+/* Copyright (c) 2018 LibJ
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * You should have received a copy of The MIT License (MIT) along with this
+ * program. If not, see <http://opensource.org/licenses/MIT/>.
+ */
+
+package org.libj.util.retry;
+
+import static org.junit.Assert.*;
+
+import org.junit.Test;
+
+public class CircuitBreakerTest {
+  private static RetryPolicy<RuntimeException> newPolicy(final int maxRetries) {
+    return new LinearDelayRetryPolicy<RuntimeException>(maxRetries, 1, true, 0) {
+      private static final long serialVersionUID = -6129432208117911296L;
+
+      @Override
+      protected boolean retryOn(final Exception e) {
+        return true;
+      }
+    };
+  }
+
+  @Test
+  public void testCircuitBreaker() throws InterruptedException {
+    final CircuitBreaker breaker = new CircuitBreaker(3, 50);
+    assertEquals(CircuitBreaker.State.CLOSED, breaker.getState());
+    breaker.onFailure();
+    breaker.onFailure();
+    breaker.onSuccess();
+    breaker.onFailure();
+    breaker.onFailure();
+    assertTrue(breaker.tryAcquire());
+    breaker.onFailure();
+    assertEquals(CircuitBreaker.State.OPEN, breaker.getState());
+    assertFalse(breaker.tryAcquire());
+
+    Thread.sleep(60);
+    assertEquals(CircuitBreaker.State.HALF_OPEN, breaker.getState());
+    assertTrue(breaker.tryAcquire());
+    assertFalse(breaker.tryAcquire());
+    breaker.onFailure();
+    assertEquals(CircuitBreaker.State.OPEN, breaker.getState());
+
+    Thread.sleep(60);
+    assertTrue(breaker.tryAcquire());
+    breaker.onSuccess();
+    assertEquals(CircuitBreaker.State.CLOSED, breaker.getState());
+    assertTrue(breaker.tryAcquire());
+  }
+
+  @Test
+  public void testAbandonedTrial() throws InterruptedException {
+    final CircuitBreaker breaker = new CircuitBreaker(1, 50);
+    breaker.onFailure();
+    Thread.sleep(60);
+    assertTrue(breaker.tryAcquire());
+    assertFalse(breaker.tryAcquire());
+
+    // The outcome of the trial is never recorded, so another trial is permitted after openMs
+    Thread.sleep(60);
+    assertEquals(CircuitBreaker.State.HALF_OPEN, breaker.getState());
+    assertTrue(breaker.tryAcquire());
+    assertFalse(breaker.tryAcquire());
+    breaker.onSuccess();
+    assertEquals(CircuitBreaker.State.CLOSED, breaker.getState());
+  }
+
+  @Test
+  public void testPolicyWithAbruptTrial() throws InterruptedException, RetryFailureException {
+    final boolean[] throwOnRetry = {true};
+    final RetryPolicy<RuntimeException> policy = new LinearDelayRetryPolicy<RuntimeException>(1, 1, true, 0) {
+      private static final long serialVersionUID = 6836093416285911764L;
+
+      @Override
+      protected boolean retryOn(final Exception e) {
+        return true;
+      }
+
+      @Override
+      protected void onRetry(final int attemptNo) {
+        if (throwOnRetry[0])
+          throw new IllegalStateException();
+      }
+    };
+
+    final CircuitBreaker breaker = new CircuitBreaker(1, 60000);
+    policy.setCircuitBreaker(breaker);
+
+    // A throwing onRetry is recorded as a failure, which opens the breaker
+    try {
+      policy.run((retryPolicy, attemptNo) -> "PASS");
+      fail("Expected IllegalStateException");
+    }
+    catch (final IllegalStateException e) {
+    }
+
+    assertEquals(CircuitBreaker.State.OPEN, breaker.getState());
+
+    // An Error thrown by a trial is recorded as a failure, which opens the breaker again instead of leaving it half-open
+    final CircuitBreaker halfOpen = new CircuitBreaker(1, 50);
+    policy.setCircuitBreaker(halfOpen);
+    throwOnRetry[0] = false;
+    halfOpen.onFailure();
+    Thread.sleep(60);
+    try {
+      policy.run((retryPolicy, attemptNo) -> {
+        throw new AssertionError();
+      });
+      fail("Expected AssertionError");
+    }
+    catch (final AssertionError e) {
+    }
+
+    assertEquals(CircuitBreaker.State.OPEN, halfOpen.getState());
+    assertFalse(halfOpen.tryAcquire());
+  }
+
+  @Test
+  public void testRetryBudget() {
+    final RetryBudget budget = new RetryBudget(0.5, 2);
+    assertTrue(budget.tryAcquire());
+    assertTrue(budget.tryAcquire());
+    assertFalse(budget.tryAcquire());
+    budget.onSuccess();
+    assertFalse(budget.tryAcquire());
+    budget.onSuccess();
+    assertTrue(budget.tryAcquire());
+    for (int i = 0; i < 10; ++i)
+      budget.onSuccess();
+
+    assertEquals(2, budget.getAvailable(), 0);
+  }
+
+  @Test
+  public void testPolicyWithBudget() throws RetryFailureException {
+    final RetryPolicy<RuntimeException> policy = newPolicy(10);
+    policy.setRetryBudget(new RetryBudget(0.1, 3));
+    final int[] attempts = {0};
+    try {
+      policy.run((retryPolicy, attemptNo) -> {
+        ++attempts[0];
+        throw new IllegalStateException();
+      });
+      fail("Expected RetryFailureException");
+    }
+    catch (final RetryFailureException e) {
+      assertEquals(RetryRejectedException.class, e.getCause().getClass());
+      assertEquals(IllegalStateException.class, e.getCause().getCause().getClass());
+    }
+
+    // The first attempt, and 3 retries of the budget
+    assertEquals(4, attempts[0]);
+  }
+
+  @Test
+  public void testPolicyWithCircuitBreaker() throws RetryFailureException {
+    final RetryPolicy<RuntimeException> policy = newPolicy(10);
+    final CircuitBreaker breaker = new CircuitBreaker(2, 60000);
+    policy.setCircuitBreaker(breaker);
+    final int[] attempts = {0};
+    try {
+      policy.run((retryPolicy, attemptNo) -> {
+        ++attempts[0];
+        throw new IllegalStateException();
+      });
+      fail("Expected RetryFailureException");
+    }
+    catch (final RetryFailureException e) {
+      assertEquals(RetryRejectedException.class, e.getCause().getClass());
+      assertEquals(3, e.getAttemptNo());
+    }
+
+    assertEquals(2, attempts[0]);
+    assertEquals(CircuitBreaker.State.OPEN, breaker.getState());
+
+    // Subsequent executions are rejected without an attempt
+    try {
+      policy.run((retryPolicy, attemptNo) -> "PASS");
+      fail("Expected RetryFailureException");
+    }
+    catch (final RetryFailureException e) {
+      assertEquals(1, e.getAttemptNo());
+      assertNull(e.getCause().getCause());
+    }
+  }
+}
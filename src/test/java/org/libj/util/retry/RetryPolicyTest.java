@@ -19,6 +19,9 @@ package org.libj.util.retry;
 import static org.junit.Assert.*;
 
 import java.io.IOException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
 
 import org.junit.Test;
 import org.slf4j.Logger;
@@ -166,4 +169,123 @@ public class RetryPolicyTest {
       return "PASS";
     }));
   }
-}
\ No newline at end of file
+
+  @Test
+  public void testRunAsync() throws Exception {
+    final int attempts = 5;
+    final int delayMs = 50;
+    final RetryPolicy<RuntimeException> policy = new LinearDelayRetryPolicy<RuntimeException>(attempts, delayMs, false, 0) {
+      private static final long serialVersionUID = -2433566431633254566L;
+
+      @Override
+      protected boolean retryOn(final Exception e) {
+        return e instanceof IllegalStateException;
+      }
+    };
+
+    // A single thread serves all attempts, because no thread sleeps between them
+    final ScheduledExecutorService executor = Executors.newSingleThreadScheduledExecutor();
+    try {
+      final long startTime = System.currentTimeMillis();
+      assertEquals("PASS", policy.runAsync((retryPolicy, attemptNo) -> {
+        if (attemptNo < 3)
+          throw new IllegalStateException();
+
+        return "PASS";
+      }, executor).get());
+      assertTrue(System.currentTimeMillis() - startTime >= 2 * delayMs);
+
+      try {
+        policy.runAsync((retryPolicy, attemptNo) -> {
+          throw new IllegalArgumentException();
+        }, executor).get();
+        fail("Expected ExecutionException");
+      }
+      catch (final ExecutionException e) {
+        assertEquals(RetryFailureException.class, e.getCause().getClass());
+        assertEquals(IllegalArgumentException.class, e.getCause().getCause().getClass());
+        assertEquals(1, ((RetryFailureException)e.getCause()).getAttemptNo());
+      }
+
+      try {
+        policy.runAsync((retryPolicy, attemptNo) -> {
+          throw new IllegalStateException();
+        }, executor).get();
+        fail("Expected ExecutionException");
+      }
+      catch (final ExecutionException e) {
+        assertEquals(attempts + 1, ((RetryFailureException)e.getCause()).getAttemptNo());
+      }
+
+      try {
+        policy.runAsync((retryPolicy, attemptNo) -> {
+          throw new IllegalStateException();
+        }, delayMs + 10, executor).get();
+        fail("Expected ExecutionException");
+      }
+      catch (final ExecutionException e) {
+        assertTrue(((RetryFailureException)e.getCause()).getAttemptNo() < attempts);
+      }
+    }
+    finally {
+      executor.shutdown();
+    }
+  }
+
+  @Test
+  public void testDecorrelatedJitterAndMetrics() throws Exception {
+    final int attempts = 8;
+    final int baseDelayMs = 2;
+    final int maxDelayMs = 10;
+    final long[] lastDelayMs = {0};
+    final RetryPolicy<RuntimeException> policy = new DecorrelatedJitterRetryPolicy<RuntimeException>(attempts, baseDelayMs, maxDelayMs) {
+      private static final long serialVersionUID = 2761307862935427715L;
+
+      @Override
+      protected boolean retryOn(final Exception e) {
+        return e instanceof IllegalStateException;
+      }
+
+      @Override
+      protected long getDelayMs(final int attemptNo, final long previousDelayMs) {
+        assertEquals(lastDelayMs[0], previousDelayMs);
+        final long delayMs = super.getDelayMs(attemptNo, previousDelayMs);
+        assertTrue(baseDelayMs <= delayMs && delayMs <= Math.min(maxDelayMs, Math.max(baseDelayMs, previousDelayMs * 3)));
+        return lastDelayMs[0] = delayMs;
+      }
+    };
+
+    assertEquals("PASS", policy.run((retryPolicy, attemptNo) -> {
+      if (attemptNo < 5)
+        throw new IllegalStateException();
+
+      return "PASS";
+    }));
+
+    assertEquals("PASS", policy.run((retryPolicy, attemptNo) -> "PASS"));
+
+    lastDelayMs[0] = 0;
+    try {
+      policy.run((retryPolicy, attemptNo) -> {
+        throw new IllegalArgumentException();
+      });
+      fail("Expected RetryFailureException");
+    }
+    catch (final RetryFailureException e) {
+    }
+
+    final RetryMetrics metrics = policy.getMetrics();
+    assertEquals(7, metrics.getAttemptCount());
+    assertEquals(2, metrics.getSuccessCount());
+    assertEquals(1, metrics.getSuccessCount(0));
+    assertEquals(1, metrics.getSuccessCount(4));
+    assertEquals(0, metrics.getSuccessCount(1));
+    assertEquals(1, metrics.getGiveUpCount());
+    assertEquals(0, metrics.getRejectionCount());
+    assertTrue(metrics.getDelayMs() >= 4 * baseDelayMs);
+
+    metrics.reset();
+    assertEquals(0, metrics.getAttemptCount());
+    assertEquals(0, metrics.getDelayMs());
+  }
+}